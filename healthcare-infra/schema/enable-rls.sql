@@ -10,5 +10,8 @@ ALTER TABLE encounters           ENABLE ROW LEVEL SECURITY;
 ALTER TABLE conditions           ENABLE ROW LEVEL SECURITY;
 ALTER TABLE allergies            ENABLE ROW LEVEL SECURITY;
 ALTER TABLE ai_analysis_results  ENABLE ROW LEVEL SECURITY;
+ALTER TABLE ai_analysis_triggers ENABLE ROW LEVEL SECURITY;
+ALTER TABLE ai_analysis_leases   ENABLE ROW LEVEL SECURITY;
+ALTER TABLE ai_screening_runs    ENABLE ROW LEVEL SECURITY;
 ALTER TABLE audit_logs           ENABLE ROW LEVEL SECURITY;
 ALTER TABLE organizations        ENABLE ROW LEVEL SECURITY;
@@ -55,6 +55,9 @@ ALL_TABLES=(
   "allergies"
   "audit_logs"
   "ai_analysis_results"
+  "ai_analysis_triggers"
+  "ai_analysis_leases"
+  "ai_screening_runs"
   "permissions"
   "triggers"
 )
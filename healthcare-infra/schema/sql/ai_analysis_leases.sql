@@ -0,0 +1,13 @@
+-- ai_analysis_leases.sql
+-- Marks an AI analysis in progress, one row per patient, across ai-service replicas.
+-- A replica claims the row in a short transaction under the patient's advisory lock, calls
+-- Gemini with no transaction open, then saves its result and deletes the row in a second short
+-- transaction. Other replicas wait for that result instead of calling Gemini for the same patient.
+-- A row past expires_at belongs to a replica that died mid-call and may be claimed again.
+
+CREATE TABLE IF NOT EXISTS ai_analysis_leases (
+    patient_id  UUID         PRIMARY KEY REFERENCES patients(id),
+    holder      UUID         NOT NULL,                -- random per analysis; only its holder deletes the row
+    expires_at  TIMESTAMPTZ  NOT NULL,                -- outlasts the Gemini call budget
+    created_at  TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
@@ -15,6 +15,7 @@ CREATE TABLE IF NOT EXISTS ai_analysis_results (
     triggered_by     UUID,                             -- provider user_id; null if debounce merged multiple providers
     model_version    VARCHAR(100) NOT NULL,            -- e.g. 'gemini-1.5-pro-002'
     input_record_ids JSONB        NOT NULL,            -- UUIDs of conditions/allergies included in this call
+    snapshot_digest  BYTEA,                            -- SHA-256 of canonical snapshot; used for change detection
     last_encounter_id UUID,                              -- encounter that triggered this analysis; null for legacy rows
     archived         BOOLEAN      NOT NULL DEFAULT FALSE, -- set by nightly maintenance; rows are never hard-deleted
     created_at       TIMESTAMPTZ  NOT NULL DEFAULT NOW()
@@ -27,10 +28,24 @@ ALTER TABLE ai_analysis_results
     ADD COLUMN IF NOT EXISTS last_encounter_id UUID REFERENCES encounters(id);
 ALTER TABLE ai_analysis_results
     ADD COLUMN IF NOT EXISTS archived BOOLEAN NOT NULL DEFAULT FALSE;
+-- NULL for rows written before this column existed — the next analysis for that patient fills it in
+ALTER TABLE ai_analysis_results
+    ADD COLUMN IF NOT EXISTS snapshot_digest BYTEA;
+
+-- an older idx_ai_results_patient_history without INCLUDE (snapshot_digest) is rebuilt once;
+-- the separate covering index it replaces is dropped
+DO $$ BEGIN
+    IF EXISTS (SELECT FROM pg_indexes WHERE indexname = 'idx_ai_results_patient_history'
+               AND indexdef NOT LIKE '%INCLUDE (snapshot_digest)%') THEN
+        DROP INDEX idx_ai_results_patient_history;
+    END IF;
+END $$;
+DROP INDEX IF EXISTS idx_ai_results_snapshot_digest;
 
--- composite index: covers all patient history queries (patient_id lookup + time ordering)
+-- composite index: covers all patient history queries (patient_id lookup + time ordering);
+-- INCLUDE lets the "has anything changed?" check read the latest snapshot_digest without touching the heap
 CREATE INDEX IF NOT EXISTS idx_ai_results_patient_history
-    ON ai_analysis_results (patient_id, generated_at DESC);
+    ON ai_analysis_results (patient_id, generated_at DESC) INCLUDE (snapshot_digest);
 
 -- encounter index: latest analysis per encounter (read API + provider history)
 CREATE INDEX IF NOT EXISTS idx_ai_results_encounter
@@ -0,0 +1,26 @@
+-- ai_analysis_triggers.sql
+-- Transactional outbox for AI re-analysis. One row per patient, never one per edit.
+-- provider-service upserts the row in the same transaction as the condition/allergy write,
+-- so a clinical edit and its re-analysis trigger commit or roll back together.
+-- ai-service claims rows once marked_at is older than the debounce window, re-analyzes the
+-- patient in the background, then deletes the row — unless a newer edit re-marked it meanwhile.
+
+CREATE TABLE IF NOT EXISTS ai_analysis_triggers (
+    patient_id      UUID         PRIMARY KEY REFERENCES patients(id),
+    trigger_type    VARCHAR(50)  NOT NULL,            -- latest CONDITION_ADDED / ALLERGY_ADDED in the burst
+    trigger_code    VARCHAR(20),                      -- code of the latest condition/allergy in the burst
+    triggered_by    UUID,                             -- provider user_id; null if the burst merged multiple providers
+    encounter_id    UUID,                             -- encounter of the latest edit
+    status          VARCHAR(20)  NOT NULL DEFAULT 'PENDING',  -- PENDING, PROCESSING, FAILED
+    marked_at       TIMESTAMPTZ  NOT NULL DEFAULT NOW(),      -- last edit; debounce window counts from here
+    lock_expires_at TIMESTAMPTZ,                      -- PROCESSING rows past this are reclaimed
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ,                      -- retry backoff after a failed analysis
+    last_error      TEXT,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    updated_at      TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
+
+-- poller index: due PENDING rows oldest first
+CREATE INDEX IF NOT EXISTS idx_ai_triggers_status_marked_at
+    ON ai_analysis_triggers (status, marked_at);
@@ -0,0 +1,39 @@
+-- ai_screening_runs.sql
+-- One row per batch AI screening sweep (nightly refresh of AI summaries for active patients).
+-- The sweep walks patients in id order; cursor_patient_id is the last patient whose page
+-- committed, and it commits in the same transaction as that page's results — so a sweep
+-- that dies is resumed from the cursor without re-analyzing or skipping anyone. Patients whose
+-- Gemini request failed are kept in retry_patient_ids as the cursor passes them, and retried
+-- once after the last page. owner_id names the sweep working the run: a takeover replaces it, and
+-- the previous sweep stops at its next heartbeat or commit instead of advancing the same cursor.
+
+CREATE TABLE IF NOT EXISTS ai_screening_runs (
+    id                 UUID         PRIMARY KEY,
+    status             VARCHAR(20)  NOT NULL,          -- RUNNING, COMPLETED, FAILED
+    cursor_patient_id  UUID,                           -- null until the first page commits
+    patients_scanned   INT          NOT NULL DEFAULT 0,
+    patients_changed   INT          NOT NULL DEFAULT 0,   -- snapshot digest differed from latest result
+    patients_analyzed  INT          NOT NULL DEFAULT 0,
+    patients_failed    INT          NOT NULL DEFAULT 0,   -- size of retry_patient_ids
+    retry_patient_ids  UUID[]       NOT NULL DEFAULT '{}',  -- failed, not yet analyzed by a retry
+    model_requests     INT          NOT NULL DEFAULT 0,
+    prompt_tokens      BIGINT       NOT NULL DEFAULT 0,   -- estimated (chars / 4)
+    started_at         TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    heartbeat_at       TIMESTAMPTZ  NOT NULL DEFAULT NOW(), -- RUNNING rows with a stale heartbeat are taken over
+    owner_id           UUID,                           -- sweep that holds the run; new on every start or takeover
+    finished_at        TIMESTAMPTZ,
+    last_error         TEXT
+);
+
+-- Migrations (idempotent — safe to re-run, must run before indexes)
+ALTER TABLE ai_screening_runs
+    ADD COLUMN IF NOT EXISTS retry_patient_ids UUID[] NOT NULL DEFAULT '{}';
+ALTER TABLE ai_screening_runs
+    ADD COLUMN IF NOT EXISTS owner_id UUID;
+
+-- at most one RUNNING sweep across all ai-service replicas
+CREATE UNIQUE INDEX IF NOT EXISTS idx_ai_screening_runs_one_running
+    ON ai_screening_runs (status) WHERE status = 'RUNNING';
+
+CREATE INDEX IF NOT EXISTS idx_ai_screening_runs_started_at
+    ON ai_screening_runs (started_at DESC);
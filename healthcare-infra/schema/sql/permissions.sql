@@ -58,6 +58,7 @@ GRANT SELECT, INSERT, UPDATE ON allergies TO provider_role;
 GRANT SELECT, INSERT, UPDATE ON encounters TO provider_role;
 GRANT SELECT ON patients TO provider_role;
 GRANT INSERT ON audit_logs TO provider_role;
+GRANT SELECT, INSERT, UPDATE ON ai_analysis_triggers TO provider_role;   -- outbox upsert (ON CONFLICT needs SELECT)
 
 -- =============================================================================
 -- appointment_role
@@ -104,6 +105,9 @@ GRANT SELECT ON encounters  TO ai_role;
 GRANT SELECT, INSERT        ON ai_analysis_results          TO ai_role;
 GRANT UPDATE (archived)     ON ai_analysis_results          TO ai_role;
 GRANT INSERT                ON audit_logs                   TO ai_role;
+GRANT SELECT, UPDATE, DELETE ON ai_analysis_triggers        TO ai_role;
+GRANT SELECT, INSERT, UPDATE, DELETE ON ai_analysis_leases  TO ai_role;   -- claim upsert (ON CONFLICT needs SELECT)
+GRANT SELECT, INSERT, UPDATE ON ai_screening_runs           TO ai_role;
 
 DO $$ BEGIN
     IF NOT EXISTS (SELECT FROM pg_roles WHERE rolname = 'ai_service_user') THEN
@@ -195,6 +195,17 @@ class AiAnalysisIT extends BaseIT {
             .body("$", isA(java.util.List.class));
     }
 
+    @Test
+    void getAiAnalysisPage_asProvider_returns200_withItems() {
+        LoginHelper.asProvider()
+            .queryParam("size", 5)
+            .when().get(ApiPaths.AI_ANALYSES, PATIENT_ID)
+            .then()
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .body("items", isA(java.util.List.class));
+    }
+
     @Test
     void getLatestAiResult_withoutToken_returns401() {
         given()
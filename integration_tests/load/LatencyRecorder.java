@@ -0,0 +1,77 @@
+package load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-endpoint latency samples for one load run. Endpoints are route templates
+ * ("GET /api/provider/patients/{id}"), so every patient's request lands in the same row.
+ *
+ * Every sample is kept — a 10-minute run at a few hundred requests per second is a few
+ * hundred thousand longs — so percentiles are exact (nearest rank), not estimated.
+ * Nothing is recorded until {@link #start()}, which is how warmup is excluded.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    void start() {
+        recording.set(true);
+    }
+
+    /** status 0 means the request never got a response (connect failure, timeout). */
+    void record(String endpoint, long latencyNanos, int status) {
+        if (recording.get()) {
+            endpoints.computeIfAbsent(endpoint, e -> new Endpoint()).add(latencyNanos, status);
+        }
+    }
+
+    /** Snapshot sorted by endpoint name; the run keeps going if called early. */
+    Map<String, Summary> summarize(double seconds) {
+        Map<String, Summary> summaries = new TreeMap<>();
+        endpoints.forEach((name, endpoint) -> summaries.put(name, endpoint.summarize(seconds)));
+        return summaries;
+    }
+
+    record Summary(long count, long errors, Map<Integer, Long> errorsByStatus, double throughput,
+                   double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+
+    private static final class Endpoint {
+
+        private long[] samples = new long[1024];
+        private int size;
+        private final Map<Integer, Long> errorsByStatus = new TreeMap<>();
+
+        synchronized void add(long latencyNanos, int status) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = latencyNanos;
+            if (status == 0 || status >= 400) {
+                errorsByStatus.merge(status, 1L, Long::sum);
+            }
+        }
+
+        synchronized Summary summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            long errors = errorsByStatus.values().stream().mapToLong(Long::longValue).sum();
+            return new Summary(size, errors, new TreeMap<>(errorsByStatus), size / seconds,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p / 100 * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
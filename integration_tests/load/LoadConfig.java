@@ -0,0 +1,79 @@
+package load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load-test settings, read from system properties so run-load.sh and a plain
+ * {@code mvn exec:java -D...} behave the same.
+ *
+ * The population sizes must match the ones seed-population.sql was run with: the
+ * load generator derives ids and usernames from them instead of querying the database.
+ */
+public record LoadConfig(
+        String gatewayUrl,
+        int patients,
+        int providers,
+        int patientAccounts,
+        int encounters,
+        double rate,
+        Duration duration,
+        Duration warmup,
+        int maxInFlight,
+        Map<String, Integer> mix,
+        long seed,
+        String password,
+        String reportDir) {
+
+    /** Scenario weights when load.mix is not set; see docs/guides/load-testing.md. */
+    public static final String DEFAULT_MIX =
+            "login:5,patient-chart:25,encounter-page:25,provider-chart:25,condition-write:15,ai-request:5";
+
+    public static LoadConfig fromSystemProperties() {
+        int patients  = intProperty("load.patients", 10_000);
+        int providers = intProperty("load.providers", Math.max(10, patients / 200));
+        return new LoadConfig(
+                System.getProperty("gateway.url", "http://localhost:8080"),
+                patients,
+                providers,
+                intProperty("load.patient-accounts", Math.min(patients, 10_000)),
+                intProperty("load.encounters", 20),
+                Double.parseDouble(System.getProperty("load.rate", "50")),
+                Duration.ofSeconds(intProperty("load.duration", 300)),
+                Duration.ofSeconds(intProperty("load.warmup", 30)),
+                intProperty("load.max-in-flight", 2_000),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX)),
+                Long.parseLong(System.getProperty("load.seed", "42")),
+                System.getProperty("load.password", "LoadTest1@"),
+                System.getProperty("load.report-dir", "target/load"));
+    }
+
+    /** "name:weight,name:weight" in declaration order; unknown names fail fast. */
+    static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("load.mix entry must be name:weight, got '" + entry + "'");
+            }
+            String name = parts[0].trim();
+            if (!Scenarios.NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown scenario '" + name + "' — expected one of " + Scenarios.NAMES);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(name, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no scenario with a positive weight");
+        }
+        return mix;
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
@@ -0,0 +1,169 @@
+package load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the gateway.
+ *
+ * Scenarios start at a fixed rate (load.rate per second) whatever the system's response
+ * times, each on its own virtual thread — users keep arriving when the system slows down,
+ * which a closed loop of N threads would hide. Scenario i's choice and patient come from
+ * Random(seed, i), so two runs with the same settings send the same requests in the same
+ * order.
+ *
+ * Run through run-load.sh, or:
+ *   mvn exec:java -f integration_tests/pom.xml -Dexec.mainClass=load.LoadTest \
+ *       -Dload.patients=100000 -Dload.rate=100 -Dload.duration=300
+ *
+ * Prints p50/p95/p99 latency and throughput per endpoint and writes the same report as
+ * JSON and text to load.report-dir (target/load by default).
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        Population population = new Population(config);
+        LatencyRecorder recorder = new LatencyRecorder();
+        Scenarios scenarios = new Scenarios(config, population, recorder);
+
+        List<String> weighted = new ArrayList<>();
+        config.mix().forEach((name, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(name);
+            }
+        });
+
+        System.out.printf(Locale.ROOT, "Load test against %s: %d patients (%d with logins), %d providers%n",
+                config.gatewayUrl(), config.patients(), population.patientAccounts(), config.providers());
+        System.out.printf(Locale.ROOT, "%.1f scenarios/s for %ds after %ds warmup, mix %s, seed %d%n",
+                config.rate(), config.duration().toSeconds(), config.warmup().toSeconds(), config.mix(), config.seed());
+
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        AtomicLong dropped = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate());
+        long warmupEnd = config.warmup().toNanos();
+        long end = warmupEnd + config.duration().toNanos();
+
+        long t0 = System.nanoTime();
+        boolean measuring = false;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long offset = i * intervalNanos;
+                if (offset >= end) {
+                    break;
+                }
+                if (!measuring && offset >= warmupEnd) {
+                    recorder.start();
+                    measuring = true;
+                    System.out.println("Warmup done, measuring...");
+                }
+                long intendedStart = t0 + offset;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Random random = new Random(config.seed() * 1_000_003L + i);
+                String scenario = weighted.get(random.nextInt(weighted.size()));
+                if (!inFlight.tryAcquire()) {
+                    // the generator is the bottleneck, not the system under test: say so in the report
+                    if (measuring) {
+                        dropped.incrementAndGet();
+                    }
+                    continue;
+                }
+                boolean counted = measuring;
+                executor.submit(() -> {
+                    try {
+                        scenarios.run(scenario, random, intendedStart);
+                    } catch (RuntimeException e) {
+                        if (counted) {
+                            failed.incrementAndGet();
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double seconds = config.duration().toNanos() / 1e9;
+
+        Map<String, LatencyRecorder.Summary> summaries = recorder.summarize(seconds);
+        String report = report(config, summaries, dropped.get(), failed.get());
+        System.out.println();
+        System.out.print(report);
+        write(config, summaries, report, dropped.get(), failed.get());
+    }
+
+    private static String report(LoadConfig config, Map<String, LatencyRecorder.Summary> summaries,
+                                 long dropped, long failed) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-52s %8s %7s %8s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        summaries.forEach((endpoint, s) -> out.append(String.format(Locale.ROOT,
+                "%-52s %8d %7d %8.1f %9.1f %9.1f %9.1f %9.1f%n",
+                endpoint, s.count(), s.errors(), s.throughput(), s.p50Ms(), s.p95Ms(), s.p99Ms(), s.maxMs())));
+        summaries.forEach((endpoint, s) -> {
+            if (s.errors() > 0) {
+                out.append(String.format(Locale.ROOT, "  %s errors by status: %s%n", endpoint, s.errorsByStatus()));
+            }
+        });
+        out.append(String.format(Locale.ROOT, "%nscenarios aborted (login failed or no response): %d%n", failed));
+        out.append(String.format(Locale.ROOT, "scenarios dropped (load.max-in-flight=%d reached): %d%n",
+                config.maxInFlight(), dropped));
+        if (dropped > 0) {
+            out.append("  → the generator could not keep up; raise load.max-in-flight or lower load.rate\n");
+        }
+        return out.toString();
+    }
+
+    private static void write(LoadConfig config, Map<String, LatencyRecorder.Summary> summaries, String report,
+                              long dropped, long failed) throws IOException {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("gateway", config.gatewayUrl());
+        settings.put("patients", config.patients());
+        settings.put("providers", config.providers());
+        settings.put("patient_accounts", config.patientAccounts());
+        settings.put("encounters", config.encounters());
+        settings.put("rate", config.rate());
+        settings.put("duration_s", config.duration().toSeconds());
+        settings.put("warmup_s", config.warmup().toSeconds());
+        settings.put("mix", config.mix());
+        settings.put("seed", config.seed());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", settings);
+        result.put("scenarios_dropped", dropped);
+        result.put("scenarios_aborted", failed);
+        result.put("endpoints", summaries);
+
+        Path dir = Path.of(config.reportDir());
+        Files.createDirectories(dir);
+        String name = "load-" + Instant.now().truncatedTo(ChronoUnit.SECONDS).toString().replace(":", "");
+        new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(dir.resolve(name + ".json").toFile(), result);
+        Files.writeString(dir.resolve(name + ".txt"), report);
+        System.out.println("\nReport written to " + dir.resolve(name) + ".{json,txt}");
+    }
+}
@@ -0,0 +1,57 @@
+package load;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Java side of seed-population.sql: the same ids, usernames and per-patient sizes, derived
+ * from the patient number. A change to the shape of the seeded data has to be made in both.
+ */
+final class Population {
+
+    static final int ENCOUNTER_PAGE_SIZE = 20;   // patient-service default for /me/encounters
+
+    private final int patients;
+    private final int providers;
+    private final int patientAccounts;
+    private final int encounters;
+
+    Population(LoadConfig config) {
+        this.patients        = config.patients();
+        this.providers       = config.providers();
+        this.patientAccounts = Math.min(config.patientAccounts(), config.patients());
+        this.encounters      = config.encounters();
+    }
+
+    int patients()        { return patients; }
+    int patientAccounts() { return patientAccounts; }
+
+    UUID patientId(int n)              { return id("patient", n, null); }
+    UUID encounterId(int n, int index) { return id("encounter", n, index); }
+
+    /** Every encounter of patient n is with this provider. */
+    int providerOf(int n) { return n % providers; }
+
+    int encounterCount(int n) { return encounters / 2 + n % (encounters + 1); }
+
+    int encounterPages(int n) { return Math.max(1, (encounterCount(n) + ENCOUNTER_PAGE_SIZE - 1) / ENCOUNTER_PAGE_SIZE); }
+
+    static String patientUsername(int n)  { return "lt_patient_" + n; }
+    static String providerUsername(int k) { return "lt_provider_" + k; }
+
+    /** md5('lt-<kind>-<n>[-<index>]')::uuid, as pg_temp.lt_id in seed-population.sql. */
+    static UUID id(String kind, int n, Integer index) {
+        String key = "lt-" + kind + "-" + n + (index == null ? "" : "-" + index);
+        try {
+            byte[] md5 = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            String hex = HexFormat.of().formatHex(md5);
+            return UUID.fromString(hex.substring(0, 8) + "-" + hex.substring(8, 12) + "-"
+                    + hex.substring(12, 16) + "-" + hex.substring(16, 20) + "-" + hex.substring(20));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import util.ApiPaths;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The user journeys a load run mixes, each a short sequence of gateway calls made the way
+ * the frontend makes them. Every call is recorded under its route template.
+ *
+ * Logins outside the login scenario go through a token cache — a real user logs in once and
+ * then browses — and are recorded under the login endpoint like any other. Tokens are
+ * renewed before the 15-minute access-token lifetime runs out and dropped on a 401.
+ */
+final class Scenarios {
+
+    static final List<String> NAMES = List.of(
+            "login", "patient-chart", "encounter-page", "provider-chart", "provider-browse", "condition-write",
+            "ai-request");
+
+    /** Re-login before the auth-service's 15-minute access tokens expire. */
+    private static final long TOKEN_TTL_NANOS = Duration.ofMinutes(12).toNanos();
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LoadConfig config;
+    private final Population population;
+    private final LatencyRecorder recorder;
+    private final HttpClient client;
+    private final Map<String, Token> tokens = new ConcurrentHashMap<>();
+    private final AtomicLong conditionCounter = new AtomicLong();
+    private final String runTag = Long.toString(System.currentTimeMillis() / 1000, 36).toUpperCase();
+
+    Scenarios(LoadConfig config, Population population, LatencyRecorder recorder) {
+        this.config = config;
+        this.population = population;
+        this.recorder = recorder;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    /**
+     * Runs one scenario. The first request is timed from {@code intendedStartNanos}, when the
+     * open-model schedule wanted the user to arrive, so a stalled system shows up as latency
+     * rather than as fewer requests (no coordinated omission).
+     */
+    void run(String name, Random random, long intendedStartNanos) {
+        Start start = new Start(intendedStartNanos);
+        switch (name) {
+            case "login"           -> login(random, start);
+            case "patient-chart"   -> patientChart(random, start);
+            case "encounter-page"  -> encounterPage(random, start);
+            case "provider-chart"  -> providerChart(random, start);
+            case "provider-browse" -> providerBrowse(random, start);
+            case "condition-write" -> conditionWrite(random, start);
+            case "ai-request"      -> aiRequest(random, start);
+            default -> throw new IllegalArgumentException("Unknown scenario " + name);
+        }
+    }
+
+    // ── Scenarios ────────────────────────────────────────────────────────────
+
+    /** A fresh login, uncached: three patients for every provider. */
+    private void login(Random random, Start start) {
+        String username = random.nextInt(4) == 0
+                ? Population.providerUsername(population.providerOf(random.nextInt(population.patients())))
+                : Population.patientUsername(random.nextInt(population.patientAccounts()));
+        login(username, start);
+    }
+
+    /** Patient opens their chart: profile, conditions, allergies. */
+    private void patientChart(Random random, Start start) {
+        String username = Population.patientUsername(random.nextInt(population.patientAccounts()));
+        String token = token(username, start);
+        get("GET " + ApiPaths.PATIENT_ME,         ApiPaths.PATIENT_ME,         username, token, start);
+        get("GET " + ApiPaths.PATIENT_CONDITIONS, ApiPaths.PATIENT_CONDITIONS, username, token, start);
+        get("GET " + ApiPaths.PATIENT_ALLERGIES,  ApiPaths.PATIENT_ALLERGIES,  username, token, start);
+    }
+
+    /** Patient pages through their encounter history; long histories have more pages. */
+    private void encounterPage(Random random, Start start) {
+        int n = random.nextInt(population.patientAccounts());
+        String username = Population.patientUsername(n);
+        String token = token(username, start);
+        int page = random.nextInt(population.encounterPages(n));
+        get("GET " + ApiPaths.PATIENT_ENCOUNTERS + "?page",
+                ApiPaths.PATIENT_ENCOUNTERS + "?page=" + page + "&size=" + Population.ENCOUNTER_PAGE_SIZE,
+                username, token, start);
+    }
+
+    /** Provider opens one of their patients: demographics, conditions, allergies. */
+    private void providerChart(Random random, Start start) {
+        int n = random.nextInt(population.patients());
+        String username = Population.providerUsername(population.providerOf(n));
+        String token = token(username, start);
+        String base = ApiPaths.PROVIDER_PATIENTS + "/" + population.patientId(n);
+        get("GET " + ApiPaths.PROVIDER_PATIENTS + "/{id}",            base,                 username, token, start);
+        get("GET " + ApiPaths.PROVIDER_PATIENTS + "/{id}/conditions", base + "/conditions", username, token, start);
+        get("GET " + ApiPaths.PROVIDER_PATIENTS + "/{id}/allergies",  base + "/allergies",  username, token, start);
+    }
+
+    /** Provider reads across services: patient list, one patient, their AI history and encounters. */
+    private void providerBrowse(Random random, Start start) {
+        int n = random.nextInt(population.patients());
+        String username = Population.providerUsername(population.providerOf(n));
+        String token = token(username, start);
+        String patientId = population.patientId(n).toString();
+        get("GET " + ApiPaths.PROVIDER_PATIENTS,           ApiPaths.PROVIDER_PATIENTS,                   username, token, start);
+        get("GET " + ApiPaths.PROVIDER_PATIENTS + "/{id}", ApiPaths.PROVIDER_PATIENTS + "/" + patientId, username, token, start);
+        get("GET " + ApiPaths.AI_HISTORY,
+                ApiPaths.AI_HISTORY.replace("{patientId}", patientId), username, token, start);
+        get("GET " + ApiPaths.ENCOUNTERS_PROVIDER_PATIENT,
+                ApiPaths.ENCOUNTERS_PROVIDER_PATIENT.replace("{patientId}", patientId), username, token, start);
+    }
+
+    /** Provider records a condition on one of their encounters; codes are unique per run. */
+    private void conditionWrite(Random random, Start start) {
+        int n = random.nextInt(population.patients());
+        String username = Population.providerUsername(population.providerOf(n));
+        String token = token(username, start);
+        UUID encounterId = population.encounterId(n, random.nextInt(population.encounterCount(n)));
+        String body = json(Map.of(
+                "code",        "LT" + runTag + Long.toString(conditionCounter.incrementAndGet(), 36).toUpperCase(),
+                "system",      "SNOMED-CT",
+                "description", "Load test condition (finding)",
+                "start_date",  LocalDate.of(2024, 6, 1).toString()));
+        post("POST " + ApiPaths.PROVIDER_ENCOUNTER_CONDITIONS,
+                ApiPaths.PROVIDER_ENCOUNTER_CONDITIONS.replace("{encounterId}", encounterId.toString()),
+                body, username, token, start);
+    }
+
+    /** Provider asks for a synchronous analysis of one of their encounters (Gemini stub behind it). */
+    private void aiRequest(Random random, Start start) {
+        int n = random.nextInt(population.patients());
+        String username = Population.providerUsername(population.providerOf(n));
+        String token = token(username, start);
+        UUID encounterId = population.encounterId(n, random.nextInt(population.encounterCount(n)));
+        post("POST " + ApiPaths.AI_REQUEST,
+                ApiPaths.AI_REQUEST.replace("{encounterId}", encounterId.toString()),
+                "", username, token, start);
+    }
+
+    // ── Tokens ───────────────────────────────────────────────────────────────
+
+    private record Token(CompletableFuture<String> value, long issuedNanos) {
+        boolean usable() {
+            return !value.isCompletedExceptionally() && System.nanoTime() - issuedNanos < TOKEN_TTL_NANOS;
+        }
+    }
+
+    /** One login per user however many scenarios ask for it at once. */
+    private String token(String username, Start start) {
+        Token fresh = new Token(new CompletableFuture<>(), System.nanoTime());
+        Token current = tokens.compute(username, (key, existing) ->
+                existing != null && existing.usable() ? existing : fresh);
+        if (current == fresh) {
+            try {
+                fresh.value().complete(login(username, start));
+            } catch (RuntimeException e) {
+                fresh.value().completeExceptionally(e);
+            }
+        }
+        return current.value().join();
+    }
+
+    private String login(String username, Start start) {
+        String body = json(Map.of("username", username, "password", config.password()));
+        HttpRequest request = request(ApiPaths.LOGIN)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = send("POST " + ApiPaths.LOGIN, request,
+                HttpResponse.BodyHandlers.ofString(), start);
+        if (response == null || response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username
+                    + (response == null ? "" : " — HTTP " + response.statusCode()));
+        }
+        try {
+            return MAPPER.readTree(response.body()).path("access_token").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable login response for " + username, e);
+        }
+    }
+
+    // ── HTTP ─────────────────────────────────────────────────────────────────
+
+    private void get(String endpoint, String path, String username, String token, Start start) {
+        HttpRequest request = request(path)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        afterCall(send(endpoint, request, HttpResponse.BodyHandlers.discarding(), start), username);
+    }
+
+    private void post(String endpoint, String path, String body, String username, String token, Start start) {
+        HttpRequest request = request(path)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(body.isEmpty() ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        afterCall(send(endpoint, request, HttpResponse.BodyHandlers.discarding(), start), username);
+    }
+
+    private void afterCall(HttpResponse<?> response, String username) {
+        if (response != null && response.statusCode() == 401) {
+            tokens.remove(username);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(config.gatewayUrl() + path))
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    /** Records the call whatever happens; a response of null means it never got one. */
+    private <T> HttpResponse<T> send(String endpoint, HttpRequest request,
+                                     HttpResponse.BodyHandler<T> handler, Start start) {
+        long startNanos = start.next();
+        HttpResponse<T> response = null;
+        try {
+            response = client.send(request, handler);
+            return response;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            recorder.record(endpoint, System.nanoTime() - startNanos, response == null ? 0 : response.statusCode());
+        }
+    }
+
+    private static String json(Map<String, String> fields) {
+        try {
+            return MAPPER.writeValueAsString(fields);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Start time for the next request of a scenario: the intended start once, then "now". */
+    private static final class Start {
+
+        private final long intendedNanos;
+        private boolean used;
+
+        Start(long intendedNanos) {
+            this.intendedNanos = intendedNanos;
+        }
+
+        long next() {
+            if (used) {
+                return System.nanoTime();
+            }
+            used = true;
+            return intendedNanos;
+        }
+    }
+}
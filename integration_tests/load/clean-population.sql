@@ -0,0 +1,32 @@
+-- =============================================================================
+-- clean-population.sql — remove the load-test population
+-- =============================================================================
+-- psql "$DATABASE_URL" -f clean-population.sql   (run-load.sh clean)
+--
+-- Deletes every row seed-population.sql wrote and everything a load run wrote against
+-- those patients (conditions added through the API, AI results, pending triggers, audit
+-- entries), in foreign-key order. Rows not tagged 'load-test' are left alone.
+-- =============================================================================
+
+\set ON_ERROR_STOP on
+
+BEGIN;
+
+CREATE TEMP TABLE lt_patients ON COMMIT DROP AS
+    SELECT id FROM patients WHERE updated_by = 'load-test';
+CREATE TEMP TABLE lt_users ON COMMIT DROP AS
+    SELECT id FROM users WHERE updated_by = 'load-test';
+
+DELETE FROM ai_analysis_results  WHERE patient_id IN (SELECT id FROM lt_patients);
+DELETE FROM ai_analysis_triggers WHERE patient_id IN (SELECT id FROM lt_patients);
+DELETE FROM ai_analysis_leases   WHERE patient_id IN (SELECT id FROM lt_patients);
+DELETE FROM conditions           WHERE patient_id IN (SELECT id FROM lt_patients);
+DELETE FROM allergies            WHERE patient_id IN (SELECT id FROM lt_patients);
+DELETE FROM encounters           WHERE patient_id IN (SELECT id FROM lt_patients);
+DELETE FROM audit_logs           WHERE auth_id IN (SELECT id::text FROM lt_users);
+DELETE FROM patients             WHERE id IN (SELECT id FROM lt_patients);
+DELETE FROM providers            WHERE updated_by = 'load-test';
+DELETE FROM organizations        WHERE updated_by = 'load-test';
+DELETE FROM users                WHERE id IN (SELECT id FROM lt_users);
+
+COMMIT;
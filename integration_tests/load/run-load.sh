@@ -0,0 +1,97 @@
+#!/bin/bash
+# =============================================================================
+# run-load.sh — Seed a synthetic population and load-test the gateway
+# =============================================================================
+# Usage:
+#   ./integration_tests/load/run-load.sh seed             # write the population (DATABASE_URL)
+#   ./integration_tests/load/run-load.sh run              # drive the gateway, print the report
+#   ./integration_tests/load/run-load.sh clean            # remove the population and what runs wrote
+#
+# Population (same values for seed and run — ids are derived, not looked up):
+#   LOAD_PATIENTS          patients                          (default 10000; up to 1000000)
+#   LOAD_PROVIDERS         providers                         (default max(10, patients/200))
+#   LOAD_PATIENT_ACCOUNTS  patients with a login account     (default min(patients, 10000))
+#   LOAD_ENCOUNTERS        average encounters per patient    (default 20)
+#   LOAD_PASSWORD          password of every load account    (default LoadTest1@)
+#
+# Run:
+#   GATEWAY_URL            default http://localhost:8080
+#   LOAD_RATE              scenarios started per second      (default 50)
+#   LOAD_DURATION          measured seconds                  (default 300)
+#   LOAD_WARMUP            unmeasured seconds first          (default 30)
+#   LOAD_MAX_IN_FLIGHT     concurrent scenarios cap          (default 2000)
+#   LOAD_MIX               name:weight,...                   (default in LoadConfig.DEFAULT_MIX)
+#   LOAD_SEED              request-plan seed                 (default 42)
+#
+# Reports go to integration_tests/target/load/. See docs/guides/load-testing.md.
+# =============================================================================
+
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+POM="$SCRIPT_DIR/../pom.xml"
+
+GREEN='\033[0;32m'; RED='\033[0;31m'; BLUE='\033[0;34m'; NC='\033[0m'
+ok()    { echo -e "${GREEN}✓ $1${NC}"; }
+fail()  { echo -e "${RED}✗ $1${NC}"; exit 1; }
+stage() { echo -e "\n${BLUE}=== $1 ===${NC}"; }
+
+PATIENTS="${LOAD_PATIENTS:-10000}"
+PROVIDERS="${LOAD_PROVIDERS:-$(( PATIENTS / 200 > 10 ? PATIENTS / 200 : 10 ))}"
+ORGANIZATIONS=$(( PROVIDERS / 10 > 1 ? PROVIDERS / 10 : 1 ))
+PATIENT_ACCOUNTS="${LOAD_PATIENT_ACCOUNTS:-$(( PATIENTS < 10000 ? PATIENTS : 10000 ))}"
+ENCOUNTERS="${LOAD_ENCOUNTERS:-20}"
+PASSWORD="${LOAD_PASSWORD:-LoadTest1@}"
+
+require_db() {
+  [[ -n "$DATABASE_URL" ]] || fail "DATABASE_URL is not set"
+  command -v psql > /dev/null || fail "psql not found"
+}
+
+seed() {
+  require_db
+  stage "Seeding $PATIENTS patients, $PROVIDERS providers, $ORGANIZATIONS organizations"
+  psql "$DATABASE_URL" -q \
+    -v patients="$PATIENTS" \
+    -v providers="$PROVIDERS" \
+    -v organizations="$ORGANIZATIONS" \
+    -v patient_accounts="$PATIENT_ACCOUNTS" \
+    -v encounters="$ENCOUNTERS" \
+    -v password="$PASSWORD" \
+    -f "$SCRIPT_DIR/seed-population.sql"
+  ok "Population seeded — $PATIENT_ACCOUNTS patient logins (lt_patient_<n>), $PROVIDERS provider logins (lt_provider_<k>)"
+}
+
+clean() {
+  require_db
+  stage "Removing load-test population"
+  psql "$DATABASE_URL" -q -f "$SCRIPT_DIR/clean-population.sql"
+  ok "Load-test rows removed"
+}
+
+run() {
+  stage "Load run against ${GATEWAY_URL:-http://localhost:8080}"
+  mvn -q compile exec:java -f "$POM" \
+    -Dexec.mainClass=load.LoadTest \
+    ${GATEWAY_URL:+-Dgateway.url=$GATEWAY_URL} \
+    -Dload.patients="$PATIENTS" \
+    -Dload.providers="$PROVIDERS" \
+    -Dload.patient-accounts="$PATIENT_ACCOUNTS" \
+    -Dload.encounters="$ENCOUNTERS" \
+    -Dload.password="$PASSWORD" \
+    ${LOAD_RATE:+-Dload.rate=$LOAD_RATE} \
+    ${LOAD_DURATION:+-Dload.duration=$LOAD_DURATION} \
+    ${LOAD_WARMUP:+-Dload.warmup=$LOAD_WARMUP} \
+    ${LOAD_MAX_IN_FLIGHT:+-Dload.max-in-flight=$LOAD_MAX_IN_FLIGHT} \
+    ${LOAD_MIX:+-Dload.mix=$LOAD_MIX} \
+    ${LOAD_SEED:+-Dload.seed=$LOAD_SEED} \
+    -Dload.report-dir="$SCRIPT_DIR/../target/load"
+  ok "Load run finished"
+}
+
+case "${1:-}" in
+  seed)  seed ;;
+  run)   run ;;
+  clean) clean ;;
+  *)     sed -n '5,8p' "$0" | sed 's/^# \{0,1\}//'; exit 1 ;;
+esac
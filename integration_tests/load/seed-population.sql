@@ -0,0 +1,214 @@
+-- =============================================================================
+-- seed-population.sql — deterministic Synthea-shaped population for load tests
+-- =============================================================================
+-- Run through run-load.sh seed, which passes the sizes:
+--   psql "$DATABASE_URL" -v patients=100000 -v providers=500 -v organizations=50 \
+--        -v patient_accounts=10000 -v encounters=20 -v password='LoadTest1@' \
+--        -f seed-population.sql
+--
+-- Every id is md5('lt-<kind>-<n>[-<i>]')::uuid and every sized attribute is a function of
+-- the row number, so the same sizes always produce the same rows, and load.Population
+-- derives the same ids and usernames without reading the database. Rows are tagged
+-- updated_by = 'load-test'; clean-population.sql removes them and everything the load
+-- run wrote against them.
+--
+-- Shape, per patient n (0-based):
+--   provider       n % providers, in organization provider % organizations
+--   encounters     encounters/2 + n % (encounters + 1)  — average = encounters
+--   conditions     2 + n % 7, on every third encounter, distinct codes
+--   allergies      one for 3 patients in 10
+--   login account  lt_patient_<n> for n < patient_accounts; lt_provider_<k> for every provider
+--
+-- Inserts are ON CONFLICT DO NOTHING, so re-running with more patients extends the
+-- population. Patients, encounters, conditions and allergies are written in chunks of
+-- 10,000 patients, one commit each.
+-- =============================================================================
+
+\set ON_ERROR_STOP on
+
+SELECT set_config('loadtest.patients',         :'patients',         false),
+       set_config('loadtest.providers',        :'providers',        false),
+       set_config('loadtest.organizations',    :'organizations',    false),
+       set_config('loadtest.patient_accounts', :'patient_accounts', false),
+       set_config('loadtest.encounters',       :'encounters',       false);
+
+CREATE EXTENSION IF NOT EXISTS pgcrypto;   -- crypt() / gen_salt('bf'): the BCrypt hash of the shared password
+
+SET synchronous_commit = off;
+
+CREATE OR REPLACE FUNCTION pg_temp.lt_id(kind TEXT, n BIGINT, i BIGINT DEFAULT NULL)
+RETURNS UUID LANGUAGE sql IMMUTABLE AS $$
+    SELECT md5('lt-' || kind || '-' || n || COALESCE('-' || i, ''))::uuid
+$$;
+
+-- -----------------------------------------------------------------------------
+-- Organizations and providers
+-- -----------------------------------------------------------------------------
+
+INSERT INTO organizations (id, name, address, city, state, zip, phone, lat, lon, updated_by)
+SELECT pg_temp.lt_id('organization', o),
+       'Load Test Clinic ' || o,
+       (100 + o % 900) || ' Main Street',
+       'Boston', 'Massachusetts', '02101',
+       '555-01' || lpad((o % 100)::text, 2, '0'),
+       42.36 + (o % 100) / 1000.0, -71.06 - (o % 100) / 1000.0,
+       'load-test'
+FROM generate_series(0, current_setting('loadtest.organizations')::int - 1) AS o
+ON CONFLICT (id) DO NOTHING;
+
+INSERT INTO providers (id, organization_id, name, gender, speciality, encounters, procedures, updated_by)
+SELECT pg_temp.lt_id('provider', k),
+       pg_temp.lt_id('organization', k % current_setting('loadtest.organizations')::int),
+       'Dr. Load' || k || ' Tester',
+       CASE WHEN k % 2 = 0 THEN 'F' ELSE 'M' END,
+       'GENERAL PRACTICE',
+       0, 0,
+       'load-test'
+FROM generate_series(0, current_setting('loadtest.providers')::int - 1) AS k
+ON CONFLICT (id) DO NOTHING;
+
+-- -----------------------------------------------------------------------------
+-- Patients and their clinical history, 10,000 patients per commit
+-- -----------------------------------------------------------------------------
+
+DO $$
+DECLARE
+    total       INT := current_setting('loadtest.patients')::int;
+    n_providers INT := current_setting('loadtest.providers')::int;
+    n_orgs      INT := current_setting('loadtest.organizations')::int;
+    avg_enc     INT := current_setting('loadtest.encounters')::int;
+    chunk       INT := 10000;
+    lo          INT := 0;
+    condition_codes TEXT[] := ARRAY['44054006', '38341003', '55822004', '195662009', '10509002',
+                                    '40055000', '162864005', '271737000', '444814009', '15777000'];
+    condition_names TEXT[] := ARRAY['Diabetes mellitus type 2 (disorder)',
+                                    'Hypertensive disorder systemic arterial (disorder)',
+                                    'Hyperlipidemia (disorder)',
+                                    'Acute viral pharyngitis (disorder)',
+                                    'Acute bronchitis (disorder)',
+                                    'Chronic sinusitis (disorder)',
+                                    'Body mass index 30+ - obesity (finding)',
+                                    'Anemia (disorder)',
+                                    'Viral sinusitis (disorder)',
+                                    'Prediabetes (finding)'];
+BEGIN
+    WHILE lo < total LOOP
+        INSERT INTO patients (id, birthdate, first_name, last_name, gender, race, ethnicity,
+                              birthplace, address, city, state, county, zip, lat, lon,
+                              healthcare_expenses, healthcare_coverage, income, updated_by)
+        SELECT pg_temp.lt_id('patient', n),
+               DATE '1940-01-01' + (n::bigint * 7919 % 29000)::int,
+               'Patient' || n,
+               'Load' || (n % 1000),
+               CASE WHEN n % 2 = 0 THEN 'F' ELSE 'M' END,
+               'white', 'nonhispanic',
+               'Boston  Massachusetts  US',
+               (100 + n % 900) || ' Elm Street',
+               'Boston', 'Massachusetts', 'Suffolk County', '02101',
+               42.30 + (n % 1000) / 10000.0, -71.10 - (n % 1000) / 10000.0,
+               (n % 500000)::numeric, (n % 50000)::numeric, 20000 + n % 180000,
+               'load-test'
+        FROM generate_series(lo, LEAST(lo + chunk, total) - 1) AS n
+        ON CONFLICT (id) DO NOTHING;
+
+        INSERT INTO encounters (id, patient_id, provider_id, organization_id, start_time, stop_time,
+                                encounter_class, code, description, base_cost, total_cost,
+                                reason_code, reason_desc, updated_by)
+        SELECT pg_temp.lt_id('encounter', n, e),
+               pg_temp.lt_id('patient', n),
+               pg_temp.lt_id('provider', n % n_providers),
+               pg_temp.lt_id('organization', (n % n_providers) % n_orgs),
+               TIMESTAMPTZ '2024-06-01 09:00:00+00' - make_interval(days => (e * 30 + n % 30)::int),
+               TIMESTAMPTZ '2024-06-01 09:30:00+00' - make_interval(days => (e * 30 + n % 30)::int),
+               CASE WHEN e % 4 = 0 THEN 'wellness' ELSE 'ambulatory' END,
+               '185349003', 'Encounter for check up (procedure)',
+               136.80, 704.20,
+               CASE WHEN e % 3 = 0 THEN '10509002' END,
+               CASE WHEN e % 3 = 0 THEN 'Acute bronchitis (disorder)' END,
+               'load-test'
+        FROM generate_series(lo, LEAST(lo + chunk, total) - 1) AS n,
+             LATERAL generate_series(0, avg_enc / 2 + n % (avg_enc + 1) - 1) AS e
+        ON CONFLICT (id) DO NOTHING;
+
+        INSERT INTO conditions (patient_id, encounter_id, start_date, stop_date, system, code,
+                                description, updated_by)
+        SELECT pg_temp.lt_id('patient', n),
+               pg_temp.lt_id('encounter', n, (c * 3) % (avg_enc / 2 + n % (avg_enc + 1))),
+               DATE '2024-06-01' - ((c * 3) % (avg_enc / 2 + n % (avg_enc + 1)) * 30 + n % 30)::int,
+               CASE WHEN c % 3 = 0
+                    THEN DATE '2024-06-01' - ((c * 3) % (avg_enc / 2 + n % (avg_enc + 1)) * 30 + n % 30)::int + 30
+               END,
+               'SNOMED-CT',
+               condition_codes[1 + (n + c * 3) % 10],
+               condition_names[1 + (n + c * 3) % 10],
+               'load-test'
+        FROM generate_series(lo, LEAST(lo + chunk, total) - 1) AS n,
+             LATERAL generate_series(0, 1 + n % 7) AS c
+        ON CONFLICT DO NOTHING;
+
+        INSERT INTO allergies (patient_id, encounter_id, start_date, code, system, description,
+                               allergy_type, category, reaction1, description1, severity1, updated_by)
+        SELECT pg_temp.lt_id('patient', n),
+               pg_temp.lt_id('encounter', n, 0),
+               DATE '2024-06-01' - (n % 30)::int,
+               '300916003', 'SNOMED-CT', 'Latex allergy (disorder)',
+               'allergy', 'environment', '247472004', 'Wheal (finding)', 'MILD',
+               'load-test'
+        FROM generate_series(lo, LEAST(lo + chunk, total) - 1) AS n
+        WHERE n % 10 < 3
+        ON CONFLICT DO NOTHING;
+
+        COMMIT;
+        lo := lo + chunk;
+        RAISE NOTICE 'patients seeded: % / %', LEAST(lo, total), total;
+    END LOOP;
+END
+$$;
+
+-- -----------------------------------------------------------------------------
+-- Login accounts: one shared BCrypt hash, computed once
+-- -----------------------------------------------------------------------------
+
+CREATE TEMP TABLE lt_password AS SELECT '{bcrypt}' || crypt(:'password', gen_salt('bf', 10)) AS hash;
+
+INSERT INTO users (id, username, email, password_hash, role, fhir_id, updated_by)
+SELECT pg_temp.lt_id('user-provider', k),
+       'lt_provider_' || k,
+       'lt_provider_' || k || '@loadtest.local',
+       (SELECT hash FROM lt_password),
+       'PROVIDER',
+       pg_temp.lt_id('provider', k),
+       'load-test'
+FROM generate_series(0, current_setting('loadtest.providers')::int - 1) AS k
+ON CONFLICT DO NOTHING;
+
+UPDATE providers p
+SET    auth_id = pg_temp.lt_id('user-provider', k)
+FROM   generate_series(0, current_setting('loadtest.providers')::int - 1) AS k
+WHERE  p.id = pg_temp.lt_id('provider', k) AND p.auth_id IS NULL;
+
+INSERT INTO users (id, username, email, password_hash, role, fhir_id, updated_by)
+SELECT pg_temp.lt_id('user-patient', n),
+       'lt_patient_' || n,
+       'lt_patient_' || n || '@loadtest.local',
+       (SELECT hash FROM lt_password),
+       'PATIENT',
+       pg_temp.lt_id('patient', n),
+       'load-test'
+FROM generate_series(0, LEAST(current_setting('loadtest.patient_accounts')::int,
+                              current_setting('loadtest.patients')::int) - 1) AS n
+ON CONFLICT DO NOTHING;
+
+UPDATE patients p
+SET    auth_id = pg_temp.lt_id('user-patient', n)
+FROM   generate_series(0, LEAST(current_setting('loadtest.patient_accounts')::int,
+                                current_setting('loadtest.patients')::int) - 1) AS n
+WHERE  p.id = pg_temp.lt_id('patient', n) AND p.auth_id IS NULL;
+
+ANALYZE organizations, providers, patients, encounters, conditions, allergies, users;
+
+SELECT (SELECT count(*) FROM patients   WHERE updated_by = 'load-test') AS patients,
+       (SELECT count(*) FROM encounters WHERE updated_by = 'load-test') AS encounters,
+       (SELECT count(*) FROM conditions WHERE updated_by = 'load-test') AS conditions,
+       (SELECT count(*) FROM allergies  WHERE updated_by = 'load-test') AS allergies,
+       (SELECT count(*) FROM users      WHERE updated_by = 'load-test') AS accounts;
@@ -38,9 +38,13 @@ public final class ApiPaths {
     public static final String PROVIDER_ENCOUNTER_ALLERGIES  = "/api/provider/encounters/{encounterId}/allergies";
 
     // ── AI analysis ───────────────────────────────────────────────────────────
-    public static final String AI_REQUEST = "/api/ai/encounters/{encounterId}/request";
-    public static final String AI_LATEST  = "/api/ai/patient/{patientId}";
-    public static final String AI_HISTORY = "/api/ai/patient/{patientId}/history";
+    public static final String AI_REQUEST  = "/api/ai/encounters/{encounterId}/request";
+    public static final String AI_LATEST   = "/api/ai/patient/{patientId}";
+    public static final String AI_HISTORY  = "/api/ai/patient/{patientId}/history";
+    public static final String AI_ANALYSES = "/api/ai/patient/{patientId}/analyses";
+    public static final String AI_ANALYSIS = "/api/ai/patient/{patientId}/analyses/{analysisId}";
+    public static final String AI_JOBS     = "/api/ai/encounters/{encounterId}/jobs";
+    public static final String AI_JOB      = "/api/ai/jobs/{jobId}";
 
     // ── Admin import ──────────────────────────────────────────────────────────
     public static final String ADMIN_IMPORT_ORGANIZATIONS = "/api/admin/import/organizations";
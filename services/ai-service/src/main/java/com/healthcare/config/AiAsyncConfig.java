@@ -0,0 +1,60 @@
+package com.healthcare.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated executor for async AI analysis jobs.
+ * Kept separate from Tomcat workers so a slow Gemini round-trip never holds a request thread.
+ * Scheduling drives the re-analysis trigger poller (AiTriggerPoller).
+ *
+ * Work on these executors borrows connections from the AI_JOB_POOL pool
+ * (healthcare.datasource.pools.ai-job), not from the pool serving short requests.
+ */
+@Configuration
+@EnableScheduling
+public class AiAsyncConfig {
+
+    public static final String AI_ANALYSIS_EXECUTOR  = "aiAnalysisExecutor";
+    public static final String AI_SCREENING_EXECUTOR = "aiScreeningExecutor";
+    public static final String AI_JOB_POOL           = "ai-job";
+
+    /**
+     * The pool size stays the job bulkhead in either mode; with virtual threads on, its workers
+     * are virtual so a job parked on Gemini does not hold a platform thread.
+     */
+    @Bean(name = AI_ANALYSIS_EXECUTOR)
+    public ThreadPoolTaskExecutor aiAnalysisExecutor(AiJobConfig config,
+                                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getPoolSize());
+        executor.setMaxPoolSize(config.getPoolSize());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("ai-job-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("ai-job-", 0).factory());
+        }
+        executor.setTaskDecorator(DataSourceWorkload.decorator(AI_JOB_POOL));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * One thread, no queue: a replica runs at most one screening sweep, and a second start
+     * request is rejected instead of queued behind a sweep that may take hours.
+     */
+    @Bean(name = AI_SCREENING_EXECUTOR)
+    public ThreadPoolTaskExecutor aiScreeningExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ai-screening-");
+        executor.setTaskDecorator(DataSourceWorkload.decorator(AI_JOB_POOL));
+        return executor;
+    }
+}
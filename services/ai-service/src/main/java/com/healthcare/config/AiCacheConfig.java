@@ -0,0 +1,22 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds of the in-memory analysis response cache (see AnalysisResponseCache).
+ * max-patients = 0 disables it.
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.cache")
+public class AiCacheConfig {
+
+    private int maxPatients       = 2000;
+    private int resultsPerPatient = 5;
+
+    public int getMaxPatients()       { return maxPatients; }
+    public int getResultsPerPatient() { return resultsPerPatient; }
+
+    public void setMaxPatients(int maxPatients)             { this.maxPatients = maxPatients; }
+    public void setResultsPerPatient(int resultsPerPatient) { this.resultsPerPatient = resultsPerPatient; }
+}
@@ -0,0 +1,27 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ai.jobs")
+public class AiJobConfig {
+
+    private int poolSize         = 2;
+    private int queueCapacity    = 50;
+    private int maxWaitSeconds   = 25;
+    private int retentionMinutes = 15;
+    private int timeoutMinutes   = 10;
+
+    public int getPoolSize()         { return poolSize; }
+    public int getQueueCapacity()    { return queueCapacity; }
+    public int getMaxWaitSeconds()   { return maxWaitSeconds; }
+    public int getRetentionMinutes() { return retentionMinutes; }
+    public int getTimeoutMinutes()   { return timeoutMinutes; }
+
+    public void setPoolSize(int poolSize)                 { this.poolSize = poolSize; }
+    public void setQueueCapacity(int queueCapacity)       { this.queueCapacity = queueCapacity; }
+    public void setMaxWaitSeconds(int maxWaitSeconds)     { this.maxWaitSeconds = maxWaitSeconds; }
+    public void setRetentionMinutes(int retentionMinutes) { this.retentionMinutes = retentionMinutes; }
+    public void setTimeoutMinutes(int timeoutMinutes)     { this.timeoutMinutes = timeoutMinutes; }
+}
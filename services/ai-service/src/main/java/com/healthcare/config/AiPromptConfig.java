@@ -0,0 +1,23 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ai.prompt")
+public class AiPromptConfig {
+
+    private int maxTokens                 = 4000;
+    private int recentEncounters          = 20;
+    private int screeningTokensPerPatient = 600;
+
+    public int getMaxTokens()                 { return maxTokens; }
+    public int getRecentEncounters()          { return recentEncounters; }
+    public int getScreeningTokensPerPatient() { return screeningTokensPerPatient; }
+
+    public void setMaxTokens(int maxTokens)               { this.maxTokens = maxTokens; }
+    public void setRecentEncounters(int recentEncounters) { this.recentEncounters = recentEncounters; }
+    public void setScreeningTokensPerPatient(int screeningTokensPerPatient) {
+        this.screeningTokensPerPatient = screeningTokensPerPatient;
+    }
+}
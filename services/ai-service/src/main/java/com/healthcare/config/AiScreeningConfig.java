@@ -0,0 +1,32 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ai.screening")
+public class AiScreeningConfig {
+
+    private int pageSize                  = 200;
+    private int patientsPerRequest        = 5;
+    private int requestsPerMinute         = 30;
+    private int tokensPerMinute           = 250_000;
+    private int staleHeartbeatMinutes     = 10;
+    private int maxConsecutiveFailedPages = 3;
+
+    public int getPageSize()                  { return pageSize; }
+    public int getPatientsPerRequest()        { return patientsPerRequest; }
+    public int getRequestsPerMinute()         { return requestsPerMinute; }
+    public int getTokensPerMinute()           { return tokensPerMinute; }
+    public int getStaleHeartbeatMinutes()     { return staleHeartbeatMinutes; }
+    public int getMaxConsecutiveFailedPages() { return maxConsecutiveFailedPages; }
+
+    public void setPageSize(int pageSize)                           { this.pageSize = pageSize; }
+    public void setPatientsPerRequest(int patientsPerRequest)       { this.patientsPerRequest = patientsPerRequest; }
+    public void setRequestsPerMinute(int requestsPerMinute)         { this.requestsPerMinute = requestsPerMinute; }
+    public void setTokensPerMinute(int tokensPerMinute)             { this.tokensPerMinute = tokensPerMinute; }
+    public void setStaleHeartbeatMinutes(int staleHeartbeatMinutes) { this.staleHeartbeatMinutes = staleHeartbeatMinutes; }
+    public void setMaxConsecutiveFailedPages(int maxConsecutiveFailedPages) {
+        this.maxConsecutiveFailedPages = maxConsecutiveFailedPages;
+    }
+}
@@ -0,0 +1,24 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Clinical data loading before an analysis (see SnapshotLoader).
+ * Each parallel load borrows three extra pooled connections; max-parallel-loads caps how many
+ * run at once per replica, and loads past the cap are read serially instead. The ai-job pool
+ * must leave 3 x max-parallel-loads connections for the forks on top of its callers.
+ */
+@Component
+@ConfigurationProperties(prefix = "ai.snapshot")
+public class AiSnapshotConfig {
+
+    private boolean parallelLoads    = true;
+    private int     maxParallelLoads = 2;
+
+    public boolean isParallelLoads()     { return parallelLoads; }
+    public int     getMaxParallelLoads() { return maxParallelLoads; }
+
+    public void setParallelLoads(boolean parallelLoads)   { this.parallelLoads = parallelLoads; }
+    public void setMaxParallelLoads(int maxParallelLoads) { this.maxParallelLoads = maxParallelLoads; }
+}
@@ -0,0 +1,33 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ai.triggers")
+public class AiTriggerConfig {
+
+    private boolean enabled             = true;
+    private int     debounceSeconds     = 30;
+    private long    pollIntervalMs      = 5000;
+    private int     batchSize           = 10;
+    private int     leaseSeconds        = 300;
+    private int     maxAttempts         = 5;
+    private int     retryBackoffSeconds = 60;
+
+    public boolean isEnabled()            { return enabled; }
+    public int getDebounceSeconds()       { return debounceSeconds; }
+    public long getPollIntervalMs()       { return pollIntervalMs; }
+    public int getBatchSize()             { return batchSize; }
+    public int getLeaseSeconds()          { return leaseSeconds; }
+    public int getMaxAttempts()           { return maxAttempts; }
+    public int getRetryBackoffSeconds()   { return retryBackoffSeconds; }
+
+    public void setEnabled(boolean enabled)                     { this.enabled = enabled; }
+    public void setDebounceSeconds(int debounceSeconds)         { this.debounceSeconds = debounceSeconds; }
+    public void setPollIntervalMs(long pollIntervalMs)          { this.pollIntervalMs = pollIntervalMs; }
+    public void setBatchSize(int batchSize)                     { this.batchSize = batchSize; }
+    public void setLeaseSeconds(int leaseSeconds)               { this.leaseSeconds = leaseSeconds; }
+    public void setMaxAttempts(int maxAttempts)                 { this.maxAttempts = maxAttempts; }
+    public void setRetryBackoffSeconds(int retryBackoffSeconds) { this.retryBackoffSeconds = retryBackoffSeconds; }
+}
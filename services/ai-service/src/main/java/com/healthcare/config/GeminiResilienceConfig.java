@@ -0,0 +1,73 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits around outbound Gemini calls. Bulkhead, limit and breaker apply per model; callBudgetMs
+ * is one deadline for the whole call, shared by the primary and the fallback model. Bulkhead
+ * waits, attempts (each with its read timeout cut to the time left) and backoff all fit in it, so
+ * a call ends within the budget plus at most one read already in progress: reading the rest of a
+ * started response, or one gap between events of a stream. The default leaves the DB work of a
+ * synchronous analysis room under spring.mvc.async.request-timeout, and fails in microseconds
+ * while the circuit is open.
+ */
+@Component
+@ConfigurationProperties(prefix = "gemini.resilience")
+public class GeminiResilienceConfig {
+
+    // bulkhead: hard cap on concurrent calls per model, and how long a caller may queue for a slot
+    private int  maxConcurrent   = 8;
+    private long bulkheadWaitMs  = 500;
+
+    // adaptive limit (AIMD) inside the bulkhead: +1/limit per success, x0.5 on overload
+    private int  initialLimit    = 4;
+    private int  minLimit        = 1;
+
+    // retries on 429 / 503 / I/O errors, full-jitter exponential backoff
+    private int  maxRetries      = 3;
+    private long baseBackoffMs   = 500;
+    private long maxBackoffMs    = 4000;
+
+    // deadline for one call across attempts, backoff and the fallback model
+    private long callBudgetMs    = 20000;
+
+    // circuit breaker over the last slidingWindowSize calls
+    private int  slidingWindowSize    = 20;
+    private int  minimumCalls         = 10;
+    private int  failureRateThreshold = 50;
+    private long openStateMs          = 30000;
+
+    private int  connectTimeoutMs = 2000;
+    private int  readTimeoutMs    = 15000;   // per attempt, cut to what is left of callBudgetMs
+
+    public int getMaxConcurrent()         { return maxConcurrent; }
+    public long getBulkheadWaitMs()       { return bulkheadWaitMs; }
+    public int getInitialLimit()          { return initialLimit; }
+    public int getMinLimit()              { return minLimit; }
+    public int getMaxRetries()            { return maxRetries; }
+    public long getBaseBackoffMs()        { return baseBackoffMs; }
+    public long getMaxBackoffMs()         { return maxBackoffMs; }
+    public long getCallBudgetMs()         { return callBudgetMs; }
+    public int getSlidingWindowSize()     { return slidingWindowSize; }
+    public int getMinimumCalls()          { return minimumCalls; }
+    public int getFailureRateThreshold()  { return failureRateThreshold; }
+    public long getOpenStateMs()          { return openStateMs; }
+    public int getConnectTimeoutMs()      { return connectTimeoutMs; }
+    public int getReadTimeoutMs()         { return readTimeoutMs; }
+
+    public void setMaxConcurrent(int maxConcurrent)               { this.maxConcurrent = maxConcurrent; }
+    public void setBulkheadWaitMs(long bulkheadWaitMs)            { this.bulkheadWaitMs = bulkheadWaitMs; }
+    public void setInitialLimit(int initialLimit)                 { this.initialLimit = initialLimit; }
+    public void setMinLimit(int minLimit)                         { this.minLimit = minLimit; }
+    public void setMaxRetries(int maxRetries)                     { this.maxRetries = maxRetries; }
+    public void setBaseBackoffMs(long baseBackoffMs)              { this.baseBackoffMs = baseBackoffMs; }
+    public void setMaxBackoffMs(long maxBackoffMs)                { this.maxBackoffMs = maxBackoffMs; }
+    public void setCallBudgetMs(long callBudgetMs)                { this.callBudgetMs = callBudgetMs; }
+    public void setSlidingWindowSize(int slidingWindowSize)       { this.slidingWindowSize = slidingWindowSize; }
+    public void setMinimumCalls(int minimumCalls)                 { this.minimumCalls = minimumCalls; }
+    public void setFailureRateThreshold(int failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+    public void setOpenStateMs(long openStateMs)                  { this.openStateMs = openStateMs; }
+    public void setConnectTimeoutMs(int connectTimeoutMs)         { this.connectTimeoutMs = connectTimeoutMs; }
+    public void setReadTimeoutMs(int readTimeoutMs)               { this.readTimeoutMs = readTimeoutMs; }
+}
@@ -0,0 +1,55 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Behaviour of the local Gemini stand-in (see GeminiStub). Only read when
+ * gemini.client=stub or gemini.stub.server-enabled=true.
+ */
+@Component
+@ConfigurationProperties(prefix = "gemini.stub")
+public class GeminiStubConfig {
+
+    private boolean      serverEnabled   = false;
+    private int          port            = 8095;
+    private long         seed            = 42;
+    private int          latencyMedianMs = 800;
+    private int          latencyP99Ms    = 4000;
+    private int          latencyMaxMs    = 30000;
+    private double       overloadRate    = 0.0;    // share of calls answered 503 UNAVAILABLE
+    private double       rateLimitRate   = 0.0;    // share of calls answered 429 RESOURCE_EXHAUSTED
+    private List<String> failingModels   = new ArrayList<>();  // always 503, to exercise fallback
+    private int          summaryChars    = 600;
+    private int          riskFlags       = 3;
+    private int          streamChunks    = 8;      // streamed answers arrive in this many pieces, latency spread evenly
+
+    public boolean isServerEnabled()       { return serverEnabled; }
+    public int getPort()                   { return port; }
+    public long getSeed()                  { return seed; }
+    public int getLatencyMedianMs()        { return latencyMedianMs; }
+    public int getLatencyP99Ms()           { return latencyP99Ms; }
+    public int getLatencyMaxMs()           { return latencyMaxMs; }
+    public double getOverloadRate()        { return overloadRate; }
+    public double getRateLimitRate()       { return rateLimitRate; }
+    public List<String> getFailingModels() { return failingModels; }
+    public int getSummaryChars()           { return summaryChars; }
+    public int getRiskFlags()              { return riskFlags; }
+    public int getStreamChunks()           { return streamChunks; }
+
+    public void setServerEnabled(boolean serverEnabled)       { this.serverEnabled = serverEnabled; }
+    public void setPort(int port)                             { this.port = port; }
+    public void setSeed(long seed)                            { this.seed = seed; }
+    public void setLatencyMedianMs(int latencyMedianMs)       { this.latencyMedianMs = latencyMedianMs; }
+    public void setLatencyP99Ms(int latencyP99Ms)             { this.latencyP99Ms = latencyP99Ms; }
+    public void setLatencyMaxMs(int latencyMaxMs)             { this.latencyMaxMs = latencyMaxMs; }
+    public void setOverloadRate(double overloadRate)          { this.overloadRate = overloadRate; }
+    public void setRateLimitRate(double rateLimitRate)        { this.rateLimitRate = rateLimitRate; }
+    public void setFailingModels(List<String> failingModels)  { this.failingModels = failingModels; }
+    public void setSummaryChars(int summaryChars)             { this.summaryChars = summaryChars; }
+    public void setRiskFlags(int riskFlags)                   { this.riskFlags = riskFlags; }
+    public void setStreamChunks(int streamChunks)             { this.streamChunks = streamChunks; }
+}
@@ -0,0 +1,42 @@
+package com.healthcare.controller;
+
+import com.healthcare.dto.ScreeningRunResponse;
+import com.healthcare.service.ScreeningService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Admin-only AI population screening. ADMIN role enforced at gateway (/api/admin/**).
+ * POST starts a sweep, or resumes the last one if it failed or stalled; GET reports progress.
+ */
+@RestController
+@RequestMapping("/api/admin/ai/screening-runs")
+public class AdminScreeningController {
+
+    private final ScreeningService screeningService;
+
+    public AdminScreeningController(ScreeningService screeningService) {
+        this.screeningService = screeningService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ScreeningRunResponse> startScreening() {
+        ScreeningRunResponse run = screeningService.startOrResume();
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/admin/ai/screening-runs/" + run.runId()))
+                .body(run);
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<ScreeningRunResponse> getScreeningRun(@PathVariable UUID runId) {
+        return ResponseEntity.ok(screeningService.getRun(runId));
+    }
+}
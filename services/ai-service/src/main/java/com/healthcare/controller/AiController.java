@@ -2,22 +2,43 @@ package com.healthcare.controller;
 
 import com.healthcare.constants.SecurityConstants;
 import com.healthcare.dto.AiAnalysisResponse;
+import com.healthcare.dto.AnalysisHistoryPage;
+import com.healthcare.dto.AnalysisJobResponse;
+import com.healthcare.dto.RiskFlag;
+import com.healthcare.exception.AiServiceException;
+import com.healthcare.exception.ErrorResponse;
 import com.healthcare.service.AiAnalysisService;
+import com.healthcare.service.AnalysisStreamListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/ai")
 public class AiController {
 
+    private static final Logger log = LoggerFactory.getLogger(AiController.class);
+
+    // covers the guard's retries plus the fallback model
+    private static final long STREAM_TIMEOUT_MS = Duration.ofMinutes(3).toMillis();
+
     private final AiAnalysisService aiAnalysisService;
 
     public AiController(AiAnalysisService aiAnalysisService) {
@@ -33,6 +54,43 @@ public class AiController {
                 encounterId, UUID.fromString(authId)));
     }
 
+    @PostMapping("/encounters/{encounterId}/jobs")
+    public ResponseEntity<AnalysisJobResponse> submitAnalysis(
+            @PathVariable UUID encounterId,
+            @RequestHeader(SecurityConstants.HEADER_USER_ID) String authId) {
+
+        AnalysisJobResponse job = aiAnalysisService.submitAnalysis(encounterId, UUID.fromString(authId));
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/ai/jobs/" + job.jobId()))
+                .body(job);
+    }
+
+    /**
+     * Streams the analysis as server-sent events: "summary" ({"text": ...}) deltas and
+     * "risk_flag" objects while the model writes, then one "result" with the persisted
+     * analysis, or one "error". Ownership and queue errors are still plain HTTP errors.
+     */
+    @PostMapping("/encounters/{encounterId}/stream")
+    public SseEmitter streamAnalysis(
+            @PathVariable UUID encounterId,
+            @RequestHeader(SecurityConstants.HEADER_USER_ID) String authId) {
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        aiAnalysisService.streamAnalysis(encounterId, UUID.fromString(authId), new SseAnalysisListener(emitter));
+        return emitter;
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public CompletableFuture<ResponseEntity<AnalysisJobResponse>> getAnalysisJob(
+            @PathVariable UUID jobId,
+            @RequestParam(name = "wait_seconds", defaultValue = "0") int waitSeconds,
+            @RequestHeader(SecurityConstants.HEADER_USER_ID) String authId) {
+
+        return aiAnalysisService.getAnalysisJob(jobId, UUID.fromString(authId), waitSeconds)
+                .thenApply(ResponseEntity::ok);
+    }
+
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<AiAnalysisResponse> getLatestAnalysisForPatient(
             @PathVariable UUID patientId,
@@ -42,6 +100,10 @@ public class AiController {
                 patientId, UUID.fromString(providerId)));
     }
 
+    /**
+     * The patient's complete history with full results, as before paging existed. Kept so
+     * existing clients keep working; new clients page through /patient/{id}/analyses instead.
+     */
     @GetMapping("/patient/{patientId}/history")
     public ResponseEntity<List<AiAnalysisResponse>> getPatientHistory(
             @PathVariable UUID patientId,
@@ -50,4 +112,76 @@ public class AiController {
         return ResponseEntity.ok(aiAnalysisService.getPatientHistory(
                 patientId, UUID.fromString(providerId)));
     }
+
+    @GetMapping("/patient/{patientId}/analyses")
+    public ResponseEntity<AnalysisHistoryPage> getAnalysisPage(
+            @PathVariable UUID patientId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestHeader(SecurityConstants.HEADER_USER_ID) String providerId) {
+
+        return ResponseEntity.ok(aiAnalysisService.getAnalysisPage(
+                patientId, UUID.fromString(providerId), cursor, size));
+    }
+
+    @GetMapping("/patient/{patientId}/analyses/{analysisId}")
+    public ResponseEntity<AiAnalysisResponse> getAnalysis(
+            @PathVariable UUID patientId,
+            @PathVariable UUID analysisId,
+            @RequestHeader(SecurityConstants.HEADER_USER_ID) String providerId) {
+
+        return ResponseEntity.ok(aiAnalysisService.getAnalysis(
+                patientId, analysisId, UUID.fromString(providerId)));
+    }
+
+    /**
+     * Forwards stream callbacks to the emitter. A client that went away only stops delivery;
+     * the analysis itself still completes and is persisted.
+     */
+    private static final class SseAnalysisListener implements AnalysisStreamListener {
+
+        private final SseEmitter emitter;
+        private volatile boolean open = true;
+
+        SseAnalysisListener(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(() -> open = false);
+            emitter.onTimeout(() -> open = false);
+            emitter.onError(e -> open = false);
+        }
+
+        @Override
+        public void onSummaryDelta(String text) {
+            send("summary", Map.of("text", text));
+        }
+
+        @Override
+        public void onRiskFlag(RiskFlag flag) {
+            send("risk_flag", flag);
+        }
+
+        @Override
+        public void onComplete(AiAnalysisResponse response) {
+            if (send("result", response)) emitter.complete();
+        }
+
+        @Override
+        public void onError(AiServiceException error) {
+            if (send("error", ErrorResponse.of(error.getStatus().value(), error.getStatus().getReasonPhrase()))) {
+                emitter.complete();
+            }
+        }
+
+        private boolean send(String event, Object data) {
+            if (!open) return false;
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("AI stream client gone, dropping '{}' event: {}", event, e.getMessage());
+                open = false;
+                return false;
+            }
+        }
+    }
 }
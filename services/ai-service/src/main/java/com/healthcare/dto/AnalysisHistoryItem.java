@@ -0,0 +1,15 @@
+package com.healthcare.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthcare.enums.AiTriggerType;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record AnalysisHistoryItem(
+        @JsonProperty("analysis_id")     UUID analysisId,
+        @JsonProperty("generated_at")    OffsetDateTime generatedAt,
+        @JsonProperty("trigger_type")    AiTriggerType triggerType,
+        @JsonProperty("model_version")   String modelVersion,
+        @JsonProperty("risk_flag_count") int riskFlagCount) {
+}
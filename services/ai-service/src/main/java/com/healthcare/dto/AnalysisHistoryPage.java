@@ -0,0 +1,13 @@
+package com.healthcare.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * One page of a patient's analysis history. next_cursor is null on the last page.
+ */
+public record AnalysisHistoryPage(
+        @JsonProperty("items")       List<AnalysisHistoryItem> items,
+        @JsonProperty("next_cursor") String nextCursor) {
+}
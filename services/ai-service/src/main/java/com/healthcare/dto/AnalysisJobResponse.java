@@ -0,0 +1,26 @@
+package com.healthcare.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthcare.exception.ErrorResponse;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record AnalysisJobResponse(
+        @JsonProperty("job_id")       UUID jobId,
+        @JsonProperty("status")       Status status,
+        @JsonProperty("patient_id")   UUID patientId,
+        @JsonProperty("encounter_id") UUID encounterId,
+        @JsonProperty("submitted_at") OffsetDateTime submittedAt,
+        @JsonProperty("completed_at") OffsetDateTime completedAt,
+        @JsonProperty("result")       AiAnalysisResponse result,
+        @JsonProperty("error")        ErrorResponse error) {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    @JsonIgnore
+    public boolean isDone() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+}
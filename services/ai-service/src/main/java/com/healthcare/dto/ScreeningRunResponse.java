@@ -0,0 +1,48 @@
+package com.healthcare.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthcare.entity.AiScreeningRun;
+import com.healthcare.enums.ScreeningRunStatus;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record ScreeningRunResponse(
+        @JsonProperty("run_id")              UUID runId,
+        @JsonProperty("status")              ScreeningRunStatus status,
+        @JsonProperty("cursor_patient_id")   UUID cursorPatientId,
+        @JsonProperty("patients_scanned")    int patientsScanned,
+        @JsonProperty("patients_changed")    int patientsChanged,
+        @JsonProperty("patients_analyzed")   int patientsAnalyzed,
+        @JsonProperty("patients_failed")     int patientsFailed,
+        @JsonProperty("model_requests")      int modelRequests,
+        @JsonProperty("prompt_tokens")       long promptTokens,
+        @JsonProperty("started_at")          OffsetDateTime startedAt,
+        @JsonProperty("finished_at")         OffsetDateTime finishedAt,
+        @JsonProperty("patients_per_minute") double patientsPerMinute,
+        @JsonProperty("last_error")          String lastError) {
+
+    /**
+     * Throughput is scanned patients over wall time since the run started (or its finish),
+     * including time spent waiting on the rate budget.
+     */
+    public static ScreeningRunResponse from(AiScreeningRun run) {
+        OffsetDateTime end = run.getFinishedAt() != null ? run.getFinishedAt() : OffsetDateTime.now();
+        double minutes = Math.max(Duration.between(run.getStartedAt(), end).toMillis(), 1) / 60_000.0;
+        return new ScreeningRunResponse(
+                run.getId(),
+                run.getStatus(),
+                run.getCursorPatientId(),
+                run.getPatientsScanned(),
+                run.getPatientsChanged(),
+                run.getPatientsAnalyzed(),
+                run.getPatientsFailed(),
+                run.getModelRequests(),
+                run.getPromptTokens(),
+                run.getStartedAt(),
+                run.getFinishedAt(),
+                Math.round(run.getPatientsScanned() / minutes * 10) / 10.0,
+                run.getLastError());
+    }
+}
@@ -9,6 +9,13 @@ public class AiServiceException extends RuntimeException {
     public static final String NO_ANALYSIS_FOUND      = "AI_NO_ANALYSIS_FOUND";
     public static final String PROVIDER_NOT_AUTHORIZED = "AI_PROVIDER_NOT_AUTHORIZED";
     public static final String GEMINI_ERROR           = "AI_GEMINI_ERROR";
+    public static final String GEMINI_UNAVAILABLE     = "AI_GEMINI_UNAVAILABLE";
+    public static final String ANALYSIS_IN_PROGRESS   = "AI_ANALYSIS_IN_PROGRESS";
+    public static final String ANALYSIS_QUEUE_FULL    = "AI_ANALYSIS_QUEUE_FULL";
+    public static final String JOB_NOT_FOUND          = "AI_JOB_NOT_FOUND";
+    public static final String SCREENING_IN_PROGRESS  = "AI_SCREENING_IN_PROGRESS";
+    public static final String SCREENING_RUN_NOT_FOUND = "AI_SCREENING_RUN_NOT_FOUND";
+    public static final String INVALID_CURSOR         = "AI_INVALID_CURSOR";
     public static final String INTERNAL_ERROR         = "AI_INTERNAL_ERROR";
 
     private final HttpStatus status;
@@ -1,9 +1,13 @@
 package com.healthcare.service;
 
 import com.healthcare.dto.AiAnalysisResponse;
+import com.healthcare.dto.AnalysisHistoryPage;
+import com.healthcare.dto.AnalysisJobResponse;
+import com.healthcare.entity.AiAnalysisTrigger;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface AiAnalysisService {
 
@@ -13,6 +17,35 @@ public interface AiAnalysisService {
      */
     AiAnalysisResponse requestAnalysis(UUID encounterId, UUID authId);
 
+    /**
+     * Async variant of requestAnalysis: validates ownership, queues the analysis on the
+     * AI executor and returns immediately with a QUEUED job.
+     * Throws AiServiceException(503) if the job queue is full.
+     */
+    AnalysisJobResponse submitAnalysis(UUID encounterId, UUID authId);
+
+    /**
+     * Returns the job state once the job finishes or waitSeconds elapses (long-poll),
+     * capped at ai.jobs.max-wait-seconds. waitSeconds = 0 returns the current state.
+     * Throws AiServiceException(404) if the job is unknown, expired, or submitted by someone else.
+     */
+    CompletableFuture<AnalysisJobResponse> getAnalysisJob(UUID jobId, UUID authId, int waitSeconds);
+
+    /**
+     * Streaming variant of requestAnalysis: validates ownership synchronously, then runs the
+     * analysis on the AI executor and reports model output to the listener as it arrives.
+     * If the snapshot is unchanged the listener only receives onComplete with the latest result.
+     * Throws AiServiceException(403/404) before anything is streamed, or (503) if the queue is full.
+     */
+    void streamAnalysis(UUID encounterId, UUID authId, AnalysisStreamListener listener);
+
+    /**
+     * Background re-analysis for a claimed ai_analysis_triggers row (no caller, no audit row).
+     * Skips the Gemini call if the snapshot is unchanged. Must not be called inside a transaction.
+     * Throws on Gemini or persistence failure so the poller can reschedule the trigger.
+     */
+    void runTriggeredAnalysis(AiAnalysisTrigger trigger);
+
     /**
      * Returns the most recent analysis result for the patient across all encounters.
      * Throws AiServiceException(404) if none exists yet.
@@ -20,8 +53,22 @@ public interface AiAnalysisService {
     AiAnalysisResponse getLatestAnalysisForPatient(UUID patientId, UUID providerId);
 
     /**
-     * Returns all analysis results for the patient, newest first.
-     * Returns empty list if none exist yet.
+     * Returns the patient's complete analysis history, newest first, with full results.
+     * Kept for existing clients of GET /patient/{id}/history; new callers page with
+     * getAnalysisPage and load single analyses with getAnalysis.
      */
     List<AiAnalysisResponse> getPatientHistory(UUID patientId, UUID providerId);
+
+    /**
+     * Returns one page of the patient's analysis history, newest first, as summary-free rows;
+     * pass the previous page's next_cursor to continue (null for the first page). Size is capped
+     * at 100. Throws AiServiceException(400) for a malformed cursor.
+     */
+    AnalysisHistoryPage getAnalysisPage(UUID patientId, UUID providerId, String cursor, int size);
+
+    /**
+     * Returns one full analysis from the patient's history.
+     * Throws AiServiceException(404) if it does not exist or belongs to another patient.
+     */
+    AiAnalysisResponse getAnalysis(UUID patientId, UUID analysisId, UUID providerId);
 }
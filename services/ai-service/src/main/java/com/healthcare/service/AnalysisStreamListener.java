@@ -0,0 +1,16 @@
+package com.healthcare.service;
+
+import com.healthcare.dto.AiAnalysisResponse;
+import com.healthcare.exception.AiServiceException;
+
+/**
+ * Receives a streamed analysis: zero or more summary deltas and risk flags from the model,
+ * then exactly one of {@link #onComplete} or {@link #onError}.
+ */
+public interface AnalysisStreamListener extends GeminiClient.StreamListener {
+
+    /** The persisted (or unchanged, previously persisted) analysis. */
+    void onComplete(AiAnalysisResponse response);
+
+    void onError(AiServiceException error);
+}
@@ -1,6 +1,9 @@
 package com.healthcare.service;
 
 import com.healthcare.dto.GeminiAnalysisResult;
+import com.healthcare.dto.RiskFlag;
+
+import java.util.Map;
 
 public interface GeminiClient {
 
@@ -9,4 +12,27 @@ public interface GeminiClient {
      * Throws AiServiceException(GEMINI_ERROR) on any failure.
      */
     GeminiAnalysisResult analyze(String prompt);
+
+    /**
+     * Sends a multi-patient prompt that asks for {"results": [{"ref", "summary", "risk_flags"}]}
+     * and returns the results keyed by ref. Refs the model omitted are absent from the map.
+     * Throws AiServiceException(GEMINI_ERROR) if the call fails or the response is not parseable.
+     */
+    Map<String, GeminiAnalysisResult> analyzeBatch(String prompt);
+
+    /**
+     * Like {@link #analyze}, but streams the answer: summary text and risk flags are passed to
+     * the listener as the model produces them, and the fully parsed result is returned at the end.
+     * Fallback and retries only apply while nothing has been streamed yet.
+     */
+    GeminiAnalysisResult analyzeStreaming(String prompt, StreamListener listener);
+
+    interface StreamListener {
+
+        /** Next decoded chunk of the summary text. */
+        void onSummaryDelta(String text);
+
+        /** A risk flag, as soon as it is complete. */
+        void onRiskFlag(RiskFlag flag);
+    }
 }
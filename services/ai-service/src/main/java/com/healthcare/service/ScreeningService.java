@@ -0,0 +1,21 @@
+package com.healthcare.service;
+
+import com.healthcare.dto.ScreeningRunResponse;
+
+import java.util.UUID;
+
+public interface ScreeningService {
+
+    /**
+     * Starts a batch screening sweep over all living patients, or resumes the latest one
+     * from its cursor if it did not complete. Returns immediately; the sweep runs in the background.
+     * Throws AiServiceException(409) if a sweep is already running.
+     */
+    ScreeningRunResponse startOrResume();
+
+    /**
+     * Current progress and throughput of a sweep.
+     * Throws AiServiceException(404) if the run does not exist.
+     */
+    ScreeningRunResponse getRun(UUID runId);
+}
@@ -1,26 +1,24 @@
 package com.healthcare.service.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.config.AiAsyncConfig;
+import com.healthcare.config.AiJobConfig;
+import com.healthcare.config.DataSourceWorkload;
 import com.healthcare.dao.AiAnalysisResultDao;
-import com.healthcare.dao.AllergyDao;
 import com.healthcare.dao.AuditLogDao;
-import com.healthcare.dao.ConditionDao;
 import com.healthcare.dao.EncounterDao;
-import com.healthcare.dao.PatientDao;
 import com.healthcare.dao.ProviderDao;
 import com.healthcare.dto.AiAnalysisResponse;
+import com.healthcare.dto.AnalysisHistoryItem;
+import com.healthcare.dto.AnalysisHistoryPage;
+import com.healthcare.dto.AnalysisJobResponse;
 import com.healthcare.dto.ClinicalSnapshot;
 import com.healthcare.dto.GeminiAnalysisResult;
-import com.healthcare.dto.RiskFlag;
-import com.healthcare.dto.SnapshotItem;
 import com.healthcare.entity.AiAnalysisResult;
-import com.healthcare.entity.Allergy;
+import com.healthcare.entity.AiAnalysisTrigger;
 import com.healthcare.entity.AuditLog;
-import com.healthcare.entity.Condition;
 import com.healthcare.entity.Encounter;
-import com.healthcare.entity.Patient;
 import com.healthcare.entity.Provider;
 import com.healthcare.enums.ActionType;
 import com.healthcare.enums.AiTriggerType;
@@ -28,23 +26,35 @@ import com.healthcare.enums.Outcome;
 import com.healthcare.enums.UserRole;
 import com.healthcare.exception.AiServiceException;
 import com.healthcare.service.AiAnalysisService;
+import com.healthcare.service.AnalysisStreamListener;
 import com.healthcare.service.GeminiClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.time.LocalDate;
-import java.util.Comparator;
-import java.util.HashSet;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class AiAnalysisServiceImpl implements AiAnalysisService {
@@ -52,87 +62,150 @@ public class AiAnalysisServiceImpl implements AiAnalysisService {
     private static final Logger log = LoggerFactory.getLogger(AiAnalysisServiceImpl.class);
 
     private static final String RESOURCE_AI = "ai_analysis_results";
-    private static final String DISCLAIMER =
+    static final String DISCLAIMER =
             "AI-generated for informational purposes only. Not a diagnosis or treatment recommendation.";
+    private static final Duration SINGLE_FLIGHT_WAIT = Duration.ofSeconds(60);
+    private static final Duration LEASE_POLL         = Duration.ofMillis(500);
+    private static final int      LEASE_SECONDS      = 60;    // outlasts gemini.resilience.call-budget-ms
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     private final AiAnalysisResultDao aiAnalysisResultDao;
-    private final PatientDao          patientDao;
-    private final ConditionDao        conditionDao;
-    private final AllergyDao          allergyDao;
+    private final SnapshotLoader      snapshotLoader;
     private final EncounterDao        encounterDao;
     private final ProviderDao         providerDao;
     private final AuditLogDao         auditLogDao;
     private final GeminiClient        geminiClient;
     private final ObjectMapper        objectMapper;
+    private final PromptBuilder       promptBuilder;
+    private final AnalysisResponseCache responseCache;
+    private final AnalysisJobRegistry jobRegistry;
+    private final AiJobConfig         jobConfig;
+    private final TaskExecutor        analysisExecutor;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate writeTx;
+
+    // in-process coalescing per (patientId, snapshot digest); replicas coordinate via ai_analysis_leases
+    private final SingleFlight<String, AiAnalysisResult> inFlight = new SingleFlight<>();
 
     @Value("${gemini.model:gemini-1.5-pro}")
     private String modelVersion;
 
     public AiAnalysisServiceImpl(AiAnalysisResultDao aiAnalysisResultDao,
-                                  PatientDao patientDao,
-                                  ConditionDao conditionDao,
-                                  AllergyDao allergyDao,
+                                  SnapshotLoader snapshotLoader,
                                   EncounterDao encounterDao,
                                   ProviderDao providerDao,
                                   AuditLogDao auditLogDao,
                                   GeminiClient geminiClient,
-                                  ObjectMapper objectMapper) {
+                                  ObjectMapper objectMapper,
+                                  PromptBuilder promptBuilder,
+                                  AnalysisResponseCache responseCache,
+                                  AnalysisJobRegistry jobRegistry,
+                                  AiJobConfig jobConfig,
+                                  @Qualifier(AiAsyncConfig.AI_ANALYSIS_EXECUTOR) TaskExecutor analysisExecutor,
+                                  PlatformTransactionManager transactionManager) {
         this.aiAnalysisResultDao = aiAnalysisResultDao;
-        this.patientDao          = patientDao;
-        this.conditionDao        = conditionDao;
-        this.allergyDao          = allergyDao;
+        this.snapshotLoader      = snapshotLoader;
         this.encounterDao        = encounterDao;
         this.providerDao         = providerDao;
         this.auditLogDao         = auditLogDao;
         this.geminiClient        = geminiClient;
         this.objectMapper        = objectMapper;
+        this.promptBuilder       = promptBuilder;
+        this.responseCache       = responseCache;
+        this.jobRegistry         = jobRegistry;
+        this.jobConfig           = jobConfig;
+        this.analysisExecutor    = analysisExecutor;
+        this.writeTx             = new TransactionTemplate(transactionManager);
+        this.readOnlyTx          = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     @Override
-    @Transactional
     public AiAnalysisResponse requestAnalysis(UUID encounterId, UUID authId) {
-        Provider provider = providerDao.findByAuthId(authId)
-                .orElseThrow(() -> new AiServiceException(
-                        HttpStatus.FORBIDDEN,
-                        AiServiceException.PROVIDER_NOT_AUTHORIZED,
-                        "No provider record for authId: " + authId));
+        // an analysis is AI work end to end: its reads queue on the AI pool, not behind short requests
+        return DataSourceWorkload.call(AiAsyncConfig.AI_JOB_POOL, () -> requestAnalysisOnAiPool(encounterId, authId));
+    }
 
-        Encounter encounter = encounterDao.findById(encounterId)
-                .orElseThrow(() -> new AiServiceException(
-                        HttpStatus.NOT_FOUND,
-                        AiServiceException.ENCOUNTER_NOT_FOUND,
-                        "Encounter not found: " + encounterId));
+    private AiAnalysisResponse requestAnalysisOnAiPool(UUID encounterId, UUID authId) {
+        UUID patientId = readOnlyTx.execute(status -> authorizeEncounter(encounterId, authId)).getPatientId();
+        AiAnalysisResult result = runAnalysis(patientId, encounterId);
+
+        return writeTx.execute(status -> {
+            auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_AI, Outcome.SUCCESS)
+                    .withAuthId(authId.toString())
+                    .withUserRole(UserRole.PROVIDER)
+                    .withResourceId(patientId));
+            return toResponse(result);
+        });
+    }
 
-        if (!provider.getId().equals(encounter.getProviderId())) {
+    @Override
+    public AnalysisJobResponse submitAnalysis(UUID encounterId, UUID authId) {
+        Encounter encounter = readOnlyTx.execute(status -> authorizeEncounter(encounterId, authId));
+        AnalysisJob job = jobRegistry.create(encounter.getPatientId(), encounterId, authId);
+        try {
+            analysisExecutor.execute(() -> runJob(job));
+        } catch (TaskRejectedException e) {
+            jobRegistry.remove(job.getId());
+            log.warn("AI job queue full, rejecting job for encounter={}", encounterId);
             throw new AiServiceException(
-                    HttpStatus.FORBIDDEN,
-                    AiServiceException.PROVIDER_NOT_AUTHORIZED,
-                    "Provider not associated with encounter: " + encounterId);
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    AiServiceException.ANALYSIS_QUEUE_FULL,
+                    "AI analysis queue is full, retry later");
         }
+        log.info("AI analysis job queued: job={}, patient={}, encounter={}",
+                job.getId(), job.getPatientId(), encounterId);
+        return job.toResponse();
+    }
 
-        UUID patientId = encounter.getPatientId();
-        runAnalysis(patientId, encounterId, AiTriggerType.MANUAL, null);
-
-        AiAnalysisResult result = aiAnalysisResultDao
-                .findTopByPatientIdOrderByGeneratedAtDesc(patientId)
+    @Override
+    public CompletableFuture<AnalysisJobResponse> getAnalysisJob(UUID jobId, UUID authId, int waitSeconds) {
+        AnalysisJob job = jobRegistry.find(jobId)
+                .filter(j -> j.getAuthId().equals(authId))
                 .orElseThrow(() -> new AiServiceException(
-                        HttpStatus.INTERNAL_SERVER_ERROR,
-                        AiServiceException.INTERNAL_ERROR,
-                        "No analysis result available for patient: " + patientId));
+                        HttpStatus.NOT_FOUND,
+                        AiServiceException.JOB_NOT_FOUND,
+                        "Analysis job not found: " + jobId));
 
-        auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_AI, Outcome.SUCCESS)
-                .withAuthId(authId.toString())
-                .withUserRole(UserRole.PROVIDER)
-                .withResourceId(patientId));
+        int wait = Math.max(0, Math.min(waitSeconds, jobConfig.getMaxWaitSeconds()));
+        return job.awaitDone(Duration.ofSeconds(wait));
+    }
+
+    @Override
+    public void streamAnalysis(UUID encounterId, UUID authId, AnalysisStreamListener listener) {
+        Encounter encounter = readOnlyTx.execute(status -> authorizeEncounter(encounterId, authId));
+        UUID patientId = encounter.getPatientId();
+        try {
+            analysisExecutor.execute(() -> runStream(patientId, encounterId, authId, listener));
+        } catch (TaskRejectedException e) {
+            log.warn("AI job queue full, rejecting stream for encounter={}", encounterId);
+            throw new AiServiceException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    AiServiceException.ANALYSIS_QUEUE_FULL,
+                    "AI analysis queue is full, retry later");
+        }
+    }
 
-        return toResponse(result);
+    @Override
+    public void runTriggeredAnalysis(AiAnalysisTrigger trigger) {
+        PreparedAnalysis prepared = readOnlyTx.execute(status -> prepareAnalysis(
+                trigger.getPatientId(), trigger.getEncounterId(), trigger.getTriggerType(),
+                trigger.getTriggerCode(), trigger.getTriggeredBy(), false));
+        if (prepared == null || prepared.unchanged()) return;
+        analyzeOutsideTransaction(prepared);
     }
 
     @Override
     @Transactional(readOnly = true)
     public AiAnalysisResponse getLatestAnalysisForPatient(UUID patientId, UUID providerId) {
-        AiAnalysisResult result = aiAnalysisResultDao
-                .findTopByPatientIdOrderByGeneratedAtDesc(patientId)
+        List<UUID> latest = aiAnalysisResultDao.findResultIds(patientId, PageRequest.of(0, 1));
+        if (latest.isEmpty()) {
+            throw new AiServiceException(
+                    HttpStatus.NOT_FOUND,
+                    AiServiceException.NO_ANALYSIS_FOUND,
+                    "No analysis found for patient: " + patientId);
+        }
+        AiAnalysisResponse response = loadResponse(patientId, latest.get(0))
                 .orElseThrow(() -> new AiServiceException(
                         HttpStatus.NOT_FOUND,
                         AiServiceException.NO_ANALYSIS_FOUND,
@@ -143,182 +216,387 @@ public class AiAnalysisServiceImpl implements AiAnalysisService {
                 .withUserRole(UserRole.PROVIDER)
                 .withResourceId(patientId));
 
-        return toResponse(result);
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AiAnalysisResponse> getPatientHistory(UUID patientId, UUID providerId) {
-        List<AiAnalysisResult> results = aiAnalysisResultDao
-                .findByPatientIdOrderByGeneratedAtDesc(patientId);
+        List<UUID> ids = aiAnalysisResultDao.findResultIds(patientId, Pageable.unpaged());
+        List<AiAnalysisResponse> history = loadResponses(patientId, ids);
 
         auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_AI, Outcome.SUCCESS)
                 .withAuthId(providerId.toString())
                 .withUserRole(UserRole.PROVIDER)
                 .withResourceId(patientId));
 
-        return results.stream().map(this::toResponse).toList();
+        return history;
     }
 
-    // -------------------------------------------------------------------------
+    @Override
+    @Transactional(readOnly = true)
+    public AnalysisHistoryPage getAnalysisPage(UUID patientId, UUID providerId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        // one extra row tells whether another page follows
+        PageRequest fetch = PageRequest.of(0, limit + 1);
+        List<AiAnalysisResultDao.HistoryEntry> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = aiAnalysisResultDao.findHistory(patientId, fetch);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = aiAnalysisResultDao.findHistoryBefore(patientId, after.generatedAt(), after.id(), fetch);
+        }
 
-    private void runAnalysis(UUID patientId, UUID encounterId,
-                              AiTriggerType triggerType, String triggerCode) {
-        Patient patient = patientDao.findById(patientId).orElse(null);
-        if (patient == null) {
-            log.warn("runAnalysis: patient not found, skipping. patientId={}", patientId);
-            return;
+        List<AiAnalysisResultDao.HistoryEntry> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            AiAnalysisResultDao.HistoryEntry last = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(last.getGeneratedAt(), last.getId()).encode();
         }
 
-        List<Condition> conditions = conditionDao.findByIdPatientId(patientId);
-        List<Allergy>   allergies  = allergyDao.findByIdPatientId(patientId);
-        List<Encounter> encounters = encounterDao.findByPatientId(patientId);
+        auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_AI, Outcome.SUCCESS)
+                .withAuthId(providerId.toString())
+                .withUserRole(UserRole.PROVIDER)
+                .withResourceId(patientId));
 
-        Map<UUID, LocalDate> encounterDates = encounters.stream()
-                .filter(e -> e.getStartTime() != null)
-                .collect(Collectors.toMap(
-                        Encounter::getId,
-                        e -> e.getStartTime().toLocalDate(),
-                        (a, b) -> a));
+        return new AnalysisHistoryPage(page.stream()
+                .map(r -> new AnalysisHistoryItem(
+                        r.getId(), r.getGeneratedAt(), r.getTriggerType(), r.getModelVersion(), r.getFlagCount()))
+                .toList(), nextCursor);
+    }
 
-        List<SnapshotItem> conditionItems = buildConditionItems(conditions, encounterDates);
-        List<SnapshotItem> allergyItems   = buildAllergyItems(allergies, encounterDates);
+    @Override
+    @Transactional(readOnly = true)
+    public AiAnalysisResponse getAnalysis(UUID patientId, UUID analysisId, UUID providerId) {
+        AiAnalysisResponse response = loadResponse(patientId, analysisId)
+                .orElseThrow(() -> new AiServiceException(
+                        HttpStatus.NOT_FOUND,
+                        AiServiceException.NO_ANALYSIS_FOUND,
+                        "Analysis not found: " + analysisId));
 
-        if (snapshotUnchanged(patientId, conditionItems, allergyItems)) {
-            log.debug("Snapshot unchanged for patient={}, skipping Gemini call", patientId);
-            return;
-        }
+        auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_AI, Outcome.SUCCESS)
+                .withAuthId(providerId.toString())
+                .withUserRole(UserRole.PROVIDER)
+                .withResourceId(patientId));
 
-        ClinicalSnapshot snapshot = new ClinicalSnapshot(triggerCode, conditionItems, allergyItems);
-        String inputRecordIds = toJson(snapshot);
+        return response;
+    }
 
-        String prompt = buildPrompt(patient, conditions, allergies, encounters);
-        GeminiAnalysisResult geminiResult = geminiClient.analyze(prompt);
+    // -------------------------------------------------------------------------
 
-        AiAnalysisResult result = new AiAnalysisResult(
-                patientId,
-                geminiResult.summary(),
-                toJson(geminiResult.riskFlags()),
-                triggerType,
-                null,
-                modelVersion,
-                inputRecordIds,
-                encounterId);
+    private Encounter authorizeEncounter(UUID encounterId, UUID authId) {
+        Provider provider = providerDao.findByAuthId(authId)
+                .orElseThrow(() -> new AiServiceException(
+                        HttpStatus.FORBIDDEN,
+                        AiServiceException.PROVIDER_NOT_AUTHORIZED,
+                        "No provider record for authId: " + authId));
 
-        aiAnalysisResultDao.save(result);
-        log.info("AI analysis saved: patient={}, encounter={}, trigger={}",
-                patientId, encounterId, triggerType);
+        Encounter encounter = encounterDao.findById(encounterId)
+                .orElseThrow(() -> new AiServiceException(
+                        HttpStatus.NOT_FOUND,
+                        AiServiceException.ENCOUNTER_NOT_FOUND,
+                        "Encounter not found: " + encounterId));
+
+        if (!provider.getId().equals(encounter.getProviderId())) {
+            throw new AiServiceException(
+                    HttpStatus.FORBIDDEN,
+                    AiServiceException.PROVIDER_NOT_AUTHORIZED,
+                    "Provider not associated with encounter: " + encounterId);
+        }
+        return encounter;
     }
 
-    private boolean snapshotUnchanged(UUID patientId,
-                                       List<SnapshotItem> conditionItems,
-                                       List<SnapshotItem> allergyItems) {
-        Optional<AiAnalysisResult> lastOpt =
-                aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId);
-        if (lastOpt.isEmpty()) return false;
+    /**
+     * Interactive pipeline. Returns the row the caller should see: the one it just persisted,
+     * the unchanged one it reused, or the one a concurrent caller produced for the same
+     * snapshot — never a re-read of "latest", which another writer could have replaced in
+     * the meantime. No transaction is open across the Gemini call; see analyzeOutsideTransaction.
+     */
+    private AiAnalysisResult runAnalysis(UUID patientId, UUID encounterId) {
+        PreparedAnalysis prepared = readOnlyTx.execute(status -> prepareAnalysis(
+                patientId, encounterId, AiTriggerType.MANUAL, null, null, true));
+        if (prepared == null) throw patientNotFound(patientId);
+        if (prepared.unchanged()) return prepared.reused();
+        return analyzeOutsideTransaction(prepared);
+    }
 
+    /**
+     * Async job body. Runs on the AI executor with no transaction open during the Gemini call.
+     */
+    private void runJob(AnalysisJob job) {
+        if (!job.markRunning()) return;   // timed out while queued
+        UUID patientId = job.getPatientId();
         try {
-            JsonNode root = objectMapper.readTree(lastOpt.get().getInputRecordIds());
-            return itemFingerprints(conditionItems).equals(fingerprintsFromNode(root.path("conditions")))
-                    && itemFingerprints(allergyItems).equals(fingerprintsFromNode(root.path("allergies")));
-        } catch (Exception e) {
-            log.warn("Snapshot comparison failed, proceeding with analysis: {}", e.getMessage());
-            return false;
+            PreparedAnalysis prepared = readOnlyTx.execute(status -> prepareAnalysis(
+                    patientId, job.getEncounterId(), AiTriggerType.MANUAL, null, null, true));
+            if (prepared == null) throw patientNotFound(patientId);
+
+            AiAnalysisResult result = prepared.unchanged()
+                    ? prepared.reused() : analyzeOutsideTransaction(prepared);
+
+            AiAnalysisResponse response = writeTx.execute(status -> {
+                auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_AI, Outcome.SUCCESS)
+                        .withAuthId(job.getAuthId().toString())
+                        .withUserRole(UserRole.PROVIDER)
+                        .withResourceId(patientId));
+                return toResponse(result);
+            });
+            job.succeed(response);
+        } catch (AiServiceException e) {
+            log.warn("AI job {} failed [{}]: {}", job.getId(), e.getErrorCode(), e.getMessage());
+            job.fail(e.getStatus());
+        } catch (RuntimeException e) {
+            log.error("AI job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.fail(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    private Set<String> itemFingerprints(List<SnapshotItem> items) {
-        return items.stream()
-                .map(i -> i.code() + "|" + str(i.startDate()) + "|" + str(i.stopDate()) + "|" + str(i.encounterDate()))
-                .collect(Collectors.toCollection(HashSet::new));
+    /**
+     * Streaming job body. Deliberately outside the single-flight group: a follower could not
+     * replay the leader's stream, so concurrent streams for one snapshot each call Gemini and
+     * the advisory lock plus digest re-check keeps only the first result.
+     */
+    private void runStream(UUID patientId, UUID encounterId, UUID authId, AnalysisStreamListener listener) {
+        try {
+            PreparedAnalysis prepared = readOnlyTx.execute(status -> prepareAnalysis(
+                    patientId, encounterId, AiTriggerType.MANUAL, null, null, true));
+            if (prepared == null) throw patientNotFound(patientId);
+
+            GeminiAnalysisResult geminiResult = prepared.unchanged()
+                    ? null : geminiClient.analyzeStreaming(prepared.prompt(), listener);
+
+            AiAnalysisResponse response = writeTx.execute(status -> {
+                AiAnalysisResult result = prepared.reused();
+                if (geminiResult != null) {
+                    aiAnalysisResultDao.acquireAnalysisLock(patientId);
+                    AiAnalysisResult concurrent = concurrentResult(prepared);
+                    result = concurrent != null ? concurrent : saveResult(prepared, geminiResult);
+                }
+                auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_AI, Outcome.SUCCESS)
+                        .withAuthId(authId.toString())
+                        .withUserRole(UserRole.PROVIDER)
+                        .withResourceId(patientId));
+                return toResponse(result);
+            });
+            listener.onComplete(response);
+        } catch (AiServiceException e) {
+            log.warn("AI stream for encounter={} failed [{}]: {}", encounterId, e.getErrorCode(), e.getMessage());
+            listener.onError(e);
+        } catch (RuntimeException e) {
+            log.error("AI stream for encounter={} failed: {}", encounterId, e.getMessage(), e);
+            listener.onError(new AiServiceException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    AiServiceException.INTERNAL_ERROR,
+                    "Analysis stream failed for encounter: " + encounterId));
+        }
     }
 
-    private Set<String> fingerprintsFromNode(JsonNode array) {
-        Set<String> result = new HashSet<>();
-        if (!array.isArray()) return result;
-        for (JsonNode node : array) {
-            result.add(nodeText(node, "code")
-                    + "|" + nodeText(node, "start_date", "startDate")
-                    + "|" + nodeText(node, "stop_date", "stopDate")
-                    + "|" + nodeText(node, "encounter_date", "encounterDate"));
+    /**
+     * Calls Gemini for an already prepared (changed) snapshot and saves the result. Every
+     * non-streaming path goes through here. Returns the saved row, or the row another caller
+     * saved for the same snapshot first.
+     *
+     * Callers in this JVM coalesce on the single-flight group. Across replicas the leader holds
+     * the patient's lease row while it calls Gemini: the lease is claimed and the result saved in
+     * two short transactions under the advisory lock, and no connection is held in between. A
+     * leader that finds the lease taken waits for the other replica's result, polling with no
+     * transaction open.
+     */
+    private AiAnalysisResult analyzeOutsideTransaction(PreparedAnalysis prepared) {
+        UUID patientId = prepared.patientId();
+        SingleFlight.Call<AiAnalysisResult> call = inFlight.join(prepared.flightKey());
+        if (!call.isLeader()) {
+            log.debug("Analysis already in flight for patient={}, waiting for it", patientId);
+            return awaitInFlight(call, patientId);
+        }
+        try {
+            AiAnalysisResult result = analyzeUnderLease(prepared);
+            call.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            call.fail(e);
+            throw e;
         }
-        return result;
     }
 
-    private String nodeText(JsonNode node, String... keys) {
-        for (String key : keys) {
-            JsonNode child = node.path(key);
-            if (!child.isMissingNode()) return child.isNull() ? "null" : child.asText();
+    private AiAnalysisResult analyzeUnderLease(PreparedAnalysis prepared) {
+        UUID patientId = prepared.patientId();
+        UUID holder = UUID.randomUUID();
+        AiAnalysisResult concurrent = claimLease(prepared, holder);
+        if (concurrent != null) return concurrent;
+
+        try {
+            GeminiAnalysisResult geminiResult = geminiClient.analyze(prepared.prompt());
+            return writeTx.execute(status -> {
+                aiAnalysisResultDao.acquireAnalysisLock(patientId);
+                // a stream, or a replica that took over an expired lease, may have saved first
+                AiAnalysisResult saved = concurrentResult(prepared);
+                if (saved == null) saved = saveResult(prepared, geminiResult);
+                aiAnalysisResultDao.releaseAnalysisLease(patientId, holder);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            releaseLease(patientId, holder);
+            throw e;
         }
-        return "null";
     }
 
-    private String str(String value) {
-        return value != null ? value : "null";
+    /**
+     * Claims the patient's lease for holder and returns null, or returns the row another replica
+     * saved for this snapshot while this one waited for its lease to end.
+     */
+    private AiAnalysisResult claimLease(PreparedAnalysis prepared, UUID holder) {
+        UUID patientId = prepared.patientId();
+        long waitUntil = System.nanoTime() + SINGLE_FLIGHT_WAIT.toNanos();
+        while (true) {
+            LeaseClaim claim = writeTx.execute(status -> {
+                aiAnalysisResultDao.acquireAnalysisLock(patientId);
+                AiAnalysisResult concurrent = concurrentResult(prepared);
+                if (concurrent != null) return new LeaseClaim(concurrent, false);
+                boolean claimed = aiAnalysisResultDao.claimAnalysisLease(patientId, holder, LEASE_SECONDS) == 1;
+                return new LeaseClaim(null, claimed);
+            });
+            if (claim.concurrent() != null) {
+                log.debug("Snapshot analyzed concurrently for patient={}, skipping Gemini call", patientId);
+                return claim.concurrent();
+            }
+            if (claim.claimed()) return null;
+
+            if (System.nanoTime() - waitUntil > 0) {
+                throw new AiServiceException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        AiServiceException.ANALYSIS_IN_PROGRESS,
+                        "Analysis still in progress for patient: " + patientId);
+            }
+            log.debug("Patient={} is being analyzed by another replica, waiting for it", patientId);
+            try {
+                Thread.sleep(LEASE_POLL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an analysis lease", e);
+            }
+        }
     }
 
-    private List<SnapshotItem> buildConditionItems(List<Condition> conditions,
-                                                    Map<UUID, LocalDate> encounterDates) {
-        return conditions.stream()
-                .map(c -> new SnapshotItem(
-                        c.getCode(),
-                        c.getDescription(),
-                        c.getStartDate() != null ? c.getStartDate().toString() : null,
-                        c.getStopDate()  != null ? c.getStopDate().toString()  : null,
-                        dateString(encounterDates.get(c.getId().getEncounterId()))))
-                .sorted(Comparator.comparing(SnapshotItem::code))
-                .toList();
+    /**
+     * Best effort after a failed analysis: an unreleased lease only delays others until it expires.
+     */
+    private void releaseLease(UUID patientId, UUID holder) {
+        try {
+            writeTx.executeWithoutResult(status -> aiAnalysisResultDao.releaseAnalysisLease(patientId, holder));
+        } catch (RuntimeException e) {
+            log.warn("Could not release analysis lease for patient={}: {}", patientId, e.getMessage());
+        }
     }
 
-    private List<SnapshotItem> buildAllergyItems(List<Allergy> allergies,
-                                                  Map<UUID, LocalDate> encounterDates) {
-        return allergies.stream()
-                .map(a -> new SnapshotItem(
-                        a.getId().getCode(),
-                        a.getDescription(),
-                        a.getStartDate() != null ? a.getStartDate().toString() : null,
-                        a.getStopDate()  != null ? a.getStopDate().toString()  : null,
-                        dateString(encounterDates.get(a.getId().getEncounterId()))))
-                .sorted(Comparator.comparing(SnapshotItem::code))
-                .toList();
+    private record LeaseClaim(AiAnalysisResult concurrent, boolean claimed) {}
+
+    /**
+     * Loads the clinical data, computes the snapshot digest and — only if the snapshot changed —
+     * builds the prompt. Returns null if the patient does not exist.
+     *
+     * With loadReused the change check reads the latest row itself, so an unchanged snapshot
+     * comes back with the row to return; otherwise only its digest is read.
+     */
+    private PreparedAnalysis prepareAnalysis(UUID patientId, UUID encounterId,
+                                             AiTriggerType triggerType, String triggerCode,
+                                             UUID triggeredBy, boolean loadReused) {
+        PatientSnapshot data = snapshotLoader.load(patientId);
+        if (data == null) {
+            log.warn("runAnalysis: patient not found, skipping. patientId={}", patientId);
+            return null;
+        }
+
+        byte[] snapshotDigest = data.digest();
+        AiAnalysisResult reused = null;
+        boolean unchanged;
+        if (loadReused) {
+            reused = aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId)
+                    .filter(r -> SnapshotDigest.matches(snapshotDigest, r.getSnapshotDigest()))
+                    .orElse(null);
+            unchanged = reused != null;
+        } else {
+            unchanged = snapshotUnchanged(patientId, snapshotDigest);
+        }
+        if (unchanged) {
+            log.debug("Snapshot unchanged for patient={}, skipping Gemini call", patientId);
+            return PreparedAnalysis.unchanged(patientId, encounterId, triggerType, triggeredBy, snapshotDigest, reused);
+        }
+
+        ClinicalSnapshot snapshot = new ClinicalSnapshot(triggerCode, data.conditionItems(), data.allergyItems());
+        return new PreparedAnalysis(patientId, encounterId, triggerType, triggeredBy, snapshotDigest, false,
+                null, toJson(snapshot), promptBuilder.analysisPrompt(data));
     }
 
-    private String dateString(LocalDate date) {
-        return date != null ? date.toString() : null;
+    private AiAnalysisResult saveResult(PreparedAnalysis prepared, GeminiAnalysisResult geminiResult) {
+        AiAnalysisResult result = new AiAnalysisResult(
+                prepared.patientId(),
+                geminiResult.summary(),
+                geminiResult.riskFlags(),
+                prepared.triggerType(),
+                prepared.triggeredBy(),
+                modelVersion,
+                prepared.inputRecordIds(),
+                prepared.snapshotDigest(),
+                prepared.encounterId());
+
+        aiAnalysisResultDao.save(result);
+        log.info("AI analysis saved: patient={}, encounter={}, trigger={}",
+                prepared.patientId(), prepared.encounterId(), prepared.triggerType());
+        return result;
     }
 
-    private String buildPrompt(Patient patient, List<Condition> conditions,
-                                List<Allergy> allergies, List<Encounter> encounters) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Analyze the following patient medical history and provide a clinical summary and risk flags.\n\n");
-        sb.append("Patient: ").append(patient.getFirstName()).append(" ").append(patient.getLastName());
-        if (patient.getBirthdate() != null) {
-            sb.append(", DOB: ").append(patient.getBirthdate());
+    /**
+     * reused is the unchanged latest row, when prepared with loadReused.
+     */
+    private record PreparedAnalysis(UUID patientId, UUID encounterId, AiTriggerType triggerType,
+                                    UUID triggeredBy, byte[] snapshotDigest, boolean unchanged,
+                                    AiAnalysisResult reused, String inputRecordIds, String prompt) {
+
+        static PreparedAnalysis unchanged(UUID patientId, UUID encounterId, AiTriggerType triggerType,
+                                          UUID triggeredBy, byte[] snapshotDigest, AiAnalysisResult reused) {
+            return new PreparedAnalysis(patientId, encounterId, triggerType, triggeredBy, snapshotDigest,
+                    true, reused, null, null);
         }
-        sb.append("\n\nConditions (").append(conditions.size()).append("):\n");
-        for (Condition c : conditions) {
-            sb.append("- ").append(c.getCode());
-            if (c.getDescription() != null) sb.append(": ").append(c.getDescription());
-            if (c.getStartDate() != null) sb.append(" (since ").append(c.getStartDate()).append(")");
-            sb.append("\n");
-        }
-        sb.append("\nAllergies (").append(allergies.size()).append("):\n");
-        for (Allergy a : allergies) {
-            sb.append("- ").append(a.getDescription() != null ? a.getDescription() : a.getId().getCode());
-            if (a.getReaction1() != null) sb.append(", reaction: ").append(a.getReaction1());
-            if (a.getSeverity1() != null) sb.append(", severity: ").append(a.getSeverity1());
-            sb.append("\n");
+
+        String flightKey() {
+            return patientId + ":" + HexFormat.of().formatHex(snapshotDigest);
         }
-        sb.append("\nRecent encounters (").append(encounters.size()).append("):\n");
-        for (Encounter e : encounters) {
-            sb.append("- ").append(e.getEncounterType() != null ? e.getEncounterType() : "Visit");
-            if (e.getStartTime() != null) sb.append(" on ").append(e.getStartTime().toLocalDate());
-            sb.append("\n");
+    }
+
+    /**
+     * Followers wait for the leader's commit and share the row it persisted or reused.
+     */
+    private AiAnalysisResult awaitInFlight(SingleFlight.Call<AiAnalysisResult> call, UUID patientId) {
+        try {
+            return call.await(SINGLE_FLIGHT_WAIT);
+        } catch (TimeoutException e) {
+            throw new AiServiceException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    AiServiceException.ANALYSIS_IN_PROGRESS,
+                    "Analysis still in progress for patient: " + patientId);
         }
-        sb.append("\nRespond ONLY with valid JSON, no markdown:\n");
-        sb.append("{\"summary\": \"...\", \"risk_flags\": [{\"flag\": \"...\", \"reason\": \"...\"}], ");
-        sb.append("\"disclaimer\": \"").append(DISCLAIMER).append("\"}");
-        return sb.toString();
+    }
+
+    /**
+     * Under the advisory lock: the row a concurrent caller saved for this snapshot, if any.
+     * Checks the digest alone first, since a concurrent hit is rare.
+     */
+    private AiAnalysisResult concurrentResult(PreparedAnalysis prepared) {
+        if (!snapshotUnchanged(prepared.patientId(), prepared.snapshotDigest())) return null;
+        return aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(prepared.patientId()).orElse(null);
+    }
+
+    private AiServiceException patientNotFound(UUID patientId) {
+        return new AiServiceException(
+                HttpStatus.NOT_FOUND,
+                AiServiceException.PATIENT_NOT_FOUND,
+                "Patient not found: " + patientId);
+    }
+
+    private boolean snapshotUnchanged(UUID patientId, byte[] snapshotDigest) {
+        List<byte[]> latest = aiAnalysisResultDao.findLatestSnapshotDigest(patientId);
+        return !latest.isEmpty() && SnapshotDigest.matches(snapshotDigest, latest.get(0));
     }
 
     private String toJson(Object value) {
@@ -330,26 +608,62 @@ public class AiAnalysisServiceImpl implements AiAnalysisService {
         }
     }
 
+    /**
+     * The patient's analysis with this id, from the response cache or loaded in full.
+     */
+    private Optional<AiAnalysisResponse> loadResponse(UUID patientId, UUID analysisId) {
+        AiAnalysisResponse cached = responseCache.get(patientId, analysisId);
+        if (cached != null) return Optional.of(cached);
+        return aiAnalysisResultDao.findById(analysisId)
+                .filter(r -> r.getPatientId().equals(patientId))
+                .map(this::toResponse);
+    }
+
+    /**
+     * The patient's analyses with these ids in the given order; only those not in the
+     * response cache are loaded, with one findAllById.
+     */
+    private List<AiAnalysisResponse> loadResponses(UUID patientId, List<UUID> ids) {
+        Map<UUID, AiAnalysisResponse> byId = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            AiAnalysisResponse cached = responseCache.get(patientId, id);
+            if (cached != null) byId.put(id, cached);
+            else missing.add(id);
+        }
+        if (!missing.isEmpty()) {
+            for (AiAnalysisResult result : aiAnalysisResultDao.findAllById(missing)) {
+                byId.put(result.getId(), toResponse(result));
+            }
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Builds the response and remembers it in the response cache — rows are immutable. Inside a
+     * transaction the entry is added only after commit: a row saved by a transaction that then
+     * rolls back must not be served from the cache.
+     */
     private AiAnalysisResponse toResponse(AiAnalysisResult result) {
-        return new AiAnalysisResponse(
+        AiAnalysisResponse response = new AiAnalysisResponse(
                 result.getPatientId(),
                 result.getLastEncounterId(),
                 result.getGeneratedAt(),
                 result.getSummary(),
-                parseRiskFlags(result.getRiskFlags()),
+                result.getRiskFlags(),
                 DISCLAIMER,
                 result.getModelVersion(),
                 result.getTriggerType());
-    }
-
-    @SuppressWarnings("unchecked")
-    private List<RiskFlag> parseRiskFlags(String riskFlagsJson) {
-        try {
-            return objectMapper.readValue(riskFlagsJson,
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, RiskFlag.class));
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to parse risk_flags JSON: {}", e.getMessage());
-            return List.of();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    responseCache.put(result.getPatientId(), result.getId(), response);
+                }
+            });
+        } else {
+            responseCache.put(result.getPatientId(), result.getId(), response);
         }
+        return response;
     }
 }
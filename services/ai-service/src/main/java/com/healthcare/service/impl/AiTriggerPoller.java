@@ -0,0 +1,90 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiAsyncConfig;
+import com.healthcare.config.AiTriggerConfig;
+import com.healthcare.config.DataSourceWorkload;
+import com.healthcare.dao.AiAnalysisTriggerDao;
+import com.healthcare.entity.AiAnalysisTrigger;
+import com.healthcare.exception.AiServiceException;
+import com.healthcare.service.AiAnalysisService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains the ai_analysis_triggers outbox written by provider-service.
+ *
+ * Each poll claims a batch of patients whose last edit is older than the debounce window,
+ * so a provider entering ten conditions in a row causes one re-analysis, not ten.
+ * Rows are leased, not locked, while Gemini runs: a crashed replica's rows become claimable
+ * again once lease-seconds pass.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ai.triggers", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AiTriggerPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(AiTriggerPoller.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final AiAnalysisTriggerDao triggerDao;
+    private final AiAnalysisService    aiAnalysisService;
+    private final AiTriggerConfig      config;
+    private final TransactionTemplate  tx;
+
+    public AiTriggerPoller(AiAnalysisTriggerDao triggerDao,
+                           AiAnalysisService aiAnalysisService,
+                           AiTriggerConfig config,
+                           PlatformTransactionManager transactionManager) {
+        this.triggerDao        = triggerDao;
+        this.aiAnalysisService = aiAnalysisService;
+        this.config            = config;
+        this.tx                = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${ai.triggers.poll-interval-ms:5000}")
+    public void poll() {
+        DataSourceWorkload.run(AiAsyncConfig.AI_JOB_POOL, this::drain);
+    }
+
+    private void drain() {
+        List<AiAnalysisTrigger> claimed = tx.execute(status -> triggerDao.claimDue(
+                config.getDebounceSeconds(), config.getLeaseSeconds(), config.getBatchSize()));
+        if (claimed == null || claimed.isEmpty()) return;
+
+        log.debug("Claimed {} AI re-analysis trigger(s)", claimed.size());
+        for (AiAnalysisTrigger trigger : claimed) {
+            process(trigger);
+        }
+    }
+
+    void process(AiAnalysisTrigger trigger) {
+        try {
+            aiAnalysisService.runTriggeredAnalysis(trigger);
+            tx.executeWithoutResult(status ->
+                    triggerDao.deleteIfUnchanged(trigger.getPatientId(), trigger.getMarkedAt()));
+            log.info("Triggered re-analysis done: patient={}, trigger={}",
+                    trigger.getPatientId(), trigger.getTriggerType());
+        } catch (RuntimeException e) {
+            String error = e instanceof AiServiceException ae
+                    ? ae.getErrorCode() + ": " + ae.getMessage()
+                    : e.getClass().getSimpleName() + ": " + e.getMessage();
+            int backoff = config.getRetryBackoffSeconds() << Math.min(trigger.getAttempts(), 6);
+            log.warn("Triggered re-analysis failed for patient={} (attempt {}): {}",
+                    trigger.getPatientId(), trigger.getAttempts() + 1, error);
+            tx.executeWithoutResult(status -> triggerDao.reschedule(
+                    trigger.getPatientId(), trigger.getMarkedAt(), backoff,
+                    config.getMaxAttempts(), truncate(error)));
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
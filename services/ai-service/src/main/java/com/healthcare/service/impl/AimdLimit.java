@@ -0,0 +1,52 @@
+package com.healthcare.service.impl;
+
+/**
+ * Adaptive concurrency limit (additive increase, multiplicative decrease).
+ *
+ * Every success raises the limit by 1/limit — roughly +1 per limit's worth of calls —
+ * and every overload signal (429, 503, timeout) halves it, so the number of calls in
+ * flight tracks what the remote can currently absorb instead of a fixed guess.
+ * tryAcquire never blocks; callers that are over the limit are rejected immediately.
+ */
+public final class AimdLimit {
+
+    private static final double BACKOFF_RATIO = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private int    inFlight;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit    = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) return false;
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        inFlight--;
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    public synchronized void onOverload() {
+        inFlight--;
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+
+    /**
+     * Releases the slot without adjusting the limit (non-overload failure).
+     */
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    public synchronized int limit()    { return (int) limit; }
+    public synchronized int inFlight() { return inFlight; }
+}
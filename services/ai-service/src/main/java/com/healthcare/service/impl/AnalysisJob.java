@@ -0,0 +1,106 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.dto.AiAnalysisResponse;
+import com.healthcare.dto.AnalysisJobResponse;
+import com.healthcare.dto.AnalysisJobResponse.Status;
+import com.healthcare.exception.ErrorResponse;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory state of one async analysis job.
+ * The result itself is persisted in ai_analysis_results; this only tracks progress for pollers.
+ * The first outcome wins: a job the registry timed out ignores a late succeed or fail.
+ */
+public final class AnalysisJob {
+
+    private final UUID id;
+    private final UUID patientId;
+    private final UUID encounterId;
+    private final UUID authId;
+    private final OffsetDateTime submittedAt;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile OffsetDateTime completedAt;
+    private volatile AiAnalysisResponse result;
+    private volatile ErrorResponse error;
+
+    AnalysisJob(UUID patientId, UUID encounterId, UUID authId) {
+        this.id          = UUID.randomUUID();
+        this.patientId   = patientId;
+        this.encounterId = encounterId;
+        this.authId      = authId;
+        this.submittedAt = OffsetDateTime.now();
+    }
+
+    public UUID getId()          { return id; }
+    public UUID getPatientId()   { return patientId; }
+    public UUID getEncounterId() { return encounterId; }
+    public UUID getAuthId()      { return authId; }
+
+    /**
+     * False if the job already finished (timed out while queued); the caller should not run it.
+     */
+    synchronized boolean markRunning() {
+        if (done.isDone()) return false;
+        status = Status.RUNNING;
+        return true;
+    }
+
+    synchronized void succeed(AiAnalysisResponse response) {
+        if (done.isDone()) return;
+        result      = response;
+        completedAt = OffsetDateTime.now();
+        status      = Status.SUCCEEDED;
+        done.complete(null);
+    }
+
+    /**
+     * Pollers get the status and reason phrase the synchronous endpoint would have answered,
+     * never the internal error code.
+     */
+    synchronized void fail(HttpStatus httpStatus) {
+        if (done.isDone()) return;
+        error       = ErrorResponse.of(httpStatus.value(), httpStatus.getReasonPhrase());
+        completedAt = OffsetDateTime.now();
+        status      = Status.FAILED;
+        done.complete(null);
+    }
+
+    /**
+     * Fails the job with 504 if it was submitted before the cutoff and has not finished.
+     */
+    synchronized boolean timeOutIfSubmittedBefore(OffsetDateTime cutoff) {
+        if (done.isDone() || !submittedAt.isBefore(cutoff)) return false;
+        fail(HttpStatus.GATEWAY_TIMEOUT);
+        return true;
+    }
+
+    boolean isExpired(OffsetDateTime cutoff) {
+        OffsetDateTime finished = completedAt;
+        return finished != null && finished.isBefore(cutoff);
+    }
+
+    /**
+     * Completes with the job state once the job finishes or {@code wait} elapses, whichever is first.
+     * Never blocks the calling thread.
+     */
+    CompletableFuture<AnalysisJobResponse> awaitDone(Duration wait) {
+        if (wait.isZero() || done.isDone()) {
+            return CompletableFuture.completedFuture(toResponse());
+        }
+        return done.copy().orTimeout(wait.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((ignored, timeout) -> toResponse());
+    }
+
+    AnalysisJobResponse toResponse() {
+        return new AnalysisJobResponse(id, status, patientId, encounterId,
+                submittedAt, completedAt, result, error);
+    }
+}
@@ -0,0 +1,60 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiJobConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds async analysis jobs until pollers have had time to collect them.
+ * A scheduled sweep fails jobs still unfinished after ai.jobs.timeout-minutes, so a job whose
+ * worker hung or died never stays RUNNING, and evicts finished jobs after ai.jobs.retention-minutes.
+ */
+@Component
+public class AnalysisJobRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisJobRegistry.class);
+
+    private final ConcurrentHashMap<UUID, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    private final AiJobConfig config;
+
+    public AnalysisJobRegistry(AiJobConfig config) {
+        this.config = config;
+    }
+
+    public AnalysisJob create(UUID patientId, UUID encounterId, UUID authId) {
+        AnalysisJob job = new AnalysisJob(patientId, encounterId, authId);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public Optional<AnalysisJob> find(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public void remove(UUID jobId) {
+        jobs.remove(jobId);
+    }
+
+    @Scheduled(fixedDelayString = "${ai.jobs.sweep-interval-ms:60000}")
+    public void sweep() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime submittedCutoff = now.minusMinutes(config.getTimeoutMinutes());
+        int timedOut = 0;
+        for (AnalysisJob job : jobs.values()) {
+            if (job.timeOutIfSubmittedBefore(submittedCutoff)) timedOut++;
+        }
+        if (timedOut > 0) {
+            log.warn("Timed out {} AI job(s) unfinished after {} minutes", timedOut, config.getTimeoutMinutes());
+        }
+
+        OffsetDateTime completedCutoff = now.minusMinutes(config.getRetentionMinutes());
+        jobs.values().removeIf(job -> job.isExpired(completedCutoff));
+    }
+}
@@ -0,0 +1,67 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiCacheConfig;
+import com.healthcare.dto.AiAnalysisResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Response DTOs of recently read analyses, grouped per patient.
+ *
+ * Analysis rows are never updated, so an entry keyed by result id cannot go stale and needs no
+ * invalidation — callers still ask the database which ids are current. Least recently used
+ * patients are evicted beyond ai.cache.max-patients, and within a patient the least recently
+ * used results beyond ai.cache.results-per-patient.
+ */
+@Component
+public class AnalysisResponseCache {
+
+    private final int     maxPatients;
+    private final int     resultsPerPatient;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final LinkedHashMap<UUID, LinkedHashMap<UUID, AiAnalysisResponse>> byPatient;
+
+    public AnalysisResponseCache(AiCacheConfig config, MeterRegistry meterRegistry) {
+        this.maxPatients       = config.getMaxPatients();
+        this.resultsPerPatient = Math.max(1, config.getResultsPerPatient());
+        this.hits              = meterRegistry.counter("ai.cache.responses", "result", "hit");
+        this.misses            = meterRegistry.counter("ai.cache.responses", "result", "miss");
+        this.byPatient = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, LinkedHashMap<UUID, AiAnalysisResponse>> eldest) {
+                return size() > maxPatients;
+            }
+        };
+    }
+
+    /**
+     * Cached response for the result with this id, if present.
+     */
+    public synchronized AiAnalysisResponse get(UUID patientId, UUID resultId) {
+        LinkedHashMap<UUID, AiAnalysisResponse> results = byPatient.get(patientId);
+        AiAnalysisResponse response = results != null ? results.get(resultId) : null;
+        (response != null ? hits : misses).increment();
+        return response;
+    }
+
+    public synchronized void put(UUID patientId, UUID resultId, AiAnalysisResponse response) {
+        if (maxPatients <= 0) return;
+        byPatient.computeIfAbsent(patientId, p -> new LinkedHashMap<>(8, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, AiAnalysisResponse> eldest) {
+                return size() > resultsPerPatient;
+            }
+        }).put(resultId, response);
+    }
+
+    synchronized int patientCount() {
+        return byPatient.size();
+    }
+}
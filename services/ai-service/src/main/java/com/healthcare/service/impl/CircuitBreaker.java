@@ -0,0 +1,130 @@
+package com.healthcare.service.impl;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * CLOSED records the outcome of the last windowSize calls and opens once at least
+ * minimumCalls were recorded and the failure rate reaches the threshold. OPEN rejects
+ * every call until openNanos pass, then HALF_OPEN lets exactly one probe through:
+ * success closes the circuit with a fresh window, failure re-opens it.
+ *
+ * All methods are synchronized — state changes are a few field writes, never I/O.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int          minimumCalls;
+    private final int          failureRateThreshold;
+    private final long         openNanos;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int   next;
+    private int   recorded;
+    private int   failures;
+
+    private State   state = State.CLOSED;
+    private long    openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+                          long openNanos, LongSupplier nanoClock) {
+        this.window               = new boolean[windowSize];
+        this.minimumCalls         = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos            = openNanos;
+        this.nanoClock            = nanoClock;
+    }
+
+    /**
+     * Cheap pre-check that does not take the half-open probe slot.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED    -> true;
+            case OPEN      -> openElapsed();
+            case HALF_OPEN -> !probeInFlight;
+        };
+    }
+
+    /**
+     * Returns true if the caller may proceed. In HALF_OPEN the caller that gets true is the
+     * probe and must report onSuccess, onFailure or onIgnored.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (!openElapsed()) return false;
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) return false;
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Call finished with an outcome that says nothing about the remote's health (e.g. a 400).
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private boolean openElapsed() {
+        return nanoClock.getAsLong() - openedAt >= openNanos;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) failures--;
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) failures++;
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        probeInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        probeInFlight = false;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,230 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.GeminiResilienceConfig;
+import com.healthcare.exception.AiServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Resilience wrapper for calls to one Gemini model.
+ *
+ * Each attempt passes, in order: circuit pre-check (fail fast while OPEN), bulkhead
+ * (bounded wait for one of maxConcurrent slots), adaptive AIMD limit (immediate reject
+ * when over), and the circuit's half-open probe slot. Overload failures (429, 502-504,
+ * I/O errors) are retried with full-jitter exponential backoff; no slot is held while backing off.
+ *
+ * Everything runs against the caller's deadline: the bulkhead wait, each attempt's timeout and
+ * each backoff get at most what is left of it, so a call never outlives the deadline by more
+ * than reading a response that has already started.
+ *
+ * Metrics, all tagged with model: gemini.calls (outcome), gemini.call.latency,
+ * gemini.retries, gemini.inflight, gemini.concurrency.limit, gemini.circuit.state
+ * (0 closed, 1 open, 2 half-open).
+ */
+final class GeminiCallGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiCallGuard.class);
+
+    enum Outcome { SUCCESS, OVERLOAD, ERROR, IGNORED }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final String                 model;
+    private final GeminiResilienceConfig config;
+    private final Semaphore              bulkhead;
+    private final AimdLimit              limit;
+    private final CircuitBreaker         breaker;
+    private final LongSupplier           nanoClock;
+    private final Sleeper                sleeper;
+
+    private final MeterRegistry registry;
+    private final Timer         latency;
+    private final Counter       retries;
+
+    GeminiCallGuard(String model, GeminiResilienceConfig config, MeterRegistry registry) {
+        this(model, config, registry, System::nanoTime, Thread::sleep);
+    }
+
+    GeminiCallGuard(String model, GeminiResilienceConfig config, MeterRegistry registry,
+                    LongSupplier nanoClock, Sleeper sleeper) {
+        this.model     = model;
+        this.config    = config;
+        this.bulkhead  = new Semaphore(config.getMaxConcurrent(), true);
+        this.limit     = new AimdLimit(config.getInitialLimit(), config.getMinLimit(), config.getMaxConcurrent());
+        this.breaker   = new CircuitBreaker(config.getSlidingWindowSize(), config.getMinimumCalls(),
+                config.getFailureRateThreshold(), TimeUnit.MILLISECONDS.toNanos(config.getOpenStateMs()), nanoClock);
+        this.nanoClock = nanoClock;
+        this.sleeper   = sleeper;
+
+        this.registry = registry;
+        this.latency  = Timer.builder("gemini.call.latency").tag("model", model)
+                .publishPercentileHistogram().register(registry);
+        this.retries  = Counter.builder("gemini.retries").tag("model", model).register(registry);
+        Gauge.builder("gemini.inflight", limit, AimdLimit::inFlight).tag("model", model).register(registry);
+        Gauge.builder("gemini.concurrency.limit", limit, AimdLimit::limit).tag("model", model).register(registry);
+        Gauge.builder("gemini.circuit.state", breaker, b -> b.state().ordinal())
+                .tag("model", model).register(registry);
+    }
+
+    /**
+     * Runs call until it succeeds, fails for good, or the deadline (a nanoTime value) comes.
+     * The call receives its attempt's timeout in milliseconds: the read timeout, cut to the time left.
+     */
+    <T> T execute(long deadline, IntFunction<T> call) {
+        for (int attempt = 0; ; attempt++) {
+            RuntimeException failure;
+            try {
+                return attemptOnce(deadline, call);
+            } catch (OverloadException e) {
+                failure = e.failure;
+            }
+
+            long delayMs = fullJitterBackoff(attempt);
+            if (attempt >= config.getMaxRetries()
+                    || nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(delayMs) > deadline) {
+                log.error("Gemini model={} still overloaded after {} attempt(s): {}",
+                        model, attempt + 1, failure.getMessage());
+                throw new AiServiceException(HttpStatus.SERVICE_UNAVAILABLE, AiServiceException.GEMINI_ERROR,
+                        "Gemini API call failed: " + failure.getMessage());
+            }
+
+            retries.increment();
+            log.warn("Gemini overload on model={} attempt {}/{}, retrying in {}ms",
+                    model, attempt + 1, config.getMaxRetries(), delayMs);
+            try {
+                sleeper.sleep(delayMs);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new AiServiceException(HttpStatus.SERVICE_UNAVAILABLE, AiServiceException.GEMINI_ERROR,
+                        "Interrupted while backing off from Gemini");
+            }
+        }
+    }
+
+    CircuitBreaker.State circuitState() { return breaker.state(); }
+    int currentLimit()                  { return limit.limit(); }
+
+    private <T> T attemptOnce(long deadline, IntFunction<T> call) {
+        if (!breaker.isCallPermitted()) {
+            throw reject("circuit_open", "Gemini model " + model + " circuit is open");
+        }
+        if (remainingMs(deadline) <= 0) {
+            throw reject("budget_spent", "Gemini model " + model + " call budget is spent");
+        }
+        if (!acquireBulkhead(remainingMs(deadline))) {
+            throw reject("bulkhead_full", "Gemini model " + model + " has no free call slot");
+        }
+        try {
+            long timeoutMs = Math.min(config.getReadTimeoutMs(), remainingMs(deadline));
+            if (timeoutMs <= 0) {
+                throw reject("budget_spent", "Gemini model " + model + " call budget is spent");
+            }
+            if (!limit.tryAcquire()) {
+                throw reject("limit_exceeded", "Gemini model " + model + " is over its concurrency limit");
+            }
+            if (!breaker.tryAcquire()) {
+                limit.onIgnored();
+                throw reject("circuit_open", "Gemini model " + model + " circuit is open");
+            }
+
+            long start = nanoClock.getAsLong();
+            Outcome outcome = Outcome.SUCCESS;
+            try {
+                return call.apply((int) timeoutMs);
+            } catch (RuntimeException e) {
+                outcome = classify(e);
+                if (outcome == Outcome.OVERLOAD) throw new OverloadException(e);
+                throw toServiceException(e);
+            } finally {
+                latency.record(nanoClock.getAsLong() - start, TimeUnit.NANOSECONDS);
+                record(outcome);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireBulkhead(long remainingMs) {
+        try {
+            return bulkhead.tryAcquire(Math.min(config.getBulkheadWaitMs(), remainingMs), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private long remainingMs(long deadline) {
+        return TimeUnit.NANOSECONDS.toMillis(deadline - nanoClock.getAsLong());
+    }
+
+    private void record(Outcome outcome) {
+        switch (outcome) {
+            case SUCCESS  -> { breaker.onSuccess(); limit.onSuccess(); }
+            case OVERLOAD -> { breaker.onFailure(); limit.onOverload(); }
+            case ERROR    -> { breaker.onFailure(); limit.onIgnored(); }
+            case IGNORED  -> { breaker.onIgnored(); limit.onIgnored(); }
+        }
+        count(outcome.name().toLowerCase());
+    }
+
+    private AiServiceException reject(String reason, String message) {
+        count(reason);
+        return new AiServiceException(HttpStatus.SERVICE_UNAVAILABLE, AiServiceException.GEMINI_UNAVAILABLE, message);
+    }
+
+    private void count(String outcome) {
+        registry.counter("gemini.calls", "model", model, "outcome", outcome).increment();
+    }
+
+    /**
+     * random(0, min(maxBackoff, base * 2^attempt)) — spreads retries from many callers
+     * instead of having them hit a recovering model in lockstep.
+     */
+    long fullJitterBackoff(int attempt) {
+        long ceiling = Math.min(config.getMaxBackoffMs(), config.getBaseBackoffMs() << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    static Outcome classify(RuntimeException e) {
+        if (e instanceof ResourceAccessException) return Outcome.OVERLOAD;
+        if (e instanceof RestClientResponseException re) {
+            int status = re.getStatusCode().value();
+            if (status == 429 || status == 502 || status == 503 || status == 504) return Outcome.OVERLOAD;
+            if (status >= 500) return Outcome.ERROR;
+            return Outcome.IGNORED;
+        }
+        if (e instanceof AiServiceException) return Outcome.IGNORED;
+        return Outcome.ERROR;
+    }
+
+    private static AiServiceException toServiceException(RuntimeException e) {
+        if (e instanceof AiServiceException ae) return ae;
+        return new AiServiceException(HttpStatus.INTERNAL_SERVER_ERROR, AiServiceException.GEMINI_ERROR,
+                "Gemini API call failed: " + e.getMessage());
+    }
+
+    private static final class OverloadException extends RuntimeException {
+        final RuntimeException failure;
+
+        OverloadException(RuntimeException failure) {
+            super(null, null, false, false);
+            this.failure = failure;
+        }
+    }
+}
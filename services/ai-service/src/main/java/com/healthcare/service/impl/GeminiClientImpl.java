@@ -4,22 +4,40 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthcare.config.GeminiConfig;
+import com.healthcare.config.GeminiResilienceConfig;
 import com.healthcare.dto.GeminiAnalysisResult;
 import com.healthcare.dto.RiskFlag;
 import com.healthcare.exception.AiServiceException;
 import com.healthcare.service.GeminiClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import org.springframework.web.client.HttpServerErrorException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 @Component
+@ConditionalOnProperty(name = "gemini.client", havingValue = "live", matchIfMissing = true)
 public class GeminiClientImpl implements GeminiClient {
 
     private static final Logger log = LoggerFactory.getLogger(GeminiClientImpl.class);
@@ -27,129 +45,343 @@ public class GeminiClientImpl implements GeminiClient {
     private static final String DISCLAIMER =
             "AI-generated for informational purposes only. Not a diagnosis or treatment recommendation.";
 
-    private final RestClient   restClient;
-    private final GeminiConfig config;
-    private final ObjectMapper objectMapper;
+    private final RestClient             restClient;
+    private final GeminiConfig           config;
+    private final GeminiResilienceConfig resilienceConfig;
+    private final ObjectMapper           objectMapper;
+    private final MeterRegistry          meterRegistry;
+    private final Tracer                 tracer;
 
-    public GeminiClientImpl(GeminiConfig config, ObjectMapper objectMapper) {
-        this.config       = config;
-        this.objectMapper = objectMapper;
-        this.restClient   = RestClient.create();
-    }
+    // one bulkhead / limit / breaker per model, so a failing primary never starves the fallback
+    private final Map<String, GeminiCallGuard> guards = new ConcurrentHashMap<>();
+
+    public GeminiClientImpl(GeminiConfig config,
+                            GeminiResilienceConfig resilienceConfig,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            Tracer tracer) {
+        this.config           = config;
+        this.resilienceConfig = resilienceConfig;
+        this.objectMapper     = objectMapper;
+        this.meterRegistry    = meterRegistry;
+        this.tracer           = tracer;
 
-    private static final int  MAX_RETRIES    = 3;
-    private static final long RETRY_DELAY_MS = 2_000;
+        this.restClient = RestClient.builder()
+                .requestFactory(requestFactory(resilienceConfig.getReadTimeoutMs()))
+                .build();
+    }
 
     @Override
     public GeminiAnalysisResult analyze(String prompt) {
+        return withFallback("analyze", (model, deadline) -> call(model, deadline, prompt, this::parseGeminiResponse));
+    }
+
+    @Override
+    public Map<String, GeminiAnalysisResult> analyzeBatch(String prompt) {
+        return withFallback("analyze-batch",
+                (model, deadline) -> call(model, deadline, prompt, this::parseGeminiBatchResponse));
+    }
+
+    @Override
+    public GeminiAnalysisResult analyzeStreaming(String prompt, StreamListener listener) {
+        TrackingListener tracking = new TrackingListener(listener);
+        return withFallback("analyze-stream", (model, deadline) -> stream(model, deadline, prompt, tracking),
+                () -> !tracking.emitted);
+    }
+
+    private <T> T withFallback(String operation, BiFunction<String, Long, T> callModel) {
+        return withFallback(operation, callModel, () -> true);
+    }
+
+    /**
+     * The primary and the fallback model share one deadline, call-budget-ms from now, so a
+     * fallback only gets what the primary left over.
+     */
+    private <T> T withFallback(String operation, BiFunction<String, Long, T> callModel, BooleanSupplier canFallBack) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(resilienceConfig.getCallBudgetMs());
         try {
-            return callWithRetry(config.getModel(), prompt);
+            return traced(operation, config.getModel(), deadline, callModel);
         } catch (AiServiceException e) {
             String fallback = config.getFallbackModel();
-            if (fallback != null && !fallback.isBlank()) {
-                log.warn("Primary model {} unavailable, falling back to {}", config.getModel(), fallback);
-                return callWithRetry(fallback, prompt);
+            if (fallback != null && !fallback.isBlank() && canFallBack.getAsBoolean()) {
+                log.warn("Primary model {} unavailable [{}], falling back to {}",
+                        config.getModel(), e.getErrorCode(), fallback);
+                return traced(operation, fallback, deadline, callModel);
             }
             throw e;
         }
     }
 
-    private GeminiAnalysisResult callWithRetry(String model, String prompt) {
+    /**
+     * One span per model tried, covering the guard's queueing, retries and backoff as well as the
+     * HTTP calls, so a fallback shows up as a second span next to the failed one.
+     */
+    private <T> T traced(String operation, String model, long deadline, BiFunction<String, Long, T> callModel) {
+        Span span = tracer.nextSpan()
+                .name("gemini " + operation)
+                .tag("gemini.model", model)
+                .remoteServiceName("gemini")
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return callModel.apply(model, deadline);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    GeminiCallGuard guard(String model) {
+        return guards.computeIfAbsent(model, m -> new GeminiCallGuard(m, resilienceConfig, meterRegistry));
+    }
+
+    /**
+     * A client whose connect and read timeouts fit in timeoutMs. It shares the base client's
+     * converters, and HttpURLConnection keeps its own connection cache, so one per attempt is cheap.
+     */
+    private RestClient restClient(int timeoutMs) {
+        return timeoutMs >= resilienceConfig.getReadTimeoutMs()
+                ? restClient
+                : restClient.mutate().requestFactory(requestFactory(timeoutMs)).build();
+    }
+
+    private SimpleClientHttpRequestFactory requestFactory(int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Math.min(resilienceConfig.getConnectTimeoutMs(), readTimeoutMs));
+        requestFactory.setReadTimeout(readTimeoutMs);
+        return requestFactory;
+    }
+
+    private <T> T call(String model, long deadline, String prompt, Function<String, T> parser) {
         String url = config.getBaseUrl()
                 + "/v1/models/" + model
                 + ":generateContent?key=" + config.getApiKey();
 
-        Map<String, Object> requestBody = Map.of(
+        return guard(model).execute(deadline, timeoutMs -> {
+            String rawResponse = restClient(timeoutMs).post()
+                    .uri(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(requestBody(prompt))
+                    .retrieve()
+                    .body(String.class);
+            countTokens(model, rawResponse);
+            return parser.apply(rawResponse);
+        });
+    }
+
+    /**
+     * One :streamGenerateContent call read as server-sent events. Each event carries the next
+     * slice of the answer text, which is fed to the incremental parser. An I/O error before
+     * anything reached the listener surfaces as ResourceAccessException and is retried by the
+     * guard; after that it is a plain failure, since the caller has already shown partial output.
+     * The read timeout only bounds the gap between events, so the attempt's timeout is also
+     * checked between events and ends a stream that is still trickling in.
+     */
+    private GeminiAnalysisResult stream(String model, long deadline, String prompt, TrackingListener listener) {
+        String url = config.getBaseUrl()
+                + "/v1/models/" + model
+                + ":streamGenerateContent?alt=sse&key=" + config.getApiKey();
+
+        return guard(model).execute(deadline, timeoutMs -> {
+            long attemptEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            return restClient(timeoutMs).post()
+                    .uri(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .body(requestBody(prompt))
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            throw new RestClientResponseException(
+                                    "Gemini stream rejected: " + response.getStatusCode(),
+                                    response.getStatusCode(), response.getStatusText(), response.getHeaders(),
+                                    response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+                        }
+                        StreamingAnalysisParser parser = new StreamingAnalysisParser(objectMapper, listener);
+                        JsonNode usage = null;
+                        try (BufferedReader reader = new BufferedReader(
+                                new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                            String line;
+                            while ((line = reader.readLine()) != null) {
+                                if (System.nanoTime() - attemptEnd > 0) {
+                                    throw new SocketTimeoutException(
+                                            "Gemini stream outlived its " + timeoutMs + "ms timeout");
+                                }
+                                if (line.startsWith("data:")) {
+                                    JsonNode event = objectMapper.readTree(line.substring("data:".length()).strip());
+                                    parser.feed(chunkText(event));
+                                    // running totals; the last event carries the final counts
+                                    if (event.has("usageMetadata")) usage = event.get("usageMetadata");
+                                }
+                            }
+                        } catch (IOException e) {
+                            if (!listener.emitted) throw e;
+                            throw new IllegalStateException("Gemini stream broke off after partial output", e);
+                        }
+                        countTokens(model, usage);
+                        return parseStreamedText(parser.text());
+                    });
+        });
+    }
+
+    private static Map<String, Object> requestBody(String prompt) {
+        return Map.of(
                 "contents", List.of(Map.of(
                         "parts", List.of(Map.of("text", prompt))
                 ))
         );
-
-        int attempt = 0;
-        while (true) {
-            try {
-                String rawResponse = restClient.post()
-                        .uri(url)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(requestBody)
-                        .retrieve()
-                        .body(String.class);
-
-                return parseGeminiResponse(rawResponse);
-
-            } catch (AiServiceException e) {
-                throw e;
-            } catch (HttpServerErrorException e) {
-                if (e.getStatusCode().value() == 503 && attempt < MAX_RETRIES) {
-                    attempt++;
-                    log.warn("Gemini 503 on model={} attempt {}/{}, retrying in {}ms",
-                            model, attempt, MAX_RETRIES, RETRY_DELAY_MS * attempt);
-                    try { Thread.sleep(RETRY_DELAY_MS * attempt); } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
-                } else {
-                    log.error("Gemini API call failed model={}: {}", model, e.getMessage());
-                    throw new AiServiceException(
-                            org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR,
-                            AiServiceException.GEMINI_ERROR,
-                            "Gemini API call failed: " + e.getMessage());
-                }
-            } catch (Exception e) {
-                log.error("Gemini API call failed model={}: {}", model, e.getMessage(), e);
-                throw new AiServiceException(
-                        org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR,
-                        AiServiceException.GEMINI_ERROR,
-                        "Gemini API call failed: " + e.getMessage());
-            }
-        }
     }
 
     GeminiAnalysisResult parseGeminiResponse(String rawResponse) {
         try {
-            JsonNode root = objectMapper.readTree(rawResponse);
-            JsonNode candidates = root.path("candidates");
-            JsonNode firstCandidate = (candidates.isArray() && candidates.size() > 0)
-                    ? candidates.get(0) : null;
-            JsonNode parts = (firstCandidate != null)
-                    ? firstCandidate.path("content").path("parts") : null;
-            JsonNode firstPart = (parts != null && parts.isArray() && parts.size() > 0)
-                    ? parts.get(0) : null;
-            JsonNode textNode = (firstPart != null) ? firstPart.path("text") : null;
-
-            if (textNode == null || textNode.isMissingNode()) {
-                throw new AiServiceException(
-                        org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR,
-                        AiServiceException.GEMINI_ERROR,
-                        "Gemini response missing text content");
-            }
+            return toAnalysisResult(objectMapper.readTree(extractText(rawResponse)));
+        } catch (JsonProcessingException e) {
+            throw parseFailure(e);
+        }
+    }
 
-            String text = textNode.asText().strip();
-            if (text.startsWith("```")) {
-                text = text.replaceFirst("^```[a-zA-Z]*\\s*", "").replaceFirst("```\\s*$", "").strip();
-            }
-            JsonNode analysisJson = objectMapper.readTree(text);
-
-            String summary    = analysisJson.path("summary").asText();
-            String disclaimer = analysisJson.has("disclaimer")
-                    ? analysisJson.path("disclaimer").asText()
-                    : DISCLAIMER;
-
-            List<RiskFlag> riskFlags = new ArrayList<>();
-            JsonNode flags = analysisJson.path("risk_flags");
-            if (flags.isArray()) {
-                for (JsonNode flag : flags) {
-                    riskFlags.add(new RiskFlag(
-                            flag.path("flag").asText(),
-                            flag.path("reason").asText()));
+    /**
+     * Parses a multi-patient response: {"results": [{"ref": "P1", "summary": ..., "risk_flags": [...]}]}.
+     * Entries without a ref are dropped; refs the model left out are simply absent from the map.
+     */
+    Map<String, GeminiAnalysisResult> parseGeminiBatchResponse(String rawResponse) {
+        try {
+            JsonNode results = objectMapper.readTree(extractText(rawResponse)).path("results");
+            Map<String, GeminiAnalysisResult> byRef = new LinkedHashMap<>();
+            if (results.isArray()) {
+                for (JsonNode item : results) {
+                    String ref = item.path("ref").asText(null);
+                    if (ref != null && !ref.isBlank()) {
+                        byRef.put(ref, toAnalysisResult(item));
+                    }
                 }
             }
+            return byRef;
+        } catch (JsonProcessingException e) {
+            throw parseFailure(e);
+        }
+    }
+
+    private String extractText(String rawResponse) throws JsonProcessingException {
+        JsonNode root = objectMapper.readTree(rawResponse);
+        JsonNode candidates = root.path("candidates");
+        JsonNode firstCandidate = (candidates.isArray() && candidates.size() > 0)
+                ? candidates.get(0) : null;
+        JsonNode parts = (firstCandidate != null)
+                ? firstCandidate.path("content").path("parts") : null;
+        JsonNode firstPart = (parts != null && parts.isArray() && parts.size() > 0)
+                ? parts.get(0) : null;
+        JsonNode textNode = (firstPart != null) ? firstPart.path("text") : null;
 
-            return new GeminiAnalysisResult(summary, riskFlags, disclaimer);
+        if (textNode == null || textNode.isMissingNode()) {
+            throw new AiServiceException(
+                    org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR,
+                    AiServiceException.GEMINI_ERROR,
+                    "Gemini response missing text content");
+        }
 
+        return stripFences(textNode.asText());
+    }
+
+    private static String chunkText(JsonNode event) {
+        return event.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText("");
+    }
+
+    /**
+     * Adds the usageMetadata token counts of a response to gemini.tokens, by model and type. A
+     * response without usage, or one that is not JSON, counts nothing; parsing reports the latter.
+     */
+    private void countTokens(String model, String rawResponse) {
+        if (rawResponse == null) return;
+        try {
+            countTokens(model, objectMapper.readTree(rawResponse).get("usageMetadata"));
         } catch (JsonProcessingException e) {
-            log.error("Failed to parse Gemini response: {}", e.getMessage());
+            // left to the response parser
+        }
+    }
+
+    private void countTokens(String model, JsonNode usage) {
+        if (usage == null) return;
+        countTokens(model, "prompt",     usage.path("promptTokenCount").asLong());
+        countTokens(model, "candidates", usage.path("candidatesTokenCount").asLong());
+        countTokens(model, "thoughts",   usage.path("thoughtsTokenCount").asLong());
+    }
+
+    private void countTokens(String model, String type, long tokens) {
+        if (tokens > 0) meterRegistry.counter("gemini.tokens", "model", model, "type", type).increment(tokens);
+    }
+
+    GeminiAnalysisResult parseStreamedText(String text) {
+        if (text.isBlank()) {
             throw new AiServiceException(
                     org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR,
                     AiServiceException.GEMINI_ERROR,
-                    "Failed to parse Gemini response: " + e.getMessage());
+                    "Gemini stream ended without text content");
+        }
+        try {
+            return toAnalysisResult(objectMapper.readTree(stripFences(text)));
+        } catch (JsonProcessingException e) {
+            throw parseFailure(e);
         }
     }
+
+    private static String stripFences(String text) {
+        text = text.strip();
+        if (text.startsWith("```")) {
+            text = text.replaceFirst("^```[a-zA-Z]*\\s*", "").replaceFirst("```\\s*$", "").strip();
+        }
+        return text;
+    }
+
+    private GeminiAnalysisResult toAnalysisResult(JsonNode analysisJson) {
+        String summary    = analysisJson.path("summary").asText();
+        String disclaimer = analysisJson.has("disclaimer")
+                ? analysisJson.path("disclaimer").asText()
+                : DISCLAIMER;
+
+        List<RiskFlag> riskFlags = new ArrayList<>();
+        JsonNode flags = analysisJson.path("risk_flags");
+        if (flags.isArray()) {
+            for (JsonNode flag : flags) {
+                riskFlags.add(new RiskFlag(
+                        flag.path("flag").asText(),
+                        flag.path("reason").asText()));
+            }
+        }
+
+        return new GeminiAnalysisResult(summary, riskFlags, disclaimer);
+    }
+
+    /**
+     * Remembers whether anything reached the caller, which decides if retries and fallback are still safe.
+     */
+    private static final class TrackingListener implements StreamListener {
+
+        private final StreamListener delegate;
+        private volatile boolean     emitted;
+
+        TrackingListener(StreamListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onSummaryDelta(String text) {
+            emitted = true;
+            delegate.onSummaryDelta(text);
+        }
+
+        @Override
+        public void onRiskFlag(RiskFlag flag) {
+            emitted = true;
+            delegate.onRiskFlag(flag);
+        }
+    }
+
+    private AiServiceException parseFailure(JsonProcessingException e) {
+        log.error("Failed to parse Gemini response: {}", e.getMessage());
+        return new AiServiceException(
+                org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR,
+                AiServiceException.GEMINI_ERROR,
+                "Failed to parse Gemini response: " + e.getMessage());
+    }
 }
@@ -0,0 +1,113 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.GeminiStubConfig;
+import com.healthcare.dto.GeminiAnalysisResult;
+import com.healthcare.dto.RiskFlag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic stand-in for the Gemini model, shared by {@link StubGeminiClient} (in-process)
+ * and {@link GeminiStubServer} (over HTTP).
+ *
+ * Every call draws from one seeded random sequence, so a run with the same seed and the same
+ * call order sees the same latencies, errors and responses. Latency is log-normal, fitted to
+ * the configured median and p99; a fixed share of calls is answered overloaded (503) or rate
+ * limited (429), and models in failing-models always answer 503.
+ */
+public final class GeminiStub {
+
+    public enum Outcome { OK, OVERLOADED, RATE_LIMITED }
+
+    public record Reply(Outcome outcome, long latencyMs, List<String> refs, List<GeminiAnalysisResult> results) {
+
+        boolean isBatch() { return !refs.isEmpty(); }
+    }
+
+    private static final Pattern REF      = Pattern.compile("\\[(P\\d+)]");
+    private static final double  Z_P99    = 2.3263;
+    private static final String  DISCLAIMER = AiAnalysisServiceImpl.DISCLAIMER;
+
+    private static final String[] SENTENCES = {
+            "Patient history reviewed by the local Gemini stub.",
+            "Chronic conditions appear stable based on the most recent encounters.",
+            "Medication adherence could not be assessed from the available records.",
+            "Recent encounter frequency is within the expected range for this cohort.",
+            "No acute findings are suggested by the listed conditions.",
+    };
+    private static final RiskFlag[] FLAGS = {
+            new RiskFlag("High readmission risk", "Multiple inpatient encounters in the last year"),
+            new RiskFlag("Fall risk", "Age and documented mobility-related conditions"),
+            new RiskFlag("Cardiovascular risk", "Hypertension with additional metabolic conditions"),
+            new RiskFlag("Allergy interaction risk", "Several active drug allergies"),
+            new RiskFlag("Care gap", "No wellness encounter recorded recently"),
+    };
+
+    private final GeminiStubConfig config;
+    private final SplittableRandom random;
+
+    public GeminiStub(GeminiStubConfig config) {
+        this.config = config;
+        this.random = new SplittableRandom(config.getSeed());
+    }
+
+    public Reply next(String model, String prompt) {
+        SplittableRandom call;
+        synchronized (this) {
+            call = random.split();
+        }
+        long latencyMs = sampleLatencyMs(call);
+        double roll = call.nextDouble();
+        if (config.getFailingModels().contains(model) || roll < config.getOverloadRate()) {
+            return new Reply(Outcome.OVERLOADED, latencyMs, List.of(), List.of());
+        }
+        if (roll < config.getOverloadRate() + config.getRateLimitRate()) {
+            return new Reply(Outcome.RATE_LIMITED, latencyMs, List.of(), List.of());
+        }
+
+        List<String> refs = refs(prompt);
+        int count = refs.isEmpty() ? 1 : refs.size();
+        List<GeminiAnalysisResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(new GeminiAnalysisResult(summary(call), riskFlags(call), DISCLAIMER));
+        }
+        return new Reply(Outcome.OK, latencyMs, refs, results);
+    }
+
+    private long sampleLatencyMs(SplittableRandom call) {
+        double median = config.getLatencyMedianMs();
+        if (median <= 0) return 0;
+        double sigma = config.getLatencyP99Ms() > median ? Math.log(config.getLatencyP99Ms() / median) / Z_P99 : 0;
+        double latency = median * Math.exp(sigma * call.nextGaussian());
+        return Math.min(config.getLatencyMaxMs(), Math.round(latency));
+    }
+
+    private String summary(SplittableRandom call) {
+        StringBuilder sb = new StringBuilder(config.getSummaryChars() + 80);
+        while (sb.length() < config.getSummaryChars()) {
+            if (!sb.isEmpty()) sb.append(' ');
+            sb.append(SENTENCES[call.nextInt(SENTENCES.length)]);
+        }
+        return sb.toString();
+    }
+
+    private List<RiskFlag> riskFlags(SplittableRandom call) {
+        List<RiskFlag> flags = new ArrayList<>(config.getRiskFlags());
+        int offset = call.nextInt(FLAGS.length);
+        for (int i = 0; i < config.getRiskFlags(); i++) {
+            flags.add(FLAGS[(offset + i) % FLAGS.length]);
+        }
+        return flags;
+    }
+
+    private static List<String> refs(String prompt) {
+        List<String> refs = new ArrayList<>();
+        Matcher m = REF.matcher(prompt);
+        while (m.find()) refs.add(m.group(1));
+        return refs;
+    }
+}
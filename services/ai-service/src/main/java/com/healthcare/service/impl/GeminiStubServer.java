@@ -0,0 +1,202 @@
+package com.healthcare.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.healthcare.config.GeminiStubConfig;
+import com.healthcare.dto.GeminiAnalysisResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embeddable HTTP server that answers {@code POST /v1/models/{model}:generateContent} and
+ * {@code :streamGenerateContent} (as server-sent events) in the shape {@link GeminiClientImpl}
+ * parses, backed by {@link GeminiStub}.
+ *
+ * Started with the service when gemini.stub.server-enabled=true (point gemini.base-url at
+ * http://localhost:{gemini.stub.port}), or directly from tests and benchmarks with port 0.
+ * Requests run on virtual threads, so simulated latency never caps concurrency.
+ */
+@Component
+@ConditionalOnProperty(name = "gemini.stub.server-enabled", havingValue = "true")
+public class GeminiStubServer {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiStubServer.class);
+
+    private static final Pattern GENERATE_CONTENT =
+            Pattern.compile("^/v1(?:beta)?/models/([^/:]+):(generateContent|streamGenerateContent)$");
+
+    private final GeminiStubConfig config;
+    private final ObjectMapper     objectMapper;
+    private final GeminiStub       stub;
+    private final AtomicLong       requests = new AtomicLong();
+
+    private HttpServer      server;
+    private ExecutorService executor;
+
+    public GeminiStubServer(GeminiStubConfig config, ObjectMapper objectMapper) {
+        this.config       = config;
+        this.objectMapper = objectMapper;
+        this.stub         = new GeminiStub(config);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server   = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), config.getPort()), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        log.warn("Gemini stub server listening on {}", baseUrl());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Matcher path = GENERATE_CONTENT.matcher(exchange.getRequestURI().getPath());
+            if (!"POST".equals(exchange.getRequestMethod()) || !path.matches()) {
+                send(exchange, 404, error(404, "NOT_FOUND", "Unknown stub endpoint"));
+                return;
+            }
+            requests.incrementAndGet();
+
+            String prompt;
+            try (InputStream body = exchange.getRequestBody()) {
+                prompt = objectMapper.readTree(body)
+                        .path("contents").path(0).path("parts").path(0).path("text").asText("");
+            }
+            GeminiStub.Reply reply = stub.next(path.group(1), prompt);
+            boolean streaming = "streamGenerateContent".equals(path.group(2));
+            if (streaming && reply.outcome() == GeminiStub.Outcome.OK) {
+                stream(exchange, reply, prompt);
+                return;
+            }
+            Thread.sleep(reply.latencyMs());
+
+            switch (reply.outcome()) {
+                case OVERLOADED   -> send(exchange, 503, error(503, "UNAVAILABLE",
+                        "The model is overloaded. Please try again later."));
+                case RATE_LIMITED -> send(exchange, 429, error(429, "RESOURCE_EXHAUSTED",
+                        "Resource has been exhausted (e.g. check quota)."));
+                case OK           -> {
+                    String text = answerText(reply);
+                    send(exchange, 200, envelope(text, usage(prompt, text)));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Splits the answer text into gemini.stub.stream-chunks events, each preceded by an equal
+     * share of the sampled latency, and flushes every event as it is written.
+     */
+    private void stream(HttpExchange exchange, GeminiStub.Reply reply, String prompt)
+            throws IOException, InterruptedException {
+        String text = answerText(reply);
+        int chunks = Math.max(1, config.getStreamChunks());
+        int chunkChars = Math.max(1, (text.length() + chunks - 1) / chunks);
+
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int from = 0; from < text.length(); from += chunkChars) {
+                Thread.sleep(reply.latencyMs() / chunks);
+                int to = Math.min(text.length(), from + chunkChars);
+                String chunk = text.substring(from, to);
+                String event = envelope(chunk, usage(prompt, text.substring(0, to)));
+                out.write(("data: " + event + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        }
+    }
+
+    private String answerText(GeminiStub.Reply reply) throws IOException {
+        if (reply.isBatch()) {
+            ObjectNode root = objectMapper.createObjectNode();
+            ArrayNode results = root.putArray("results");
+            for (int i = 0; i < reply.refs().size(); i++) {
+                GeminiAnalysisResult result = reply.results().get(i);
+                ObjectNode item = results.addObject();
+                item.put("ref", reply.refs().get(i));
+                item.put("summary", result.summary());
+                item.set("risk_flags", objectMapper.valueToTree(result.riskFlags()));
+            }
+            return objectMapper.writeValueAsString(root);
+        }
+        return objectMapper.writeValueAsString(reply.results().get(0));
+    }
+
+    private String envelope(String text, ObjectNode usage) throws IOException {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        ObjectNode candidate = envelope.putArray("candidates").addObject();
+        candidate.putObject("content").putArray("parts").addObject().put("text", text);
+        candidate.put("finishReason", "STOP");
+        envelope.set("usageMetadata", usage);
+        return objectMapper.writeValueAsString(envelope);
+    }
+
+    /**
+     * Token counts as Gemini reports them, estimated at four characters per token. Streamed
+     * events carry running totals, as the real API does.
+     */
+    private ObjectNode usage(String prompt, String answer) {
+        int promptTokens     = (prompt.length() + 3) / 4;
+        int candidatesTokens = (answer.length() + 3) / 4;
+        ObjectNode usage = objectMapper.createObjectNode();
+        usage.put("promptTokenCount", promptTokens);
+        usage.put("candidatesTokenCount", candidatesTokens);
+        usage.put("totalTokenCount", promptTokens + candidatesTokens);
+        return usage;
+    }
+
+    private String error(int code, String status, String message) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode error = root.putObject("error");
+        error.put("code", code);
+        error.put("message", message);
+        error.put("status", status);
+        return objectMapper.writeValueAsString(root);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
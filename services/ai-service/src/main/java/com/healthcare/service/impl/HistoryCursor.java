@@ -0,0 +1,36 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.exception.AiServiceException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a patient's analysis history: the (generatedAt, id) of the last row
+ * returned. Opaque to clients — URL-safe base64 of "generatedAt|id".
+ */
+record HistoryCursor(OffsetDateTime generatedAt, UUID id) {
+
+    String encode() {
+        String raw = generatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) throw new IllegalArgumentException("missing separator");
+            return new HistoryCursor(OffsetDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new AiServiceException(
+                    HttpStatus.BAD_REQUEST,
+                    AiServiceException.INVALID_CURSOR,
+                    "Invalid history cursor");
+        }
+    }
+}
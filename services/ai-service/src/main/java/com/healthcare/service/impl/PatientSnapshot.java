@@ -0,0 +1,65 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.dto.SnapshotItem;
+import com.healthcare.entity.Allergy;
+import com.healthcare.entity.Condition;
+import com.healthcare.entity.Encounter;
+import com.healthcare.entity.Patient;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * One patient's clinical data as loaded for analysis, plus its canonical snapshot items
+ * and digest. Shared by the per-encounter path and the batch screening sweep so both
+ * compute the exact same digest for the same data.
+ */
+record PatientSnapshot(Patient patient,
+                       List<Condition> conditions,
+                       List<Allergy> allergies,
+                       List<Encounter> encounters,
+                       List<SnapshotItem> conditionItems,
+                       List<SnapshotItem> allergyItems,
+                       byte[] digest) {
+
+    static PatientSnapshot of(Patient patient, List<Condition> conditions,
+                              List<Allergy> allergies, List<Encounter> encounters) {
+        Map<UUID, LocalDate> encounterDates = encounters.stream()
+                .filter(e -> e.getStartTime() != null)
+                .collect(Collectors.toMap(
+                        Encounter::getId,
+                        e -> e.getStartTime().toLocalDate(),
+                        (a, b) -> a));
+
+        List<SnapshotItem> conditionItems = conditions.stream()
+                .map(c -> new SnapshotItem(
+                        c.getCode(),
+                        c.getDescription(),
+                        dateString(c.getStartDate()),
+                        dateString(c.getStopDate()),
+                        dateString(encounterDates.get(c.getId().getEncounterId()))))
+                .sorted(Comparator.comparing(SnapshotItem::code))
+                .toList();
+
+        List<SnapshotItem> allergyItems = allergies.stream()
+                .map(a -> new SnapshotItem(
+                        a.getId().getCode(),
+                        a.getDescription(),
+                        dateString(a.getStartDate()),
+                        dateString(a.getStopDate()),
+                        dateString(encounterDates.get(a.getId().getEncounterId()))))
+                .sorted(Comparator.comparing(SnapshotItem::code))
+                .toList();
+
+        return new PatientSnapshot(patient, conditions, allergies, encounters,
+                conditionItems, allergyItems, SnapshotDigest.of(conditionItems, allergyItems));
+    }
+
+    private static String dateString(LocalDate date) {
+        return date != null ? date.toString() : null;
+    }
+}
@@ -0,0 +1,242 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiPromptConfig;
+import com.healthcare.entity.Allergy;
+import com.healthcare.entity.Condition;
+import com.healthcare.entity.Encounter;
+import com.healthcare.entity.Patient;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Assembles Gemini prompts under a token budget.
+ *
+ * History is written in priority order — active conditions, allergies, the most recent
+ * encounters, older encounters aggregated as counts per class per year, then resolved
+ * conditions — and each section stops at the first line that no longer fits, noting how
+ * many entries were left out. Tokens are estimated at four characters per token, the same
+ * heuristic as {@link RateBudget#estimateTokens}.
+ */
+@Component
+public class PromptBuilder {
+
+    static final int CHARS_PER_TOKEN = 4;
+
+    private static final String INSTRUCTION =
+            "Analyze the following patient medical history and provide a clinical summary and risk flags.\n\n";
+    private static final String BATCH_INSTRUCTION =
+            "For EACH patient below, analyze the medical history and provide a clinical summary and risk flags.\n";
+    private static final String BATCH_RESPONSE_FORMAT =
+            "\nRespond ONLY with valid JSON, no markdown, one entry per patient ref:\n"
+            + "{\"results\": [{\"ref\": \"P1\", \"summary\": \"...\", "
+            + "\"risk_flags\": [{\"flag\": \"...\", \"reason\": \"...\"}]}]}";
+
+    // room kept in every section for its "... N more omitted" line
+    private static final int OMITTED_LINE_RESERVE = 32;
+
+    private final AiPromptConfig config;
+
+    public PromptBuilder(AiPromptConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Single-patient prompt for the interactive and triggered paths, capped at ai.prompt.max-tokens.
+     */
+    String analysisPrompt(PatientSnapshot snapshot) {
+        Patient patient = snapshot.patient();
+        StringBuilder header = new StringBuilder(INSTRUCTION)
+                .append("Patient: ").append(patient.getFirstName()).append(" ").append(patient.getLastName());
+        if (patient.getBirthdate() != null) {
+            header.append(", DOB: ").append(patient.getBirthdate());
+        }
+        header.append("\n\n");
+        String footer = "\nRespond ONLY with valid JSON, no markdown:\n"
+                + "{\"summary\": \"...\", \"risk_flags\": [{\"flag\": \"...\", \"reason\": \"...\"}], "
+                + "\"disclaimer\": \"" + AiAnalysisServiceImpl.DISCLAIMER + "\"}";
+
+        int historyChars = config.getMaxTokens() * CHARS_PER_TOKEN - header.length() - footer.length();
+        StringBuilder sb = new StringBuilder(header);
+        appendHistory(sb, snapshot, historyChars);
+        return sb.append(footer).toString();
+    }
+
+    /**
+     * Multi-patient prompt for the screening sweep. Patients are referenced only by position
+     * (P1, P2, ...) and birth year; each gets ai.prompt.screening-tokens-per-patient of history.
+     */
+    String screeningPrompt(List<PatientSnapshot> snapshots) {
+        int historyChars = config.getScreeningTokensPerPatient() * CHARS_PER_TOKEN;
+        StringBuilder sb = new StringBuilder(BATCH_INSTRUCTION);
+        for (int i = 0; i < snapshots.size(); i++) {
+            PatientSnapshot s = snapshots.get(i);
+            sb.append("\n[").append(screeningRef(i)).append("]");
+            if (s.patient().getBirthdate() != null) {
+                sb.append(" born ").append(s.patient().getBirthdate().getYear());
+            }
+            sb.append("\n");
+            appendHistory(sb, s, historyChars);
+        }
+        return sb.append(BATCH_RESPONSE_FORMAT).toString();
+    }
+
+    /**
+     * Ref of the patient at {@code position} (0-based) in a screening prompt.
+     */
+    static String screeningRef(int position) {
+        return "P" + (position + 1);
+    }
+
+    void appendHistory(StringBuilder sb, PatientSnapshot snapshot, int maxChars) {
+        Budget budget = new Budget(maxChars);
+
+        List<Condition> active   = new ArrayList<>();
+        List<Condition> resolved = new ArrayList<>();
+        for (Condition c : snapshot.conditions()) {
+            (c.getStopDate() == null ? active : resolved).add(c);
+        }
+        active.sort(Comparator.comparing(Condition::getStartDate, Comparator.nullsLast(Comparator.reverseOrder())));
+        resolved.sort(Comparator.comparing(Condition::getStopDate, Comparator.reverseOrder()));
+
+        List<Allergy> allergies = new ArrayList<>(snapshot.allergies());
+        allergies.sort(Comparator.comparing((Allergy a) -> a.getStopDate() != null));
+
+        List<Encounter> encounters = new ArrayList<>(snapshot.encounters());
+        encounters.sort(Comparator.comparing(Encounter::getStartTime, Comparator.nullsLast(Comparator.reverseOrder())));
+        int recentCount = Math.min(config.getRecentEncounters(), encounters.size());
+
+        appendSection(sb, budget, "Active conditions (" + active.size() + "):", active, PromptBuilder::conditionLine);
+        appendSection(sb, budget, "Allergies (" + allergies.size() + "):", allergies, PromptBuilder::allergyLine);
+        appendSection(sb, budget, "Recent encounters (" + recentCount + " of " + encounters.size() + "):",
+                encounters.subList(0, recentCount), PromptBuilder::encounterLine);
+        if (encounters.size() > recentCount) {
+            String heading = "Earlier encounters by year (" + (encounters.size() - recentCount) + "):";
+            if (budget.fits(heading.length() + 1 + OMITTED_LINE_RESERVE)) {
+                appendSection(sb, budget, heading,
+                        yearlyCounts(encounters.subList(recentCount, encounters.size())), PromptBuilder::yearLine);
+            }
+        }
+        if (!resolved.isEmpty()) {
+            appendSection(sb, budget, "Resolved conditions (" + resolved.size() + "):",
+                    resolved, PromptBuilder::conditionLine);
+        }
+    }
+
+    /**
+     * Lines are formatted only while they fit: a long history pays for the entries it
+     * writes, not for the ones it leaves out.
+     */
+    private static <T> void appendSection(StringBuilder sb, Budget budget, String heading,
+                                          List<T> entries, Function<T, String> format) {
+        if (!budget.take(heading.length() + 1 + OMITTED_LINE_RESERVE)) return;
+        sb.append(heading).append("\n");
+        int written = 0;
+        for (T entry : entries) {
+            String line = format.apply(entry);
+            if (!budget.take(line.length() + 1)) break;
+            sb.append(line).append("\n");
+            written++;
+        }
+        if (written < entries.size()) {
+            sb.append("- ... ").append(entries.size() - written).append(" more omitted\n");
+        } else {
+            budget.give(OMITTED_LINE_RESERVE);
+        }
+    }
+
+    private static String conditionLine(Condition c) {
+        StringBuilder line = new StringBuilder("- ").append(c.getCode());
+        if (c.getDescription() != null) line.append(": ").append(c.getDescription());
+        if (c.getStopDate() != null) {
+            line.append(" (").append(dateOrUnknown(c.getStartDate())).append(" to ").append(c.getStopDate()).append(")");
+        } else if (c.getStartDate() != null) {
+            line.append(" (since ").append(c.getStartDate()).append(")");
+        }
+        return line.toString();
+    }
+
+    private static String allergyLine(Allergy a) {
+        StringBuilder line = new StringBuilder("- ")
+                .append(a.getDescription() != null ? a.getDescription() : a.getId().getCode());
+        if (a.getReaction1() != null) line.append(", reaction: ").append(a.getReaction1());
+        if (a.getSeverity1() != null) line.append(", severity: ").append(a.getSeverity1());
+        if (a.getStopDate() != null)  line.append(", resolved");
+        return line.toString();
+    }
+
+    private static String encounterLine(Encounter e) {
+        StringBuilder line = new StringBuilder("- ");
+        if (e.getEncounterType() != null)       line.append(e.getEncounterType());
+        else if (e.getEncounterClass() != null) line.append(e.getEncounterClass());
+        else                                    line.append("Visit");
+        if (e.getStartTime() != null) line.append(" on ").append(e.getStartTime().toLocalDate());
+        if (e.getReasonDesc() != null) line.append(": ").append(e.getReasonDesc());
+        return line.toString();
+    }
+
+    /**
+     * Encounter counts per class for each year, newest first; undated encounters come first
+     * under a null year.
+     */
+    private static List<Map.Entry<Integer, Map<String, Integer>>> yearlyCounts(List<Encounter> older) {
+        Map<Integer, Map<String, Integer>> byYear = new TreeMap<>(Comparator.nullsFirst(Comparator.reverseOrder()));
+        for (Encounter e : older) {
+            Integer year = e.getStartTime() != null ? e.getStartTime().getYear() : null;
+            byYear.computeIfAbsent(year, y -> new TreeMap<>()).merge(encounterClass(e), 1, Integer::sum);
+        }
+        return new ArrayList<>(byYear.entrySet());
+    }
+
+    /**
+     * "- 2019: ambulatory 4, emergency 1".
+     */
+    private static String yearLine(Map.Entry<Integer, Map<String, Integer>> year) {
+        StringBuilder line = new StringBuilder("- ")
+                .append(year.getKey() != null ? year.getKey().toString() : "undated").append(":");
+        String sep = " ";
+        for (Map.Entry<String, Integer> count : year.getValue().entrySet()) {
+            line.append(sep).append(count.getKey()).append(" ").append(count.getValue());
+            sep = ", ";
+        }
+        return line.toString();
+    }
+
+    private static String encounterClass(Encounter e) {
+        if (e.getEncounterClass() != null && !e.getEncounterClass().isBlank()) return e.getEncounterClass();
+        return e.getEncounterType() != null ? e.getEncounterType().name().toLowerCase() : "other";
+    }
+
+    private static String dateOrUnknown(LocalDate date) {
+        return date != null ? date.toString() : "unknown";
+    }
+
+    private static final class Budget {
+
+        private int remaining;
+
+        Budget(int chars) {
+            this.remaining = chars;
+        }
+
+        boolean fits(int chars) {
+            return chars <= remaining;
+        }
+
+        boolean take(int chars) {
+            if (chars > remaining) return false;
+            remaining -= chars;
+            return true;
+        }
+
+        void give(int chars) {
+            remaining += chars;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.healthcare.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-minute request and token budget for background Gemini traffic (token buckets).
+ *
+ * Both buckets start full and refill continuously; acquire blocks until one request and
+ * the estimated prompt tokens are both available, so a sweep spreads its calls over the
+ * minute instead of bursting into the provider's quota and the interactive path.
+ * A single call larger than the whole token budget is let through once the bucket is full.
+ */
+public final class RateBudget {
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final double       requestsPerMinute;
+    private final double       tokensPerMinute;
+    private final LongSupplier nanoClock;
+    private final Sleeper      sleeper;
+
+    private double requests;
+    private double tokens;
+    private long   refilledAt;
+
+    public RateBudget(int requestsPerMinute, int tokensPerMinute) {
+        this(requestsPerMinute, tokensPerMinute, System::nanoTime, Thread::sleep);
+    }
+
+    RateBudget(int requestsPerMinute, int tokensPerMinute, LongSupplier nanoClock, Sleeper sleeper) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute   = tokensPerMinute;
+        this.nanoClock         = nanoClock;
+        this.sleeper           = sleeper;
+        this.requests          = requestsPerMinute;
+        this.tokens            = tokensPerMinute;
+        this.refilledAt        = nanoClock.getAsLong();
+    }
+
+    /**
+     * Blocks until one request and {@code promptTokens} tokens can be spent, then spends them.
+     */
+    public void acquire(int promptTokens) throws InterruptedException {
+        double wanted = Math.min(promptTokens, tokensPerMinute);
+        while (true) {
+            long waitMs;
+            synchronized (this) {
+                refill();
+                if (requests >= 1 && tokens >= wanted) {
+                    requests -= 1;
+                    tokens   -= promptTokens;
+                    return;
+                }
+                double requestWait = requests >= 1 ? 0 : (1 - requests) / requestsPerMinute;
+                double tokenWait   = tokens >= wanted ? 0 : (wanted - tokens) / tokensPerMinute;
+                waitMs = Math.max(1, (long) Math.ceil(Math.max(requestWait, tokenWait) * 60_000));
+            }
+            sleeper.sleep(waitMs);
+        }
+    }
+
+    /**
+     * Rough prompt size in tokens (about four characters per token for English text).
+     */
+    public static int estimateTokens(String prompt) {
+        return prompt.length() / 4 + 1;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        double minutes = (now - refilledAt) / NANOS_PER_MINUTE;
+        refilledAt = now;
+        requests = Math.min(requestsPerMinute, requests + minutes * requestsPerMinute);
+        tokens   = Math.min(tokensPerMinute, tokens + minutes * tokensPerMinute);
+    }
+}
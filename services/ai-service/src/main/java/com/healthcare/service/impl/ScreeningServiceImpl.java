@@ -0,0 +1,451 @@
+package com.healthcare.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.config.AiAsyncConfig;
+import com.healthcare.config.AiScreeningConfig;
+import com.healthcare.dao.AiAnalysisResultDao;
+import com.healthcare.dao.AiScreeningRunDao;
+import com.healthcare.dao.AllergyDao;
+import com.healthcare.dao.ConditionDao;
+import com.healthcare.dao.EncounterDao;
+import com.healthcare.dao.PatientDao;
+import com.healthcare.dto.ClinicalSnapshot;
+import com.healthcare.dto.GeminiAnalysisResult;
+import com.healthcare.dto.ScreeningRunResponse;
+import com.healthcare.entity.AiAnalysisResult;
+import com.healthcare.entity.AiScreeningRun;
+import com.healthcare.entity.Allergy;
+import com.healthcare.entity.Condition;
+import com.healthcare.entity.Encounter;
+import com.healthcare.entity.Patient;
+import com.healthcare.enums.AiTriggerType;
+import com.healthcare.enums.ScreeningRunStatus;
+import com.healthcare.exception.AiServiceException;
+import com.healthcare.service.GeminiClient;
+import com.healthcare.service.ScreeningService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Batch AI population screening: refreshes the AI summary of every living patient whose
+ * clinical snapshot changed since their latest result.
+ *
+ * The sweep walks patients in id order, one keyset page at a time. Per page it batch-loads
+ * clinical data, keeps only patients whose digest differs from their latest result, packs
+ * several of them into each Gemini request under a requests/tokens-per-minute budget, and
+ * saves the page's results together with the advanced cursor in one transaction. A sweep
+ * that dies is resumed from that cursor by the next start request.
+ *
+ * The cursor passes every patient of a page, so patients whose request failed are kept on the
+ * run's retry list in the same transaction. After the last page they are retried once; those
+ * that fail again stay on the list, counted in patients_failed; the next run's scan finds
+ * their snapshots still unanalyzed and tries them again.
+ */
+@Service
+public class ScreeningServiceImpl implements ScreeningService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreeningServiceImpl.class);
+
+    private static final UUID FIRST_PATIENT_ID  = new UUID(0L, 0L);
+    private static final int  MAX_ERROR_LENGTH  = 500;
+
+    private final AiScreeningRunDao   runDao;
+    private final AiAnalysisResultDao aiAnalysisResultDao;
+    private final PatientDao          patientDao;
+    private final ConditionDao        conditionDao;
+    private final AllergyDao          allergyDao;
+    private final EncounterDao        encounterDao;
+    private final GeminiClient        geminiClient;
+    private final ObjectMapper        objectMapper;
+    private final PromptBuilder       promptBuilder;
+    private final AiScreeningConfig   config;
+    private final TaskExecutor        screeningExecutor;
+    private final MeterRegistry       meterRegistry;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate writeTx;
+
+    @Value("${gemini.model:gemini-1.5-pro}")
+    private String modelVersion;
+
+    public ScreeningServiceImpl(AiScreeningRunDao runDao,
+                                AiAnalysisResultDao aiAnalysisResultDao,
+                                PatientDao patientDao,
+                                ConditionDao conditionDao,
+                                AllergyDao allergyDao,
+                                EncounterDao encounterDao,
+                                GeminiClient geminiClient,
+                                ObjectMapper objectMapper,
+                                PromptBuilder promptBuilder,
+                                AiScreeningConfig config,
+                                @Qualifier(AiAsyncConfig.AI_SCREENING_EXECUTOR) TaskExecutor screeningExecutor,
+                                MeterRegistry meterRegistry,
+                                PlatformTransactionManager transactionManager) {
+        this.runDao              = runDao;
+        this.aiAnalysisResultDao = aiAnalysisResultDao;
+        this.patientDao          = patientDao;
+        this.conditionDao        = conditionDao;
+        this.allergyDao          = allergyDao;
+        this.encounterDao        = encounterDao;
+        this.geminiClient        = geminiClient;
+        this.objectMapper        = objectMapper;
+        this.promptBuilder       = promptBuilder;
+        this.config              = config;
+        this.screeningExecutor   = screeningExecutor;
+        this.meterRegistry       = meterRegistry;
+        this.writeTx             = new TransactionTemplate(transactionManager);
+        this.readOnlyTx          = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @Override
+    public ScreeningRunResponse startOrResume() {
+        AiScreeningRun run;
+        try {
+            run = writeTx.execute(status -> claimRun());
+        } catch (DataIntegrityViolationException e) {
+            // idx_ai_screening_runs_one_running: another replica inserted a RUNNING row first
+            throw inProgress();
+        }
+        UUID runId = run.getId();
+        UUID owner = run.getOwnerId();
+        try {
+            screeningExecutor.execute(() -> sweep(runId, owner));
+        } catch (TaskRejectedException e) {
+            // the claimed row would block every start until its heartbeat goes stale; fail it so the next one resumes
+            failRun(runId, owner, "Screening executor rejected the run");
+            throw inProgress();
+        }
+        log.info("AI screening run {} started, cursor={}", runId, run.getCursorPatientId());
+        return ScreeningRunResponse.from(run);
+    }
+
+    @Override
+    public ScreeningRunResponse getRun(UUID runId) {
+        return readOnlyTx.execute(status -> runDao.findById(runId)
+                .map(ScreeningRunResponse::from)
+                .orElseThrow(() -> new AiServiceException(
+                        HttpStatus.NOT_FOUND,
+                        AiServiceException.SCREENING_RUN_NOT_FOUND,
+                        "Screening run not found: " + runId)));
+    }
+
+    /**
+     * Nightly trigger; disabled unless ai.screening.cron is set.
+     */
+    @Scheduled(cron = "${ai.screening.cron:-}")
+    public void scheduledSweep() {
+        try {
+            startOrResume();
+        } catch (AiServiceException e) {
+            log.info("Scheduled AI screening skipped: {}", e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+
+    private AiScreeningRun claimRun() {
+        AiScreeningRun latest = runDao.findTopByOrderByStartedAtDesc().orElse(null);
+        if (latest == null || latest.getStatus() == ScreeningRunStatus.COMPLETED) {
+            return runDao.saveAndFlush(AiScreeningRun.start());
+        }
+        OffsetDateTime staleBefore = OffsetDateTime.now().minusMinutes(config.getStaleHeartbeatMinutes());
+        if (latest.getStatus() == ScreeningRunStatus.RUNNING && !latest.isHeartbeatOlderThan(staleBefore)) {
+            throw inProgress();
+        }
+        log.warn("Resuming AI screening run {} ({}), cursor={}",
+                latest.getId(), latest.getStatus(), latest.getCursorPatientId());
+        latest.resume();
+        return runDao.save(latest);
+    }
+
+    /**
+     * Works the run as {@code owner}. The heartbeat moves after every Gemini request, so a slow
+     * page is not mistaken for a dead sweep; if another replica took the run over anyway, the
+     * next heartbeat or commit notices and this sweep stops without touching the row.
+     */
+    void sweep(UUID runId, UUID owner) {
+        RateBudget budget = new RateBudget(config.getRequestsPerMinute(), config.getTokensPerMinute());
+        UUID cursor = readOnlyTx.execute(status -> runDao.findById(runId)
+                .map(AiScreeningRun::getCursorPatientId)
+                .orElse(null));
+        if (cursor == null) cursor = FIRST_PATIENT_ID;
+
+        long startNanos = System.nanoTime();
+        int  scannedHere = 0;
+        int  consecutiveFailedPages = 0;
+        try {
+            while (true) {
+                UUID after = cursor;
+                List<UUID> ids = readOnlyTx.execute(status -> patientDao.findActivePatientIdsAfter(
+                        after, PageRequest.of(0, config.getPageSize())));
+                if (ids == null || ids.isEmpty()) break;
+
+                PageResult page = analyzePage(runId, owner, ids, budget);
+                UUID last = ids.get(ids.size() - 1);
+                int saved = writeTx.execute(status -> commitPage(runId, owner, last, page));
+                cursor = last;
+
+                scannedHere += ids.size();
+                double minutes = (System.nanoTime() - startNanos) / 60e9;
+                log.info("AI screening run {}: page of {} scanned, {} changed, {} saved, {} failed, "
+                                + "{} requests, ~{} tokens — {} patients/min",
+                        runId, page.scanned(), page.changed(), saved, page.failed(),
+                        page.requests(), page.tokens(), Math.round(scannedHere / Math.max(minutes, 1e-6)));
+
+                consecutiveFailedPages = page.requests() > 0 && page.failedRequests() == page.requests()
+                        ? consecutiveFailedPages + 1 : 0;
+                if (consecutiveFailedPages >= config.getMaxConsecutiveFailedPages()) {
+                    throw new IllegalStateException(
+                            "Every Gemini request failed on " + consecutiveFailedPages + " consecutive pages");
+                }
+            }
+            retryFailed(runId, owner, budget);
+            writeTx.executeWithoutResult(status -> findOwnedRun(runId, owner).complete());
+            log.info("AI screening run {} completed", runId);
+        } catch (RunTakenOverException e) {
+            log.warn("AI screening run {} was taken over at cursor={}; this sweep stops", runId, cursor);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failRun(runId, owner, "Interrupted");
+        } catch (RuntimeException e) {
+            log.error("AI screening run {} failed at cursor={}: {}", runId, cursor, e.getMessage(), e);
+            failRun(runId, owner, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * One pass over the run's retry list, in pages. A run that dies here resumes with the list
+     * as it was last committed.
+     */
+    private void retryFailed(UUID runId, UUID owner, RateBudget budget) throws InterruptedException {
+        List<UUID> failed = readOnlyTx.execute(status -> runDao.findById(runId)
+                .map(AiScreeningRun::getRetryPatientIds)
+                .orElse(List.of()));
+        if (failed == null || failed.isEmpty()) return;
+
+        log.info("AI screening run {}: retrying {} failed patient(s)", runId, failed.size());
+        for (int from = 0; from < failed.size(); from += config.getPageSize()) {
+            List<UUID> ids = failed.subList(from, Math.min(from + config.getPageSize(), failed.size()));
+            PageResult page = analyzePage(runId, owner, ids, budget);
+            int saved = writeTx.execute(status -> commitRetryPage(runId, owner, ids, page));
+            log.info("AI screening run {}: retried {}, {} saved, {} failed again",
+                    runId, ids.size(), saved, page.failed());
+        }
+    }
+
+    private PageResult analyzePage(UUID runId, UUID owner, List<UUID> ids, RateBudget budget)
+            throws InterruptedException {
+        List<PatientSnapshot> changed = readOnlyTx.execute(status -> loadChangedSnapshots(ids));
+
+        List<AiAnalysisResult> results = new ArrayList<>();
+        List<UUID> failedIds = new ArrayList<>();
+        int requests = 0, failedRequests = 0;
+        long tokens = 0;
+        for (int from = 0; from < changed.size(); from += config.getPatientsPerRequest()) {
+            List<PatientSnapshot> chunk = changed.subList(from,
+                    Math.min(from + config.getPatientsPerRequest(), changed.size()));
+            String prompt = promptBuilder.screeningPrompt(chunk);
+            int promptTokens = RateBudget.estimateTokens(prompt);
+            budget.acquire(promptTokens);
+            requests++;
+            tokens += promptTokens;
+
+            Map<String, GeminiAnalysisResult> byRef;
+            try {
+                byRef = geminiClient.analyzeBatch(prompt);
+            } catch (AiServiceException e) {
+                heartbeat(runId, owner);
+                log.warn("Screening request for {} patient(s) failed [{}]: {}",
+                        chunk.size(), e.getErrorCode(), e.getMessage());
+                failedRequests++;
+                chunk.forEach(snapshot -> failedIds.add(snapshot.patient().getId()));
+                continue;
+            }
+            heartbeat(runId, owner);
+            for (int i = 0; i < chunk.size(); i++) {
+                GeminiAnalysisResult result = byRef.get(PromptBuilder.screeningRef(i));
+                if (result == null) {
+                    failedIds.add(chunk.get(i).patient().getId());
+                } else {
+                    results.add(toResult(chunk.get(i), result));
+                }
+            }
+        }
+        count("unchanged", ids.size() - changed.size());
+        count("failed", failedIds.size());
+        return new PageResult(ids.size(), changed.size(), results, failedIds, requests, failedRequests, tokens);
+    }
+
+    /**
+     * Saves the page's results and advances the run in one transaction, failed patients
+     * onto its retry list.
+     */
+    private int commitPage(UUID runId, UUID owner, UUID cursor, PageResult page) {
+        AiScreeningRun run = findOwnedRun(runId, owner);
+        int saved = saveFresh(page);
+        run.recordPage(cursor, page.scanned(), page.changed(), saved, page.failedIds(),
+                page.requests(), page.tokens());
+        return saved;
+    }
+
+    private int commitRetryPage(UUID runId, UUID owner, List<UUID> retried, PageResult page) {
+        AiScreeningRun run = findOwnedRun(runId, owner);
+        int saved = saveFresh(page);
+        run.recordRetryPage(retried, saved, page.failedIds(), page.requests(), page.tokens());
+        return saved;
+    }
+
+    /**
+     * Saves the page's results, dropping those whose snapshot was analyzed meanwhile
+     * (interactive path or trigger poller).
+     */
+    private int saveFresh(PageResult page) {
+        List<AiAnalysisResult> fresh = page.results();
+        if (!fresh.isEmpty()) {
+            Map<UUID, byte[]> latest = latestDigests(fresh.stream().map(AiAnalysisResult::getPatientId).toList());
+            fresh = fresh.stream()
+                    .filter(r -> !SnapshotDigest.matches(r.getSnapshotDigest(), latest.get(r.getPatientId())))
+                    .toList();
+            aiAnalysisResultDao.saveAll(fresh);
+        }
+        count("analyzed", fresh.size());
+        return fresh.size();
+    }
+
+    /**
+     * The run, row-locked, if this sweep still owns it; a takeover commits first or waits for
+     * this transaction, so the check cannot race it.
+     */
+    private AiScreeningRun findOwnedRun(UUID runId, UUID owner) {
+        AiScreeningRun run = runDao.findByIdForUpdate(runId).orElseThrow(() -> new IllegalStateException(
+                "Screening run disappeared: " + runId));
+        if (!run.isOwnedBy(owner)) throw new RunTakenOverException();
+        return run;
+    }
+
+    private void heartbeat(UUID runId, UUID owner) {
+        Integer updated = writeTx.execute(status -> runDao.heartbeat(runId, owner));
+        if (updated == null || updated == 0) throw new RunTakenOverException();
+    }
+
+    private List<PatientSnapshot> loadChangedSnapshots(List<UUID> ids) {
+        Map<UUID, List<Condition>> conditions = conditionDao.findByIdPatientIdIn(ids).stream()
+                .collect(Collectors.groupingBy(c -> c.getId().getPatientId()));
+        Map<UUID, List<Allergy>> allergies = allergyDao.findByIdPatientIdIn(ids).stream()
+                .collect(Collectors.groupingBy(a -> a.getId().getPatientId()));
+        Map<UUID, List<Encounter>> encounters = encounterDao.findByPatientIdIn(ids).stream()
+                .collect(Collectors.groupingBy(Encounter::getPatientId));
+        Map<UUID, byte[]> latest = latestDigests(ids);
+
+        Map<UUID, Patient> patients = new LinkedHashMap<>();
+        for (Patient p : patientDao.findAllById(ids)) patients.put(p.getId(), p);
+
+        List<PatientSnapshot> changed = new ArrayList<>();
+        for (UUID id : ids) {
+            Patient patient = patients.get(id);
+            if (patient == null) continue;
+            PatientSnapshot snapshot = PatientSnapshot.of(patient,
+                    conditions.getOrDefault(id, List.of()),
+                    allergies.getOrDefault(id, List.of()),
+                    encounters.getOrDefault(id, List.of()));
+            if (!SnapshotDigest.matches(snapshot.digest(), latest.get(id))) {
+                changed.add(snapshot);
+            }
+        }
+        return changed;
+    }
+
+    private Map<UUID, byte[]> latestDigests(List<UUID> patientIds) {
+        Map<UUID, byte[]> latest = new HashMap<>();
+        for (AiAnalysisResultDao.LatestDigest d
+                : aiAnalysisResultDao.findLatestSnapshotDigests(patientIds.toArray(UUID[]::new))) {
+            if (d.getSnapshotDigest() != null) latest.put(d.getPatientId(), d.getSnapshotDigest());
+        }
+        return latest;
+    }
+
+    private AiAnalysisResult toResult(PatientSnapshot snapshot, GeminiAnalysisResult result) {
+        UUID lastEncounterId = snapshot.encounters().stream()
+                .filter(e -> e.getStartTime() != null)
+                .max(Comparator.comparing(Encounter::getStartTime))
+                .map(Encounter::getId)
+                .orElse(null);
+        return new AiAnalysisResult(
+                snapshot.patient().getId(),
+                result.summary(),
+                result.riskFlags(),
+                AiTriggerType.SCHEDULED_SCREENING,
+                null,
+                modelVersion,
+                toJson(new ClinicalSnapshot(null, snapshot.conditionItems(), snapshot.allergyItems())),
+                snapshot.digest(),
+                lastEncounterId);
+    }
+
+    private void failRun(UUID runId, UUID owner, String error) {
+        String truncated = error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+        writeTx.executeWithoutResult(status -> runDao.findByIdForUpdate(runId)
+                .filter(r -> r.isOwnedBy(owner))
+                .ifPresent(r -> r.fail(truncated)));
+    }
+
+    private void count(String outcome, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter("ai.screening.patients", "outcome", outcome).increment(amount);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize to JSON: {}", e.getMessage());
+            return "{}";
+        }
+    }
+
+    private static AiServiceException inProgress() {
+        return new AiServiceException(
+                HttpStatus.CONFLICT,
+                AiServiceException.SCREENING_IN_PROGRESS,
+                "An AI screening run is already in progress");
+    }
+
+    /**
+     * Another replica resumed the run after its heartbeat went stale; the run is theirs now.
+     */
+    private static final class RunTakenOverException extends RuntimeException {
+        RunTakenOverException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private record PageResult(int scanned, int changed, List<AiAnalysisResult> results, List<UUID> failedIds,
+                              int requests, int failedRequests, long tokens) {
+
+        int failed() { return failedIds.size(); }
+    }
+}
@@ -0,0 +1,66 @@
+package com.healthcare.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent work for the same key within one JVM.
+ *
+ * The first caller for a key becomes the leader and must finish the call with
+ * {@link Call#complete} or {@link Call#fail}; every other caller that joins while
+ * the call is open gets the same future and waits on it. The key is released as
+ * soon as the leader finishes, so the next caller starts a fresh call.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    public Call<V> join(K key) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, mine);
+        if (existing != null) {
+            return new Call<>(existing, false);
+        }
+        mine.whenComplete((value, error) -> calls.remove(key, mine));
+        return new Call<>(mine, true);
+    }
+
+    public int inFlight() {
+        return calls.size();
+    }
+
+    public static final class Call<V> {
+
+        private final CompletableFuture<V> future;
+        private final boolean leader;
+
+        private Call(CompletableFuture<V> future, boolean leader) {
+            this.future = future;
+            this.leader = leader;
+        }
+
+        public boolean isLeader() { return leader; }
+
+        public void complete(V value)    { future.complete(value); }
+        public void fail(Throwable error) { future.completeExceptionally(error); }
+
+        /**
+         * Waits for the leader. Rethrows the leader's RuntimeException as-is.
+         */
+        public V await(Duration timeout) throws TimeoutException {
+            try {
+                return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for in-flight call", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
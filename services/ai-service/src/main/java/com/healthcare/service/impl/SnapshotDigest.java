@@ -0,0 +1,63 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.dto.SnapshotItem;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Canonical, order-independent SHA-256 digest of a clinical snapshot.
+ *
+ * Each condition/allergy is reduced to a line of the fields that matter for re-analysis
+ * (code, start, stop, encounter date) — descriptions are excluded, as in the old fingerprint.
+ * Lines are sorted before hashing, so DAO row order never changes the digest.
+ */
+public final class SnapshotDigest {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final char   SEP       = '|';
+
+    private SnapshotDigest() {}
+
+    public static byte[] of(List<SnapshotItem> conditions, List<SnapshotItem> allergies) {
+        List<String> lines = new ArrayList<>(conditions.size() + allergies.size());
+        for (SnapshotItem item : conditions) lines.add(line('C', item));
+        for (SnapshotItem item : allergies)  lines.add(line('A', item));
+        lines.sort(null);
+
+        MessageDigest digest = newDigest();
+        for (String line : lines) {
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Constant-time comparison; a null digest (legacy row) never matches.
+     */
+    public static boolean matches(byte[] current, byte[] stored) {
+        return current != null && stored != null && MessageDigest.isEqual(current, stored);
+    }
+
+    private static String line(char kind, SnapshotItem item) {
+        return new StringBuilder(64)
+                .append(kind).append(SEP)
+                .append(item.code()).append(SEP)
+                .append(item.startDate()).append(SEP)
+                .append(item.stopDate()).append(SEP)
+                .append(item.encounterDate())
+                .toString();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+}
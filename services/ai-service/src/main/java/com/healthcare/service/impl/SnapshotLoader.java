@@ -0,0 +1,171 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiSnapshotConfig;
+import com.healthcare.config.DataSourceWorkload;
+import com.healthcare.config.WorkloadPools;
+import com.healthcare.dao.AllergyDao;
+import com.healthcare.dao.ConditionDao;
+import com.healthcare.dao.EncounterDao;
+import com.healthcare.dao.PatientDao;
+import com.healthcare.entity.Allergy;
+import com.healthcare.entity.Condition;
+import com.healthcare.entity.Encounter;
+import com.healthcare.entity.Patient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Loads one patient's clinical data for analysis.
+ *
+ * Conditions, allergies and encounters are forked onto virtual threads, each in a short
+ * read-only transaction on its own connection, while the patient row is read on the caller's
+ * connection; the load then takes as long as the slowest of the four queries instead of their
+ * sum. The forked rows come back detached, which is all PatientSnapshot and PromptBuilder need.
+ *
+ * Parallel loads are capped by ai.snapshot.max-parallel-loads so a burst of analyses cannot
+ * drain the connection pool while each caller still holds its own connection; past the cap,
+ * or with ai.snapshot.parallel-loads off, the lists are read one after another on the caller's
+ * connection as before. The loader also checks the caller's pool before forking and reads
+ * serially when it cannot hand out a connection per fork without a wait, so a starved pool
+ * costs no connection timeout. A fork that still times out — the pool drained between the
+ * check and the borrow — does not fail the analysis either: the load is redone serially.
+ */
+@Component
+public class SnapshotLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotLoader.class);
+
+    private static final ThreadFactory FORKS = Thread.ofVirtual().name("ai-snapshot-", 0).factory();
+    private static final int FORKS_PER_LOAD = 3;
+
+    private final PatientDao          patientDao;
+    private final ConditionDao        conditionDao;
+    private final AllergyDao          allergyDao;
+    private final EncounterDao        encounterDao;
+    private final TransactionTemplate readOnlyTx;
+    private final Semaphore           parallelPermits;   // null when parallel loads are off
+    private final ObjectProvider<WorkloadPools> workloadPools;
+
+    public SnapshotLoader(PatientDao patientDao,
+                          ConditionDao conditionDao,
+                          AllergyDao allergyDao,
+                          EncounterDao encounterDao,
+                          AiSnapshotConfig config,
+                          PlatformTransactionManager transactionManager,
+                          ObjectProvider<WorkloadPools> workloadPools) {
+        this.patientDao      = patientDao;
+        this.conditionDao    = conditionDao;
+        this.allergyDao      = allergyDao;
+        this.encounterDao    = encounterDao;
+        this.readOnlyTx      = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.parallelPermits = config.isParallelLoads() && config.getMaxParallelLoads() > 0
+                ? new Semaphore(config.getMaxParallelLoads()) : null;
+        this.workloadPools   = workloadPools;
+    }
+
+    /**
+     * Returns null if the patient does not exist.
+     */
+    PatientSnapshot load(UUID patientId) {
+        if (parallelPermits == null || !parallelPermits.tryAcquire()) {
+            return loadSerially(patientId);
+        }
+        try {
+            if (!forksCanBorrow()) {
+                log.debug("No pooled connections to spare for patient {}, reading serially", patientId);
+                return loadSerially(patientId);
+            }
+            return loadInParallel(patientId);
+        } catch (ForkStarvedException e) {
+            log.warn("Clinical data fork for patient {} got no pooled connection, reading serially: {}",
+                    patientId, e.getCause().getMessage());
+            return loadSerially(patientId);
+        } finally {
+            parallelPermits.release();
+        }
+    }
+
+    private PatientSnapshot loadInParallel(UUID patientId) {
+        String workload = DataSourceWorkload.current();
+        try (ExecutorService scope = Executors.newThreadPerTaskExecutor(FORKS)) {
+            Future<List<Condition>> conditions = scope.submit(() -> read(workload, () -> conditionDao.findByIdPatientId(patientId)));
+            Future<List<Allergy>>   allergies  = scope.submit(() -> read(workload, () -> allergyDao.findByIdPatientId(patientId)));
+            Future<List<Encounter>> encounters = scope.submit(() -> read(workload, () -> encounterDao.findByPatientId(patientId)));
+            try {
+                Patient patient = patientDao.findById(patientId).orElse(null);
+                if (patient == null) {
+                    scope.shutdownNow();
+                    return null;
+                }
+                return PatientSnapshot.of(patient, join(conditions), join(allergies), join(encounters));
+            } catch (RuntimeException e) {
+                scope.shutdownNow();
+                throw e;
+            }
+        }
+    }
+
+    private PatientSnapshot loadSerially(UUID patientId) {
+        Patient patient = patientDao.findById(patientId).orElse(null);
+        if (patient == null) return null;
+        return PatientSnapshot.of(patient,
+                conditionDao.findByIdPatientId(patientId),
+                allergyDao.findByIdPatientId(patientId),
+                encounterDao.findByPatientId(patientId));
+    }
+
+    // without workload pools there is nothing to ask; a starved fork then falls back after its timeout
+    private boolean forksCanBorrow() {
+        WorkloadPools pools = workloadPools.getIfAvailable();
+        return pools == null || pools.headroom(DataSourceWorkload.current()) >= FORKS_PER_LOAD;
+    }
+
+    // forks borrow from the caller's pool (see DataSourceWorkload)
+    private <T> T read(String workload, Supplier<T> query) {
+        return DataSourceWorkload.call(workload, () -> readOnlyTx.execute(status -> query.get()));
+    }
+
+    private static <T> T join(Future<T> fork) {
+        try {
+            return fork.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading clinical data", e);
+        } catch (ExecutionException e) {
+            if (isPoolTimeout(e.getCause())) throw new ForkStarvedException(e.getCause());
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Clinical data load failed", e.getCause());
+        }
+    }
+
+    // Hikari's "Connection is not available, request timed out", under whatever Spring wraps it in
+    private static boolean isPoolTimeout(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException) return true;
+        }
+        return false;
+    }
+
+    private static final class ForkStarvedException extends RuntimeException {
+
+        ForkStarvedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.healthcare.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.dto.RiskFlag;
+import com.healthcare.service.GeminiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Incremental scanner over the model's JSON answer as it streams in, one text fragment at a time.
+ *
+ * Emits the decoded characters of the top-level "summary" string as they arrive, and each
+ * "risk_flags" entry as soon as its object closes. Anything before the first '{' (markdown
+ * fences, preamble) is skipped. The scanner only tracks nesting, strings and escapes; the
+ * authoritative result is still parsed from {@link #text()} once the stream ends.
+ */
+final class StreamingAnalysisParser {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingAnalysisParser.class);
+
+    private static final String SUMMARY    = "summary";
+    private static final String RISK_FLAGS = "risk_flags";
+
+    private final ObjectMapper                objectMapper;
+    private final GeminiClient.StreamListener listener;
+    private final StringBuilder               text = new StringBuilder();
+
+    private boolean started;
+    private boolean expectKey;        // inside an object, before ':'
+    private boolean inString;
+    private boolean stringIsKey;
+    private boolean escape;
+    private int     unicodeDigits = -1;
+    private int     unicodeValue;
+    private String  lastKey;
+    private boolean inRiskFlags;      // inside the root "risk_flags" array
+
+    private final StringBuilder containers = new StringBuilder();   // open '{' / '[' — length 1 = root object
+    private final StringBuilder key        = new StringBuilder();
+    private final StringBuilder summary    = new StringBuilder();
+    private StringBuilder       flag;      // raw text of the risk flag object being read
+
+    StreamingAnalysisParser(ObjectMapper objectMapper, GeminiClient.StreamListener listener) {
+        this.objectMapper = objectMapper;
+        this.listener     = listener;
+    }
+
+    void feed(String fragment) {
+        text.append(fragment);
+        for (int i = 0; i < fragment.length(); i++) {
+            scan(fragment.charAt(i));
+        }
+        if (!summary.isEmpty()) {
+            listener.onSummaryDelta(summary.toString());
+            summary.setLength(0);
+        }
+    }
+
+    String text() {
+        return text.toString();
+    }
+
+    private void scan(char c) {
+        if (!started) {
+            if (c != '{') return;
+            started = true;
+        }
+        if (flag != null) flag.append(c);
+
+        if (inString) {
+            scanString(c);
+            return;
+        }
+        switch (c) {
+            case '"' -> {
+                inString    = true;
+                stringIsKey = expectKey;
+                key.setLength(0);
+            }
+            case ':' -> expectKey = false;
+            case ',' -> expectKey = top() == '{';
+            case '{' -> {
+                containers.append('{');
+                expectKey = true;
+                if (inRiskFlags && depth() == 3 && flag == null) flag = new StringBuilder("{");
+            }
+            case '[' -> {
+                containers.append('[');
+                expectKey = false;
+                if (depth() == 2 && RISK_FLAGS.equals(lastKey)) inRiskFlags = true;
+            }
+            case '}', ']' -> {
+                if (c == '}' && flag != null && depth() == 3) emitFlag();
+                if (c == ']' && depth() == 2) inRiskFlags = false;
+                if (depth() > 0) containers.setLength(depth() - 1);
+                expectKey = false;
+            }
+            default -> { }
+        }
+    }
+
+    private void scanString(char c) {
+        if (unicodeDigits >= 0) {
+            unicodeValue = unicodeValue * 16 + Character.digit(c, 16);
+            if (++unicodeDigits == 4) {
+                unicodeDigits = -1;
+                onStringChar((char) unicodeValue);
+            }
+            return;
+        }
+        if (escape) {
+            escape = false;
+            switch (c) {
+                case 'n' -> onStringChar('\n');
+                case 't' -> onStringChar('\t');
+                case 'r' -> onStringChar('\r');
+                case 'b' -> onStringChar('\b');
+                case 'f' -> onStringChar('\f');
+                case 'u' -> { unicodeDigits = 0; unicodeValue = 0; }
+                default  -> onStringChar(c);
+            }
+            return;
+        }
+        if (c == '\\') {
+            escape = true;
+        } else if (c == '"') {
+            inString = false;
+            if (stringIsKey) lastKey = key.toString();
+        } else {
+            onStringChar(c);
+        }
+    }
+
+    private void onStringChar(char c) {
+        if (stringIsKey) {
+            key.append(c);
+        } else if (depth() == 1 && SUMMARY.equals(lastKey)) {
+            summary.append(c);
+        }
+    }
+
+    private int depth() {
+        return containers.length();
+    }
+
+    private char top() {
+        return containers.isEmpty() ? 0 : containers.charAt(containers.length() - 1);
+    }
+
+    private void emitFlag() {
+        String raw = flag.toString();
+        flag = null;
+        try {
+            JsonNode node = objectMapper.readTree(raw);
+            listener.onRiskFlag(new RiskFlag(node.path("flag").asText(), node.path("reason").asText()));
+        } catch (JsonProcessingException e) {
+            log.debug("Skipping unparseable streamed risk flag: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.GeminiConfig;
+import com.healthcare.config.GeminiStubConfig;
+import com.healthcare.dto.GeminiAnalysisResult;
+import com.healthcare.exception.AiServiceException;
+import com.healthcare.service.GeminiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-process Gemini stand-in for load tests (gemini.client=stub): sleeps the sampled latency
+ * and returns generated results, without HTTP, retries or circuit breaking. To exercise the
+ * real client end to end, keep the live client and point gemini.base-url at {@link GeminiStubServer}.
+ */
+@Component
+@ConditionalOnProperty(name = "gemini.client", havingValue = "stub")
+public class StubGeminiClient implements GeminiClient {
+
+    private static final Logger log = LoggerFactory.getLogger(StubGeminiClient.class);
+
+    private final GeminiConfig geminiConfig;
+    private final GeminiStub   stub;
+    private final int          streamChunks;
+
+    public StubGeminiClient(GeminiConfig geminiConfig, GeminiStubConfig stubConfig) {
+        this.geminiConfig = geminiConfig;
+        this.stub         = new GeminiStub(stubConfig);
+        this.streamChunks = Math.max(1, stubConfig.getStreamChunks());
+        log.warn("Gemini calls are served by the local stub (seed={}, median={}ms, p99={}ms, overload={})",
+                stubConfig.getSeed(), stubConfig.getLatencyMedianMs(), stubConfig.getLatencyP99Ms(),
+                stubConfig.getOverloadRate());
+    }
+
+    @Override
+    public GeminiAnalysisResult analyze(String prompt) {
+        return call(prompt).results().get(0);
+    }
+
+    @Override
+    public Map<String, GeminiAnalysisResult> analyzeBatch(String prompt) {
+        GeminiStub.Reply reply = call(prompt);
+        Map<String, GeminiAnalysisResult> byRef = new LinkedHashMap<>();
+        for (int i = 0; i < reply.refs().size(); i++) {
+            byRef.put(reply.refs().get(i), reply.results().get(i));
+        }
+        return byRef;
+    }
+
+    /**
+     * Waits for the first of gemini.stub.stream-chunks pieces, then emits the summary piece by
+     * piece with the rest of the sampled latency spread between them, and the risk flags last.
+     */
+    @Override
+    public GeminiAnalysisResult analyzeStreaming(String prompt, StreamListener listener) {
+        GeminiStub.Reply reply = call(prompt, streamChunks);
+        GeminiAnalysisResult result = reply.results().get(0);
+        String summary = result.summary();
+        int chunkChars = Math.max(1, (summary.length() + streamChunks - 1) / streamChunks);
+        for (int from = 0; from < summary.length(); from += chunkChars) {
+            if (from > 0) sleep(reply.latencyMs() / streamChunks);
+            listener.onSummaryDelta(summary.substring(from, Math.min(summary.length(), from + chunkChars)));
+        }
+        result.riskFlags().forEach(listener::onRiskFlag);
+        return result;
+    }
+
+    private GeminiStub.Reply call(String prompt) {
+        return call(prompt, 1);
+    }
+
+    private GeminiStub.Reply call(String prompt, int chunks) {
+        GeminiStub.Reply reply = callModel(geminiConfig.getModel(), prompt, chunks);
+        String fallback = geminiConfig.getFallbackModel();
+        if (reply.outcome() != GeminiStub.Outcome.OK && fallback != null && !fallback.isBlank()) {
+            reply = callModel(fallback, prompt, chunks);
+        }
+        if (reply.outcome() != GeminiStub.Outcome.OK) {
+            throw new AiServiceException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    AiServiceException.GEMINI_UNAVAILABLE,
+                    "Stub Gemini answered " + reply.outcome());
+        }
+        return reply;
+    }
+
+    // a successful streamed reply only waits for its first chunk here
+    private GeminiStub.Reply callModel(String model, String prompt, int chunks) {
+        GeminiStub.Reply reply = stub.next(model, prompt);
+        sleep(reply.outcome() == GeminiStub.Outcome.OK ? reply.latencyMs() / chunks : reply.latencyMs());
+        return reply;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiServiceException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    AiServiceException.GEMINI_UNAVAILABLE,
+                    "Interrupted while waiting for stub Gemini");
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.healthcare.controller;
 
 import com.healthcare.dto.AiAnalysisResponse;
+import com.healthcare.dto.AnalysisHistoryItem;
+import com.healthcare.dto.AnalysisHistoryPage;
+import com.healthcare.dto.AnalysisJobResponse;
 import com.healthcare.dto.RiskFlag;
 import com.healthcare.enums.AiTriggerType;
 import com.healthcare.exception.AiExceptionHandler;
 import com.healthcare.exception.AiServiceException;
 import com.healthcare.service.AiAnalysisService;
+import com.healthcare.service.AnalysisStreamListener;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -13,16 +17,26 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AiController.class)
@@ -35,6 +49,7 @@ class AiControllerTest {
     private static final UUID ENCOUNTER_ID = UUID.randomUUID();
     private static final UUID PATIENT_ID   = UUID.randomUUID();
     private static final UUID PROVIDER_ID  = UUID.randomUUID();
+    private static final UUID JOB_ID       = UUID.randomUUID();
 
     private AiAnalysisResponse sampleResponse() {
         return new AiAnalysisResponse(
@@ -97,6 +112,132 @@ class AiControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    // -------------------------------------------------------------------------
+    // POST /api/ai/encounters/{encounterId}/jobs  +  GET /api/ai/jobs/{jobId}
+    // -------------------------------------------------------------------------
+
+    private AnalysisJobResponse sampleJob(AnalysisJobResponse.Status status, AiAnalysisResponse result) {
+        return new AnalysisJobResponse(JOB_ID, status, PATIENT_ID, ENCOUNTER_ID,
+                OffsetDateTime.now(), null, result, null);
+    }
+
+    @Test
+    void submitAnalysis_returns202_withJobLocation() throws Exception {
+        when(aiAnalysisService.submitAnalysis(any(), any()))
+                .thenReturn(sampleJob(AnalysisJobResponse.Status.QUEUED, null));
+
+        mockMvc.perform(post("/api/ai/encounters/{encounterId}/jobs", ENCOUNTER_ID)
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/ai/jobs/" + JOB_ID))
+                .andExpect(jsonPath("$.job_id").value(JOB_ID.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void submitAnalysis_returns503_whenQueueFull() throws Exception {
+        when(aiAnalysisService.submitAnalysis(any(), any()))
+                .thenThrow(new AiServiceException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        AiServiceException.ANALYSIS_QUEUE_FULL,
+                        "AI analysis queue is full"));
+
+        mockMvc.perform(post("/api/ai/encounters/{encounterId}/jobs", ENCOUNTER_ID)
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getAnalysisJob_returns200_withResult_whenJobSucceeded() throws Exception {
+        when(aiAnalysisService.getAnalysisJob(eq(JOB_ID), any(), eq(10)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        sampleJob(AnalysisJobResponse.Status.SUCCEEDED, sampleResponse())));
+
+        MvcResult pending = mockMvc.perform(get("/api/ai/jobs/{jobId}", JOB_ID)
+                        .param("wait_seconds", "10")
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.result.summary").value("Patient has Type 2 diabetes."));
+    }
+
+    @Test
+    void getAnalysisJob_returns404_whenJobUnknown() throws Exception {
+        when(aiAnalysisService.getAnalysisJob(any(), any(), anyInt()))
+                .thenThrow(new AiServiceException(
+                        HttpStatus.NOT_FOUND,
+                        AiServiceException.JOB_NOT_FOUND,
+                        "Analysis job not found"));
+
+        mockMvc.perform(get("/api/ai/jobs/{jobId}", JOB_ID)
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(status().isNotFound());
+    }
+
+    // -------------------------------------------------------------------------
+    // POST /api/ai/encounters/{encounterId}/stream
+    // -------------------------------------------------------------------------
+
+    @Test
+    void streamAnalysis_sendsDeltasFlagsAndResultAsEvents() throws Exception {
+        doAnswer(invocation -> {
+            AnalysisStreamListener listener = invocation.getArgument(2);
+            listener.onSummaryDelta("Patient has ");
+            listener.onSummaryDelta("Type 2 diabetes.");
+            listener.onRiskFlag(new RiskFlag("High readmission risk", "4 ER visits in past 12 months"));
+            listener.onComplete(sampleResponse());
+            return null;
+        }).when(aiAnalysisService).streamAnalysis(eq(ENCOUNTER_ID), eq(PROVIDER_ID), any());
+
+        MvcResult pending = mockMvc.perform(post("/api/ai/encounters/{encounterId}/stream", ENCOUNTER_ID)
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isOk());
+
+        assertThat(pending.getResponse().getContentAsString())
+                .containsSubsequence(
+                        "event:summary", "\"text\":\"Patient has \"",
+                        "event:summary", "\"text\":\"Type 2 diabetes.\"",
+                        "event:risk_flag", "\"flag\":\"High readmission risk\"",
+                        "event:result", "\"trigger_type\":\"MANUAL\"");
+    }
+
+    @Test
+    void streamAnalysis_sendsErrorEvent_whenAnalysisFails() throws Exception {
+        doAnswer(invocation -> {
+            AnalysisStreamListener listener = invocation.getArgument(2);
+            listener.onError(new AiServiceException(
+                    HttpStatus.SERVICE_UNAVAILABLE, AiServiceException.GEMINI_UNAVAILABLE, "down"));
+            return null;
+        }).when(aiAnalysisService).streamAnalysis(any(), any(), any());
+
+        MvcResult pending = mockMvc.perform(post("/api/ai/encounters/{encounterId}/stream", ENCOUNTER_ID)
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isOk());
+
+        assertThat(pending.getResponse().getContentAsString())
+                .contains("event:error", "\"status\":503")
+                .doesNotContain("event:result");
+    }
+
+    @Test
+    void streamAnalysis_returns403_beforeStreaming_whenProviderNotOwner() throws Exception {
+        doThrow(new AiServiceException(
+                HttpStatus.FORBIDDEN, AiServiceException.PROVIDER_NOT_AUTHORIZED, "Not authorized"))
+                .when(aiAnalysisService).streamAnalysis(any(), any(), any());
+
+        mockMvc.perform(post("/api/ai/encounters/{encounterId}/stream", ENCOUNTER_ID)
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(status().isForbidden());
+    }
+
     // -------------------------------------------------------------------------
     // GET /api/ai/patient/{patientId}
     // -------------------------------------------------------------------------
@@ -164,4 +305,83 @@ class AiControllerTest {
         mockMvc.perform(get("/api/ai/patient/{patientId}/history", PATIENT_ID))
                 .andExpect(status().isBadRequest());
     }
+
+    // -------------------------------------------------------------------------
+    // GET /api/ai/patient/{patientId}/analyses
+    // -------------------------------------------------------------------------
+
+    @Test
+    void getAnalysisPage_returns200_withPage() throws Exception {
+        UUID analysisId = UUID.randomUUID();
+        when(aiAnalysisService.getAnalysisPage(any(), any(), any(), anyInt()))
+                .thenReturn(new AnalysisHistoryPage(List.of(new AnalysisHistoryItem(
+                        analysisId, OffsetDateTime.now(), AiTriggerType.MANUAL, "gemini-1.5-pro", 1)), "abc"));
+
+        mockMvc.perform(get("/api/ai/patient/{patientId}/analyses", PATIENT_ID)
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].analysis_id").value(analysisId.toString()))
+                .andExpect(jsonPath("$.items[0].risk_flag_count").value(1))
+                .andExpect(jsonPath("$.items[0].summary").doesNotExist())
+                .andExpect(jsonPath("$.next_cursor").value("abc"));
+    }
+
+    @Test
+    void getAnalysisPage_passesCursorAndSize() throws Exception {
+        when(aiAnalysisService.getAnalysisPage(eq(PATIENT_ID), eq(PROVIDER_ID), eq("abc"), eq(50)))
+                .thenReturn(new AnalysisHistoryPage(List.of(), null));
+
+        mockMvc.perform(get("/api/ai/patient/{patientId}/analyses", PATIENT_ID)
+                        .param("cursor", "abc")
+                        .param("size", "50")
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andExpect(jsonPath("$.next_cursor").doesNotExist());
+    }
+
+    @Test
+    void getAnalysisPage_returns400_whenCursorInvalid() throws Exception {
+        when(aiAnalysisService.getAnalysisPage(any(), any(), any(), anyInt()))
+                .thenThrow(new AiServiceException(
+                        HttpStatus.BAD_REQUEST, AiServiceException.INVALID_CURSOR, "Invalid history cursor"));
+
+        mockMvc.perform(get("/api/ai/patient/{patientId}/analyses", PATIENT_ID)
+                        .param("cursor", "bogus")
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAnalysisPage_returns400_whenMissingHeader() throws Exception {
+        mockMvc.perform(get("/api/ai/patient/{patientId}/analyses", PATIENT_ID))
+                .andExpect(status().isBadRequest());
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /api/ai/patient/{patientId}/analyses/{analysisId}
+    // -------------------------------------------------------------------------
+
+    @Test
+    void getAnalysis_returns200_withFullResult() throws Exception {
+        UUID analysisId = UUID.randomUUID();
+        when(aiAnalysisService.getAnalysis(PATIENT_ID, analysisId, PROVIDER_ID)).thenReturn(sampleResponse());
+
+        mockMvc.perform(get("/api/ai/patient/{patientId}/analyses/{analysisId}", PATIENT_ID, analysisId)
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.summary").value("Patient has Type 2 diabetes."));
+    }
+
+    @Test
+    void getAnalysis_returns404_whenNotFound() throws Exception {
+        when(aiAnalysisService.getAnalysis(any(), any(), any()))
+                .thenThrow(new AiServiceException(
+                        HttpStatus.NOT_FOUND, AiServiceException.NO_ANALYSIS_FOUND, "Analysis not found"));
+
+        mockMvc.perform(get("/api/ai/patient/{patientId}/analyses/{analysisId}", PATIENT_ID, UUID.randomUUID())
+                        .header("X-User-Id", PROVIDER_ID.toString()))
+                .andExpect(status().isNotFound());
+    }
 }
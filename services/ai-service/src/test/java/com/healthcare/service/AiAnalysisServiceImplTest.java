@@ -1,6 +1,11 @@
 package com.healthcare.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.config.AiAsyncConfig;
+import com.healthcare.config.AiCacheConfig;
+import com.healthcare.config.AiPromptConfig;
+import com.healthcare.config.AiSnapshotConfig;
+import com.healthcare.config.DataSourceWorkload;
 import com.healthcare.dao.AiAnalysisResultDao;
 import com.healthcare.dao.AllergyDao;
 import com.healthcare.dao.AuditLogDao;
@@ -9,7 +14,11 @@ import com.healthcare.dao.EncounterDao;
 import com.healthcare.dao.PatientDao;
 import com.healthcare.dao.ProviderDao;
 import com.healthcare.dto.AiAnalysisResponse;
+import com.healthcare.dto.AnalysisHistoryItem;
+import com.healthcare.dto.AnalysisHistoryPage;
 import com.healthcare.dto.GeminiAnalysisResult;
+import com.healthcare.dto.RiskFlag;
+import com.healthcare.dto.SnapshotItem;
 import com.healthcare.entity.AiAnalysisResult;
 import com.healthcare.entity.Condition;
 import com.healthcare.entity.ConditionId;
@@ -19,26 +28,49 @@ import com.healthcare.entity.Provider;
 import com.healthcare.enums.AiTriggerType;
 import com.healthcare.exception.AiServiceException;
 import com.healthcare.service.impl.AiAnalysisServiceImpl;
+import com.healthcare.service.impl.AnalysisResponseCache;
+import com.healthcare.service.impl.PromptBuilder;
+import com.healthcare.service.impl.SnapshotDigest;
+import com.healthcare.service.impl.SingleFlight;
+import com.healthcare.service.impl.SnapshotLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -53,6 +85,10 @@ class AiAnalysisServiceImplTest {
     @Mock private ProviderDao         providerDao;
     @Mock private AuditLogDao         auditLogDao;
     @Mock private GeminiClient        geminiClient;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Spy  private PromptBuilder       promptBuilder = new PromptBuilder(new AiPromptConfig());
+    @Spy  private AnalysisResponseCache responseCache =
+            new AnalysisResponseCache(new AiCacheConfig(), new SimpleMeterRegistry());
 
     @InjectMocks
     private AiAnalysisServiceImpl service;
@@ -68,8 +104,19 @@ class AiAnalysisServiceImplTest {
     void setUp() {
         ReflectionTestUtils.setField(service, "modelVersion", "gemini-1.5-pro");
         ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        AiSnapshotConfig snapshotConfig = new AiSnapshotConfig();
+        snapshotConfig.setParallelLoads(false);
+        ReflectionTestUtils.setField(service, "snapshotLoader", new SnapshotLoader(
+                patientDao, conditionDao, allergyDao, encounterDao, snapshotConfig, null, null));
         mockProvider = mock(Provider.class);
-        when(mockProvider.getId()).thenReturn(providerId);
+        lenient().when(mockProvider.getId()).thenReturn(providerId);   // not read by the read-only endpoints
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -84,8 +131,6 @@ class AiAnalysisServiceImplTest {
 
         Patient patient = new Patient("Jane", "Doe");
         GeminiAnalysisResult geminiResult = new GeminiAnalysisResult("Summary.", List.of(), "AI-generated.");
-        AiAnalysisResult saved = new AiAnalysisResult(
-                patientId, "Summary.", "[]", AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
 
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
         when(encounterDao.findById(encounterId)).thenReturn(Optional.of(encounter));
@@ -93,22 +138,43 @@ class AiAnalysisServiceImplTest {
         when(conditionDao.findByIdPatientId(patientId)).thenReturn(List.of());
         when(allergyDao.findByIdPatientId(patientId)).thenReturn(List.of());
         when(encounterDao.findByPatientId(patientId)).thenReturn(List.of(encounter));
-        when(aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId))
-                .thenReturn(Optional.empty())
-                .thenReturn(Optional.of(saved));
-        when(geminiClient.analyze(any())).thenReturn(geminiResult);
+        when(aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId)).thenReturn(Optional.empty());
+        when(aiAnalysisResultDao.findLatestSnapshotDigest(patientId)).thenReturn(List.of());
+        when(aiAnalysisResultDao.claimAnalysisLease(eq(patientId), any(), anyInt())).thenReturn(1);
+        when(aiAnalysisResultDao.save(any(AiAnalysisResult.class))).thenAnswer(inv -> inv.getArgument(0));
+        List<String> workloads = new ArrayList<>();
+        AtomicInteger open = new AtomicInteger();
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> {
+            workloads.add(DataSourceWorkload.current());
+            open.incrementAndGet();
+            return null;
+        });
+        doAnswer(inv -> open.decrementAndGet()).when(transactionManager).commit(any());
+        AtomicInteger openDuringGemini = new AtomicInteger(-1);
+        when(geminiClient.analyze(any())).thenAnswer(inv -> {
+            openDuringGemini.set(open.get());
+            return geminiResult;
+        });
 
         AiAnalysisResponse response = service.requestAnalysis(encounterId, authId);
 
         verify(geminiClient).analyze(any());
         verify(aiAnalysisResultDao).save(any(AiAnalysisResult.class));
+        // the saved row is returned as is, not read back
+        verify(aiAnalysisResultDao, times(1)).findTopByPatientIdOrderByGeneratedAtDesc(patientId);
         assertThat(response.summary()).isEqualTo("Summary.");
         assertThat(response.triggerType()).isEqualTo(AiTriggerType.MANUAL);
         assertThat(response.patientId()).isEqualTo(patientId);
+        // authorization, snapshot read, lease claim, save and audit all borrow from the AI pool
+        assertThat(workloads).hasSize(5).containsOnly(AiAsyncConfig.AI_JOB_POOL);
+        // the lease, not a transaction, spans the Gemini call
+        assertThat(openDuringGemini.get()).isZero();
+        verify(aiAnalysisResultDao, times(2)).acquireAnalysisLock(patientId);
+        verify(aiAnalysisResultDao).releaseAnalysisLease(eq(patientId), any());
     }
 
     @Test
-    void requestAnalysis_skipsGemini_andReturnsExistingResult_whenSnapshotUnchanged() throws Exception {
+    void requestAnalysis_skipsGemini_andReturnsExistingResult_whenSnapshotUnchanged() {
         Encounter encounter = new Encounter(providerId, OffsetDateTime.now());
         encounter.setId(encounterId);
         encounter.setPatientId(patientId);
@@ -118,16 +184,13 @@ class AiAnalysisServiceImplTest {
                 new ConditionId(patientId, encounterId, "E11"), LocalDate.of(2020, 1, 1));
         condition.setDescription("Type 2 diabetes");
 
-        ObjectMapper mapper = new ObjectMapper();
-        String existingSnapshot = mapper.writeValueAsString(
-                new com.healthcare.dto.ClinicalSnapshot("E11",
-                        List.of(new com.healthcare.dto.SnapshotItem(
-                                "E11", "Type 2 diabetes", "2020-01-01", null, "2020-01-15")),
-                        List.of()));
+        byte[] existingDigest = SnapshotDigest.of(
+                List.of(new SnapshotItem("E11", "Type 2 diabetes", "2020-01-01", null, "2020-01-15")),
+                List.of());
 
         AiAnalysisResult lastResult = new AiAnalysisResult(
-                patientId, "Old summary.", "[]",
-                AiTriggerType.MANUAL, null, "gemini-1.5-pro", existingSnapshot, encounterId);
+                patientId, "Old summary.", List.of(),
+                AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", existingDigest, encounterId);
 
         Encounter enc = new Encounter(UUID.randomUUID(), OffsetDateTime.of(2020, 1, 15, 0, 0, 0, 0,
                 java.time.ZoneOffset.UTC));
@@ -147,9 +210,162 @@ class AiAnalysisServiceImplTest {
 
         verify(geminiClient, never()).analyze(any());
         verify(aiAnalysisResultDao, never()).save(any());
+        verify(aiAnalysisResultDao, never()).findLatestSnapshotDigest(any());
+        verify(aiAnalysisResultDao, never()).acquireAnalysisLock(any());
         assertThat(response.summary()).isEqualTo("Old summary.");
     }
 
+    @Test
+    void requestAnalysis_callsGemini_whenLatestResultHasNoDigest() {
+        Encounter encounter = new Encounter(providerId, OffsetDateTime.now());
+        encounter.setId(encounterId);
+        encounter.setPatientId(patientId);
+
+        AiAnalysisResult saved = new AiAnalysisResult(
+                patientId, "Summary.", List.of(), AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
+
+        when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
+        when(encounterDao.findById(encounterId)).thenReturn(Optional.of(encounter));
+        when(patientDao.findById(patientId)).thenReturn(Optional.of(new Patient("Jane", "Doe")));
+        when(conditionDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(allergyDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(encounterDao.findByPatientId(patientId)).thenReturn(List.of(encounter));
+        when(aiAnalysisResultDao.findLatestSnapshotDigest(patientId)).thenReturn(java.util.Arrays.asList((byte[]) null));
+        when(aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId))
+                .thenReturn(Optional.of(saved));
+        when(aiAnalysisResultDao.claimAnalysisLease(eq(patientId), any(), anyInt())).thenReturn(1);
+        when(geminiClient.analyze(any()))
+                .thenReturn(new GeminiAnalysisResult("Summary.", List.of(), "AI-generated."));
+
+        service.requestAnalysis(encounterId, authId);
+
+        verify(geminiClient).analyze(any());
+        verify(aiAnalysisResultDao).save(any(AiAnalysisResult.class));
+    }
+
+    @Test
+    void requestAnalysis_skipsGemini_whenSnapshotAnalyzedConcurrentlyWhileWaitingForLock() {
+        Encounter encounter = new Encounter(providerId, OffsetDateTime.now());
+        encounter.setId(encounterId);
+        encounter.setPatientId(patientId);
+
+        byte[] emptySnapshotDigest = SnapshotDigest.of(List.of(), List.of());
+        AiAnalysisResult concurrent = new AiAnalysisResult(
+                patientId, "Concurrent summary.", List.of(),
+                AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", emptySnapshotDigest, encounterId);
+
+        when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
+        when(encounterDao.findById(encounterId)).thenReturn(Optional.of(encounter));
+        when(patientDao.findById(patientId)).thenReturn(Optional.of(new Patient("Jane", "Doe")));
+        when(conditionDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(allergyDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(encounterDao.findByPatientId(patientId)).thenReturn(List.of(encounter));
+        when(aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(concurrent));
+        when(aiAnalysisResultDao.findLatestSnapshotDigest(patientId)).thenReturn(List.of(emptySnapshotDigest));
+
+        AiAnalysisResponse response = service.requestAnalysis(encounterId, authId);
+
+        verify(aiAnalysisResultDao).acquireAnalysisLock(patientId);
+        verify(geminiClient, never()).analyze(any());
+        verify(aiAnalysisResultDao, never()).save(any());
+        assertThat(response.summary()).isEqualTo("Concurrent summary.");
+    }
+
+    @Test
+    void requestAnalysis_waitsForAnotherReplicasLease_andReturnsItsResult() {
+        Encounter encounter = new Encounter(providerId, OffsetDateTime.now());
+        encounter.setId(encounterId);
+        encounter.setPatientId(patientId);
+
+        byte[] emptySnapshotDigest = SnapshotDigest.of(List.of(), List.of());
+        AiAnalysisResult otherReplica = new AiAnalysisResult(
+                patientId, "Other replica's summary.", List.of(),
+                AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", emptySnapshotDigest, encounterId);
+
+        when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
+        when(encounterDao.findById(encounterId)).thenReturn(Optional.of(encounter));
+        when(patientDao.findById(patientId)).thenReturn(Optional.of(new Patient("Jane", "Doe")));
+        when(conditionDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(allergyDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(encounterDao.findByPatientId(patientId)).thenReturn(List.of(encounter));
+        when(aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(otherReplica));
+        // first poll: the other replica still holds the lease; second poll: its result is saved
+        when(aiAnalysisResultDao.findLatestSnapshotDigest(patientId))
+                .thenReturn(List.of())
+                .thenReturn(List.of(emptySnapshotDigest));
+        when(aiAnalysisResultDao.claimAnalysisLease(eq(patientId), any(), anyInt())).thenReturn(0);
+
+        AiAnalysisResponse response = service.requestAnalysis(encounterId, authId);
+
+        verify(aiAnalysisResultDao, times(2)).acquireAnalysisLock(patientId);
+        verify(aiAnalysisResultDao, times(1)).claimAnalysisLease(eq(patientId), any(), anyInt());
+        verify(geminiClient, never()).analyze(any());
+        verify(aiAnalysisResultDao, never()).save(any());
+        assertThat(response.summary()).isEqualTo("Other replica's summary.");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void requestAnalysis_followerWaitsForLeader_withNoTransactionOpen() {
+        Encounter encounter = new Encounter(providerId, OffsetDateTime.now());
+        encounter.setId(encounterId);
+        encounter.setPatientId(patientId);
+
+        byte[] emptySnapshotDigest = SnapshotDigest.of(List.of(), List.of());
+        AiAnalysisResult leaderResult = new AiAnalysisResult(
+                patientId, "Leader summary.", List.of(),
+                AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", emptySnapshotDigest, encounterId);
+
+        when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
+        when(encounterDao.findById(encounterId)).thenReturn(Optional.of(encounter));
+        when(patientDao.findById(patientId)).thenReturn(Optional.of(new Patient("Jane", "Doe")));
+        when(conditionDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(allergyDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(encounterDao.findByPatientId(patientId)).thenReturn(List.of(encounter));
+        when(aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId)).thenReturn(Optional.empty());
+
+        SingleFlight<String, AiAnalysisResult> inFlight =
+                (SingleFlight<String, AiAnalysisResult>) ReflectionTestUtils.getField(service, "inFlight");
+        SingleFlight.Call<AiAnalysisResult> leader =
+                inFlight.join(patientId + ":" + HexFormat.of().formatHex(emptySnapshotDigest));
+
+        CompletableFuture<AiAnalysisResponse> follower =
+                CompletableFuture.supplyAsync(() -> service.requestAnalysis(encounterId, authId));
+
+        // authorization and snapshot reads have both committed, and nothing else is open while it waits
+        verify(transactionManager, timeout(5000).times(2)).commit(any());
+        verify(transactionManager, times(2)).getTransaction(any());
+        assertThat(follower).isNotDone();
+
+        leader.complete(leaderResult);
+
+        assertThat(follower.join().summary()).isEqualTo("Leader summary.");
+        verify(geminiClient, never()).analyze(any());
+        verify(aiAnalysisResultDao, never()).acquireAnalysisLock(any());
+        verify(auditLogDao).insert(any());
+    }
+
+    @Test
+    void requestAnalysis_throws404_whenPatientNotFound() {
+        Encounter encounter = new Encounter(providerId, OffsetDateTime.now());
+        encounter.setId(encounterId);
+        encounter.setPatientId(patientId);
+
+        when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
+        when(encounterDao.findById(encounterId)).thenReturn(Optional.of(encounter));
+        when(patientDao.findById(patientId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.requestAnalysis(encounterId, authId))
+                .isInstanceOf(AiServiceException.class)
+                .satisfies(e -> assertThat(((AiServiceException) e).getStatus())
+                        .isEqualTo(HttpStatus.NOT_FOUND));
+        verify(auditLogDao, never()).insert(any());
+    }
+
     @Test
     void requestAnalysis_throws403_whenProviderNotFound() {
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.empty());
@@ -193,23 +409,40 @@ class AiAnalysisServiceImplTest {
     @Test
     void getLatestAnalysisForPatient_returnsResponse_whenResultExists() {
         AiAnalysisResult stored = new AiAnalysisResult(
-                patientId, "Patient has Type 2 diabetes.", "[{\"flag\":\"High risk\",\"reason\":\"Diabetes\"}]",
+                patientId, "Patient has Type 2 diabetes.", List.of(new RiskFlag("High risk", "Diabetes")),
                 AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
 
-        when(aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId))
-                .thenReturn(Optional.of(stored));
+        when(aiAnalysisResultDao.findResultIds(eq(patientId), any())).thenReturn(List.of(stored.getId()));
+        when(aiAnalysisResultDao.findById(stored.getId())).thenReturn(Optional.of(stored));
 
         AiAnalysisResponse response = service.getLatestAnalysisForPatient(patientId, providerId);
 
         assertThat(response.patientId()).isEqualTo(patientId);
         assertThat(response.summary()).isEqualTo("Patient has Type 2 diabetes.");
+        assertThat(response.riskFlags()).containsExactly(new RiskFlag("High risk", "Diabetes"));
         assertThat(response.triggerType()).isEqualTo(AiTriggerType.MANUAL);
     }
 
+    @Test
+    void getLatestAnalysisForPatient_servesCachedResponse_withoutLoadingRow() {
+        AiAnalysisResult stored = new AiAnalysisResult(
+                patientId, "Summary", List.of(),
+                AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
+
+        when(aiAnalysisResultDao.findResultIds(eq(patientId), any())).thenReturn(List.of(stored.getId()));
+        when(aiAnalysisResultDao.findById(stored.getId())).thenReturn(Optional.of(stored));
+
+        AiAnalysisResponse first  = service.getLatestAnalysisForPatient(patientId, providerId);
+        AiAnalysisResponse second = service.getLatestAnalysisForPatient(patientId, providerId);
+
+        assertThat(second).isSameAs(first);
+        verify(aiAnalysisResultDao, times(1)).findById(stored.getId());
+        verify(auditLogDao, times(2)).insert(any());
+    }
+
     @Test
     void getLatestAnalysisForPatient_throws404_whenNoResultExists() {
-        when(aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId))
-                .thenReturn(Optional.empty());
+        when(aiAnalysisResultDao.findResultIds(eq(patientId), any())).thenReturn(List.of());
 
         assertThatThrownBy(() -> service.getLatestAnalysisForPatient(patientId, providerId))
                 .isInstanceOf(AiServiceException.class)
@@ -220,11 +453,11 @@ class AiAnalysisServiceImplTest {
     @Test
     void getLatestAnalysisForPatient_writesAuditLog() {
         AiAnalysisResult stored = new AiAnalysisResult(
-                patientId, "Summary", "[]",
+                patientId, "Summary", List.of(),
                 AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
 
-        when(aiAnalysisResultDao.findTopByPatientIdOrderByGeneratedAtDesc(patientId))
-                .thenReturn(Optional.of(stored));
+        when(aiAnalysisResultDao.findResultIds(eq(patientId), any())).thenReturn(List.of(stored.getId()));
+        when(aiAnalysisResultDao.findById(stored.getId())).thenReturn(Optional.of(stored));
 
         service.getLatestAnalysisForPatient(patientId, providerId);
 
@@ -232,45 +465,157 @@ class AiAnalysisServiceImplTest {
     }
 
     // -------------------------------------------------------------------------
-    // getPatientHistory
+    // getPatientHistory / getAnalysisPage / getAnalysis
     // -------------------------------------------------------------------------
 
+    private record Entry(UUID getId, OffsetDateTime getGeneratedAt, AiTriggerType getTriggerType,
+                         String getModelVersion, int getFlagCount) implements AiAnalysisResultDao.HistoryEntry {
+    }
+
+    private Entry entry(int minutesAgo, int flags) {
+        return new Entry(UUID.randomUUID(), OffsetDateTime.now().minusMinutes(minutesAgo),
+                AiTriggerType.MANUAL, "gemini-1.5-pro", flags);
+    }
+
     @Test
-    void getPatientHistory_returnsList_whenResultsExist() {
-        AiAnalysisResult r1 = new AiAnalysisResult(
-                patientId, "Summary 1", "[]",
-                AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
-        AiAnalysisResult r2 = new AiAnalysisResult(
-                patientId, "Summary 2", "[]",
-                AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
+    void getAnalysisPage_returnsItems_andNoCursor_onLastPage() {
+        Entry e1 = entry(1, 2);
+        Entry e2 = entry(2, 0);
+        when(aiAnalysisResultDao.findHistory(patientId, PageRequest.of(0, 3))).thenReturn(List.of(e1, e2));
+
+        AnalysisHistoryPage page = service.getAnalysisPage(patientId, providerId, null, 2);
 
-        when(aiAnalysisResultDao.findByPatientIdOrderByGeneratedAtDesc(patientId))
-                .thenReturn(List.of(r1, r2));
+        assertThat(page.items()).extracting(AnalysisHistoryItem::analysisId).containsExactly(e1.getId(), e2.getId());
+        assertThat(page.items().get(0).riskFlagCount()).isEqualTo(2);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getAnalysisPage_returnsCursor_thatContinuesAfterLastItem() {
+        Entry e1 = entry(1, 0);
+        Entry e2 = entry(2, 0);
+        Entry e3 = entry(3, 0);
+        when(aiAnalysisResultDao.findHistory(patientId, PageRequest.of(0, 3))).thenReturn(List.of(e1, e2, e3));
+        when(aiAnalysisResultDao.findHistoryBefore(patientId, e2.getGeneratedAt(), e2.getId(), PageRequest.of(0, 3)))
+                .thenReturn(List.of(e3));
+
+        AnalysisHistoryPage first = service.getAnalysisPage(patientId, providerId, null, 2);
+        AnalysisHistoryPage second = service.getAnalysisPage(patientId, providerId, first.nextCursor(), 2);
+
+        assertThat(first.items()).extracting(AnalysisHistoryItem::analysisId).containsExactly(e1.getId(), e2.getId());
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(second.items()).extracting(AnalysisHistoryItem::analysisId).containsExactly(e3.getId());
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void getAnalysisPage_capsPageSize() {
+        when(aiAnalysisResultDao.findHistory(eq(patientId), any())).thenReturn(List.of());
+
+        service.getAnalysisPage(patientId, providerId, null, 10_000);
+
+        verify(aiAnalysisResultDao).findHistory(patientId, PageRequest.of(0, 101));
+    }
+
+    @Test
+    void getAnalysisPage_throws400_whenCursorMalformed() {
+        assertThatThrownBy(() -> service.getAnalysisPage(patientId, providerId, "not-a-cursor", 20))
+                .isInstanceOf(AiServiceException.class)
+                .satisfies(e -> assertThat(((AiServiceException) e).getStatus())
+                        .isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void getAnalysisPage_writesAuditLog() {
+        when(aiAnalysisResultDao.findHistory(eq(patientId), any())).thenReturn(List.of());
+
+        AnalysisHistoryPage page = service.getAnalysisPage(patientId, providerId, null, 20);
+
+        assertThat(page.items()).isEmpty();
+        verify(auditLogDao).insert(any());
+    }
+
+    @Test
+    void getPatientHistory_returnsFullResultsNewestFirst_loadingOnlyUncachedRows() {
+        AiAnalysisResult newer = new AiAnalysisResult(
+                patientId, "Summary 2", List.of(), AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
+        AiAnalysisResult older = new AiAnalysisResult(
+                patientId, "Summary 1", List.of(), AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
+        when(aiAnalysisResultDao.findById(older.getId())).thenReturn(Optional.of(older));
+        service.getAnalysis(patientId, older.getId(), providerId);
+        when(aiAnalysisResultDao.findResultIds(patientId, Pageable.unpaged()))
+                .thenReturn(List.of(newer.getId(), older.getId()));
+        when(aiAnalysisResultDao.findAllById(List.of(newer.getId()))).thenReturn(List.of(newer));
 
         List<AiAnalysisResponse> history = service.getPatientHistory(patientId, providerId);
 
-        assertThat(history).hasSize(2);
-        assertThat(history.get(0).summary()).isEqualTo("Summary 1");
-        assertThat(history.get(1).summary()).isEqualTo("Summary 2");
+        assertThat(history).extracting(AiAnalysisResponse::summary).containsExactly("Summary 2", "Summary 1");
+        verify(auditLogDao, times(2)).insert(any());
     }
 
     @Test
     void getPatientHistory_returnsEmptyList_whenNoResults() {
-        when(aiAnalysisResultDao.findByPatientIdOrderByGeneratedAtDesc(patientId))
-                .thenReturn(List.of());
+        when(aiAnalysisResultDao.findResultIds(patientId, Pageable.unpaged())).thenReturn(List.of());
 
         List<AiAnalysisResponse> history = service.getPatientHistory(patientId, providerId);
 
         assertThat(history).isEmpty();
+        verify(aiAnalysisResultDao, never()).findAllById(any());
     }
 
     @Test
     void getPatientHistory_writesAuditLog() {
-        when(aiAnalysisResultDao.findByPatientIdOrderByGeneratedAtDesc(patientId))
-                .thenReturn(List.of());
+        when(aiAnalysisResultDao.findResultIds(patientId, Pageable.unpaged())).thenReturn(List.of());
 
         service.getPatientHistory(patientId, providerId);
 
         verify(auditLogDao).insert(any());
     }
+
+    @Test
+    void getAnalysis_returnsFullResult_andCachesIt() {
+        AiAnalysisResult stored = new AiAnalysisResult(
+                patientId, "Summary 1", List.of(new RiskFlag("High risk", "Diabetes")),
+                AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
+        when(aiAnalysisResultDao.findById(stored.getId())).thenReturn(Optional.of(stored));
+
+        AiAnalysisResponse first  = service.getAnalysis(patientId, stored.getId(), providerId);
+        AiAnalysisResponse second = service.getAnalysis(patientId, stored.getId(), providerId);
+
+        assertThat(first.summary()).isEqualTo("Summary 1");
+        assertThat(second).isSameAs(first);
+        verify(aiAnalysisResultDao, times(1)).findById(stored.getId());
+    }
+
+    @Test
+    void getAnalysis_cachesResultOnlyAfterCommit() {
+        AiAnalysisResult stored = new AiAnalysisResult(
+                patientId, "Summary 1", List.of(), AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
+        when(aiAnalysisResultDao.findById(stored.getId())).thenReturn(Optional.of(stored));
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.getAnalysis(patientId, stored.getId(), providerId);
+        service.getAnalysis(patientId, stored.getId(), providerId);
+        verify(aiAnalysisResultDao, times(2)).findById(stored.getId());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        service.getAnalysis(patientId, stored.getId(), providerId);
+
+        verify(aiAnalysisResultDao, times(2)).findById(stored.getId());
+    }
+
+    @Test
+    void getAnalysis_throws404_whenResultBelongsToAnotherPatient() {
+        AiAnalysisResult stored = new AiAnalysisResult(
+                UUID.randomUUID(), "Summary", List.of(),
+                AiTriggerType.MANUAL, null, "gemini-1.5-pro", "{}", encounterId);
+        when(aiAnalysisResultDao.findById(stored.getId())).thenReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> service.getAnalysis(patientId, stored.getId(), providerId))
+                .isInstanceOf(AiServiceException.class)
+                .satisfies(e -> assertThat(((AiServiceException) e).getStatus())
+                        .isEqualTo(HttpStatus.NOT_FOUND));
+        verify(auditLogDao, never()).insert(any());
+    }
 }
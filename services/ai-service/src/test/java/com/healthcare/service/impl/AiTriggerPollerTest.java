@@ -0,0 +1,80 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiTriggerConfig;
+import com.healthcare.dao.AiAnalysisTriggerDao;
+import com.healthcare.entity.AiAnalysisTrigger;
+import com.healthcare.enums.AiTriggerType;
+import com.healthcare.exception.AiServiceException;
+import com.healthcare.service.AiAnalysisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AiTriggerPollerTest {
+
+    @Mock private AiAnalysisTriggerDao       triggerDao;
+    @Mock private AiAnalysisService          aiAnalysisService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final AiTriggerConfig config = new AiTriggerConfig();
+    private AiTriggerPoller poller;
+
+    private final AiAnalysisTrigger trigger = new AiAnalysisTrigger(
+            UUID.randomUUID(), AiTriggerType.CONDITION_ADDED, "E11", UUID.randomUUID(), UUID.randomUUID());
+
+    @BeforeEach
+    void setUp() {
+        poller = new AiTriggerPoller(triggerDao, aiAnalysisService, config, transactionManager);
+    }
+
+    @Test
+    void poll_claimsWithConfiguredDebounce_andDeletesTriggerAfterAnalysis() {
+        when(triggerDao.claimDue(30, 300, 10)).thenReturn(List.of(trigger));
+
+        poller.poll();
+
+        verify(aiAnalysisService).runTriggeredAnalysis(trigger);
+        verify(triggerDao).deleteIfUnchanged(trigger.getPatientId(), trigger.getMarkedAt());
+        verify(triggerDao, never()).reschedule(any(), any(), anyInt(), anyInt(), anyString());
+    }
+
+    @Test
+    void poll_doesNothing_whenNoTriggerIsDue() {
+        when(triggerDao.claimDue(anyInt(), anyInt(), anyInt())).thenReturn(List.of());
+
+        poller.poll();
+
+        verifyNoInteractions(aiAnalysisService);
+    }
+
+    @Test
+    void process_reschedulesWithBackoff_whenAnalysisFails() {
+        doThrow(new AiServiceException(HttpStatus.BAD_GATEWAY, AiServiceException.GEMINI_ERROR, "Gemini down"))
+                .when(aiAnalysisService).runTriggeredAnalysis(trigger);
+
+        poller.process(trigger);
+
+        verify(triggerDao, never()).deleteIfUnchanged(any(), any());
+        verify(triggerDao).reschedule(eq(trigger.getPatientId()), eq(trigger.getMarkedAt()),
+                eq(60), eq(5), startsWith(AiServiceException.GEMINI_ERROR));
+    }
+}
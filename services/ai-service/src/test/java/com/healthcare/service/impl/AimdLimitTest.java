@@ -0,0 +1,55 @@
+package com.healthcare.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimitTest {
+
+    @Test
+    void tryAcquire_rejectsImmediately_whenAtLimit() {
+        AimdLimit limit = new AimdLimit(2, 1, 8);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void onOverload_halvesLimit_butNotBelowMinimum() {
+        AimdLimit limit = new AimdLimit(8, 2, 8);
+
+        limit.tryAcquire();
+        limit.onOverload();
+        assertThat(limit.limit()).isEqualTo(4);
+
+        for (int i = 0; i < 3; i++) {
+            limit.tryAcquire();
+            limit.onOverload();
+        }
+        assertThat(limit.limit()).isEqualTo(2);
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    @Test
+    void onSuccess_growsLimitAdditively_upToMaximum() {
+        AimdLimit limit = new AimdLimit(2, 1, 3);
+
+        limit.tryAcquire();
+        limit.onSuccess();
+        assertThat(limit.limit()).isEqualTo(2);
+
+        for (int i = 0; i < 2; i++) {
+            limit.tryAcquire();
+            limit.onSuccess();
+        }
+        assertThat(limit.limit()).isEqualTo(3);
+
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.onSuccess();
+        }
+        assertThat(limit.limit()).isEqualTo(3);
+    }
+}
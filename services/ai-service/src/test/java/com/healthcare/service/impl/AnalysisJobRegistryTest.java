@@ -0,0 +1,53 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiJobConfig;
+import com.healthcare.dto.AnalysisJobResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisJobRegistryTest {
+
+    private final AiJobConfig         config   = new AiJobConfig();
+    private final AnalysisJobRegistry registry = new AnalysisJobRegistry(config);
+
+    @Test
+    void sweep_failsJobsUnfinishedAfterTimeout_andKeepsThemPollable() throws Exception {
+        config.setTimeoutMinutes(0);
+        AnalysisJob job = registry.create(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        job.markRunning();
+        Thread.sleep(5);
+
+        registry.sweep();
+
+        AnalysisJobResponse response = registry.find(job.getId()).orElseThrow().toResponse();
+        assertThat(response.status()).isEqualTo(AnalysisJobResponse.Status.FAILED);
+        assertThat(response.error().status()).isEqualTo(504);
+    }
+
+    @Test
+    void sweep_leavesRecentJobsAlone() {
+        AnalysisJob job = registry.create(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        registry.sweep();
+
+        assertThat(registry.find(job.getId())).isPresent();
+        assertThat(job.toResponse().status()).isEqualTo(AnalysisJobResponse.Status.QUEUED);
+    }
+
+    @Test
+    void sweep_evictsFinishedJobsAfterRetention() throws Exception {
+        config.setRetentionMinutes(0);
+        AnalysisJob finished = registry.create(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        AnalysisJob queued   = registry.create(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        finished.succeed(null);
+        Thread.sleep(5);
+
+        registry.sweep();
+
+        assertThat(registry.find(finished.getId())).isEmpty();
+        assertThat(registry.find(queued.getId())).isPresent();
+    }
+}
@@ -0,0 +1,88 @@
+package com.healthcare.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.dto.AnalysisJobResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisJobTest {
+
+    private final AnalysisJob job = new AnalysisJob(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    @Test
+    void awaitDone_returnsCurrentState_whenWaitIsZero() throws Exception {
+        AnalysisJobResponse response = job.awaitDone(Duration.ZERO).get(1, TimeUnit.SECONDS);
+
+        assertThat(response.status()).isEqualTo(AnalysisJobResponse.Status.QUEUED);
+        assertThat(response.isDone()).isFalse();
+    }
+
+    @Test
+    void toResponse_serializesWithoutDoneHelper() throws Exception {
+        String json = new ObjectMapper().findAndRegisterModules().writeValueAsString(job.toResponse());
+
+        assertThat(json).contains("\"job_id\"", "\"status\":\"QUEUED\"").doesNotContain("\"done\"");
+    }
+
+    @Test
+    void awaitDone_returnsRunningState_afterTimeout_andJobCanStillComplete() throws Exception {
+        job.markRunning();
+
+        AnalysisJobResponse timedOut = job.awaitDone(Duration.ofMillis(20)).get(1, TimeUnit.SECONDS);
+        assertThat(timedOut.status()).isEqualTo(AnalysisJobResponse.Status.RUNNING);
+
+        job.fail(HttpStatus.BAD_GATEWAY);
+
+        AnalysisJobResponse done = job.awaitDone(Duration.ofSeconds(5)).get(1, TimeUnit.SECONDS);
+        assertThat(done.status()).isEqualTo(AnalysisJobResponse.Status.FAILED);
+        assertThat(done.error().status()).isEqualTo(502);
+        assertThat(done.error().message()).isEqualTo("Bad Gateway");
+        assertThat(done.completedAt()).isNotNull();
+    }
+
+    @Test
+    void awaitDone_completesAsSoonAsJobSucceeds() throws Exception {
+        CompletableFuture<AnalysisJobResponse> pending = job.awaitDone(Duration.ofSeconds(5));
+        assertThat(pending).isNotDone();
+
+        job.succeed(null);
+
+        assertThat(pending.get(1, TimeUnit.SECONDS).status()).isEqualTo(AnalysisJobResponse.Status.SUCCEEDED);
+    }
+
+    @Test
+    void timeOut_failsUnfinishedJob_andLateOutcomeIsIgnored() {
+        job.markRunning();
+
+        assertThat(job.timeOutIfSubmittedBefore(OffsetDateTime.now().plusSeconds(1))).isTrue();
+        job.succeed(null);
+
+        AnalysisJobResponse response = job.toResponse();
+        assertThat(response.status()).isEqualTo(AnalysisJobResponse.Status.FAILED);
+        assertThat(response.error().status()).isEqualTo(504);
+    }
+
+    @Test
+    void markRunning_refusesJobThatTimedOutWhileQueued() {
+        job.timeOutIfSubmittedBefore(OffsetDateTime.now().plusSeconds(1));
+
+        assertThat(job.markRunning()).isFalse();
+        assertThat(job.toResponse().status()).isEqualTo(AnalysisJobResponse.Status.FAILED);
+    }
+
+    @Test
+    void timeOut_leavesFinishedJobAlone() {
+        job.succeed(null);
+
+        assertThat(job.timeOutIfSubmittedBefore(OffsetDateTime.now().plusSeconds(1))).isFalse();
+        assertThat(job.toResponse().status()).isEqualTo(AnalysisJobResponse.Status.SUCCEEDED);
+    }
+}
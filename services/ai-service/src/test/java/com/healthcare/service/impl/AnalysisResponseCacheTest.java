@@ -0,0 +1,90 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiCacheConfig;
+import com.healthcare.dto.AiAnalysisResponse;
+import com.healthcare.enums.AiTriggerType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void get_returnsPutResponse_andCountsHitsAndMisses() {
+        AnalysisResponseCache cache = cache(10, 5);
+        UUID patientId = UUID.randomUUID();
+        UUID resultId  = UUID.randomUUID();
+        AiAnalysisResponse response = response(patientId);
+
+        assertThat(cache.get(patientId, resultId)).isNull();
+        cache.put(patientId, resultId, response);
+
+        assertThat(cache.get(patientId, resultId)).isSameAs(response);
+        assertThat(cache.get(UUID.randomUUID(), resultId)).isNull();
+        assertThat(meterRegistry.counter("ai.cache.responses", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("ai.cache.responses", "result", "miss").count()).isEqualTo(2);
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedResult_withinPatient() {
+        AnalysisResponseCache cache = cache(10, 2);
+        UUID patientId = UUID.randomUUID();
+        UUID first = UUID.randomUUID(), second = UUID.randomUUID(), third = UUID.randomUUID();
+
+        cache.put(patientId, first, response(patientId));
+        cache.put(patientId, second, response(patientId));
+        cache.get(patientId, first);
+        cache.put(patientId, third, response(patientId));
+
+        assertThat(cache.get(patientId, first)).isNotNull();
+        assertThat(cache.get(patientId, second)).isNull();
+        assertThat(cache.get(patientId, third)).isNotNull();
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedPatient() {
+        AnalysisResponseCache cache = cache(2, 5);
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID(), c = UUID.randomUUID();
+        UUID resultId = UUID.randomUUID();
+
+        cache.put(a, resultId, response(a));
+        cache.put(b, resultId, response(b));
+        cache.get(a, resultId);
+        cache.put(c, resultId, response(c));
+
+        assertThat(cache.patientCount()).isEqualTo(2);
+        assertThat(cache.get(a, resultId)).isNotNull();
+        assertThat(cache.get(b, resultId)).isNull();
+    }
+
+    @Test
+    void put_isNoOp_whenDisabled() {
+        AnalysisResponseCache cache = cache(0, 5);
+        UUID patientId = UUID.randomUUID();
+        UUID resultId  = UUID.randomUUID();
+
+        cache.put(patientId, resultId, response(patientId));
+
+        assertThat(cache.get(patientId, resultId)).isNull();
+        assertThat(cache.patientCount()).isZero();
+    }
+
+    private AnalysisResponseCache cache(int maxPatients, int resultsPerPatient) {
+        AiCacheConfig config = new AiCacheConfig();
+        config.setMaxPatients(maxPatients);
+        config.setResultsPerPatient(resultsPerPatient);
+        return new AnalysisResponseCache(config, meterRegistry);
+    }
+
+    private static AiAnalysisResponse response(UUID patientId) {
+        return new AiAnalysisResponse(patientId, null, OffsetDateTime.now(), "Summary", List.of(),
+                "Disclaimer", "gemini-1.5-pro", AiTriggerType.MANUAL);
+    }
+}
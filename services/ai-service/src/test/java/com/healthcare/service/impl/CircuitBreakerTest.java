@@ -0,0 +1,82 @@
+package com.healthcare.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 1_000;
+
+    private final AtomicLong     now     = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, OPEN_NANOS, now::get);
+
+    @Test
+    void opens_onceFailureRateReachesThreshold_overMinimumCalls() {
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.isCallPermitted()).isFalse();
+    }
+
+    @Test
+    void slidingWindow_forgetsOldFailures() {
+        breaker.onFailure();
+        for (int i = 0; i < 4; i++) breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpen_allowsSingleProbe_andClosesOnSuccess() {
+        tripOpen();
+        now.addAndGet(OPEN_NANOS);
+
+        assertThat(breaker.isCallPermitted()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void halfOpen_reopensOnProbeFailure() {
+        tripOpen();
+        now.addAndGet(OPEN_NANOS);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void halfOpen_ignoredProbe_freesSlotForNextProbe() {
+        tripOpen();
+        now.addAndGet(OPEN_NANOS);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    private void tripOpen() {
+        for (int i = 0; i < 4; i++) breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -2,18 +2,37 @@ package com.healthcare.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthcare.config.GeminiConfig;
+import com.healthcare.config.GeminiResilienceConfig;
 import com.healthcare.dto.GeminiAnalysisResult;
 import com.healthcare.exception.AiServiceException;
 import com.healthcare.service.impl.GeminiClientImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class GeminiClientImplTest {
 
     private GeminiClientImpl client;
+    private HttpServer       stub;
+
+    private final Queue<Integer> stubStatuses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger  stubHits     = new AtomicInteger();
+    private volatile long        stubDelayMs;
 
     @BeforeEach
     void setUp() {
@@ -21,7 +40,8 @@ class GeminiClientImplTest {
         config.setApiKey("test-key");
         config.setModel("gemini-1.5-pro");
         config.setBaseUrl("https://generativelanguage.googleapis.com");
-        client = new GeminiClientImpl(config, new ObjectMapper());
+        client = new GeminiClientImpl(config, new GeminiResilienceConfig(), new ObjectMapper(),
+                new SimpleMeterRegistry(), Tracer.NOOP);
     }
 
     // -------------------------------------------------------------------------
@@ -87,10 +107,125 @@ class GeminiClientImplTest {
                 .isInstanceOf(AiServiceException.class);
     }
 
+    @Test
+    void parseGeminiBatchResponse_mapsResultsByRef_andSkipsEntriesWithoutRef() {
+        String innerJson = "{\"results\":["
+                + "{\"ref\":\"P1\",\"summary\":\"First.\",\"risk_flags\":[{\"flag\":\"Fall risk\",\"reason\":\"Age\"}]},"
+                + "{\"summary\":\"No ref.\",\"risk_flags\":[]},"
+                + "{\"ref\":\"P3\",\"summary\":\"Third.\"}]}";
+
+        Map<String, GeminiAnalysisResult> results = client.parseGeminiBatchResponse(buildGeminiApiResponse(innerJson));
+
+        assertThat(results).containsOnlyKeys("P1", "P3");
+        assertThat(results.get("P1").riskFlags()).hasSize(1);
+        assertThat(results.get("P3").summary()).isEqualTo("Third.");
+        assertThat(results.get("P3").riskFlags()).isEmpty();
+    }
+
+    // -------------------------------------------------------------------------
+    // analyze — resilience, against a local stub server
+    // -------------------------------------------------------------------------
+
+    @AfterEach
+    void stopStub() {
+        if (stub != null) stub.stop(0);
+    }
+
+    @Test
+    void analyze_retriesOverload_thenReturnsResult() throws IOException {
+        stubStatuses.add(503);
+        stubStatuses.add(429);
+        GeminiClientImpl stubbed = stubbedClient(new GeminiResilienceConfig());
+
+        GeminiAnalysisResult result = stubbed.analyze("prompt");
+
+        assertThat(result.summary()).isEqualTo("Stub summary.");
+        assertThat(stubHits.get()).isEqualTo(3);
+    }
+
+    @Test
+    void analyze_failsFastWithoutCallingGemini_onceCircuitIsOpen() throws IOException {
+        for (int i = 0; i < 10; i++) stubStatuses.add(500);
+        GeminiResilienceConfig resilience = new GeminiResilienceConfig();
+        resilience.setSlidingWindowSize(4);
+        resilience.setMinimumCalls(2);
+        GeminiClientImpl stubbed = stubbedClient(resilience);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> stubbed.analyze("prompt"))
+                    .isInstanceOf(AiServiceException.class)
+                    .extracting(e -> ((AiServiceException) e).getErrorCode())
+                    .isEqualTo(AiServiceException.GEMINI_ERROR);
+        }
+
+        assertThatThrownBy(() -> stubbed.analyze("prompt"))
+                .isInstanceOf(AiServiceException.class)
+                .extracting(e -> ((AiServiceException) e).getErrorCode())
+                .isEqualTo(AiServiceException.GEMINI_UNAVAILABLE);
+        assertThat(stubHits.get()).isEqualTo(2);
+        assertThat(stubbed.guard("gemini-1.5-pro").circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void analyze_endsWithinCallBudget_acrossPrimaryAndFallback() throws IOException {
+        stubDelayMs = 3000;
+        GeminiResilienceConfig resilience = new GeminiResilienceConfig();
+        resilience.setCallBudgetMs(400);
+        GeminiClientImpl stubbed = stubbedClient(resilience, "gemini-1.5-flash");
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> stubbed.analyze("prompt"))
+                .isInstanceOf(AiServiceException.class);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // one deadline for both models: the fallback does not get a budget of its own
+        assertThat(elapsedMs).isLessThan(1500);
+    }
+
     // -------------------------------------------------------------------------
     // Helper
     // -------------------------------------------------------------------------
 
+    /**
+     * Client against an in-process server that answers with queued statuses, then 200.
+     */
+    private GeminiClientImpl stubbedClient(GeminiResilienceConfig resilience) throws IOException {
+        return stubbedClient(resilience, null);
+    }
+
+    private GeminiClientImpl stubbedClient(GeminiResilienceConfig resilience, String fallbackModel) throws IOException {
+        String body = buildGeminiApiResponse("{\"summary\":\"Stub summary.\",\"risk_flags\":[]}");
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", exchange -> {
+            stubHits.incrementAndGet();
+            if (stubDelayMs > 0) {
+                try {
+                    Thread.sleep(stubDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Integer status = stubStatuses.poll();
+            byte[] bytes = (status == null ? body : "{}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status == null ? 200 : status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        stub.start();
+
+        GeminiConfig config = new GeminiConfig();
+        config.setApiKey("test-key");
+        config.setModel("gemini-1.5-pro");
+        config.setFallbackModel(fallbackModel);
+        config.setBaseUrl("http://127.0.0.1:" + stub.getAddress().getPort());
+        resilience.setBaseBackoffMs(1);
+        resilience.setMaxBackoffMs(5);
+        return new GeminiClientImpl(config, resilience, new ObjectMapper(), new SimpleMeterRegistry(),
+                Tracer.NOOP);
+    }
+
     private String buildGeminiApiResponse(String innerText) {
         String escaped = innerText.replace("\\", "\\\\").replace("\"", "\\\"");
         return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + escaped + "\"}]}}]}";
@@ -0,0 +1,147 @@
+package com.healthcare.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.config.GeminiConfig;
+import com.healthcare.config.GeminiResilienceConfig;
+import com.healthcare.config.GeminiStubConfig;
+import com.healthcare.dto.GeminiAnalysisResult;
+import com.healthcare.dto.RiskFlag;
+import com.healthcare.service.GeminiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link GeminiClientImpl} end to end against the embedded {@link GeminiStubServer}.
+ */
+class GeminiStubServerTest {
+
+    private final GeminiStubConfig    stubConfig    = new GeminiStubConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GeminiStubServer server;
+
+    @BeforeEach
+    void setUp() {
+        stubConfig.setPort(0);
+        stubConfig.setLatencyMedianMs(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) server.stop();
+    }
+
+    @Test
+    void analyze_parsesStubResponse() throws IOException {
+        GeminiClientImpl client = clientAgainstStub();
+
+        GeminiAnalysisResult result = client.analyze("Analyze this patient");
+
+        assertThat(result.summary()).isNotBlank();
+        assertThat(result.riskFlags()).hasSize(stubConfig.getRiskFlags());
+        assertThat(server.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void analyze_countsTokensPerModel() throws IOException {
+        GeminiClientImpl client = clientAgainstStub();
+
+        client.analyze("Analyze this patient");
+
+        assertThat(tokens("prompt")).isEqualTo(5);   // 20 characters, four per token
+        assertThat(tokens("candidates")).isPositive();
+    }
+
+    @Test
+    void analyzeStreaming_countsFinalTokenTotalsOnce() throws IOException {
+        stubConfig.setStreamChunks(5);
+        GeminiClientImpl client = clientAgainstStub();
+
+        client.analyzeStreaming("Analyze this patient", new GeminiClient.StreamListener() {
+            @Override public void onSummaryDelta(String text) { }
+            @Override public void onRiskFlag(RiskFlag flag)   { }
+        });
+
+        assertThat(tokens("prompt")).isEqualTo(5);
+    }
+
+    @Test
+    void analyzeBatch_returnsResultPerRef() throws IOException {
+        GeminiClientImpl client = clientAgainstStub();
+
+        Map<String, GeminiAnalysisResult> results = client.analyzeBatch("[P1] born 1950\n[P2] born 1980\n[P3]");
+
+        assertThat(results).containsOnlyKeys("P1", "P2", "P3");
+    }
+
+    @Test
+    void analyze_fallsBack_whenPrimaryModelIsFailing() throws IOException {
+        stubConfig.setFailingModels(List.of("gemini-2.5-flash"));
+        GeminiClientImpl client = clientAgainstStub();
+
+        GeminiAnalysisResult result = client.analyze("Analyze this patient");
+
+        assertThat(result.summary()).isNotBlank();
+        // primary: first attempt + 3 retries, then one fallback call
+        assertThat(server.requests()).isEqualTo(5);
+    }
+
+    @Test
+    void analyzeStreaming_emitsSummaryAndFlagsBeforeReturning() throws IOException {
+        stubConfig.setStreamChunks(5);
+        GeminiClientImpl client = clientAgainstStub();
+        StringBuilder streamed = new StringBuilder();
+        List<RiskFlag> flags = new ArrayList<>();
+
+        GeminiAnalysisResult result = client.analyzeStreaming("Analyze this patient", new GeminiClient.StreamListener() {
+            @Override public void onSummaryDelta(String text) { streamed.append(text); }
+            @Override public void onRiskFlag(RiskFlag flag)   { flags.add(flag); }
+        });
+
+        assertThat(streamed.toString()).isEqualTo(result.summary());
+        assertThat(flags).isEqualTo(result.riskFlags()).hasSize(stubConfig.getRiskFlags());
+    }
+
+    @Test
+    void analyzeStreaming_fallsBack_whenPrimaryModelIsFailing() throws IOException {
+        stubConfig.setFailingModels(List.of("gemini-2.5-flash"));
+        GeminiClientImpl client = clientAgainstStub();
+        StringBuilder streamed = new StringBuilder();
+
+        GeminiAnalysisResult result = client.analyzeStreaming("Analyze this patient", new GeminiClient.StreamListener() {
+            @Override public void onSummaryDelta(String text) { streamed.append(text); }
+            @Override public void onRiskFlag(RiskFlag flag)   { }
+        });
+
+        assertThat(streamed.toString()).isEqualTo(result.summary());
+        assertThat(server.requests()).isEqualTo(5);
+    }
+
+    private GeminiClientImpl clientAgainstStub() throws IOException {
+        server = new GeminiStubServer(stubConfig, new ObjectMapper());
+        server.start();
+
+        GeminiConfig config = new GeminiConfig();
+        config.setApiKey("stub");
+        config.setModel("gemini-2.5-flash");
+        config.setFallbackModel("gemini-1.5-flash");
+        config.setBaseUrl(server.baseUrl());
+        GeminiResilienceConfig resilience = new GeminiResilienceConfig();
+        resilience.setBaseBackoffMs(1);
+        resilience.setMaxBackoffMs(5);
+        return new GeminiClientImpl(config, resilience, new ObjectMapper(), meterRegistry, Tracer.NOOP);
+    }
+
+    private double tokens(String type) {
+        return meterRegistry.get("gemini.tokens").tags("model", "gemini-2.5-flash", "type", type).counter().count();
+    }
+}
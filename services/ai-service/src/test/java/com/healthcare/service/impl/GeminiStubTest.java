@@ -0,0 +1,80 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.GeminiStubConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiStubTest {
+
+    private final GeminiStubConfig config = new GeminiStubConfig();
+
+    @Test
+    void next_isDeterministic_forSameSeedAndCallOrder() {
+        config.setOverloadRate(0.3);
+        GeminiStub a = new GeminiStub(config);
+        GeminiStub b = new GeminiStub(config);
+
+        for (int i = 0; i < 50; i++) {
+            GeminiStub.Reply ra = a.next("gemini-2.5-flash", "prompt " + i);
+            GeminiStub.Reply rb = b.next("gemini-2.5-flash", "prompt " + i);
+            assertThat(ra).isEqualTo(rb);
+        }
+    }
+
+    @Test
+    void next_answersOneResultPerRef_forScreeningPrompts() {
+        GeminiStub.Reply reply = new GeminiStub(config).next("m", "[P1] born 1960\n...\n[P2] born 1972\n...");
+
+        assertThat(reply.outcome()).isEqualTo(GeminiStub.Outcome.OK);
+        assertThat(reply.refs()).containsExactly("P1", "P2");
+        assertThat(reply.results()).hasSize(2);
+    }
+
+    @Test
+    void next_sizesResponseFromConfig() {
+        config.setSummaryChars(2000);
+        config.setRiskFlags(4);
+
+        GeminiStub.Reply reply = new GeminiStub(config).next("m", "prompt");
+
+        assertThat(reply.results().get(0).summary().length()).isGreaterThanOrEqualTo(2000);
+        assertThat(reply.results().get(0).riskFlags()).hasSize(4);
+    }
+
+    @Test
+    void next_alwaysOverloads_failingModels() {
+        config.setFailingModels(List.of("gemini-2.5-flash"));
+        GeminiStub stub = new GeminiStub(config);
+
+        assertThat(stub.next("gemini-2.5-flash", "p").outcome()).isEqualTo(GeminiStub.Outcome.OVERLOADED);
+        assertThat(stub.next("gemini-1.5-flash", "p").outcome()).isEqualTo(GeminiStub.Outcome.OK);
+    }
+
+    @Test
+    void next_followsConfiguredErrorRatesAndLatency() {
+        config.setOverloadRate(0.2);
+        config.setRateLimitRate(0.1);
+        config.setLatencyMedianMs(100);
+        config.setLatencyP99Ms(1000);
+        GeminiStub stub = new GeminiStub(config);
+
+        int overloaded = 0, rateLimited = 0;
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            GeminiStub.Reply reply = stub.next("m", "p");
+            if (reply.outcome() == GeminiStub.Outcome.OVERLOADED) overloaded++;
+            if (reply.outcome() == GeminiStub.Outcome.RATE_LIMITED) rateLimited++;
+            latencies.add(reply.latencyMs());
+        }
+        latencies.sort(null);
+
+        assertThat(overloaded).isBetween(1800, 2200);
+        assertThat(rateLimited).isBetween(850, 1150);
+        assertThat(latencies.get(5_000)).isBetween(90L, 110L);
+        assertThat(latencies.get(9_900)).isBetween(800L, 1250L);
+    }
+}
@@ -0,0 +1,88 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiPromptConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptBuilderTest {
+
+    private final AiPromptConfig config = new AiPromptConfig();
+    private final PromptBuilder  builder = new PromptBuilder(config);
+
+    @Test
+    void analysisPrompt_includesWholeHistory_whenItFits() {
+        PatientSnapshot snapshot = SyntheticHistory.patient(5, 3, 1, 1);
+
+        String prompt = builder.analysisPrompt(snapshot);
+
+        assertThat(prompt).contains("Patient: Jane Doe");
+        assertThat(prompt).contains("Active conditions (2):", "Allergies (1):", "Recent encounters (5 of 5):",
+                "Resolved conditions (1):");
+        assertThat(prompt).doesNotContain("more omitted", "Earlier encounters");
+        assertThat(prompt).endsWith("\"disclaimer\": \"" + AiAnalysisServiceImpl.DISCLAIMER + "\"}");
+    }
+
+    @Test
+    void analysisPrompt_staysWithinBudget_forLongHistory() {
+        PatientSnapshot snapshot = SyntheticHistory.patient(3000, 60, 5, 2);
+
+        String prompt = builder.analysisPrompt(snapshot);
+
+        assertThat(prompt.length()).isLessThanOrEqualTo(config.getMaxTokens() * PromptBuilder.CHARS_PER_TOKEN);
+        assertThat(prompt).contains("Active conditions (40):", "Recent encounters (20 of 3000):",
+                "Earlier encounters by year (2980):");
+        assertThat(prompt).contains("- 2024:");
+    }
+
+    @Test
+    void analysisPrompt_size_staysWithinBudget_acrossHistorySizes_whileUnboundedListingGrows() {
+        AiPromptConfig unboundedConfig = new AiPromptConfig();
+        unboundedConfig.setMaxTokens(Integer.MAX_VALUE / PromptBuilder.CHARS_PER_TOKEN);
+        unboundedConfig.setRecentEncounters(Integer.MAX_VALUE);
+        PromptBuilder unbounded = new PromptBuilder(unboundedConfig);
+        int budget = config.getMaxTokens() * PromptBuilder.CHARS_PER_TOKEN;
+
+        // encounters, conditions, allergies: AnalysisPreparationBenchmark's shapes
+        int[][] patients = { { 30, 8, 1 }, { 300, 25, 3 }, { 1000, 45, 4 }, { 3000, 80, 6 } };
+        for (int[] p : patients) {
+            PatientSnapshot snapshot = SyntheticHistory.patient(p[0], p[1], p[2], p[0]);
+
+            int bytes = builder.analysisPrompt(snapshot).length();
+            int unboundedBytes = unbounded.analysisPrompt(snapshot).length();
+
+            assertThat(bytes).as("prompt bytes for %d encounters", p[0])
+                    .isLessThanOrEqualTo(budget)
+                    .isLessThanOrEqualTo(unboundedBytes);
+            if (p[0] >= 1000) {
+                assertThat(unboundedBytes).as("unbounded bytes for %d encounters", p[0]).isGreaterThan(budget);
+            }
+        }
+    }
+
+    @Test
+    void analysisPrompt_keepsActiveConditions_beforeOlderHistory_whenBudgetIsTight() {
+        config.setMaxTokens(400);
+        PatientSnapshot snapshot = SyntheticHistory.patient(500, 12, 2, 3);
+
+        String prompt = builder.analysisPrompt(snapshot);
+
+        assertThat(prompt.length()).isLessThanOrEqualTo(400 * PromptBuilder.CHARS_PER_TOKEN);
+        assertThat(prompt).contains("Active conditions (8):");
+        assertThat(prompt).doesNotContain("Resolved conditions");
+        assertThat(prompt).contains("more omitted");
+    }
+
+    @Test
+    void screeningPrompt_refersToPatientsByPosition_withoutNames() {
+        String prompt = builder.screeningPrompt(List.of(
+                SyntheticHistory.patient(3, 2, 0, 4),
+                SyntheticHistory.patient(3, 2, 0, 5)));
+
+        assertThat(prompt).contains("[" + PromptBuilder.screeningRef(0) + "]", "[P2]");
+        assertThat(prompt).doesNotContain("Jane", "Doe");
+        assertThat(prompt).contains("\"results\"");
+    }
+}
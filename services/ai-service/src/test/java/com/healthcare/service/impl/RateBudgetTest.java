@@ -0,0 +1,73 @@
+package com.healthcare.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateBudgetTest {
+
+    private long now = 0;
+    private final List<Long> sleeps = new ArrayList<>();
+
+    private RateBudget budget(int requestsPerMinute, int tokensPerMinute) {
+        return new RateBudget(requestsPerMinute, tokensPerMinute, () -> now, millis -> {
+            sleeps.add(millis);
+            now += TimeUnit.MILLISECONDS.toNanos(millis);
+        });
+    }
+
+    @Test
+    void acquire_doesNotWait_whileBudgetLasts() throws Exception {
+        RateBudget budget = budget(3, 1000);
+
+        budget.acquire(100);
+        budget.acquire(100);
+        budget.acquire(100);
+
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    void acquire_waitsForRequestRefill_onceRequestsAreSpent() throws Exception {
+        RateBudget budget = budget(2, 1_000_000);
+
+        budget.acquire(10);
+        budget.acquire(10);
+        budget.acquire(10);
+
+        // one request refills every 30s at 2/min
+        assertThat(sleeps).containsExactly(30_000L);
+    }
+
+    @Test
+    void acquire_waitsForTokenRefill_whenPromptExceedsRemainingTokens() throws Exception {
+        RateBudget budget = budget(100, 6000);
+
+        budget.acquire(6000);
+        budget.acquire(600);
+
+        // 600 tokens at 6000/min take 6s
+        assertThat(sleeps).containsExactly(6_000L);
+    }
+
+    @Test
+    void acquire_letsOversizedPromptThrough_onceBucketIsFull() throws Exception {
+        RateBudget budget = budget(100, 1000);
+
+        budget.acquire(5000);
+        budget.acquire(5000);
+
+        assertThat(sleeps).hasSize(1);
+        assertThat(sleeps.get(0)).isEqualTo(300_000L);
+    }
+
+    @Test
+    void estimateTokens_isRoughlyFourCharactersPerToken() {
+        assertThat(RateBudget.estimateTokens("")).isEqualTo(1);
+        assertThat(RateBudget.estimateTokens("x".repeat(400))).isEqualTo(101);
+    }
+}
@@ -0,0 +1,271 @@
+package com.healthcare.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.config.AiPromptConfig;
+import com.healthcare.config.AiScreeningConfig;
+import com.healthcare.dao.AiAnalysisResultDao;
+import com.healthcare.dao.AiScreeningRunDao;
+import com.healthcare.dao.AllergyDao;
+import com.healthcare.dao.ConditionDao;
+import com.healthcare.dao.EncounterDao;
+import com.healthcare.dao.PatientDao;
+import com.healthcare.dto.GeminiAnalysisResult;
+import com.healthcare.dto.ScreeningRunResponse;
+import com.healthcare.entity.AiAnalysisResult;
+import com.healthcare.entity.AiScreeningRun;
+import com.healthcare.entity.Patient;
+import com.healthcare.enums.AiTriggerType;
+import com.healthcare.enums.ScreeningRunStatus;
+import com.healthcare.exception.AiServiceException;
+import com.healthcare.service.GeminiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScreeningServiceImplTest {
+
+    @Mock private AiScreeningRunDao          runDao;
+    @Mock private AiAnalysisResultDao        aiAnalysisResultDao;
+    @Mock private PatientDao                 patientDao;
+    @Mock private ConditionDao               conditionDao;
+    @Mock private AllergyDao                 allergyDao;
+    @Mock private EncounterDao               encounterDao;
+    @Mock private GeminiClient               geminiClient;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final AiScreeningConfig config   = new AiScreeningConfig();
+    private final List<Runnable>    submitted = new ArrayList<>();
+    private ScreeningServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ScreeningServiceImpl(runDao, aiAnalysisResultDao, patientDao, conditionDao,
+                allergyDao, encounterDao, geminiClient, new ObjectMapper(),
+                new PromptBuilder(new AiPromptConfig()), config,
+                submitted::add, new SimpleMeterRegistry(), transactionManager);
+        ReflectionTestUtils.setField(service, "modelVersion", "gemini-1.5-pro");
+    }
+
+    // -------------------------------------------------------------------------
+    // startOrResume
+    // -------------------------------------------------------------------------
+
+    @Test
+    void startOrResume_startsNewRun_whenLatestCompleted() {
+        AiScreeningRun completed = AiScreeningRun.start();
+        completed.complete();
+        when(runDao.findTopByOrderByStartedAtDesc()).thenReturn(Optional.of(completed));
+        when(runDao.saveAndFlush(any(AiScreeningRun.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ScreeningRunResponse response = service.startOrResume();
+
+        assertThat(response.runId()).isNotEqualTo(completed.getId());
+        assertThat(response.status()).isEqualTo(ScreeningRunStatus.RUNNING);
+        assertThat(submitted).hasSize(1);
+    }
+
+    @Test
+    void startOrResume_throwsConflict_whenRunIsStillHeartbeating() {
+        when(runDao.findTopByOrderByStartedAtDesc()).thenReturn(Optional.of(AiScreeningRun.start()));
+
+        assertThatThrownBy(() -> service.startOrResume())
+                .isInstanceOf(AiServiceException.class)
+                .satisfies(e -> assertThat(((AiServiceException) e).getErrorCode())
+                        .isEqualTo(AiServiceException.SCREENING_IN_PROGRESS));
+        assertThat(submitted).isEmpty();
+    }
+
+    @Test
+    void startOrResume_resumesFailedRun_fromItsCursor() {
+        AiScreeningRun failed = AiScreeningRun.start();
+        UUID cursor = UUID.randomUUID();
+        failed.recordPage(cursor, 200, 0, 0, List.of(), 0, 0);
+        failed.fail("Gemini down");
+        when(runDao.findTopByOrderByStartedAtDesc()).thenReturn(Optional.of(failed));
+        when(runDao.save(failed)).thenReturn(failed);
+
+        ScreeningRunResponse response = service.startOrResume();
+
+        assertThat(response.runId()).isEqualTo(failed.getId());
+        assertThat(response.cursorPatientId()).isEqualTo(cursor);
+        assertThat(failed.getStatus()).isEqualTo(ScreeningRunStatus.RUNNING);
+        verify(runDao, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void startOrResume_failsClaimedRun_whenExecutorRejectsIt() {
+        AiScreeningRun run = AiScreeningRun.start();
+        when(runDao.findTopByOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        when(runDao.saveAndFlush(any(AiScreeningRun.class))).thenReturn(run);
+        when(runDao.findByIdForUpdate(run.getId())).thenReturn(Optional.of(run));
+        service = new ScreeningServiceImpl(runDao, aiAnalysisResultDao, patientDao, conditionDao,
+                allergyDao, encounterDao, geminiClient, new ObjectMapper(),
+                new PromptBuilder(new AiPromptConfig()), config,
+                task -> { throw new TaskRejectedException("queue full"); },
+                new SimpleMeterRegistry(), transactionManager);
+
+        assertThatThrownBy(() -> service.startOrResume())
+                .isInstanceOf(AiServiceException.class)
+                .satisfies(e -> assertThat(((AiServiceException) e).getErrorCode())
+                        .isEqualTo(AiServiceException.SCREENING_IN_PROGRESS));
+        assertThat(run.getStatus()).isEqualTo(ScreeningRunStatus.FAILED);
+    }
+
+    // -------------------------------------------------------------------------
+    // sweep
+    // -------------------------------------------------------------------------
+
+    @Test
+    void sweep_analyzesChangedPatientsInOneBatch_andCompletesRun() {
+        AiScreeningRun run = AiScreeningRun.start();
+        UUID p1 = UUID.randomUUID();
+        UUID p2 = UUID.randomUUID();
+        when(runDao.findById(run.getId())).thenReturn(Optional.of(run));
+        when(runDao.findByIdForUpdate(run.getId())).thenReturn(Optional.of(run));
+        when(runDao.heartbeat(run.getId(), run.getOwnerId())).thenReturn(1);
+        when(patientDao.findActivePatientIdsAfter(eq(new UUID(0L, 0L)), any())).thenReturn(List.of(p1, p2));
+        when(patientDao.findActivePatientIdsAfter(eq(p2), any())).thenReturn(List.of());
+        when(patientDao.findAllById(List.of(p1, p2))).thenReturn(List.of(patient(p1), patient(p2)));
+        when(aiAnalysisResultDao.findLatestSnapshotDigests(any())).thenReturn(List.of());
+        when(geminiClient.analyzeBatch(anyString())).thenReturn(Map.of(
+                "P1", new GeminiAnalysisResult("First.", List.of(), null),
+                "P2", new GeminiAnalysisResult("Second.", List.of(), null)));
+
+        service.sweep(run.getId(), run.getOwnerId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AiAnalysisResult>> saved = ArgumentCaptor.forClass(List.class);
+        verify(aiAnalysisResultDao).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(AiAnalysisResult::getPatientId).containsExactly(p1, p2);
+        assertThat(saved.getValue()).allMatch(r -> r.getTriggerType() == AiTriggerType.SCHEDULED_SCREENING);
+        assertThat(run.getStatus()).isEqualTo(ScreeningRunStatus.COMPLETED);
+        assertThat(run.getCursorPatientId()).isEqualTo(p2);
+        assertThat(run.getPatientsAnalyzed()).isEqualTo(2);
+        assertThat(run.getModelRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_keepsPatientsThatFailTwiceForRetry_andStillAdvancesCursor() {
+        AiScreeningRun run = AiScreeningRun.start();
+        UUID p1 = UUID.randomUUID();
+        when(runDao.findById(run.getId())).thenReturn(Optional.of(run));
+        when(runDao.findByIdForUpdate(run.getId())).thenReturn(Optional.of(run));
+        when(runDao.heartbeat(run.getId(), run.getOwnerId())).thenReturn(1);
+        when(patientDao.findActivePatientIdsAfter(eq(new UUID(0L, 0L)), any())).thenReturn(List.of(p1));
+        when(patientDao.findActivePatientIdsAfter(eq(p1), any())).thenReturn(List.of());
+        when(patientDao.findAllById(List.of(p1))).thenReturn(List.of(patient(p1)));
+        when(aiAnalysisResultDao.findLatestSnapshotDigests(any())).thenReturn(List.of());
+        when(geminiClient.analyzeBatch(anyString())).thenReturn(Map.of());
+
+        service.sweep(run.getId(), run.getOwnerId());
+
+        verify(aiAnalysisResultDao, never()).saveAll(any());
+        assertThat(run.getStatus()).isEqualTo(ScreeningRunStatus.COMPLETED);
+        assertThat(run.getCursorPatientId()).isEqualTo(p1);
+        assertThat(run.getPatientsFailed()).isEqualTo(1);
+        assertThat(run.getRetryPatientIds()).containsExactly(p1);
+        assertThat(run.getModelRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void sweep_retriesFailedPatientsAfterLastPage_andSavesThem() {
+        AiScreeningRun run = AiScreeningRun.start();
+        UUID p1 = UUID.randomUUID();
+        when(runDao.findById(run.getId())).thenReturn(Optional.of(run));
+        when(runDao.findByIdForUpdate(run.getId())).thenReturn(Optional.of(run));
+        when(runDao.heartbeat(run.getId(), run.getOwnerId())).thenReturn(1);
+        when(patientDao.findActivePatientIdsAfter(eq(new UUID(0L, 0L)), any())).thenReturn(List.of(p1));
+        when(patientDao.findActivePatientIdsAfter(eq(p1), any())).thenReturn(List.of());
+        when(patientDao.findAllById(List.of(p1))).thenReturn(List.of(patient(p1)));
+        when(aiAnalysisResultDao.findLatestSnapshotDigests(any())).thenReturn(List.of());
+        when(geminiClient.analyzeBatch(anyString()))
+                .thenThrow(new AiServiceException(HttpStatus.SERVICE_UNAVAILABLE,
+                        AiServiceException.GEMINI_UNAVAILABLE, "Gemini down"))
+                .thenReturn(Map.of("P1", new GeminiAnalysisResult("Retried.", List.of(), null)));
+
+        service.sweep(run.getId(), run.getOwnerId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AiAnalysisResult>> saved = ArgumentCaptor.forClass(List.class);
+        verify(aiAnalysisResultDao).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(AiAnalysisResult::getPatientId).containsExactly(p1);
+        assertThat(run.getStatus()).isEqualTo(ScreeningRunStatus.COMPLETED);
+        assertThat(run.getPatientsAnalyzed()).isEqualTo(1);
+        assertThat(run.getPatientsFailed()).isZero();
+        assertThat(run.getRetryPatientIds()).isEmpty();
+    }
+
+    @Test
+    void sweep_stopsWithoutTouchingRun_whenHeartbeatFindsItTakenOver() {
+        AiScreeningRun run = AiScreeningRun.start();
+        UUID p1 = UUID.randomUUID();
+        when(runDao.findById(run.getId())).thenReturn(Optional.of(run));
+        when(runDao.heartbeat(run.getId(), run.getOwnerId())).thenReturn(0);
+        when(patientDao.findActivePatientIdsAfter(eq(new UUID(0L, 0L)), any())).thenReturn(List.of(p1));
+        when(patientDao.findAllById(List.of(p1))).thenReturn(List.of(patient(p1)));
+        when(aiAnalysisResultDao.findLatestSnapshotDigests(any())).thenReturn(List.of());
+        when(geminiClient.analyzeBatch(anyString())).thenReturn(Map.of(
+                "P1", new GeminiAnalysisResult("First.", List.of(), null)));
+
+        service.sweep(run.getId(), run.getOwnerId());
+
+        verify(aiAnalysisResultDao, never()).saveAll(any());
+        verify(runDao, never()).findByIdForUpdate(any());
+        assertThat(run.getStatus()).isEqualTo(ScreeningRunStatus.RUNNING);
+        assertThat(run.getCursorPatientId()).isNull();
+    }
+
+    @Test
+    void sweep_dropsPage_whenRunWasTakenOverBeforeCommit() {
+        AiScreeningRun run = AiScreeningRun.start();
+        UUID owner = run.getOwnerId();
+        UUID p1 = UUID.randomUUID();
+        when(runDao.findById(run.getId())).thenReturn(Optional.of(run));
+        when(runDao.heartbeat(run.getId(), owner)).thenReturn(1);
+        when(patientDao.findActivePatientIdsAfter(eq(new UUID(0L, 0L)), any())).thenReturn(List.of(p1));
+        when(patientDao.findAllById(List.of(p1))).thenReturn(List.of(patient(p1)));
+        when(aiAnalysisResultDao.findLatestSnapshotDigests(any())).thenReturn(List.of());
+        when(geminiClient.analyzeBatch(anyString())).thenAnswer(inv -> {
+            run.resume();   // another replica takes the run over while the request is in flight
+            return Map.of("P1", new GeminiAnalysisResult("First.", List.of(), null));
+        });
+        when(runDao.findByIdForUpdate(run.getId())).thenReturn(Optional.of(run));
+
+        service.sweep(run.getId(), owner);
+
+        verify(aiAnalysisResultDao, never()).saveAll(any());
+        assertThat(run.getStatus()).isEqualTo(ScreeningRunStatus.RUNNING);
+        assertThat(run.getOwnerId()).isNotEqualTo(owner);
+        assertThat(run.getCursorPatientId()).isNull();
+    }
+
+    private static Patient patient(UUID id) {
+        Patient patient = new Patient("Jane", "Doe");
+        patient.setId(id);
+        return patient;
+    }
+}
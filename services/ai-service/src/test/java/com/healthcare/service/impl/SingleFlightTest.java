@@ -0,0 +1,100 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.exception.AiServiceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void join_firstCallerLeads_othersFollow() {
+        SingleFlight.Call<String> leader   = singleFlight.join("p1");
+        SingleFlight.Call<String> follower = singleFlight.join("p1");
+        SingleFlight.Call<String> other    = singleFlight.join("p2");
+
+        assertThat(leader.isLeader()).isTrue();
+        assertThat(follower.isLeader()).isFalse();
+        assertThat(other.isLeader()).isTrue();
+        assertThat(singleFlight.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void complete_releasesKey_andFollowersSeeLeaderValue() throws Exception {
+        SingleFlight.Call<String> leader   = singleFlight.join("p1");
+        SingleFlight.Call<String> follower = singleFlight.join("p1");
+
+        leader.complete("result");
+
+        assertThat(follower.await(Duration.ofSeconds(1))).isEqualTo("result");
+        assertThat(singleFlight.inFlight()).isZero();
+        assertThat(singleFlight.join("p1").isLeader()).isTrue();
+    }
+
+    @Test
+    void fail_rethrowsLeaderException_toFollowers() {
+        SingleFlight.Call<String> leader   = singleFlight.join("p1");
+        SingleFlight.Call<String> follower = singleFlight.join("p1");
+
+        leader.fail(new AiServiceException(HttpStatus.INTERNAL_SERVER_ERROR,
+                AiServiceException.GEMINI_ERROR, "Gemini down"));
+
+        assertThatThrownBy(() -> follower.await(Duration.ofSeconds(1)))
+                .isInstanceOf(AiServiceException.class)
+                .hasMessage("Gemini down");
+    }
+
+    @Test
+    void await_throwsTimeout_whenLeaderNeverFinishes() {
+        singleFlight.join("p1");
+        SingleFlight.Call<String> follower = singleFlight.join("p1");
+
+        assertThatThrownBy(() -> follower.await(Duration.ofMillis(10)))
+                .isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void join_concurrentCallers_electExactlyOneLeader() throws Exception {
+        int callers = 16;
+        AtomicInteger leaders = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(callers);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            Future<?>[] futures = new Future<?>[callers];
+            for (int i = 0; i < callers; i++) {
+                futures[i] = pool.submit(() -> {
+                    start.await();
+                    SingleFlight.Call<String> call = singleFlight.join("p1");
+                    joined.countDown();
+                    if (call.isLeader()) {
+                        leaders.incrementAndGet();
+                        joined.await();
+                        call.complete("done");
+                    }
+                    return call.await(Duration.ofSeconds(5));
+                });
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(leaders.get()).isEqualTo(1);
+    }
+}
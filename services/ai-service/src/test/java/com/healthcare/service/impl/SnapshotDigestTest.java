@@ -0,0 +1,54 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.dto.SnapshotItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotDigestTest {
+
+    private final SnapshotItem diabetes = new SnapshotItem("E11", "Type 2 diabetes", "2020-01-01", null, "2020-01-15");
+    private final SnapshotItem asthma   = new SnapshotItem("J45", "Asthma", "2018-03-02", "2019-01-01", null);
+    private final SnapshotItem peanut   = new SnapshotItem("91935009", "Peanut allergy", "2010-05-05", null, null);
+
+    @Test
+    void of_isIndependentOfItemOrder() {
+        byte[] a = SnapshotDigest.of(List.of(diabetes, asthma), List.of(peanut));
+        byte[] b = SnapshotDigest.of(List.of(asthma, diabetes), List.of(peanut));
+
+        assertThat(a).hasSize(32);
+        assertThat(SnapshotDigest.matches(a, b)).isTrue();
+    }
+
+    @Test
+    void of_ignoresDescriptionChanges() {
+        SnapshotItem renamed = new SnapshotItem("E11", "Diabetes mellitus type 2", "2020-01-01", null, "2020-01-15");
+
+        assertThat(SnapshotDigest.matches(
+                SnapshotDigest.of(List.of(diabetes), List.of()),
+                SnapshotDigest.of(List.of(renamed), List.of()))).isTrue();
+    }
+
+    @Test
+    void of_changes_whenStopDateSet() {
+        SnapshotItem resolved = new SnapshotItem("E11", "Type 2 diabetes", "2020-01-01", "2024-06-01", "2020-01-15");
+
+        assertThat(SnapshotDigest.matches(
+                SnapshotDigest.of(List.of(diabetes), List.of()),
+                SnapshotDigest.of(List.of(resolved), List.of()))).isFalse();
+    }
+
+    @Test
+    void of_distinguishesConditionFromAllergyWithSameCode() {
+        assertThat(SnapshotDigest.matches(
+                SnapshotDigest.of(List.of(peanut), List.of()),
+                SnapshotDigest.of(List.of(), List.of(peanut)))).isFalse();
+    }
+
+    @Test
+    void matches_returnsFalse_forLegacyNullDigest() {
+        assertThat(SnapshotDigest.matches(SnapshotDigest.of(List.of(), List.of()), null)).isFalse();
+    }
+}
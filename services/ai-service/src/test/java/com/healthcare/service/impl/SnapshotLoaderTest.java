@@ -0,0 +1,151 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiSnapshotConfig;
+import com.healthcare.config.WorkloadPools;
+import com.healthcare.dao.AllergyDao;
+import com.healthcare.dao.ConditionDao;
+import com.healthcare.dao.EncounterDao;
+import com.healthcare.dao.PatientDao;
+import com.healthcare.entity.Patient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SnapshotLoaderTest {
+
+    @Mock private PatientDao                 patientDao;
+    @Mock private ConditionDao               conditionDao;
+    @Mock private AllergyDao                 allergyDao;
+    @Mock private EncounterDao               encounterDao;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private ObjectProvider<WorkloadPools> workloadPools;
+    @Mock private WorkloadPools              pools;
+
+    private final UUID patientId = UUID.randomUUID();
+
+    @Test
+    void load_readsListsConcurrently_inReadOnlyTransactionsOfTheirOwn() {
+        // each list query only returns once all three are in flight at the same time
+        CountDownLatch allStarted = new CountDownLatch(3);
+        Set<Boolean> overlapped = ConcurrentHashMap.newKeySet();
+        Answer<List<?>> rendezvous = inv -> {
+            allStarted.countDown();
+            overlapped.add(allStarted.await(5, TimeUnit.SECONDS));
+            return List.of();
+        };
+        when(patientDao.findById(patientId)).thenReturn(Optional.of(new Patient("Jane", "Doe")));
+        when(conditionDao.findByIdPatientId(patientId)).thenAnswer(rendezvous);
+        when(allergyDao.findByIdPatientId(patientId)).thenAnswer(rendezvous);
+        when(encounterDao.findByPatientId(patientId)).thenAnswer(rendezvous);
+
+        PatientSnapshot snapshot = loader(true, 2).load(patientId);
+
+        assertThat(snapshot.patient().getFirstName()).isEqualTo("Jane");
+        assertThat(overlapped).containsExactly(true);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void load_readsSerially_onCallersConnection_whenParallelLoadsDisabled() {
+        when(patientDao.findById(patientId)).thenReturn(Optional.of(new Patient("Jane", "Doe")));
+        when(conditionDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(allergyDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(encounterDao.findByPatientId(patientId)).thenReturn(List.of());
+
+        PatientSnapshot snapshot = loader(false, 2).load(patientId);
+
+        assertThat(snapshot.conditions()).isEmpty();
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void load_returnsNull_whenPatientNotFound() {
+        when(patientDao.findById(patientId)).thenReturn(Optional.empty());
+
+        assertThat(loader(true, 2).load(patientId)).isNull();
+        assertThat(loader(false, 2).load(patientId)).isNull();
+    }
+
+    @Test
+    void load_rethrowsQueryFailure_andReleasesItsPermit() {
+        SnapshotLoader loader = loader(true, 1);
+        when(patientDao.findById(patientId)).thenReturn(Optional.of(new Patient("Jane", "Doe")));
+        when(conditionDao.findByIdPatientId(patientId))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(List.of());
+        when(allergyDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(encounterDao.findByPatientId(patientId)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> loader.load(patientId)).hasMessage("connection reset");
+
+        // the single permit is back: the next load runs in parallel again
+        clearInvocations(transactionManager);
+        loader.load(patientId);
+        verify(transactionManager, times(3)).getTransaction(any());
+    }
+
+    @Test
+    void load_readsSerially_whenAForkGetsNoPooledConnection() {
+        when(patientDao.findById(patientId)).thenReturn(Optional.of(new Patient("Jane", "Doe")));
+        when(conditionDao.findByIdPatientId(patientId))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager",
+                        new SQLTransientConnectionException("ai-service-ai-job - Connection is not available")))
+                .thenReturn(List.of());
+        when(allergyDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(encounterDao.findByPatientId(patientId)).thenReturn(List.of());
+
+        PatientSnapshot snapshot = loader(true, 1).load(patientId);
+
+        assertThat(snapshot.patient().getFirstName()).isEqualTo("Jane");
+        verify(conditionDao, times(2)).findByIdPatientId(patientId);
+        verify(transactionManager, times(3)).getTransaction(any());   // only the forks open transactions
+    }
+
+    @Test
+    void load_readsSerially_withoutWaiting_whenThePoolHasNoConnectionPerFork() {
+        when(workloadPools.getIfAvailable()).thenReturn(pools);
+        when(pools.headroom("default")).thenReturn(2);
+        when(patientDao.findById(patientId)).thenReturn(Optional.of(new Patient("Jane", "Doe")));
+        when(conditionDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(allergyDao.findByIdPatientId(patientId)).thenReturn(List.of());
+        when(encounterDao.findByPatientId(patientId)).thenReturn(List.of());
+
+        PatientSnapshot snapshot = loader(true, 1).load(patientId);
+
+        assertThat(snapshot.patient().getFirstName()).isEqualTo("Jane");
+        verify(conditionDao, times(1)).findByIdPatientId(patientId);
+        verifyNoInteractions(transactionManager);   // no fork was started
+    }
+
+    private SnapshotLoader loader(boolean parallelLoads, int maxParallelLoads) {
+        AiSnapshotConfig config = new AiSnapshotConfig();
+        config.setParallelLoads(parallelLoads);
+        config.setMaxParallelLoads(maxParallelLoads);
+        return new SnapshotLoader(patientDao, conditionDao, allergyDao, encounterDao, config, transactionManager, workloadPools);
+    }
+}
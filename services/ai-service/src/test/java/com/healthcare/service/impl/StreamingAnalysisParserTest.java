@@ -0,0 +1,88 @@
+package com.healthcare.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.dto.RiskFlag;
+import com.healthcare.service.GeminiClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingAnalysisParserTest {
+
+    private static final String ANSWER = "```json\n{\"summary\": \"Stable \\\"HTN\\\"\\nA1c \\u2191 since 2021\", "
+            + "\"risk_flags\": [{\"flag\": \"Cardio {risk}\", \"reason\": \"BP, [labs]\"}, "
+            + "{\"flag\": \"Falls\", \"reason\": \"Age\"}], \"disclaimer\": \"summary\"}\n```";
+
+    private final StringBuilder  summary = new StringBuilder();
+    private final List<String>   deltas  = new ArrayList<>();
+    private final List<RiskFlag> flags   = new ArrayList<>();
+
+    private final StreamingAnalysisParser parser = new StreamingAnalysisParser(new ObjectMapper(),
+            new GeminiClient.StreamListener() {
+                @Override
+                public void onSummaryDelta(String text) {
+                    deltas.add(text);
+                    summary.append(text);
+                }
+
+                @Override
+                public void onRiskFlag(RiskFlag flag) {
+                    flags.add(flag);
+                }
+            });
+
+    @Test
+    void feed_decodesSummaryAndFlags_whenFedWhole() {
+        parser.feed(ANSWER);
+
+        assertThat(summary.toString()).isEqualTo("Stable \"HTN\"\nA1c ↑ since 2021");
+        assertThat(flags).containsExactly(new RiskFlag("Cardio {risk}", "BP, [labs]"), new RiskFlag("Falls", "Age"));
+        assertThat(parser.text()).isEqualTo(ANSWER);
+    }
+
+    @Test
+    void feed_givesSameResult_forEverySplitPoint() {
+        for (int split = 1; split < ANSWER.length(); split++) {
+            summary.setLength(0);
+            flags.clear();
+            StreamingAnalysisParser p = new StreamingAnalysisParser(new ObjectMapper(), new GeminiClient.StreamListener() {
+                @Override public void onSummaryDelta(String text) { summary.append(text); }
+                @Override public void onRiskFlag(RiskFlag flag)   { flags.add(flag); }
+            });
+
+            p.feed(ANSWER.substring(0, split));
+            p.feed(ANSWER.substring(split));
+
+            assertThat(summary.toString()).as("split at %d", split).isEqualTo("Stable \"HTN\"\nA1c ↑ since 2021");
+            assertThat(flags).as("split at %d", split).hasSize(2);
+        }
+    }
+
+    @Test
+    void feed_emitsOneDeltaPerFragment() {
+        parser.feed("{\"summary\": \"Sta");
+        parser.feed("ble");
+        parser.feed("\", \"risk_flags\": []}");
+
+        assertThat(deltas).containsExactly("Sta", "ble");
+    }
+
+    @Test
+    void feed_emitsFlagOnlyOnceItsObjectCloses() {
+        parser.feed("{\"summary\": \"x\", \"risk_flags\": [{\"flag\": \"Falls\", ");
+        assertThat(flags).isEmpty();
+
+        parser.feed("\"reason\": \"Age\"}");
+        assertThat(flags).containsExactly(new RiskFlag("Falls", "Age"));
+    }
+
+    @Test
+    void feed_ignoresNestedSummaryKeys() {
+        parser.feed("{\"meta\": {\"summary\": \"nested\"}, \"summary\": \"top\"}");
+
+        assertThat(summary.toString()).isEqualTo("top");
+    }
+}
@@ -0,0 +1,67 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.entity.Allergy;
+import com.healthcare.entity.AllergyId;
+import com.healthcare.entity.Condition;
+import com.healthcare.entity.ConditionId;
+import com.healthcare.entity.Encounter;
+import com.healthcare.entity.Patient;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic Synthea-shaped patient histories for prompt tests and benchmarks:
+ * encounter classes in roughly Synthea's mix, spread back from 2024, with a fixed
+ * share of conditions resolved.
+ */
+final class SyntheticHistory {
+
+    private static final String[] CLASSES = {
+            "wellness", "ambulatory", "ambulatory", "ambulatory", "outpatient",
+            "outpatient", "urgentcare", "emergency", "inpatient"
+    };
+    private static final OffsetDateTime LATEST = OffsetDateTime.of(2024, 6, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private SyntheticHistory() {}
+
+    static PatientSnapshot patient(int encounters, int conditions, int allergies, long seed) {
+        Random random = new Random(seed);
+        UUID patientId = new UUID(seed, seed);
+        Patient patient = new Patient("Jane", "Doe");
+        patient.setId(patientId);
+
+        List<Encounter> encounterList = new ArrayList<>(encounters);
+        for (int i = 0; i < encounters; i++) {
+            Encounter e = new Encounter(UUID.randomUUID(), LATEST.minusDays(i * 7L + random.nextInt(7)));
+            e.setId(new UUID(seed, i + 1L));
+            e.setPatientId(patientId);
+            e.setEncounterClass(CLASSES[random.nextInt(CLASSES.length)]);
+            encounterList.add(e);
+        }
+
+        List<Condition> conditionList = new ArrayList<>(conditions);
+        for (int i = 0; i < conditions; i++) {
+            UUID encounterId = encounterList.isEmpty() ? null : encounterList.get(random.nextInt(encounterList.size())).getId();
+            Condition c = new Condition(new ConditionId(patientId, encounterId, String.valueOf(100000 + i)),
+                    LocalDate.of(2024, 1, 1).minusDays(random.nextInt(7000)));
+            c.setDescription("Synthetic condition number " + i + " (disorder)");
+            if (i % 3 == 0) c.setStopDate(c.getStartDate().plusDays(30 + random.nextInt(300)));
+            conditionList.add(c);
+        }
+
+        List<Allergy> allergyList = new ArrayList<>(allergies);
+        for (int i = 0; i < allergies; i++) {
+            Allergy a = new Allergy(new AllergyId(patientId, null, String.valueOf(900000 + i)),
+                    LocalDate.of(2010, 1, 1).plusDays(i));
+            a.setDescription("Allergy to substance " + i);
+            allergyList.add(a);
+        }
+        return PatientSnapshot.of(patient, conditionList, allergyList, encounterList);
+    }
+}
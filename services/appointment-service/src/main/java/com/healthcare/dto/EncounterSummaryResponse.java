@@ -3,6 +3,8 @@ package com.healthcare.dto;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.healthcare.entity.Encounter;
+import com.healthcare.entity.Organization;
+import com.healthcare.entity.Provider;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -36,7 +38,12 @@ public record EncounterSummaryResponse(
         ProviderSummaryResponse provider,
         OrganizationSummaryResponse organization) {
 
-    public static EncounterSummaryResponse from(Encounter e) {
+    /**
+     * Provider and organization are passed in rather than read through the encounter's lazy
+     * associations, so a page of rows loads them together — from the second-level cache, or in
+     * one query each for the misses (see BatchLoaders).
+     */
+    public static EncounterSummaryResponse from(Encounter e, Provider provider, Organization organization) {
         return new EncounterSummaryResponse(
                 e.getId(),
                 e.getStartTime(),
@@ -47,7 +54,7 @@ public record EncounterSummaryResponse(
                 e.getReasonDesc(),
                 e.getBaseCost(),
                 e.getTotalCost(),
-                ProviderSummaryResponse.summary(e.getProvider()),
-                OrganizationSummaryResponse.summary(e.getOrganization()));
+                ProviderSummaryResponse.summary(provider),
+                OrganizationSummaryResponse.summary(organization));
     }
 }
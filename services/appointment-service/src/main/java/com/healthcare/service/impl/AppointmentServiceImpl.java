@@ -1,6 +1,7 @@
 package com.healthcare.service.impl;
 
 import com.healthcare.dao.AuditLogDao;
+import com.healthcare.dao.BatchLoaders;
 import com.healthcare.dao.EncounterDao;
 import com.healthcare.dao.PatientDao;
 import com.healthcare.dao.ProviderDao;
@@ -9,6 +10,7 @@ import com.healthcare.dto.EncounterPageResponse;
 import com.healthcare.dto.EncounterSummaryResponse;
 import com.healthcare.entity.AuditLog;
 import com.healthcare.entity.Encounter;
+import com.healthcare.entity.Organization;
 import com.healthcare.entity.Patient;
 import com.healthcare.entity.Provider;
 import com.healthcare.enums.ActionType;
@@ -26,6 +28,7 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -41,15 +44,18 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final ProviderDao  providerDao;
     private final EncounterDao encounterDao;
     private final AuditLogDao  auditLogDao;
+    private final BatchLoaders batchLoaders;
 
     public AppointmentServiceImpl(PatientDao patientDao,
                                   ProviderDao providerDao,
                                   EncounterDao encounterDao,
-                                  AuditLogDao auditLogDao) {
+                                  AuditLogDao auditLogDao,
+                                  BatchLoaders batchLoaders) {
         this.patientDao   = patientDao;
         this.providerDao  = providerDao;
         this.encounterDao = encounterDao;
         this.auditLogDao  = auditLogDao;
+        this.batchLoaders = batchLoaders;
     }
 
     @Override
@@ -176,15 +182,8 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .withUserRole(UserRole.PROVIDER)
                 .withResourceId(patientId));
 
-        return encounterDao.findByProviderIdAndPatientId(provider.getId(), patientId)
-                .stream()
-                .sorted((a, b) -> {
-                    if (a.getStartTime() == null) return 1;
-                    if (b.getStartTime() == null) return -1;
-                    return b.getStartTime().compareTo(a.getStartTime());
-                })
-                .map(EncounterSummaryResponse::from)
-                .collect(Collectors.toList());
+        return summaries(sortByStartTimeDesc(
+                encounterDao.findByProviderIdAndPatientId(provider.getId(), patientId)));
     }
 
     // -------------------------------------------------------------------------
@@ -262,13 +261,28 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         List<EncounterSummaryResponse> data = (start >= all.size())
                 ? List.of()
-                : all.subList(start, end).stream()
-                        .map(EncounterSummaryResponse::from)
-                        .collect(Collectors.toList());
+                : summaries(all.subList(start, end));
 
         return new EncounterPageResponse(total, page, size, data);
     }
 
+    /**
+     * List rows for the given encounters, with their providers and organizations loaded together
+     * (cache first, one query each for the misses) instead of once per encounter through the lazy
+     * associations.
+     */
+    private List<EncounterSummaryResponse> summaries(List<Encounter> encounters) {
+        Map<UUID, Provider> providers = batchLoaders.providers()
+                .loadMany(encounters.stream().map(Encounter::getProviderId).toList());
+        Map<UUID, Organization> organizations = batchLoaders.organizations()
+                .loadMany(encounters.stream().map(Encounter::getOrganizationId).toList());
+
+        return encounters.stream()
+                .map(e -> EncounterSummaryResponse.from(e,
+                        providers.get(e.getProviderId()), organizations.get(e.getOrganizationId())))
+                .collect(Collectors.toList());
+    }
+
     private static OffsetDateTime toStartOfDay(LocalDate date) {
         return date.atStartOfDay().atOffset(ZoneOffset.UTC);
     }
@@ -1,6 +1,7 @@
 package com.healthcare.service;
 
 import com.healthcare.dao.AuditLogDao;
+import com.healthcare.dao.BatchLoaders;
 import com.healthcare.dao.EncounterDao;
 import com.healthcare.dao.PatientDao;
 import com.healthcare.dao.ProviderDao;
@@ -12,6 +13,10 @@ import com.healthcare.entity.Patient;
 import com.healthcare.entity.Provider;
 import com.healthcare.exception.AppointmentServiceException;
 import com.healthcare.service.impl.AppointmentServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,8 +32,11 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +46,9 @@ class AppointmentServiceImplTest {
     @Mock private ProviderDao  providerDao;
     @Mock private EncounterDao encounterDao;
     @Mock private AuditLogDao  auditLogDao;
+    @Mock private EntityManager entityManager;
+    @Mock private Session       session;
+    @Mock private MultiIdentifierLoadAccess<Provider> providerLoad;
 
     private AppointmentServiceImpl service;
 
@@ -51,7 +62,12 @@ class AppointmentServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        service = new AppointmentServiceImpl(patientDao, providerDao, encounterDao, auditLogDao);
+        service = new AppointmentServiceImpl(patientDao, providerDao, encounterDao, auditLogDao,
+                new BatchLoaders(patientDao, entityManager));
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        lenient().when(session.byMultipleIds(Provider.class)).thenReturn(providerLoad);
+        lenient().when(providerLoad.with(CacheMode.NORMAL)).thenReturn(providerLoad);
+        lenient().when(providerLoad.enableSessionCheck(true)).thenReturn(providerLoad);
 
         patient = new Patient("John", "Doe");
 
@@ -236,6 +252,20 @@ class AppointmentServiceImplTest {
         assertThat(result).hasSize(1);
     }
 
+    @Test
+    void getProviderEncounters_loadsProvidersOnceForThePage() {
+        when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
+        when(mockProvider.getName()).thenReturn("Dr. Smith");
+        when(encounterDao.findByProviderId(providerId)).thenReturn(List.of(encounter(), encounter(), encounter()));
+        when(providerLoad.multiLoad(anyList())).thenReturn(List.of(mockProvider));
+
+        EncounterPageResponse page = service.getProviderEncounters(authId, null, null, null, 1, 10);
+
+        assertThat(page.encounters()).hasSize(3)
+                .allSatisfy(e -> assertThat(e.provider().name()).isEqualTo("Dr. Smith"));
+        verify(providerLoad, times(1)).multiLoad(List.of(providerId));
+    }
+
     @Test
     void getPatientEncountersByProvider_throws403_whenNoAccess() {
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
@@ -0,0 +1,42 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Password hashing algorithm, cost and the executor that runs it; see SecurityConfig.
+ *
+ * Raising bcryptCost, or switching algorithm, takes effect for new passwords at once and for
+ * existing ones on each user's next successful login (rehashOnLogin).
+ */
+@Component
+@ConfigurationProperties(prefix = "auth.password-hashing")
+public class PasswordHashingConfig {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private String  algorithm        = BCRYPT;
+    private int     bcryptCost       = 10;
+    private int     pbkdf2Iterations = 310_000;
+    private int     poolSize         = Runtime.getRuntime().availableProcessors();
+    private int     queueCapacity    = 200;
+    private long    maxWaitMs        = 2_000;
+    private boolean rehashOnLogin    = true;
+
+    public String  getAlgorithm()        { return algorithm; }
+    public int     getBcryptCost()       { return bcryptCost; }
+    public int     getPbkdf2Iterations() { return pbkdf2Iterations; }
+    public int     getPoolSize()         { return poolSize; }
+    public int     getQueueCapacity()    { return queueCapacity; }
+    public long    getMaxWaitMs()        { return maxWaitMs; }
+    public boolean isRehashOnLogin()     { return rehashOnLogin; }
+
+    public void setAlgorithm(String algorithm)              { this.algorithm = algorithm; }
+    public void setBcryptCost(int bcryptCost)               { this.bcryptCost = bcryptCost; }
+    public void setPbkdf2Iterations(int pbkdf2Iterations)   { this.pbkdf2Iterations = pbkdf2Iterations; }
+    public void setPoolSize(int poolSize)                   { this.poolSize = poolSize; }
+    public void setQueueCapacity(int queueCapacity)         { this.queueCapacity = queueCapacity; }
+    public void setMaxWaitMs(long maxWaitMs)                { this.maxWaitMs = maxWaitMs; }
+    public void setRehashOnLogin(boolean rehashOnLogin)     { this.rehashOnLogin = rehashOnLogin; }
+}
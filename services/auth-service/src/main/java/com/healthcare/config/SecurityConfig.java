@@ -6,10 +6,16 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.Map;
+
 /**
  * Security configuration for auth-service.
  *
@@ -17,13 +23,18 @@ import org.springframework.security.web.SecurityFilterChain;
  * Token validation on incoming requests is the gateway's responsibility;
  * auth-service only issues and invalidates tokens.
  *
- * Spring Security is included solely for BCryptPasswordEncoder.
+ * Spring Security is included solely for its password encoders.
  * HTTP Basic and CSRF are disabled; session is stateless.
+ *
+ * Hashing runs on PASSWORD_HASHING_EXECUTOR through PasswordHasher, never on the
+ * request thread; see docs/guides/password-hashing.md.
  */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -36,8 +47,36 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * New hashes use the configured algorithm and carry its id as a prefix ({bcrypt}, {pbkdf2}).
+     * Hashes stored before the prefix existed are plain BCrypt and still match.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingConfig config) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(config.getBcryptCost());
+        Map<String, PasswordEncoder> encoders = Map.of(
+                PasswordHashingConfig.BCRYPT, bcrypt,
+                PasswordHashingConfig.PBKDF2, new Pbkdf2PasswordEncoder("", 16,
+                        config.getPbkdf2Iterations(), SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(config.getAlgorithm(), encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Bounds how many hashes run at once. Hashing is CPU-bound, so the pool is sized to cores
+     * and its workers stay platform threads even with virtual threads on; a full queue is
+     * rejected as 503 instead of growing login latency without limit.
+     */
+    @Bean(name = PASSWORD_HASHING_EXECUTOR)
+    public ThreadPoolTaskExecutor passwordHashingExecutor(PasswordHashingConfig config) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getPoolSize());
+        executor.setMaxPoolSize(config.getPoolSize());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
     }
 }
@@ -29,6 +29,7 @@ public class AuthServiceException extends RuntimeException {
     public static final String RECORD_NOT_FOUND       = "RECORD_NOT_FOUND";
     public static final String MULTIPLE_RECORDS_FOUND = "MULTIPLE_RECORDS_FOUND";
     public static final String ALREADY_REGISTERED     = "ALREADY_REGISTERED";
+    public static final String PASSWORD_HASHING_BUSY  = "PASSWORD_HASHING_BUSY";
 
     private final HttpStatus status;
     private final String errorCode;
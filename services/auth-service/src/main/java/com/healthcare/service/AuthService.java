@@ -1,5 +1,6 @@
 package com.healthcare.service;
 
+import com.healthcare.config.ReferenceDataCache;
 import com.healthcare.dao.AuditLogDao;
 import com.healthcare.dao.OrganizationDao;
 import com.healthcare.dao.PatientDao;
@@ -23,17 +24,18 @@ import com.healthcare.enums.UserRole;
 import com.healthcare.exception.AuthServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import io.jsonwebtoken.Claims;
 
 /**
  * Orchestrates all auth-service business logic.
  *
  * Owns: registration, login, token refresh, logout.
- * Delegates to: JwtService (token ops),
+ * Delegates to: JwtService (token ops), PasswordHasher (hashing, off the request thread),
  *               UserDao/PatientDao/ProviderDao (DB), AuditLogDao (audit).
  *
  * Security principle: internal error details are logged, never returned to callers.
@@ -56,7 +58,10 @@ public class AuthService {
     private final OrganizationDao organizationDao;
     private final AuditLogDao auditLogDao;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final ObjectProvider<ReferenceDataCache> referenceDataCache;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate writeTx;
 
     public AuthService(UserDao userDao,
                        PatientDao patientDao,
@@ -64,14 +69,20 @@ public class AuthService {
                        OrganizationDao organizationDao,
                        AuditLogDao auditLogDao,
                        JwtService jwtService,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordHasher passwordHasher,
+                       ObjectProvider<ReferenceDataCache> referenceDataCache,
+                       PlatformTransactionManager transactionManager) {
         this.userDao = userDao;
         this.patientDao = patientDao;
         this.providerDao = providerDao;
         this.organizationDao = organizationDao;
         this.auditLogDao = auditLogDao;
         this.jwtService = jwtService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.referenceDataCache = referenceDataCache;
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     // =========================================================================
@@ -84,22 +95,35 @@ public class AuthService {
      * Flow:
      * 1. Check username + email availability
      * 2. Validate patient record exists and is unlinked (0 → 422, 2+ → 422, already linked → 409)
-     * 3. Create User, link to Patient, audit + issue JWT pair
+     * 3. Hash the password on the hashing pool — only once every check passed, so rejected
+     *    registrations cost no hashing capacity, and outside any transaction, so a queued or
+     *    running hash holds no pooled connection
+     * 4. In one transaction: repeat the checks (another registration may have won meanwhile),
+     *    create User, link to Patient, audit
+     * 5. Issue JWT pair
      */
-    @Transactional
     public LoginResponse registerPatient(RegisterPatientRequest request) {
         log.info("Register patient attempt: username={}, firstName={}, lastName={}, dob={}",
                 request.username(), request.firstName(), request.lastName(), request.birthdate());
-        checkUsernameAndEmailAvailable(request.username(), request.email());
+        readOnlyTx.executeWithoutResult(status -> {
+            checkUsernameAndEmailAvailable(request.username(), request.email());
+            findUniquePatient(request.firstName(), request.lastName(), request.birthdate());
+        });
+
+        String passwordHash = passwordHasher.encode(request.password());
 
-        Patient patient = findUniquePatient(request.firstName(), request.lastName(), request.birthdate());
-        User user = createUser(request.username(), request.email(), request.password(), UserRole.PATIENT);
-        patient.linkAuthAccount(user.getId());
-        patientDao.save(patient);
-        user.setFhirId(patient.getId());
-        userDao.save(user);
+        User user = writeTx.execute(status -> {
+            checkUsernameAndEmailAvailable(request.username(), request.email());
+            Patient patient = findUniquePatient(request.firstName(), request.lastName(), request.birthdate());
+            User created = userDao.save(new User(request.username(), request.email(), passwordHash, UserRole.PATIENT));
+            patient.linkAuthAccount(created.getId());
+            patientDao.save(patient);
+            created.setFhirId(patient.getId());
+            userDao.save(created);
 
-        auditLogDao.insert(buildAuditLog(user, ActionType.CREATE, Outcome.SUCCESS));
+            auditLogDao.insert(buildAuditLog(created, ActionType.CREATE, Outcome.SUCCESS));
+            return created;
+        });
         log.info("Patient registered: username={}", request.username());
 
         return issueTokenPair(user);
@@ -111,21 +135,33 @@ public class AuthService {
      * Flow:
      * 1. Check username + email availability
      * 2. Validate provider record exists and is unlinked (0 → 422, 2+ → 422, already linked → 409)
-     * 3. Create User, link to Provider, audit + issue JWT pair
+     * 3. Hash the password on the hashing pool, after the checks and outside any transaction
+     *    (see {@link #registerPatient})
+     * 4. In one transaction: repeat the checks, create User, link to Provider, audit
+     * 5. Issue JWT pair
      */
-    @Transactional
     public LoginResponse registerProvider(RegisterProviderRequest request) {
         log.info("Register provider attempt: username={}, name={}", request.username(), request.name());
-        checkUsernameAndEmailAvailable(request.username(), request.email());
+        readOnlyTx.executeWithoutResult(status -> {
+            checkUsernameAndEmailAvailable(request.username(), request.email());
+            findUniqueProvider(request.name(), request.organizationName());
+        });
+
+        String passwordHash = passwordHasher.encode(request.password());
 
-        Provider provider = findUniqueProvider(request.name(), request.organizationName());
-        User user = createUser(request.username(), request.email(), request.password(), UserRole.PROVIDER);
-        provider.linkAuthAccount(user.getId());
-        providerDao.save(provider);
-        user.setFhirId(provider.getId());
-        userDao.save(user);
+        User user = writeTx.execute(status -> {
+            checkUsernameAndEmailAvailable(request.username(), request.email());
+            Provider provider = findUniqueProvider(request.name(), request.organizationName());
+            User created = userDao.save(new User(request.username(), request.email(), passwordHash, UserRole.PROVIDER));
+            provider.linkAuthAccount(created.getId());
+            providerDao.save(provider);
+            referenceDataCache.ifAvailable(ReferenceDataCache::changed);   // cached copies elsewhere still show it unlinked
+            created.setFhirId(provider.getId());
+            userDao.save(created);
 
-        auditLogDao.insert(buildAuditLog(user, ActionType.CREATE, Outcome.SUCCESS));
+            auditLogDao.insert(buildAuditLog(created, ActionType.CREATE, Outcome.SUCCESS));
+            return created;
+        });
         log.info("Provider registered: username={}", request.username());
 
         return issueTokenPair(user);
@@ -139,22 +175,25 @@ public class AuthService {
      * Authenticates a user and issues a JWT token pair.
      *
      * Flow:
-     * 1. Find user by username — 401 if not found (don't reveal whether username exists)
-     * 2. Verify password — 401 if wrong
+     * 1. Find user by username — 401 if not found, after a dummy verification
+     *    (don't reveal whether username exists, by status or by timing)
+     * 2. Verify password on the hashing pool — 401 if wrong, 503 if the pool is saturated
      * 3. Check account active — 403 if inactive
-     * 4. Audit log + issue JWT pair
+     * 4. Rehash if the stored hash is below the configured algorithm or cost
+     * 5. Audit log + issue JWT pair
      */
     public LoginResponse login(LoginRequest request) {
         User user = userDao.findByUsername(request.username())
                 .orElseThrow(() -> {
                     log.warn("Login failed — username not found: {}", request.username());
+                    passwordHasher.matchesNone(request.password());
                     return new AuthServiceException(
                             HttpStatus.UNAUTHORIZED,
                             AuthServiceException.INVALID_CREDENTIALS,
                             "Invalid credentials for username: " + request.username());
                 });
 
-        if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.password(), user.getPasswordHash())) {
             log.warn("Login failed — wrong password for username: {}", request.username());
             auditLogDao.insert(buildAuditLog(user, ActionType.LOGIN, Outcome.FAILURE));
             throw new AuthServiceException(
@@ -171,6 +210,8 @@ public class AuthService {
                     "Account is inactive for username: " + request.username());
         }
 
+        rehashIfOutdated(user, request.password());
+
         auditLogDao.insert(buildAuditLog(user, ActionType.LOGIN, Outcome.SUCCESS));
         log.info("Login success: username={}", request.username());
 
@@ -319,10 +360,20 @@ public class AuthService {
         }
     }
 
-    @Transactional
-    private User createUser(String username, String email, String password, UserRole role) {
-        User user = new User(username, email, passwordEncoder.encode(password), role);
-        return userDao.save(user);
+    /**
+     * Best effort: the login has already succeeded, and the old hash still works next time.
+     * The write only lands if the hash is unchanged since it was verified.
+     */
+    private void rehashIfOutdated(User user, String password) {
+        try {
+            passwordHasher.upgrade(password, user.getPasswordHash()).ifPresent(newHash -> {
+                if (userDao.updatePasswordHash(user.getId(), user.getPasswordHash(), newHash) == 1) {
+                    log.info("Password rehashed: username={}", user.getUsername());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Password rehash not stored for username={}: {}", user.getUsername(), e.toString());
+        }
     }
 
     private LoginResponse issueTokenPair(User user) {
@@ -0,0 +1,138 @@
+package com.healthcare.service;
+
+import com.healthcare.config.PasswordHashingConfig;
+import com.healthcare.config.SecurityConfig;
+import com.healthcare.exception.AuthServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs every password hash and verification on the bounded PASSWORD_HASHING_EXECUTOR.
+ *
+ * A hash costs tens of milliseconds of CPU by design. Run on request threads, a burst of logins
+ * puts more hashes in flight than there are cores and every login slows down together; here at
+ * most poolSize run at once, the rest queue, and a hash that would wait longer than maxWaitMs —
+ * or finds the queue full — fails fast with 503.
+ *
+ * Metrics: healthcare.auth.password.hash (op = verify | encode), healthcare.auth.password.queue,
+ * healthcare.auth.password.rejected (op, reason = queue_full | queue_timeout) and
+ * healthcare.auth.password.rehashed (from = the old algorithm id, or legacy for unprefixed).
+ */
+@Service
+public class PasswordHasher {
+
+    static final String OP_VERIFY = "verify";
+    static final String OP_ENCODE = "encode";
+
+    /** Verified against for unknown usernames, so that path costs what a wrong password costs. */
+    private static final String DUMMY_PASSWORD = "unknown-user-dummy-password";
+
+    private final PasswordEncoder       passwordEncoder;
+    private final Executor              executor;
+    private final PasswordHashingConfig config;
+    private final String                dummyHash;
+
+    private final MeterRegistry registry;
+    private final Timer         verifyTimer;
+    private final Timer         encodeTimer;
+    private final Timer         queueWait;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Qualifier(SecurityConfig.PASSWORD_HASHING_EXECUTOR) Executor executor,
+                          PasswordHashingConfig config,
+                          MeterRegistry registry) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor        = executor;
+        this.config          = config;
+        this.dummyHash       = passwordEncoder.encode(DUMMY_PASSWORD);
+
+        this.registry    = registry;
+        this.verifyTimer = Timer.builder("healthcare.auth.password.hash").tag("op", OP_VERIFY).register(registry);
+        this.encodeTimer = Timer.builder("healthcare.auth.password.hash").tag("op", OP_ENCODE).register(registry);
+        this.queueWait   = Timer.builder("healthcare.auth.password.queue").register(registry);
+    }
+
+    public boolean matches(String rawPassword, String hash) {
+        return join(submit(OP_VERIFY, verifyTimer, () -> passwordEncoder.matches(rawPassword, hash)));
+    }
+
+    /**
+     * Spends one verification against a fixed hash — used when the username does not exist,
+     * so the response time does not tell a caller which usernames are registered.
+     */
+    public void matchesNone(String rawPassword) {
+        matches(rawPassword, dummyHash);
+    }
+
+    public String encode(String rawPassword) {
+        return join(submit(OP_ENCODE, encodeTimer, () -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * A new hash of an already verified password when the stored one is below the configured
+     * algorithm or cost (or has no algorithm prefix); empty when it is current or rehashing is off.
+     */
+    public Optional<String> upgrade(String rawPassword, String hash) {
+        if (!config.isRehashOnLogin() || !passwordEncoder.upgradeEncoding(hash)) {
+            return Optional.empty();
+        }
+        String newHash = encode(rawPassword);
+        Counter.builder("healthcare.auth.password.rehashed").tag("from", algorithmOf(hash))
+                .register(registry).increment();
+        return Optional.of(newHash);
+    }
+
+    /**
+     * Waits for a submitted hash, rethrowing its failure unwrapped.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(String op, Timer timer, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitMs())) {
+                    throw busy(op, "queue_timeout", null);
+                }
+                return timer.record(work);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            throw busy(op, "queue_full", e);
+        }
+    }
+
+    private AuthServiceException busy(String op, String reason, Throwable cause) {
+        Counter.builder("healthcare.auth.password.rejected").tag("op", op).tag("reason", reason)
+                .register(registry).increment();
+        return new AuthServiceException(HttpStatus.SERVICE_UNAVAILABLE,
+                AuthServiceException.PASSWORD_HASHING_BUSY,
+                "Password " + op + " rejected (" + reason + ") — hashing pool saturated", cause);
+    }
+
+    private static String algorithmOf(String hash) {
+        int end = hash.indexOf('}');
+        return hash.startsWith("{") && end > 0 ? hash.substring(1, end) : "legacy";
+    }
+}
@@ -1,5 +1,6 @@
 package com.healthcare.service;
 
+import com.healthcare.config.ReferenceDataCache;
 import com.healthcare.dao.AuditLogDao;
 import com.healthcare.dao.OrganizationDao;
 import com.healthcare.dao.PatientDao;
@@ -19,11 +20,13 @@ import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -36,8 +39,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -52,7 +58,9 @@ class AuthServiceTest {
     @Mock private OrganizationDao organizationDao;
     @Mock private AuditLogDao auditLogDao;
     @Mock private JwtService jwtService;
-    @Mock private PasswordEncoder passwordEncoder;
+    @Mock private PasswordHasher passwordHasher;
+    @Mock private ObjectProvider<ReferenceDataCache> referenceDataCache;
+    @Mock private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private AuthService authService;
@@ -82,7 +90,8 @@ class AuthServiceTest {
         when(mockUser.getPasswordHash()).thenReturn("$2a$encoded");
         when(mockUser.getIsActive()).thenReturn(true);
         when(userDao.findByUsername("john_doe")).thenReturn(Optional.of(mockUser));
-        when(passwordEncoder.matches("password123", "$2a$encoded")).thenReturn(true);
+        when(passwordHasher.matches("password123", "$2a$encoded")).thenReturn(true);
+        when(passwordHasher.upgrade("password123", "$2a$encoded")).thenReturn(Optional.empty());
         when(jwtService.issueAccessToken(mockUser)).thenReturn("access-token");
         when(jwtService.issueRefreshToken(mockUser)).thenReturn("refresh-token");
 
@@ -92,6 +101,55 @@ class AuthServiceTest {
         assertThat(response.refreshToken()).isEqualTo("refresh-token");
         assertThat(response.tokenType()).isEqualTo("Bearer");
         verify(auditLogDao).insert(any());
+        verify(userDao, never()).updatePasswordHash(any(), any(), any());
+    }
+
+    @Test
+    void login_outdatedHash_isRehashed() {
+        stubUserForAuditLog();
+        when(mockUser.getPasswordHash()).thenReturn("$2a$10$legacy");
+        when(mockUser.getIsActive()).thenReturn(true);
+        when(userDao.findByUsername("john_doe")).thenReturn(Optional.of(mockUser));
+        when(passwordHasher.matches("password123", "$2a$10$legacy")).thenReturn(true);
+        when(passwordHasher.upgrade("password123", "$2a$10$legacy")).thenReturn(Optional.of("{bcrypt}$2a$12$new"));
+        when(userDao.updatePasswordHash(userId, "$2a$10$legacy", "{bcrypt}$2a$12$new")).thenReturn(1);
+        when(jwtService.issueAccessToken(mockUser)).thenReturn("access-token");
+        when(jwtService.issueRefreshToken(mockUser)).thenReturn("refresh-token");
+
+        LoginResponse response = authService.login(new LoginRequest("john_doe", "password123"));
+
+        assertThat(response.accessToken()).isEqualTo("access-token");
+        verify(userDao).updatePasswordHash(userId, "$2a$10$legacy", "{bcrypt}$2a$12$new");
+    }
+
+    @Test
+    void login_rehashFailure_doesNotFailLogin() {
+        stubUserForAuditLog();
+        when(mockUser.getPasswordHash()).thenReturn("$2a$10$legacy");
+        when(mockUser.getIsActive()).thenReturn(true);
+        when(userDao.findByUsername("john_doe")).thenReturn(Optional.of(mockUser));
+        when(passwordHasher.matches("password123", "$2a$10$legacy")).thenReturn(true);
+        when(passwordHasher.upgrade("password123", "$2a$10$legacy")).thenThrow(new AuthServiceException(
+                HttpStatus.SERVICE_UNAVAILABLE, AuthServiceException.PASSWORD_HASHING_BUSY, "busy"));
+        when(jwtService.issueAccessToken(mockUser)).thenReturn("access-token");
+        when(jwtService.issueRefreshToken(mockUser)).thenReturn("refresh-token");
+
+        LoginResponse response = authService.login(new LoginRequest("john_doe", "password123"));
+
+        assertThat(response.accessToken()).isEqualTo("access-token");
+        verify(userDao, never()).updatePasswordHash(any(), any(), any());
+    }
+
+    @Test
+    void login_unknownUsername_spendsAVerification_andThrows401() {
+        when(userDao.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authService.login(new LoginRequest("nobody", "password123")))
+                .isInstanceOfSatisfying(AuthServiceException.class, ex -> {
+                    assertThat(ex.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED);
+                    assertThat(ex.getErrorCode()).isEqualTo(AuthServiceException.INVALID_CREDENTIALS);
+                });
+        verify(passwordHasher).matchesNone("password123");
     }
 
     // =========================================================================
@@ -106,7 +164,7 @@ class AuthServiceTest {
         when(userDao.existsByEmail("john@example.com")).thenReturn(false);
         when(patientDao.findByFirstNameAndLastNameAndBirthdate("John", "Doe", DOB))
                 .thenReturn(List.of(patient));
-        when(passwordEncoder.encode(anyString())).thenReturn("$2a$encoded");
+        when(passwordHasher.encode(anyString())).thenReturn("{bcrypt}$2a$encoded");
         when(userDao.save(any())).thenReturn(mockUser);
         when(jwtService.issueAccessToken(mockUser)).thenReturn("access-token");
         when(jwtService.issueRefreshToken(mockUser)).thenReturn("refresh-token");
@@ -119,6 +177,11 @@ class AuthServiceTest {
         assertThat(response.tokenType()).isEqualTo("Bearer");
         verify(patientDao).save(patient);
         verify(auditLogDao).insert(any());
+        // the hash runs between the read-only checks and the write transaction, holding no connection
+        InOrder order = inOrder(transactionManager, passwordHasher);
+        order.verify(transactionManager).commit(any());
+        order.verify(passwordHasher).encode("Password1@");
+        order.verify(transactionManager).getTransaction(any());
     }
 
     // =========================================================================
@@ -137,7 +200,7 @@ class AuthServiceTest {
         when(userDao.existsByEmail("jane@example.com")).thenReturn(false);
         when(organizationDao.findByName("ACME Health")).thenReturn(Optional.of(org));
         when(providerDao.findByNameAndOrganizationId("Dr. Jane Smith", orgId)).thenReturn(List.of(provider));
-        when(passwordEncoder.encode(anyString())).thenReturn("$2a$encoded");
+        when(passwordHasher.encode(anyString())).thenReturn("{bcrypt}$2a$encoded");
         when(userDao.save(any())).thenReturn(mockUser);
         when(jwtService.issueAccessToken(mockUser)).thenReturn("access-token");
         when(jwtService.issueRefreshToken(mockUser)).thenReturn("refresh-token");
@@ -149,6 +212,7 @@ class AuthServiceTest {
         assertThat(response.refreshToken()).isEqualTo("refresh-token");
         assertThat(response.tokenType()).isEqualTo("Bearer");
         verify(providerDao).save(provider);
+        verify(referenceDataCache).ifAvailable(any());
         verify(auditLogDao).insert(any());
     }
 
@@ -301,6 +365,18 @@ class AuthServiceTest {
                     assertThat(ex.getStatus()).isEqualTo(HttpStatus.CONFLICT);
                     assertThat(ex.getErrorCode()).isEqualTo(AuthServiceException.ALREADY_REGISTERED);
                 });
+        verify(passwordHasher, never()).encode(anyString());
+    }
+
+    @Test
+    void registerPatient_usernameTaken_throws409_withoutHashing() {
+        when(userDao.existsByUsername("john_doe")).thenReturn(true);
+
+        assertThatThrownBy(() -> authService.registerPatient(
+                new RegisterPatientRequest("john_doe", "john@example.com", "Password1@", "John", "Doe", DOB)))
+                .isInstanceOfSatisfying(AuthServiceException.class, ex ->
+                        assertThat(ex.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        verifyNoInteractions(passwordHasher);
     }
 
     // =========================================================================
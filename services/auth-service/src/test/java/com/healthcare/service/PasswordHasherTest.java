@@ -0,0 +1,132 @@
+package com.healthcare.service;
+
+import com.healthcare.config.PasswordHashingConfig;
+import com.healthcare.config.SecurityConfig;
+import com.healthcare.exception.AuthServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link PasswordHasher} — real encoders at the lowest BCrypt cost, a
+ * caller-runs executor unless a test needs the queue.
+ */
+class PasswordHasherTest {
+
+    private static final String PASSWORD = "Password1@";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHashingConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new PasswordHashingConfig();
+        config.setBcryptCost(4);
+        config.setPbkdf2Iterations(1_000);
+    }
+
+    private PasswordHasher hasher(Executor executor) {
+        PasswordEncoder encoder = new SecurityConfig().passwordEncoder(config);
+        return new PasswordHasher(encoder, executor, config, registry);
+    }
+
+    @Test
+    void encode_prefixesTheConfiguredAlgorithm_andMatches() {
+        PasswordHasher hasher = hasher(Runnable::run);
+
+        String hash = hasher.encode(PASSWORD);
+
+        assertThat(hash).startsWith("{bcrypt}$2a$04$");
+        assertThat(hasher.matches(PASSWORD, hash)).isTrue();
+        assertThat(hasher.matches("wrong", hash)).isFalse();
+        assertThat(registry.get("healthcare.auth.password.hash").tag("op", "verify").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void unprefixedLegacyHashes_stillMatch_andAreUpgraded() {
+        PasswordHasher hasher = hasher(Runnable::run);
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertThat(hasher.matches(PASSWORD, legacy)).isTrue();
+        assertThat(hasher.upgrade(PASSWORD, legacy)).hasValueSatisfying(h -> assertThat(h).startsWith("{bcrypt}"));
+        assertThat(registry.get("healthcare.auth.password.rehashed").tag("from", "legacy").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void upgrade_raisesTheBcryptCost_andLeavesCurrentHashesAlone() {
+        String cost4 = hasher(Runnable::run).encode(PASSWORD);
+        config.setBcryptCost(5);
+        PasswordHasher hasher = hasher(Runnable::run);
+
+        String cost5 = hasher.upgrade(PASSWORD, cost4).orElseThrow();
+
+        assertThat(cost5).startsWith("{bcrypt}$2a$05$");
+        assertThat(hasher.upgrade(PASSWORD, cost5)).isEmpty();
+    }
+
+    @Test
+    void upgrade_migratesToTheConfiguredAlgorithm() {
+        String bcrypt = hasher(Runnable::run).encode(PASSWORD);
+        config.setAlgorithm(PasswordHashingConfig.PBKDF2);
+        PasswordHasher hasher = hasher(Runnable::run);
+
+        assertThat(hasher.matches(PASSWORD, bcrypt)).isTrue();
+        String pbkdf2 = hasher.upgrade(PASSWORD, bcrypt).orElseThrow();
+
+        assertThat(pbkdf2).startsWith("{pbkdf2}");
+        assertThat(hasher.matches(PASSWORD, pbkdf2)).isTrue();
+    }
+
+    @Test
+    void upgrade_isOff_whenRehashOnLoginIsDisabled() {
+        config.setRehashOnLogin(false);
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertThat(hasher(Runnable::run).upgrade(PASSWORD, legacy)).isEmpty();
+    }
+
+    @Test
+    void fullQueue_isRejectedAs503() {
+        PasswordHasher hasher = hasher(task -> { throw new RejectedExecutionException("full"); });
+
+        assertThatThrownBy(() -> hasher.matches(PASSWORD, "{bcrypt}$2a$04$x"))
+                .isInstanceOfSatisfying(AuthServiceException.class, ex -> {
+                    assertThat(ex.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(ex.getErrorCode()).isEqualTo(AuthServiceException.PASSWORD_HASHING_BUSY);
+                });
+        assertThat(registry.get("healthcare.auth.password.rejected")
+                .tag("op", "verify").tag("reason", "queue_full").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void taskQueuedPastMaxWait_failsWithoutHashing() throws InterruptedException {
+        List<Runnable> queued = new CopyOnWriteArrayList<>();
+        config.setMaxWaitMs(1);
+        PasswordHasher hasher = hasher(queued::add);
+
+        CompletableFuture<String> hash = CompletableFuture.supplyAsync(() -> hasher.encode(PASSWORD));
+        while (queued.isEmpty()) Thread.sleep(1);
+        Thread.sleep(10);
+        queued.forEach(Runnable::run);
+
+        assertThatThrownBy(hash::join)
+                .hasCauseInstanceOf(AuthServiceException.class)
+                .satisfies(e -> assertThat(((AuthServiceException) e.getCause()).getStatus())
+                        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(registry.get("healthcare.auth.password.hash").tag("op", "encode").timer().count()).isZero();
+        assertThat(registry.get("healthcare.auth.password.queue").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,125 @@
+#!/bin/bash
+# =============================================================================
+# bench.sh — JMH benchmarks for the services' hot paths
+# =============================================================================
+# Usage:
+#   ./bench.sh run [regex] [JMH options]   # build, run, compare against the baseline
+#   ./bench.sh compare [result.json]       # compare a finished run (default: target/jmh-result.json)
+#   ./bench.sh record  [result.json]       # merge a finished run into baselines/ (summary and raw result)
+#
+# Examples:
+#   ./bench.sh run                          # every suite
+#   ./bench.sh run JwtAuthFilter            # one suite
+#   ./bench.sh run Fhir -p size=20          # one suite, one parameter value
+#
+# compare exits 1 when a benchmark is slower than its baseline by more than
+# BENCH_THRESHOLD_PCT percent (default 10) and by more than both error margins.
+# =============================================================================
+
+set -e
+
+BENCH_DIR="$(cd "$(dirname "$0")" && pwd)"
+SERVICES_DIR="$(dirname "$BENCH_DIR")"
+BASELINE="$BENCH_DIR/baselines/baseline.json"
+BASELINE_RAW="$BENCH_DIR/baselines/jmh-result.json"
+RESULT="$BENCH_DIR/target/jmh-result.json"
+THRESHOLD_PCT="${BENCH_THRESHOLD_PCT:-10}"
+
+build() {
+    echo "🔨 Building benchmarks (services + shared, tests skipped)..."
+    (cd "$SERVICES_DIR" && mvn -q -Pbenchmarks -pl benchmarks -am package -DskipTests)
+}
+
+run() {
+    build
+    echo "⏱  Running JMH ${*:-(all suites)}..."
+    java -jar "$BENCH_DIR/target/benchmarks.jar" "$@" -rf json -rff "$RESULT"
+    compare "$RESULT"
+}
+
+# Reduces a JMH JSON result to one line per benchmark and parameter set:
+#   {"<benchmark> <param=value,...>": {"score": ..., "error": ..., "unit": ...}}
+summarize() {
+    python3 - "$1" <<'EOF'
+import json, sys
+summary = {}
+for r in json.load(open(sys.argv[1])):
+    params = ",".join(f"{k}={v}" for k, v in sorted((r.get("params") or {}).items()))
+    name = r["benchmark"].removeprefix("com.healthcare.") + (f" {params}" if params else "")
+    m = r["primaryMetric"]
+    error = m["scoreError"] if m["scoreError"] == m["scoreError"] else 0.0   # NaN with a single fork and iteration
+    summary[name] = {"score": round(m["score"], 3), "error": round(error, 3), "unit": m["scoreUnit"]}
+json.dump(summary, sys.stdout, indent=2, sort_keys=True)
+print()
+EOF
+}
+
+compare() {
+    local result="${1:-$RESULT}"
+    [ -f "$result" ] || { echo "❌ No result at $result — run ./bench.sh run first"; exit 1; }
+    mkdir -p "$BENCH_DIR/target"
+    summarize "$result" > "$BENCH_DIR/target/jmh-summary.json"
+    python3 - "$BASELINE" "$BENCH_DIR/target/jmh-summary.json" "$THRESHOLD_PCT" <<'EOF'
+import json, sys
+baseline = json.load(open(sys.argv[1]))
+current  = json.load(open(sys.argv[2]))
+threshold = float(sys.argv[3])
+regressions = 0
+print(f"{'benchmark':<70} {'baseline':>12} {'current':>12} {'change':>8}  unit")
+for name, cur in sorted(current.items()):
+    base = baseline.get(name)
+    if base is None or base["unit"] != cur["unit"]:
+        print(f"{name:<70} {'—':>12} {cur['score']:>12.3f} {'new':>8}  {cur['unit']}")
+        continue
+    change = (cur["score"] - base["score"]) / base["score"] * 100 if base["score"] else 0.0
+    # average time (us/op): higher is slower; throughput (ops/s): lower is slower.
+    # Count it only beyond noise as well as the threshold.
+    if cur["unit"].startswith("ops/"):
+        slower = -change > threshold and cur["score"] + cur["error"] < base["score"] - base["error"]
+    else:
+        slower = change > threshold and cur["score"] - cur["error"] > base["score"] + base["error"]
+    regressions += slower
+    flag = "  ⚠ slower" if slower else ""
+    print(f"{name:<70} {base['score']:>12.3f} {cur['score']:>12.3f} {change:>+7.1f}%  {cur['unit']}{flag}")
+if not baseline:
+    print("\nNo baseline recorded yet — ./bench.sh record writes one.")
+if regressions:
+    print(f"\n❌ {regressions} benchmark(s) slower than baseline by more than {threshold:g}%")
+    sys.exit(1)
+EOF
+}
+
+record() {
+    local result="${1:-$RESULT}"
+    [ -f "$result" ] || { echo "❌ No result at $result — run ./bench.sh run first"; exit 1; }
+    mkdir -p "$BENCH_DIR/target"
+    summarize "$result" > "$BENCH_DIR/target/jmh-summary.json"
+    # a run of one suite replaces that suite's entries and keeps the others
+    python3 - "$BASELINE" "$BENCH_DIR/target/jmh-summary.json" <<'EOF'
+import json, sys
+baseline = json.load(open(sys.argv[1]))
+baseline.update(json.load(open(sys.argv[2])))
+with open(sys.argv[1], "w") as out:
+    json.dump(baseline, out, indent=2, sort_keys=True)
+    out.write("\n")
+EOF
+    # keep the raw JMH output the summary came from, merged the same way, so every baseline number can be traced
+    python3 - "$BASELINE_RAW" "$result" <<'EOF'
+import json, os, sys
+def key(r):
+    return r["benchmark"], tuple(sorted((r.get("params") or {}).items()))
+raw = {key(r): r for r in (json.load(open(sys.argv[1])) if os.path.exists(sys.argv[1]) else [])}
+raw.update({key(r): r for r in json.load(open(sys.argv[2]))})
+with open(sys.argv[1], "w") as out:
+    json.dump([raw[k] for k in sorted(raw)], out, indent=2)
+    out.write("\n")
+EOF
+    echo "✅ Baseline written to ${BASELINE#$SERVICES_DIR/} and ${BASELINE_RAW#$SERVICES_DIR/} — commit both with the change they measure"
+}
+
+case "${1:-}" in
+    run)     shift; run "$@" ;;
+    compare) shift; compare "$@" ;;
+    record)  shift; record "$@" ;;
+    *)       sed -n '5,16p' "$0" | sed 's/^# \{0,1\}//'; exit 1 ;;
+esac
@@ -0,0 +1,61 @@
+package com.healthcare.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RBAC lookup on every protected request: first matching prefix of gateway.role-paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GatewayConfigBenchmark {
+
+    private final GatewayConfig config = applicationConfig();
+
+    @Param({
+            "/api/provider/patients/5f1c2e9a-8d7b-4c3e-9a1f-2b6d8e4c7a90/conditions", // first entry
+            "/api/ai/patient/5f1c2e9a-8d7b-4c3e-9a1f-2b6d8e4c7a90/history",          // last entry
+            "/api/patients/me/encounters"                                           // no role required
+    })
+    public String path;
+
+    @Benchmark
+    public String getRequiredRole() {
+        return config.getRequiredRole(path);
+    }
+
+    /**
+     * GatewayConfig as bound from gateway/src/main/resources/application.yml, role-paths in file order.
+     */
+    public static GatewayConfig applicationConfig() {
+        Map<String, String> rolePaths = new LinkedHashMap<>();
+        rolePaths.put("/api/provider/",            "PROVIDER");
+        rolePaths.put("/api/admin/",               "ADMIN");
+        rolePaths.put("/api/encounters/me/",       "PATIENT");
+        rolePaths.put("/api/encounters/provider/", "PROVIDER");
+        rolePaths.put("/api/ai/",                  "PROVIDER");
+        return new GatewayConfig(
+                "http://localhost:8082",
+                5,
+                List.of("/api/auth/register/patient", "/api/auth/register/provider",
+                        "/api/auth/login", "/api/auth/refresh", "/actuator/health"),
+                rolePaths);
+    }
+}
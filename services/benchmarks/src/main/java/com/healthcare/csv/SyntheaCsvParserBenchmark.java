@@ -0,0 +1,129 @@
+package com.healthcare.csv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row decoding of admin CSV uploads: opencsv reads each row into a header map, then every
+ * column is trimmed and converted (UUID, date, timestamp, decimal). Encounters are the
+ * largest Synthea file; patients have the most columns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SyntheaCsvParserBenchmark {
+
+    private static final String ENCOUNTERS_HEADER =
+            "Id,START,STOP,PATIENT,ORGANIZATION,PROVIDER,PAYER,ENCOUNTERCLASS,CODE,DESCRIPTION,"
+            + "BASE_ENCOUNTER_COST,TOTAL_CLAIM_COST,PAYER_COVERAGE,REASONCODE,REASONDESCRIPTION";
+    private static final String PATIENTS_HEADER =
+            "Id,BIRTHDATE,DEATHDATE,SSN,DRIVERS,PASSPORT,PREFIX,FIRST,MIDDLE,LAST,SUFFIX,MAIDEN,MARITAL,"
+            + "RACE,ETHNICITY,GENDER,BIRTHPLACE,ADDRESS,CITY,STATE,COUNTY,FIPS,ZIP,LAT,LON,"
+            + "HEALTHCARE_EXPENSES,HEALTHCARE_COVERAGE,INCOME";
+    private static final OffsetDateTime LATEST = OffsetDateTime.of(2024, 6, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private MockMultipartFile encounters;
+    private MockMultipartFile patients;
+
+    @Setup
+    public void setUp() {
+        encounters = csv("encounters.csv", ENCOUNTERS_HEADER, this::encounterRow);
+        patients   = csv("patients.csv",   PATIENTS_HEADER,   this::patientRow);
+    }
+
+    @Benchmark
+    public List<SyntheaRows.Encounter> parseEncounters() {
+        return SyntheaCsvParser.parseEncounters(encounters);
+    }
+
+    @Benchmark
+    public List<SyntheaRows.Patient> parsePatients() {
+        return SyntheaCsvParser.parsePatients(patients);
+    }
+
+    private interface RowWriter {
+        void write(StringBuilder out, int i, Random random);
+    }
+
+    private MockMultipartFile csv(String name, String header, RowWriter rowWriter) {
+        Random random = new Random(rows);
+        StringBuilder out = new StringBuilder(rows * 320);
+        out.append(header).append('\n');
+        for (int i = 0; i < rows; i++) {
+            rowWriter.write(out, i, random);
+            out.append('\n');
+        }
+        return new MockMultipartFile("file", name, "text/csv", out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void encounterRow(StringBuilder out, int i, Random random) {
+        OffsetDateTime start = LATEST.minusHours(i * 37L + random.nextInt(24));
+        boolean withReason = i % 3 == 0;
+        out.append(new UUID(1, i)).append(',')
+           .append(start).append(',')
+           .append(start.plusMinutes(15 + random.nextInt(45))).append(',')
+           .append(new UUID(2, i % 500)).append(',')
+           .append(new UUID(3, i % 20)).append(',')
+           .append(new UUID(4, i % 120)).append(',')
+           .append(new UUID(5, i % 8)).append(',')
+           .append(i % 4 == 0 ? "wellness" : "ambulatory").append(',')
+           .append("185349003,")
+           .append("Encounter for check up (procedure),")
+           .append("136.80,")
+           .append(String.format(Locale.ROOT, "%.2f", 100 + random.nextDouble() * 900)).append(',')
+           .append("0.00,")
+           .append(withReason ? "10509002" : "").append(',')
+           .append(withReason ? "Acute bronchitis (disorder)" : "");
+    }
+
+    private void patientRow(StringBuilder out, int i, Random random) {
+        out.append(new UUID(2, i)).append(',')
+           .append(LATEST.toLocalDate().minusDays(5_000 + random.nextInt(25_000))).append(',')
+           .append(',')
+           .append("999-").append(10 + i % 90).append('-').append(1000 + i % 9000).append(',')
+           .append("S9999").append(1000 + i % 9000).append(',')
+           .append("X").append(10000000 + i).append("X,")
+           .append(i % 2 == 0 ? "Mr." : "Mrs.").append(',')
+           .append("First").append(i).append(',')
+           .append(',')
+           .append("Last").append(i % 700).append(',')
+           .append(',')
+           .append(',')
+           .append(i % 3 == 0 ? "S" : "M").append(',')
+           .append("white,nonhispanic,")
+           .append(i % 2 == 0 ? "M" : "F").append(',')
+           .append("Boston  Massachusetts  US,")
+           .append(100 + i % 900).append(" Main Street Suite ").append(i % 50).append(',')
+           .append("Boston,Massachusetts,Suffolk County,25025,02101,")
+           .append(String.format(Locale.ROOT, "%.6f", 42.0 + random.nextDouble())).append(',')
+           .append(String.format(Locale.ROOT, "%.6f", -71.0 - random.nextDouble())).append(',')
+           .append(String.format(Locale.ROOT, "%.2f", random.nextDouble() * 500_000)).append(',')
+           .append(String.format(Locale.ROOT, "%.2f", random.nextDouble() * 50_000)).append(',')
+           .append(20_000 + random.nextInt(180_000));
+    }
+}
@@ -0,0 +1,104 @@
+package com.healthcare.fhir;
+
+import com.healthcare.dto.AllergyResponse;
+import com.healthcare.dto.ConditionResponse;
+import com.healthcare.dto.EncounterResponse;
+import com.healthcare.dto.PageResponse;
+import com.healthcare.enums.EncounterStatus;
+import com.healthcare.enums.EncounterType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FHIR R4 searchset bundles served for Accept: application/fhir+json on /api/patients/me/*.
+ * size is the number of resources per bundle: 20 is the default encounter page, 200 a long
+ * condition history.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FhirMapperBenchmark {
+
+    private static final UUID PATIENT_ID = UUID.fromString("5f1c2e9a-8d7b-4c3e-9a1f-2b6d8e4c7a90");
+    private static final OffsetDateTime LATEST = OffsetDateTime.of(2024, 6, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Param({"20", "200"})
+    public int size;
+
+    private PageResponse<EncounterResponse> encounters;
+    private List<ConditionResponse>         conditions;
+    private List<AllergyResponse>           allergies;
+
+    @Setup
+    public void setUp() {
+        List<EncounterResponse> encounterList = new ArrayList<>(size);
+        List<ConditionResponse> conditionList = new ArrayList<>(size);
+        List<AllergyResponse>   allergyList   = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            OffsetDateTime start = LATEST.minusDays(i * 30L);
+            boolean withReason = i % 3 == 0;
+            encounterList.add(new EncounterResponse(
+                    new UUID(1, i), new UUID(4, i % 12), new UUID(3, i % 4),
+                    start, start.plusMinutes(30),
+                    i % 4 == 0 ? "wellness" : "ambulatory",
+                    EncounterStatus.COMPLETED, EncounterType.REGULAR_CONSULTATION,
+                    "185349003", "Encounter for check up (procedure)",
+                    new BigDecimal("136.80"), new BigDecimal("704.20"),
+                    withReason ? "10509002" : null, withReason ? "Acute bronchitis (disorder)" : null));
+
+            LocalDate onset = start.toLocalDate();
+            conditionList.add(new ConditionResponse(
+                    String.valueOf(100000 + i), "http://snomed.info/sct",
+                    "Synthetic condition number " + i + " (disorder)",
+                    onset, i % 3 == 0 ? onset.plusDays(30) : null, i % 3 != 0));
+
+            allergyList.add(new AllergyResponse(
+                    String.valueOf(900000 + i), "http://snomed.info/sct", "Allergy to substance " + i,
+                    "allergy", "environment", onset, null, true,
+                    "247472004", "Wheal (finding)", "MILD",
+                    i % 2 == 0 ? "271807003" : null, i % 2 == 0 ? "Eruption of skin (disorder)" : null,
+                    i % 2 == 0 ? "MODERATE" : null,
+                    null));
+        }
+        encounters = new PageResponse<>(encounterList, size * 5L, 0, size);
+        conditions = conditionList;
+        allergies  = allergyList;
+    }
+
+    @Benchmark
+    public Map<String, Object> encounterBundle() {
+        return FhirMapper.toEncounterBundle(PATIENT_ID, encounters);
+    }
+
+    @Benchmark
+    public Map<String, Object> conditionBundle() {
+        return FhirMapper.toConditionBundle(PATIENT_ID, conditions);
+    }
+
+    @Benchmark
+    public Map<String, Object> allergyBundle() {
+        return FhirMapper.toAllergyBundle(PATIENT_ID, allergies);
+    }
+}
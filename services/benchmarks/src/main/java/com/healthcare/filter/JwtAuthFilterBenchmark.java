@@ -0,0 +1,113 @@
+package com.healthcare.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.config.GatewayConfig;
+import com.healthcare.config.GatewayConfigBenchmark;
+import com.healthcare.jwks.JwksCache;
+import com.healthcare.service.JwtServiceBenchmark;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer-token validation on a protected route, as JwtAuthFilter runs it for every request:
+ * kid extraction, key lookup (cache hit), RS256 verification, the RBAC check and the
+ * forwarded user headers. Tokens are issued by auth-service's JwtService, so claims and
+ * header match production. No trace is in progress, so no traceparent is written.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthFilterBenchmark {
+
+    private static final String PATH = "/api/encounters/me/upcoming";
+
+    private JwtAuthFilter filter;
+    private ServerWebExchange validRequest;
+    private ServerWebExchange tamperedRequest;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        KeyPair keyPair = JwtServiceBenchmark.rsaKeyPair();
+        String token = JwtServiceBenchmark.jwtService(keyPair, JwtServiceBenchmark.KEY_ID)
+                .issueAccessToken(JwtServiceBenchmark.patientUser());
+
+        GatewayConfig config = GatewayConfigBenchmark.applicationConfig();
+        filter = new JwtAuthFilter(
+                config,
+                new StaticJwksCache(config, (RSAPublicKey) keyPair.getPublic()),
+                new ObjectMapper(),
+                new SimpleMeterRegistry(),
+                new StaticListableBeanFactory().getBeanProvider(Propagator.class));
+
+        validRequest    = exchange(token);
+        tamperedRequest = exchange(tamper(token));
+    }
+
+    @Benchmark
+    public void validToken(Blackhole bh) {
+        filter.filter(validRequest, exchange -> {
+            bh.consume(exchange.getRequest().getHeaders());
+            return Mono.empty();
+        }).block();
+    }
+
+    @Benchmark
+    public Object tamperedSignature() {
+        return filter.filter(tamperedRequest, exchange -> Mono.empty())
+                .onErrorResume(e -> Mono.empty())
+                .block();
+    }
+
+    private static ServerWebExchange exchange(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(PATH)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    /** Flips one character of the signature; header and payload still decode. */
+    private static String tamper(String token) {
+        int i = token.lastIndexOf('.') + 1;
+        char replacement = token.charAt(i) == 'A' ? 'B' : 'A';
+        return token.substring(0, i) + replacement + token.substring(i + 1);
+    }
+
+    /** The cache after its startup fetch: every lookup is a hit, nothing calls auth-service. */
+    private static final class StaticJwksCache extends JwksCache {
+
+        private final RSAPublicKey key;
+
+        StaticJwksCache(GatewayConfig config, RSAPublicKey key) {
+            super(null, config);
+            this.key = key;
+        }
+
+        @Override
+        public Mono<RSAPublicKey> getKey(String kid) {
+            return JwtServiceBenchmark.KEY_ID.equals(kid) ? Mono.just(key) : Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.healthcare.service;
+
+import com.healthcare.config.PasswordHashingConfig;
+import com.healthcare.config.SecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashes per second on one thread — the login (verify) and registration (encode) cost
+ * of each setting in auth.password-hashing. With one thread per core ({@code -t}) the score is
+ * the replica's login ceiling, the number to size PasswordHashingConfig.poolSize and the CPU
+ * limit against.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "Password1@";
+
+    /** algorithm-cost: BCrypt cost factor, or PBKDF2 iterations. */
+    @Param({"bcrypt-10", "bcrypt-12", "pbkdf2-310000"})
+    public String encoding;
+
+    private PasswordEncoder encoder;
+    private String          hash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = encoding.split("-");
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setAlgorithm(parts[0]);
+        if (PasswordHashingConfig.BCRYPT.equals(parts[0])) {
+            config.setBcryptCost(Integer.parseInt(parts[1]));
+        } else {
+            config.setPbkdf2Iterations(Integer.parseInt(parts[1]));
+        }
+        encoder = new SecurityConfig().passwordEncoder(config);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+}
@@ -0,0 +1,75 @@
+package com.healthcare.service.impl;
+
+import com.healthcare.config.AiPromptConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What AiAnalysisServiceImpl does with a loaded patient before any Gemini call: the snapshot
+ * fingerprint (canonical condition/allergy items and their SHA-256 digest) and the bounded
+ * analysis prompt, next to the unbounded listing it replaced. Histories are SyntheticHistory's,
+ * from a typical patient up to a 3,000-encounter outlier.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalysisPreparationBenchmark {
+
+    @Param({"30", "300", "1000", "3000"})
+    public int encounters;
+
+    private PatientSnapshot snapshot;
+    private PromptBuilder   promptBuilder;
+    private PromptBuilder   unboundedBuilder;
+
+    @Setup
+    public void setUp() {
+        int[] sizes = switch (encounters) {
+            case 30   -> new int[]{ 8, 1 };
+            case 300  -> new int[]{ 25, 3 };
+            case 1000 -> new int[]{ 45, 4 };
+            case 3000 -> new int[]{ 80, 6 };
+            default   -> throw new IllegalArgumentException("No history shape for " + encounters + " encounters");
+        };
+        snapshot = SyntheticHistory.patient(encounters, sizes[0], sizes[1], encounters);
+        promptBuilder = new PromptBuilder(new AiPromptConfig());
+
+        AiPromptConfig unbounded = new AiPromptConfig();
+        unbounded.setMaxTokens(Integer.MAX_VALUE / PromptBuilder.CHARS_PER_TOKEN);
+        unbounded.setRecentEncounters(Integer.MAX_VALUE);
+        unboundedBuilder = new PromptBuilder(unbounded);
+    }
+
+    @Benchmark
+    public PatientSnapshot snapshotFingerprint() {
+        return PatientSnapshot.of(snapshot.patient(), snapshot.conditions(),
+                snapshot.allergies(), snapshot.encounters());
+    }
+
+    @Benchmark
+    public String analysisPrompt() {
+        return promptBuilder.analysisPrompt(snapshot);
+    }
+
+    /**
+     * Every condition, allergy and encounter, as prompts were built before the token budget.
+     */
+    @Benchmark
+    public String analysisPromptUnbounded() {
+        return unboundedBuilder.analysisPrompt(snapshot);
+    }
+}
@@ -8,14 +8,20 @@ import com.healthcare.jwks.JwksCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import io.micrometer.tracing.propagation.Propagator;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
@@ -26,7 +32,7 @@ import java.util.Base64;
 /**
  * GlobalFilter that runs on every request.
  * - Public paths: pass through without JWT check.
- * - Protected paths: validate RS256 JWT, inject user headers.
+ * - Protected paths: validate RS256 JWT, inject user headers and the W3C traceparent.
  */
 @Component
 public class JwtAuthFilter implements GlobalFilter, Ordered {
@@ -38,13 +44,25 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
     private final GatewayConfig config;
     private final JwksCache jwksCache;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<Propagator> propagators;
+
+    // signature check and claim validation only; key lookup is timed by healthcare.jwks.fetch
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
 
     public JwtAuthFilter(GatewayConfig config,
                          JwksCache jwksCache,
-                         ObjectMapper objectMapper) {
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         ObjectProvider<Propagator> propagators) {
         this.config = config;
         this.jwksCache = jwksCache;
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.propagators = propagators;
+        this.verifyValid   = verifyTimer("valid");
+        this.verifyInvalid = verifyTimer("invalid");
     }
 
     @PostConstruct
@@ -91,12 +109,28 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
                                 headers.set(SecurityConstants.HEADER_USERNAME,  claims.get(SecurityConstants.JWT_CLAIM_USERNAME, String.class));
                                 String fhirId = claims.get(SecurityConstants.JWT_CLAIM_FHIR_ID, String.class);
                                 if (fhirId != null) headers.set(SecurityConstants.HEADER_FHIR_ID, fhirId);
+                                injectTraceContext(exchange, headers);
                             })
                             .build();
                     return chain.filter(exchange.mutate().request(mutatedRequest).build());
                 });
     }
 
+    /**
+     * Writes the gateway's server span as traceparent, so the downstream service continues this
+     * trace. With gateway observability on, the proxy's client span later replaces it with its own,
+     * a child of the same span; with tracing disabled there is no span and nothing is written.
+     */
+    private void injectTraceContext(ServerWebExchange exchange, HttpHeaders headers) {
+        Propagator propagator = propagators.getIfAvailable();
+        if (propagator == null) return;
+        ServerRequestObservationContext.findCurrent(exchange.getAttributes())
+                .map(context -> context.<TracingObservationHandler.TracingContext>get(
+                        TracingObservationHandler.TracingContext.class))
+                .map(TracingObservationHandler.TracingContext::getSpan)
+                .ifPresent(span -> propagator.inject(span.context(), headers, HttpHeaders::set));
+    }
+
     private Mono<Void> checkRole(String path, String role) {
         String required = config.getRequiredRole(path);
         log.info("RBAC check: path={} required={} actual={}", path, required, role);
@@ -121,15 +155,25 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
     }
 
     private Mono<Claims> parseAndValidate(String token, RSAPublicKey publicKey) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             Claims claims = Jwts.parser()
                     .verifyWith(publicKey)
                     .build()
                     .parseSignedClaims(token)
                     .getPayload();
+            sample.stop(verifyValid);
             return Mono.just(claims);
         } catch (JwtException e) {
+            sample.stop(verifyInvalid);
             return Mono.error(new GatewayException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
         }
     }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("healthcare.jwt.verify")
+                .description("RS256 signature and claim validation of bearer tokens")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
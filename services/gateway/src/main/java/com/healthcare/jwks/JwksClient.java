@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthcare.config.GatewayConfig;
 import com.healthcare.exception.GatewayException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -26,23 +28,42 @@ public class JwksClient {
 
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Timer fetchSuccess;
+    private final Timer fetchFailure;
 
-    public JwksClient(GatewayConfig config, ObjectMapper objectMapper) {
+    public JwksClient(GatewayConfig config, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.webClient = WebClient.builder()
                 .baseUrl(config.authServiceUrl())
                 .build();
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.fetchSuccess = fetchTimer("success");
+        this.fetchFailure = fetchTimer("failure");
     }
 
     public Mono<Map<String, RSAPublicKey>> fetchKeys() {
-        return webClient.get()
-                .uri("/.well-known/jwks.json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(this::parseJwks)
-                .doOnError(e -> log.error("Failed to fetch JWKS from auth-service: {}", e.getMessage()))
-                .onErrorMap(e -> !(e instanceof GatewayException),
-                            e -> new GatewayException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return webClient.get()
+                    .uri("/.well-known/jwks.json")
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .map(this::parseJwks)
+                    .doOnSuccess(keys -> sample.stop(fetchSuccess))
+                    .doOnError(e -> {
+                        sample.stop(fetchFailure);
+                        log.error("Failed to fetch JWKS from auth-service: {}", e.getMessage());
+                    });
+        }).onErrorMap(e -> !(e instanceof GatewayException),
+                      e -> new GatewayException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
+    }
+
+    private Timer fetchTimer(String outcome) {
+        return Timer.builder("healthcare.jwks.fetch")
+                .description("JWKS fetches from auth-service, parsing included")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     private Map<String, RSAPublicKey> parseJwks(String json) {
@@ -1,6 +1,7 @@
 package com.healthcare.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthcare.dao.AllergyDao.AllergySummary;
 import com.healthcare.entity.Allergy;
 
 import java.time.LocalDate;
@@ -56,4 +57,24 @@ public record AllergyResponse(
                 a.getNotes()
         );
     }
+
+    public static AllergyResponse from(AllergySummary a) {
+        return new AllergyResponse(
+                a.getCode(),
+                a.getSystem(),
+                a.getDescription(),
+                a.getAllergyType(),
+                a.getCategory(),
+                a.getStartDate(),
+                a.getStopDate(),
+                a.isActive(),
+                a.getReaction1(),
+                a.getDescription1(),
+                a.getSeverity1(),
+                a.getReaction2(),
+                a.getDescription2(),
+                a.getSeverity2(),
+                a.getNotes()
+        );
+    }
 }
@@ -1,6 +1,7 @@
 package com.healthcare.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthcare.dao.EncounterDao.EncounterSummary;
 import com.healthcare.entity.Encounter;
 import com.healthcare.enums.EncounterStatus;
 import com.healthcare.enums.EncounterType;
@@ -69,4 +70,23 @@ public record EncounterResponse(
                 e.getReasonDesc()
         );
     }
+
+    public static EncounterResponse from(EncounterSummary e) {
+        return new EncounterResponse(
+                e.getId(),
+                e.getProviderId(),
+                e.getOrganizationId(),
+                e.getStartTime(),
+                e.getStopTime(),
+                e.getEncounterClass(),
+                e.getStatus(),
+                e.getEncounterType(),
+                e.getCode(),
+                e.getDescription(),
+                e.getBaseCost(),
+                e.getTotalCost(),
+                e.getReasonCode(),
+                e.getReasonDesc()
+        );
+    }
 }
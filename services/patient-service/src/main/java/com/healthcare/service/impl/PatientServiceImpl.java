@@ -20,8 +20,6 @@ import com.healthcare.exception.PatientServiceException;
 import com.healthcare.service.PatientService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -97,26 +95,16 @@ public class PatientServiceImpl implements PatientService {
     @Override
     @Transactional(readOnly = true)
     public PageResponse<EncounterResponse> getEncounters(UUID authId, Pageable pageable) {
-        Patient patient = requirePatient(authId);
-
-        List<EncounterResponse> all = encounterDao.findByPatientId(patient.getId())
-                .stream()
-                .map(EncounterResponse::from)
-                .collect(Collectors.toList());
-
-        int start  = (int) pageable.getOffset();
-        int end    = Math.min(start + pageable.getPageSize(), all.size());
-        List<EncounterResponse> slice = (start >= all.size()) ? List.of() : all.subList(start, end);
-
-        Page<EncounterResponse> page = new PageImpl<>(slice, pageable, all.size());
-        return PageResponse.from(page);
+        UUID patientId = requirePatientId(authId);
+        return PageResponse.from(encounterDao.findSummariesByPatientId(patientId, pageable)
+                .map(EncounterResponse::from));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ConditionResponse> getConditions(UUID authId) {
-        Patient patient = requirePatient(authId);
-        return conditionDao.findByIdPatientId(patient.getId())
+        UUID patientId = requirePatientId(authId);
+        return conditionDao.findSummariesByPatientId(patientId)
                 .stream()
                 .map(ConditionResponse::from)
                 .collect(Collectors.toList());
@@ -125,8 +113,8 @@ public class PatientServiceImpl implements PatientService {
     @Override
     @Transactional(readOnly = true)
     public List<AllergyResponse> getAllergies(UUID authId) {
-        Patient patient = requirePatient(authId);
-        return allergyDao.findByIdPatientId(patient.getId())
+        UUID patientId = requirePatientId(authId);
+        return allergyDao.findSummariesByPatientId(patientId)
                 .stream()
                 .map(AllergyResponse::from)
                 .collect(Collectors.toList());
@@ -136,15 +124,23 @@ public class PatientServiceImpl implements PatientService {
 
     private Patient requirePatient(UUID authId) {
         return patientDao.findByAuthId(authId)
-                .orElseThrow(() -> {
-                    log.warn("Patient not found for authId={}", authId);
-                    auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_PATIENTS, Outcome.FAILURE)
-                            .withAuthId(authId.toString())
-                            .withUserRole(UserRole.PATIENT));
-                    return new PatientServiceException(
-                            HttpStatus.NOT_FOUND,
-                            PatientServiceException.PATIENT_NOT_FOUND,
-                            "Patient not found for authId=" + authId);
-                });
+                .orElseThrow(() -> patientNotFound(authId));
+    }
+
+    /** For the chart reads, which need the patient's id but none of its ~40 columns. */
+    private UUID requirePatientId(UUID authId) {
+        return patientDao.findIdByAuthId(authId)
+                .orElseThrow(() -> patientNotFound(authId));
+    }
+
+    private PatientServiceException patientNotFound(UUID authId) {
+        log.warn("Patient not found for authId={}", authId);
+        auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_PATIENTS, Outcome.FAILURE)
+                .withAuthId(authId.toString())
+                .withUserRole(UserRole.PATIENT));
+        return new PatientServiceException(
+                HttpStatus.NOT_FOUND,
+                PatientServiceException.PATIENT_NOT_FOUND,
+                "Patient not found for authId=" + authId);
     }
 }
@@ -11,11 +11,9 @@ import com.healthcare.dto.EncounterResponse;
 import com.healthcare.dto.PageResponse;
 import com.healthcare.dto.PatientProfileResponse;
 import com.healthcare.dto.UpdatePatientRequest;
-import com.healthcare.entity.Allergy;
-import com.healthcare.entity.AllergyId;
-import com.healthcare.entity.Condition;
-import com.healthcare.entity.ConditionId;
-import com.healthcare.entity.Encounter;
+import com.healthcare.dao.AllergyDao.AllergySummary;
+import com.healthcare.dao.ConditionDao.ConditionSummary;
+import com.healthcare.dao.EncounterDao.EncounterSummary;
 import com.healthcare.entity.Patient;
 import com.healthcare.exception.PatientServiceException;
 import com.healthcare.service.impl.PatientServiceImpl;
@@ -24,13 +22,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.HttpStatus;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -138,23 +139,27 @@ class PatientServiceImplTest {
 
     @Test
     void getEncounters_returnsPaginatedEncounters() {
-        when(patientDao.findByAuthId(authId)).thenReturn(Optional.of(patient));
-        Encounter encounter = new Encounter(UUID.randomUUID(), OffsetDateTime.now());
-        when(encounterDao.findByPatientId(any())).thenReturn(List.of(encounter));
-
+        when(patientDao.findIdByAuthId(authId)).thenReturn(Optional.of(patientId));
         PageRequest pageable = PageRequest.of(0, 20, Sort.by("startTime").descending());
+        EncounterSummary encounter = projection(EncounterSummary.class, Map.of(
+                "id", UUID.randomUUID(), "startTime", OffsetDateTime.now(), "encounterClass", "wellness"));
+        when(encounterDao.findSummariesByPatientId(patientId, pageable))
+                .thenReturn(new PageImpl<>(List.of(encounter), pageable, 1));
+
         PageResponse<EncounterResponse> response = service.getEncounters(authId, pageable);
 
         assertThat(response.total()).isEqualTo(1);
         assertThat(response.data()).hasSize(1);
+        assertThat(response.data().get(0).encounterClass()).isEqualTo("wellness");
     }
 
     @Test
     void getEncounters_returnsEmpty_whenNoEncounters() {
-        when(patientDao.findByAuthId(authId)).thenReturn(Optional.of(patient));
-        when(encounterDao.findByPatientId(any())).thenReturn(List.of());
-
+        when(patientDao.findIdByAuthId(authId)).thenReturn(Optional.of(patientId));
         PageRequest pageable = PageRequest.of(0, 20, Sort.by("startTime").descending());
+        when(encounterDao.findSummariesByPatientId(patientId, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
         PageResponse<EncounterResponse> response = service.getEncounters(authId, pageable);
 
         assertThat(response.total()).isEqualTo(0);
@@ -163,38 +168,51 @@ class PatientServiceImplTest {
 
     @Test
     void getEncounters_returnsEmptySlice_whenPageBeyondData() {
-        when(patientDao.findByAuthId(authId)).thenReturn(Optional.of(patient));
-        Encounter encounter = new Encounter(UUID.randomUUID(), OffsetDateTime.now());
-        when(encounterDao.findByPatientId(any())).thenReturn(List.of(encounter));
-
+        when(patientDao.findIdByAuthId(authId)).thenReturn(Optional.of(patientId));
         PageRequest pageable = PageRequest.of(5, 20, Sort.by("startTime").descending());
+        when(encounterDao.findSummariesByPatientId(patientId, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 1));
+
         PageResponse<EncounterResponse> response = service.getEncounters(authId, pageable);
 
         assertThat(response.total()).isEqualTo(1);
+        assertThat(response.page()).isEqualTo(5);
         assertThat(response.data()).isEmpty();
     }
 
+    @Test
+    void getEncounters_throws404_whenPatientNotFound() {
+        when(patientDao.findIdByAuthId(authId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getEncounters(authId, PageRequest.of(0, 20)))
+                .isInstanceOf(PatientServiceException.class)
+                .satisfies(e -> assertThat(((PatientServiceException) e).getStatus())
+                        .isEqualTo(HttpStatus.NOT_FOUND));
+        verify(auditLogDao).insert(any());
+    }
+
     // -------------------------------------------------------------------------
     // getConditions
     // -------------------------------------------------------------------------
 
     @Test
     void getConditions_returnsConditions() {
-        when(patientDao.findByAuthId(authId)).thenReturn(Optional.of(patient));
-        Condition condition = new Condition(
-                new ConditionId(patientId, UUID.randomUUID(), "44054006"), LocalDate.now());
-        when(conditionDao.findByIdPatientId(any())).thenReturn(List.of(condition));
+        when(patientDao.findIdByAuthId(authId)).thenReturn(Optional.of(patientId));
+        ConditionSummary condition = projection(ConditionSummary.class, Map.of(
+                "code", "44054006", "startDate", LocalDate.now()));
+        when(conditionDao.findSummariesByPatientId(patientId)).thenReturn(List.of(condition));
 
         List<ConditionResponse> response = service.getConditions(authId);
 
         assertThat(response).hasSize(1);
         assertThat(response.get(0).code()).isEqualTo("44054006");
+        assertThat(response.get(0).ongoing()).isTrue();
     }
 
     @Test
     void getConditions_returnsEmpty_whenNone() {
-        when(patientDao.findByAuthId(authId)).thenReturn(Optional.of(patient));
-        when(conditionDao.findByIdPatientId(any())).thenReturn(List.of());
+        when(patientDao.findIdByAuthId(authId)).thenReturn(Optional.of(patientId));
+        when(conditionDao.findSummariesByPatientId(patientId)).thenReturn(List.of());
 
         assertThat(service.getConditions(authId)).isEmpty();
     }
@@ -205,22 +223,28 @@ class PatientServiceImplTest {
 
     @Test
     void getAllergies_returnsAllergies() {
-        when(patientDao.findByAuthId(authId)).thenReturn(Optional.of(patient));
-        Allergy allergy = new Allergy(
-                new AllergyId(patientId, UUID.randomUUID(), "111088007"), LocalDate.now());
-        when(allergyDao.findByIdPatientId(any())).thenReturn(List.of(allergy));
+        when(patientDao.findIdByAuthId(authId)).thenReturn(Optional.of(patientId));
+        AllergySummary allergy = projection(AllergySummary.class, Map.of(
+                "code", "111088007", "startDate", LocalDate.now(), "stopDate", LocalDate.now()));
+        when(allergyDao.findSummariesByPatientId(patientId)).thenReturn(List.of(allergy));
 
         List<AllergyResponse> response = service.getAllergies(authId);
 
         assertThat(response).hasSize(1);
         assertThat(response.get(0).code()).isEqualTo("111088007");
+        assertThat(response.get(0).active()).isFalse();
     }
 
     @Test
     void getAllergies_returnsEmpty_whenNone() {
-        when(patientDao.findByAuthId(authId)).thenReturn(Optional.of(patient));
-        when(allergyDao.findByIdPatientId(any())).thenReturn(List.of());
+        when(patientDao.findIdByAuthId(authId)).thenReturn(Optional.of(patientId));
+        when(allergyDao.findSummariesByPatientId(patientId)).thenReturn(List.of());
 
         assertThat(service.getAllergies(authId)).isEmpty();
     }
+
+    /** A DAO projection backed by a map, as Spring Data builds it from a query tuple. */
+    private static <T> T projection(Class<T> type, Map<String, Object> values) {
+        return new SpelAwareProxyProjectionFactory().createProjection(type, values);
+    }
 }
@@ -1,5 +1,6 @@
 package com.healthcare.controller;
 
+import com.healthcare.config.DataSourceWorkload;
 import com.healthcare.dto.ImportResult;
 import com.healthcare.service.AdminImportService;
 import org.springframework.http.MediaType;
@@ -10,14 +11,20 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.function.Supplier;
+
 /**
  * Admin-only import endpoints. ADMIN role enforced at gateway (/api/admin/**).
  * Call endpoints in FK order: organizations → patients → providers → encounters → conditions → allergies
+ * Each import runs on the import connection pool (healthcare.datasource.pools.import), so a large
+ * file never holds the connections that serve provider reads.
  */
 @RestController
 @RequestMapping("/api/admin/import")
 public class AdminImportController {
 
+    static final String IMPORT_POOL = "import";
+
     private final AdminImportService adminImportService;
 
     public AdminImportController(AdminImportService adminImportService) {
@@ -26,31 +33,35 @@ public class AdminImportController {
 
     @PostMapping(value = "/organizations", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ImportResult> importOrganizations(@RequestParam("file") MultipartFile file) {
-        return ResponseEntity.ok(adminImportService.importOrganizations(file));
+        return ResponseEntity.ok(onImportPool(() -> adminImportService.importOrganizations(file)));
     }
 
     @PostMapping(value = "/patients", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ImportResult> importPatients(@RequestParam("file") MultipartFile file) {
-        return ResponseEntity.ok(adminImportService.importPatients(file));
+        return ResponseEntity.ok(onImportPool(() -> adminImportService.importPatients(file)));
     }
 
     @PostMapping(value = "/providers", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ImportResult> importProviders(@RequestParam("file") MultipartFile file) {
-        return ResponseEntity.ok(adminImportService.importProviders(file));
+        return ResponseEntity.ok(onImportPool(() -> adminImportService.importProviders(file)));
     }
 
     @PostMapping(value = "/encounters", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ImportResult> importEncounters(@RequestParam("file") MultipartFile file) {
-        return ResponseEntity.ok(adminImportService.importEncounters(file));
+        return ResponseEntity.ok(onImportPool(() -> adminImportService.importEncounters(file)));
     }
 
     @PostMapping(value = "/conditions", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ImportResult> importConditions(@RequestParam("file") MultipartFile file) {
-        return ResponseEntity.ok(adminImportService.importConditions(file));
+        return ResponseEntity.ok(onImportPool(() -> adminImportService.importConditions(file)));
     }
 
     @PostMapping(value = "/allergies", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ImportResult> importAllergies(@RequestParam("file") MultipartFile file) {
-        return ResponseEntity.ok(adminImportService.importAllergies(file));
+        return ResponseEntity.ok(onImportPool(() -> adminImportService.importAllergies(file)));
+    }
+
+    private static ImportResult onImportPool(Supplier<ImportResult> importCall) {
+        return DataSourceWorkload.call(IMPORT_POOL, importCall);
     }
 }
@@ -1,6 +1,7 @@
 package com.healthcare.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthcare.dao.AllergyDao.AllergySummary;
 import com.healthcare.entity.Allergy;
 
 import java.time.LocalDate;
@@ -26,4 +27,16 @@ public record AllergyResponse(
                 a.getStartDate(),
                 a.getStopDate());
     }
+
+    public static AllergyResponse from(AllergySummary a) {
+        return new AllergyResponse(
+                a.getCode(),
+                a.getSystem(),
+                a.getDescription(),
+                a.getAllergyType(),
+                a.getCategory(),
+                a.getSeverity1(),
+                a.getStartDate(),
+                a.getStopDate());
+    }
 }
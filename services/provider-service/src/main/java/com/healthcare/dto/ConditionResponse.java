@@ -1,6 +1,7 @@
 package com.healthcare.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthcare.dao.ConditionDao.ConditionSummary;
 import com.healthcare.entity.Condition;
 
 import java.time.LocalDate;
@@ -22,4 +23,14 @@ public record ConditionResponse(
                 c.getStopDate(),
                 c.getStopDate() == null ? "active" : "resolved");
     }
+
+    public static ConditionResponse from(ConditionSummary c) {
+        return new ConditionResponse(
+                c.getCode(),
+                c.getSystem(),
+                c.getDescription(),
+                c.getStartDate(),
+                c.getStopDate(),
+                c.isOngoing() ? "active" : "resolved");
+    }
 }
@@ -1,6 +1,7 @@
 package com.healthcare.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthcare.dao.PatientDao.PatientSummary;
 import com.healthcare.entity.Patient;
 
 import java.time.LocalDate;
@@ -26,4 +27,15 @@ public record PatientSummaryResponse(
                 p.getPhone(),
                 lastEncounterDate);
     }
+
+    public static PatientSummaryResponse from(PatientSummary p, OffsetDateTime lastEncounterDate) {
+        return new PatientSummaryResponse(
+                p.getId(),
+                p.getFirstName(),
+                p.getLastName(),
+                p.getBirthdate(),
+                p.getGender() != null ? p.getGender().name() : null,
+                p.getPhone(),
+                lastEncounterDate);
+    }
 }
@@ -1,8 +1,10 @@
 package com.healthcare.service.impl;
 
+import com.healthcare.config.ReferenceDataCache;
 import com.healthcare.csv.SyntheaCsvParser;
 import com.healthcare.csv.SyntheaRows;
 import com.healthcare.dao.AllergyDao;
+import com.healthcare.dao.BatchLoaders;
 import com.healthcare.dao.ConditionDao;
 import com.healthcare.dao.EncounterDao;
 import com.healthcare.dao.OrganizationDao;
@@ -19,16 +21,23 @@ import com.healthcare.entity.Patient;
 import com.healthcare.entity.Provider;
 import com.healthcare.enums.Gender;
 import com.healthcare.service.AdminImportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -45,22 +54,30 @@ public class AdminImportServiceImpl implements AdminImportService {
     private final ConditionDao    conditionDao;
     private final AllergyDao      allergyDao;
 
+    private final ObjectProvider<ReferenceDataCache> referenceDataCache;
+    private final MeterRegistry                      meterRegistry;
+
     public AdminImportServiceImpl(OrganizationDao organizationDao,
                                   PatientDao patientDao,
                                   ProviderDao providerDao,
                                   EncounterDao encounterDao,
                                   ConditionDao conditionDao,
-                                  AllergyDao allergyDao) {
+                                  AllergyDao allergyDao,
+                                  ObjectProvider<ReferenceDataCache> referenceDataCache,
+                                  MeterRegistry meterRegistry) {
         this.organizationDao = organizationDao;
         this.patientDao      = patientDao;
         this.providerDao     = providerDao;
         this.encounterDao    = encounterDao;
         this.conditionDao    = conditionDao;
         this.allergyDao      = allergyDao;
+        this.referenceDataCache = referenceDataCache;
+        this.meterRegistry      = meterRegistry;
     }
 
     @Override
     public ImportResult importOrganizations(MultipartFile file) {
+        long started = System.nanoTime();
         var rows = SyntheaCsvParser.parseOrganizations(file);
         if (rows.isEmpty()) return ImportResult.empty();
 
@@ -77,14 +94,15 @@ public class AdminImportServiceImpl implements AdminImportService {
                 .map(this::toOrganization)
                 .toList();
         organizationDao.saveAll(toSave);
+        if (!toSave.isEmpty()) referenceDataCache.ifAvailable(ReferenceDataCache::changed);
         ImportResult result = new ImportResult(rows.size(), toSave.size(), existing.size(), skippedInvalid);
-        log.info("Import organizations: total={}, imported={}, skippedDuplicate={}, skippedInvalid={}",
-                result.total(), result.imported(), result.skippedDuplicate(), result.skippedInvalid());
+        record("organizations", result, started);
         return result;
     }
 
     @Override
     public ImportResult importPatients(MultipartFile file) {
+        long started = System.nanoTime();
         var rows = SyntheaCsvParser.parsePatients(file);
         if (rows.isEmpty()) return ImportResult.empty();
 
@@ -104,13 +122,13 @@ public class AdminImportServiceImpl implements AdminImportService {
                 .toList();
         patientDao.saveAll(toSave);
         ImportResult result = new ImportResult(rows.size(), toSave.size(), existing.size(), skippedInvalid);
-        log.info("Import patients: total={}, imported={}, skippedDuplicate={}, skippedInvalid={}",
-                result.total(), result.imported(), result.skippedDuplicate(), result.skippedInvalid());
+        record("patients", result, started);
         return result;
     }
 
     @Override
     public ImportResult importProviders(MultipartFile file) {
+        long started = System.nanoTime();
         var rows = SyntheaCsvParser.parseProviders(file);
         if (rows.isEmpty()) return ImportResult.empty();
 
@@ -128,14 +146,15 @@ public class AdminImportServiceImpl implements AdminImportService {
                 .map(this::toProvider)
                 .toList();
         providerDao.saveAll(toSave);
+        if (!toSave.isEmpty()) referenceDataCache.ifAvailable(ReferenceDataCache::changed);
         ImportResult result = new ImportResult(rows.size(), toSave.size(), existing.size(), skippedInvalid);
-        log.info("Import providers: total={}, imported={}, skippedDuplicate={}, skippedInvalid={}",
-                result.total(), result.imported(), result.skippedDuplicate(), result.skippedInvalid());
+        record("providers", result, started);
         return result;
     }
 
     @Override
     public ImportResult importEncounters(MultipartFile file) {
+        long started = System.nanoTime();
         var rows = SyntheaCsvParser.parseEncounters(file);
         if (rows.isEmpty()) return ImportResult.empty();
 
@@ -154,13 +173,13 @@ public class AdminImportServiceImpl implements AdminImportService {
                 .toList();
         encounterDao.saveAll(toSave);
         ImportResult result = new ImportResult(rows.size(), toSave.size(), existing.size(), skippedInvalid);
-        log.info("Import encounters: total={}, imported={}, skippedDuplicate={}, skippedInvalid={}",
-                result.total(), result.imported(), result.skippedDuplicate(), result.skippedInvalid());
+        record("encounters", result, started);
         return result;
     }
 
     @Override
     public ImportResult importConditions(MultipartFile file) {
+        long started = System.nanoTime();
         var rows = SyntheaCsvParser.parseConditions(file);
         if (rows.isEmpty()) return ImportResult.empty();
 
@@ -181,13 +200,13 @@ public class AdminImportServiceImpl implements AdminImportService {
                 .toList();
         conditionDao.saveAll(toSave);
         ImportResult result = new ImportResult(rows.size(), toSave.size(), existing.size(), skippedInvalid);
-        log.info("Import conditions: total={}, imported={}, skippedDuplicate={}, skippedInvalid={}",
-                result.total(), result.imported(), result.skippedDuplicate(), result.skippedInvalid());
+        record("conditions", result, started);
         return result;
     }
 
     @Override
     public ImportResult importAllergies(MultipartFile file) {
+        long started = System.nanoTime();
         var rows = SyntheaCsvParser.parseAllergies(file);
         if (rows.isEmpty()) return ImportResult.empty();
 
@@ -208,8 +227,7 @@ public class AdminImportServiceImpl implements AdminImportService {
                 .toList();
         allergyDao.saveAll(toSave);
         ImportResult result = new ImportResult(rows.size(), toSave.size(), existing.size(), skippedInvalid);
-        log.info("Import allergies: total={}, imported={}, skippedDuplicate={}, skippedInvalid={}",
-                result.total(), result.imported(), result.skippedDuplicate(), result.skippedInvalid());
+        record("allergies", result, started);
         return result;
     }
 
@@ -323,12 +341,54 @@ public class AdminImportServiceImpl implements AdminImportService {
     // Helpers
     // -------------------------------------------------------------------------
 
+    // in chunks: one IN list binds a parameter per id, and Postgres caps a statement at 65,535
     private <E> Set<UUID> existingIds(JpaRepository<E, UUID> dao,
                                        List<UUID> ids,
                                        Function<E, UUID> getId) {
-        if (ids.isEmpty()) return Set.of();
-        return dao.findAllById(ids).stream()
-                .map(getId)
-                .collect(Collectors.toSet());
+        Set<UUID> existing = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += BatchLoaders.MAX_BATCH_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + BatchLoaders.MAX_BATCH_SIZE));
+            dao.findAllById(chunk).forEach(e -> existing.add(getId.apply(e)));
+        }
+        return existing;
+    }
+
+    /**
+     * Counts the rows into healthcare.import.rows and times the import into healthcare.import.duration
+     * once the transaction has committed, so the time covers the flush of the batched inserts and
+     * rolled-back imports count nothing.
+     */
+    private void record(String entity, ImportResult result, long started) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordCommitted(entity, result, started);
+                }
+            });
+        } else {
+            recordCommitted(entity, result, started);
+        }
+    }
+
+    private void recordCommitted(String entity, ImportResult result, long started) {
+        long elapsedNanos = System.nanoTime() - started;
+        Timer.builder("healthcare.import.duration")
+                .description("CSV import from upload parsed to transaction committed")
+                .tag("entity", entity)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        countRows(entity, "imported",          result.imported());
+        countRows(entity, "skipped_duplicate", result.skippedDuplicate());
+        countRows(entity, "skipped_invalid",   result.skippedInvalid());
+
+        long rowsPerSecond = elapsedNanos > 0 ? result.total() * TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+        log.info("Import {}: total={}, imported={}, skippedDuplicate={}, skippedInvalid={}, rowsPerSecond={}",
+                entity, result.total(), result.imported(), result.skippedDuplicate(), result.skippedInvalid(),
+                rowsPerSecond);
+    }
+
+    private void countRows(String entity, String outcome, int rows) {
+        meterRegistry.counter("healthcare.import.rows", "entity", entity, "outcome", outcome).increment(rows);
     }
 }
@@ -1,10 +1,14 @@
 package com.healthcare.service.impl;
 
+import com.healthcare.dao.AiAnalysisTriggerDao;
 import com.healthcare.dao.AllergyDao;
 import com.healthcare.dao.AuditLogDao;
+import com.healthcare.dao.BatchLoaders;
 import com.healthcare.dao.ConditionDao;
 import com.healthcare.dao.EncounterDao;
+import com.healthcare.dao.EncounterDao.LatestEncounter;
 import com.healthcare.dao.PatientDao;
+import com.healthcare.dao.PatientDao.PatientSummary;
 import com.healthcare.dao.ProviderDao;
 import com.healthcare.dto.AddAllergyRequest;
 import com.healthcare.dto.AddConditionRequest;
@@ -22,6 +26,7 @@ import com.healthcare.entity.Encounter;
 import com.healthcare.entity.Patient;
 import com.healthcare.entity.Provider;
 import com.healthcare.enums.ActionType;
+import com.healthcare.enums.AiTriggerType;
 import com.healthcare.enums.Outcome;
 import com.healthcare.enums.UserRole;
 import com.healthcare.exception.ProviderServiceException;
@@ -55,19 +60,25 @@ public class ProviderServiceImpl implements ProviderService {
     private final ConditionDao conditionDao;
     private final AllergyDao   allergyDao;
     private final AuditLogDao  auditLogDao;
+    private final AiAnalysisTriggerDao aiAnalysisTriggerDao;
+    private final BatchLoaders batchLoaders;
 
     public ProviderServiceImpl(ProviderDao providerDao,
                                PatientDao patientDao,
                                EncounterDao encounterDao,
                                ConditionDao conditionDao,
                                AllergyDao allergyDao,
-                               AuditLogDao auditLogDao) {
+                               AuditLogDao auditLogDao,
+                               AiAnalysisTriggerDao aiAnalysisTriggerDao,
+                               BatchLoaders batchLoaders) {
         this.providerDao  = providerDao;
         this.patientDao   = patientDao;
         this.encounterDao = encounterDao;
         this.conditionDao = conditionDao;
         this.allergyDao   = allergyDao;
         this.auditLogDao  = auditLogDao;
+        this.aiAnalysisTriggerDao = aiAnalysisTriggerDao;
+        this.batchLoaders = batchLoaders;
     }
 
     @Override
@@ -88,26 +99,10 @@ public class ProviderServiceImpl implements ProviderService {
     public List<PatientSummaryResponse> getPatients(UUID authId, Pageable pageable) {
         Provider provider = requireProvider(authId);
 
-        List<Encounter> encounters = encounterDao.findByProviderId(provider.getId());
-
-        // Collect unique patient IDs with their latest encounter time
-        Map<UUID, Encounter> latestByPatient = encounters.stream()
-                .collect(Collectors.toMap(
-                        Encounter::getPatientId,
-                        e -> e,
-                        (a, b) -> a.getStartTime() != null && b.getStartTime() != null
-                                && a.getStartTime().isAfter(b.getStartTime()) ? a : b));
-
-        List<PatientSummaryResponse> result = latestByPatient.entrySet().stream()
-                .map(entry -> {
-                    UUID patientId  = entry.getKey();
-                    Encounter latest = entry.getValue();
-                    return patientDao.findById(patientId)
-                            .map(p -> PatientSummaryResponse.from(p, latest.getStartTime()))
-                            .orElse(null);
-                })
-                .filter(java.util.Objects::nonNull)
-                .sorted(Comparator.comparing(PatientSummaryResponse::lastEncounterDate,
+        // one row per patient with their latest encounter; page on those, then list columns for the page in one query
+        List<LatestEncounter> latest = encounterDao.findLatestEncounterPerPatient(provider.getId())
+                .stream()
+                .sorted(Comparator.comparing(LatestEncounter::getStartTime,
                         Comparator.nullsLast(Comparator.reverseOrder())))
                 .collect(Collectors.toList());
 
@@ -118,8 +113,15 @@ public class ProviderServiceImpl implements ProviderService {
 
         // Manual pagination
         int start = (int) pageable.getOffset();
-        int end   = Math.min(start + pageable.getPageSize(), result.size());
-        return start >= result.size() ? List.of() : result.subList(start, end);
+        if (start >= latest.size()) return List.of();
+        List<LatestEncounter> page = latest.subList(start, Math.min(start + pageable.getPageSize(), latest.size()));
+
+        Map<UUID, PatientSummary> patients = batchLoaders.patientSummaries()
+                .loadMany(page.stream().map(LatestEncounter::getPatientId).toList());
+        return page.stream()
+                .filter(row -> patients.containsKey(row.getPatientId()))
+                .map(row -> PatientSummaryResponse.from(patients.get(row.getPatientId()), row.getStartTime()))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -141,15 +143,15 @@ public class ProviderServiceImpl implements ProviderService {
     @Transactional(readOnly = true)
     public List<ConditionResponse> getPatientConditions(UUID authId, UUID patientId) {
         Provider provider = requireProvider(authId);
-        Patient  patient  = requirePatient(patientId);
-        requireEncounterAccess(patient.getId(), provider.getId(), authId);
+        requirePatientExists(patientId);
+        requireEncounterAccess(patientId, provider.getId(), authId);
 
         auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_CONDITIONS, Outcome.SUCCESS)
                 .withAuthId(authId.toString())
                 .withUserRole(UserRole.PROVIDER)
-                .withResourceId(patient.getId()));
+                .withResourceId(patientId));
 
-        return conditionDao.findByIdPatientId(patient.getId())
+        return conditionDao.findSummariesByPatientId(patientId)
                 .stream()
                 .map(ConditionResponse::from)
                 .collect(Collectors.toList());
@@ -159,15 +161,15 @@ public class ProviderServiceImpl implements ProviderService {
     @Transactional(readOnly = true)
     public List<AllergyResponse> getPatientAllergies(UUID authId, UUID patientId) {
         Provider provider = requireProvider(authId);
-        Patient  patient  = requirePatient(patientId);
-        requireEncounterAccess(patient.getId(), provider.getId(), authId);
+        requirePatientExists(patientId);
+        requireEncounterAccess(patientId, provider.getId(), authId);
 
         auditLogDao.insert(new AuditLog(ActionType.READ, RESOURCE_ALLERGIES, Outcome.SUCCESS)
                 .withAuthId(authId.toString())
                 .withUserRole(UserRole.PROVIDER)
-                .withResourceId(patient.getId()));
+                .withResourceId(patientId));
 
-        return allergyDao.findByIdPatientId(patient.getId())
+        return allergyDao.findSummariesByPatientId(patientId)
                 .stream()
                 .map(AllergyResponse::from)
                 .collect(Collectors.toList());
@@ -198,6 +200,10 @@ public class ProviderServiceImpl implements ProviderService {
         condition.setStopDate(request.stopDate());
         conditionDao.save(condition);
 
+        // outbox row commits with the condition; ai-service re-analyzes after the debounce window
+        aiAnalysisTriggerDao.markPatient(encounter.getPatientId(), AiTriggerType.CONDITION_ADDED.name(),
+                request.code(), authId, encounterId);
+
         auditLogDao.insert(new AuditLog(ActionType.CREATE, RESOURCE_CONDITIONS, Outcome.SUCCESS)
                 .withAuthId(authId.toString())
                 .withUserRole(UserRole.PROVIDER)
@@ -238,6 +244,9 @@ public class ProviderServiceImpl implements ProviderService {
         allergy.setSeverity2(request.severity2());
         allergyDao.save(allergy);
 
+        aiAnalysisTriggerDao.markPatient(encounter.getPatientId(), AiTriggerType.ALLERGY_ADDED.name(),
+                request.code(), authId, encounterId);
+
         auditLogDao.insert(new AuditLog(ActionType.CREATE, RESOURCE_ALLERGIES, Outcome.SUCCESS)
                 .withAuthId(authId.toString())
                 .withUserRole(UserRole.PROVIDER)
@@ -267,6 +276,16 @@ public class ProviderServiceImpl implements ProviderService {
                         "Patient not found: " + patientId));
     }
 
+    /** For the chart reads, which check the patient exists but return none of its columns. */
+    private void requirePatientExists(UUID patientId) {
+        if (!patientDao.existsById(patientId)) {
+            throw new ProviderServiceException(
+                    HttpStatus.NOT_FOUND,
+                    ProviderServiceException.PATIENT_NOT_FOUND,
+                    "Patient not found: " + patientId);
+        }
+    }
+
     private void requireEncounterAccess(UUID patientId, UUID providerId, UUID authId) {
         if (!encounterDao.existsByPatientIdAndProviderId(patientId, providerId)) {
             log.warn("Provider authId={} has no encounters with patient={}", authId, patientId);
@@ -1,10 +1,16 @@
 package com.healthcare.service;
 
+import com.healthcare.dao.AiAnalysisTriggerDao;
 import com.healthcare.dao.AllergyDao;
+import com.healthcare.dao.AllergyDao.AllergySummary;
 import com.healthcare.dao.AuditLogDao;
+import com.healthcare.dao.BatchLoaders;
 import com.healthcare.dao.ConditionDao;
+import com.healthcare.dao.ConditionDao.ConditionSummary;
 import com.healthcare.dao.EncounterDao;
+import com.healthcare.dao.EncounterDao.LatestEncounter;
 import com.healthcare.dao.PatientDao;
+import com.healthcare.dao.PatientDao.PatientSummary;
 import com.healthcare.dao.ProviderDao;
 import com.healthcare.dto.AddAllergyRequest;
 import com.healthcare.dto.AddConditionRequest;
@@ -13,27 +19,25 @@ import com.healthcare.dto.ConditionResponse;
 import com.healthcare.dto.PatientProfileResponse;
 import com.healthcare.dto.PatientSummaryResponse;
 import com.healthcare.dto.ProviderProfileResponse;
-import com.healthcare.entity.Allergy;
-import com.healthcare.entity.AllergyId;
-import com.healthcare.entity.Condition;
-import com.healthcare.entity.ConditionId;
 import com.healthcare.entity.Encounter;
 import com.healthcare.entity.Patient;
 import com.healthcare.entity.Provider;
 import com.healthcare.exception.ProviderServiceException;
 import com.healthcare.service.impl.ProviderServiceImpl;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.HttpStatus;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -43,6 +47,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -55,8 +60,9 @@ class ProviderServiceImplTest {
     @Mock private ConditionDao conditionDao;
     @Mock private AllergyDao   allergyDao;
     @Mock private AuditLogDao  auditLogDao;
+    @Mock private AiAnalysisTriggerDao aiAnalysisTriggerDao;
+    @Mock private EntityManager entityManager;
 
-    @InjectMocks
     private ProviderServiceImpl service;
 
     private final UUID authId    = UUID.randomUUID();
@@ -67,6 +73,8 @@ class ProviderServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        service = new ProviderServiceImpl(providerDao, patientDao, encounterDao, conditionDao, allergyDao,
+                auditLogDao, aiAnalysisTriggerDao, new BatchLoaders(patientDao, entityManager));
         mockProvider = mock(Provider.class);
         lenient().when(mockProvider.getId()).thenReturn(UUID.randomUUID());
         patient = new Patient("John", "Doe");
@@ -104,23 +112,45 @@ class ProviderServiceImplTest {
     @Test
     void getPatients_returnsPatientsSortedByLatestEncounter() {
         UUID providerId = mockProvider.getId();
+        UUID olderPatientId = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now();
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
 
-        Encounter encounter = new Encounter(providerId, OffsetDateTime.now());
-        encounter.setPatientId(patientId);
-        when(encounterDao.findByProviderId(providerId)).thenReturn(List.of(encounter));
-        when(patientDao.findById(patientId)).thenReturn(Optional.of(patient));
+        when(encounterDao.findLatestEncounterPerPatient(providerId)).thenReturn(List.of(
+                latestEncounter(olderPatientId, now.minusDays(30)),
+                latestEncounter(patientId, now)));
+        when(patientDao.findSummariesByIds(any())).thenReturn(List.of(
+                patientSummary(olderPatientId, "Jane"), patientSummary(patientId, "John")));
 
         List<PatientSummaryResponse> result = service.getPatients(authId, PageRequest.of(0, 20));
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).firstName()).isEqualTo("John");
+        assertThat(result).extracting(PatientSummaryResponse::firstName).containsExactly("John", "Jane");
+        assertThat(result.get(0).lastEncounterDate()).isEqualTo(now);
+        verify(patientDao).findSummariesByIds(new UUID[] {patientId, olderPatientId});
+    }
+
+    @Test
+    void getPatients_loadsOnlyTheRequestedPage() {
+        UUID providerId = mockProvider.getId();
+        UUID olderPatientId = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now();
+        when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
+
+        when(encounterDao.findLatestEncounterPerPatient(providerId)).thenReturn(List.of(
+                latestEncounter(patientId, now),
+                latestEncounter(olderPatientId, now.minusDays(30))));
+        when(patientDao.findSummariesByIds(any())).thenReturn(List.of(patientSummary(olderPatientId, "Jane")));
+
+        List<PatientSummaryResponse> result = service.getPatients(authId, PageRequest.of(1, 1));
+
+        assertThat(result).extracting(PatientSummaryResponse::firstName).containsExactly("Jane");
+        verify(patientDao).findSummariesByIds(new UUID[] {olderPatientId});
     }
 
     @Test
     void getPatients_returnsEmpty_whenNoEncounters() {
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
-        when(encounterDao.findByProviderId(any())).thenReturn(List.of());
+        when(encounterDao.findLatestEncounterPerPatient(any())).thenReturn(List.of());
 
         List<PatientSummaryResponse> result = service.getPatients(authId, PageRequest.of(0, 20));
 
@@ -132,14 +162,13 @@ class ProviderServiceImplTest {
         UUID providerId = mockProvider.getId();
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
 
-        Encounter encounter = new Encounter(providerId, OffsetDateTime.now());
-        encounter.setPatientId(patientId);
-        when(encounterDao.findByProviderId(providerId)).thenReturn(List.of(encounter));
-        when(patientDao.findById(patientId)).thenReturn(Optional.of(patient));
+        when(encounterDao.findLatestEncounterPerPatient(providerId))
+                .thenReturn(List.of(latestEncounter(patientId, OffsetDateTime.now())));
 
         List<PatientSummaryResponse> result = service.getPatients(authId, PageRequest.of(5, 20));
 
         assertThat(result).isEmpty();
+        verify(patientDao, never()).findSummariesByIds(any());
     }
 
     // -------------------------------------------------------------------------
@@ -190,26 +219,27 @@ class ProviderServiceImplTest {
     void getPatientConditions_returnsConditions_whenAccessGranted() {
         UUID providerId = mockProvider.getId();
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
-        when(patientDao.findById(patientId)).thenReturn(Optional.of(patient));
+        when(patientDao.existsById(patientId)).thenReturn(true);
         when(encounterDao.existsByPatientIdAndProviderId(any(), eq(providerId))).thenReturn(true);
 
-        Condition condition = new Condition(
-                new ConditionId(patientId, UUID.randomUUID(), "44054006"), LocalDate.now());
-        when(conditionDao.findByIdPatientId(any())).thenReturn(List.of(condition));
+        ConditionSummary condition = projection(ConditionSummary.class, Map.of(
+                "code", "44054006", "startDate", LocalDate.now()));
+        when(conditionDao.findSummariesByPatientId(patientId)).thenReturn(List.of(condition));
 
         List<ConditionResponse> result = service.getPatientConditions(authId, patientId);
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).code()).isEqualTo("44054006");
+        assertThat(result.get(0).status()).isEqualTo("active");
     }
 
     @Test
     void getPatientConditions_returnsEmpty_whenNone() {
         UUID providerId = mockProvider.getId();
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
-        when(patientDao.findById(patientId)).thenReturn(Optional.of(patient));
+        when(patientDao.existsById(patientId)).thenReturn(true);
         when(encounterDao.existsByPatientIdAndProviderId(any(), eq(providerId))).thenReturn(true);
-        when(conditionDao.findByIdPatientId(any())).thenReturn(List.of());
+        when(conditionDao.findSummariesByPatientId(patientId)).thenReturn(List.of());
 
         assertThat(service.getPatientConditions(authId, patientId)).isEmpty();
     }
@@ -218,7 +248,7 @@ class ProviderServiceImplTest {
     void getPatientConditions_throws403_whenNoAccess() {
         UUID providerId = mockProvider.getId();
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
-        when(patientDao.findById(patientId)).thenReturn(Optional.of(patient));
+        when(patientDao.existsById(patientId)).thenReturn(true);
         when(encounterDao.existsByPatientIdAndProviderId(any(), eq(providerId))).thenReturn(false);
 
         assertThatThrownBy(() -> service.getPatientConditions(authId, patientId))
@@ -227,6 +257,18 @@ class ProviderServiceImplTest {
                         .isEqualTo(HttpStatus.FORBIDDEN));
     }
 
+    @Test
+    void getPatientConditions_throws404_whenPatientNotFound() {
+        when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
+        when(patientDao.existsById(patientId)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.getPatientConditions(authId, patientId))
+                .isInstanceOf(ProviderServiceException.class)
+                .satisfies(e -> assertThat(((ProviderServiceException) e).getStatus())
+                        .isEqualTo(HttpStatus.NOT_FOUND));
+        verify(conditionDao, never()).findSummariesByPatientId(any());
+    }
+
     // -------------------------------------------------------------------------
     // getPatientAllergies
     // -------------------------------------------------------------------------
@@ -235,12 +277,12 @@ class ProviderServiceImplTest {
     void getPatientAllergies_returnsAllergies_whenAccessGranted() {
         UUID providerId = mockProvider.getId();
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
-        when(patientDao.findById(patientId)).thenReturn(Optional.of(patient));
+        when(patientDao.existsById(patientId)).thenReturn(true);
         when(encounterDao.existsByPatientIdAndProviderId(any(), eq(providerId))).thenReturn(true);
 
-        Allergy allergy = new Allergy(
-                new AllergyId(patientId, UUID.randomUUID(), "111088007"), LocalDate.now());
-        when(allergyDao.findByIdPatientId(any())).thenReturn(List.of(allergy));
+        AllergySummary allergy = projection(AllergySummary.class, Map.of(
+                "code", "111088007", "startDate", LocalDate.now()));
+        when(allergyDao.findSummariesByPatientId(patientId)).thenReturn(List.of(allergy));
 
         List<AllergyResponse> result = service.getPatientAllergies(authId, patientId);
 
@@ -252,9 +294,9 @@ class ProviderServiceImplTest {
     void getPatientAllergies_returnsEmpty_whenNone() {
         UUID providerId = mockProvider.getId();
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
-        when(patientDao.findById(patientId)).thenReturn(Optional.of(patient));
+        when(patientDao.existsById(patientId)).thenReturn(true);
         when(encounterDao.existsByPatientIdAndProviderId(any(), eq(providerId))).thenReturn(true);
-        when(allergyDao.findByIdPatientId(any())).thenReturn(List.of());
+        when(allergyDao.findSummariesByPatientId(patientId)).thenReturn(List.of());
 
         assertThat(service.getPatientAllergies(authId, patientId)).isEmpty();
     }
@@ -263,7 +305,7 @@ class ProviderServiceImplTest {
     void getPatientAllergies_throws403_whenNoAccess() {
         UUID providerId = mockProvider.getId();
         when(providerDao.findByAuthId(authId)).thenReturn(Optional.of(mockProvider));
-        when(patientDao.findById(patientId)).thenReturn(Optional.of(patient));
+        when(patientDao.existsById(patientId)).thenReturn(true);
         when(encounterDao.existsByPatientIdAndProviderId(any(), eq(providerId))).thenReturn(false);
 
         assertThatThrownBy(() -> service.getPatientAllergies(authId, patientId))
@@ -293,6 +335,7 @@ class ProviderServiceImplTest {
         assertThat(result.code()).isEqualTo("44054006");
         assertThat(result.status()).isEqualTo("active");
         verify(conditionDao).save(any());
+        verify(aiAnalysisTriggerDao).markPatient(patientId, "CONDITION_ADDED", "44054006", authId, encounterId);
     }
 
     @Test
@@ -310,6 +353,7 @@ class ProviderServiceImplTest {
                 .isInstanceOf(ProviderServiceException.class)
                 .satisfies(e -> assertThat(((ProviderServiceException) e).getStatus())
                         .isEqualTo(HttpStatus.FORBIDDEN));
+        verify(aiAnalysisTriggerDao, never()).markPatient(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -349,6 +393,7 @@ class ProviderServiceImplTest {
         assertThat(result.code()).isEqualTo("417532002");
         assertThat(result.category()).isEqualTo("food");
         verify(allergyDao).save(any());
+        verify(aiAnalysisTriggerDao).markPatient(patientId, "ALLERGY_ADDED", "417532002", authId, encounterId);
     }
 
     @Test
@@ -385,4 +430,19 @@ class ProviderServiceImplTest {
                 .satisfies(e -> assertThat(((ProviderServiceException) e).getStatus())
                         .isEqualTo(HttpStatus.NOT_FOUND));
     }
+
+    // -------------------------------------------------------------------------
+
+    /** A DAO projection backed by a map, as Spring Data builds it from a query tuple. */
+    private static <T> T projection(Class<T> type, Map<String, Object> values) {
+        return new SpelAwareProxyProjectionFactory().createProjection(type, values);
+    }
+
+    private static LatestEncounter latestEncounter(UUID patientId, OffsetDateTime startTime) {
+        return projection(LatestEncounter.class, Map.of("patientId", patientId, "startTime", startTime));
+    }
+
+    private static PatientSummary patientSummary(UUID id, String firstName) {
+        return projection(PatientSummary.class, Map.of("id", id, "firstName", firstName, "lastName", "Doe"));
+    }
 }
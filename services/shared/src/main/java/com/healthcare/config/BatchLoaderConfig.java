@@ -0,0 +1,25 @@
+package com.healthcare.config;
+
+import com.healthcare.dao.BatchLoaders;
+import com.healthcare.dao.PatientDao;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+/**
+ * {@link BatchLoaders} for every servlet service on the shared DAOs. Not in the reactive
+ * gateway, which runs without JPA.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(name = "org.hibernate.SessionFactory")
+public class BatchLoaderConfig {
+
+    @Bean
+    public BatchLoaders batchLoaders(PatientDao patientDao, EntityManagerFactory entityManagerFactory) {
+        return new BatchLoaders(patientDao, SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+    }
+}
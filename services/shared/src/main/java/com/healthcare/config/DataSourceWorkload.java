@@ -0,0 +1,53 @@
+package com.healthcare.config;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.function.Supplier;
+
+/**
+ * Names the connection pool that the current thread's transactions borrow from when workload
+ * pools are enabled (healthcare.datasource.routing-enabled, see WorkloadDataSourceConfig).
+ * Unset means the default pool.
+ *
+ * The pool is picked at a transaction's first statement, not when it begins, so a workload set
+ * at the top of a @Transactional method still applies to that transaction. Threads do not
+ * inherit it; executors carry it with {@link #decorator}, forks with {@link #call}.
+ */
+public final class DataSourceWorkload {
+
+    public static final String DEFAULT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private DataSourceWorkload() {}
+
+    public static String current() {
+        String workload = CURRENT.get();
+        return workload != null ? workload : DEFAULT;
+    }
+
+    public static <T> T call(String workload, Supplier<T> body) {
+        String previous = CURRENT.get();
+        CURRENT.set(workload);
+        try {
+            return body.get();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+
+    public static void run(String workload, Runnable body) {
+        call(workload, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs every task of an executor under {@code workload}.
+     */
+    public static TaskDecorator decorator(String workload) {
+        return task -> () -> run(workload, task);
+    }
+}
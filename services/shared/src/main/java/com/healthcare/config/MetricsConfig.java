@@ -0,0 +1,35 @@
+package com.healthcare.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics common to every service, the gateway included. Spring Boot applies MeterFilter beans
+ * to each registry, Prometheus included, before any meter is registered:
+ * - an application tag, so one scrape config can tell the services apart;
+ * - {@link SloMeterFilter} for the hot-path timers (healthcare.*, gemini.*, HTTP server
+ *   requests, repository invocations).
+ *
+ * The timers themselves live next to the code they measure: JwtAuthFilter and JwksClient in the
+ * gateway, AdminImportServiceImpl, GeminiClientImpl and GeminiCallGuard in the services.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@EnableConfigurationProperties(MetricsProperties.class)
+public class MetricsConfig {
+
+    @Bean
+    public MeterFilter applicationTagMeterFilter(@Value("${spring.application.name:unknown}") String application) {
+        return MeterFilter.commonTags(Tags.of("application", application));
+    }
+
+    @Bean
+    public MeterFilter sloMeterFilter(MetricsProperties properties) {
+        return new SloMeterFilter(properties);
+    }
+}
@@ -0,0 +1,30 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Latency distributions published for SLO tracking (healthcare.metrics.*), see {@link MetricsConfig}.
+ */
+@ConfigurationProperties(prefix = "healthcare.metrics")
+public class MetricsProperties {
+
+    // timers whose name starts with one of these get a histogram, percentiles and SLO buckets
+    private List<String>   timerPrefixes = List.of("healthcare.", "gemini.", "http.server.requests",
+                                                   "spring.data.repository.invocations");
+    private List<Double>   percentiles   = List.of(0.5, 0.95, 0.99);   // per instance; use the histogram across instances
+    private List<Duration> slo           = List.of(Duration.ofMillis(50), Duration.ofMillis(100),
+                                                   Duration.ofMillis(250), Duration.ofMillis(500),
+                                                   Duration.ofSeconds(1), Duration.ofMillis(2500),
+                                                   Duration.ofSeconds(5));
+
+    public List<String>   getTimerPrefixes() { return timerPrefixes; }
+    public List<Double>   getPercentiles()   { return percentiles; }
+    public List<Duration> getSlo()           { return slo; }
+
+    public void setTimerPrefixes(List<String> timerPrefixes) { this.timerPrefixes = timerPrefixes; }
+    public void setPercentiles(List<Double> percentiles)     { this.percentiles = percentiles; }
+    public void setSlo(List<Duration> slo)                   { this.slo = slo; }
+}
@@ -0,0 +1,115 @@
+package com.healthcare.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JDBC pinning guardrail for services running on virtual threads (spring.threads.virtual.enabled).
+ *
+ * A virtual thread that blocks inside a synchronized block — in a JDBC driver, the pool, or our
+ * own code — pins its carrier, and a handful of pinned carriers stall every request. This streams
+ * the JFR jdk.VirtualThreadPinned event in-process: every pin longer than
+ * healthcare.virtual-threads.pinned-threshold-ms is counted, and the first one per call site is
+ * logged with its stack, so a regression (a driver downgrade, a new synchronized DAO helper)
+ * shows up in the log of the first load test instead of as an unexplained latency cliff.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class PinnedThreadMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int MAX_LOGGED_SITES = 100;
+    private static final int MAX_LOGGED_FRAMES = 25;
+
+    private final Duration    threshold;
+    private final AtomicLong  pinned      = new AtomicLong();
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(@Value("${healthcare.virtual-threads.pinned-threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) stream.close();
+    }
+
+    /**
+     * Pinned events seen since startup.
+     */
+    public long pinnedCount() {
+        return pinned.get();
+    }
+
+    /**
+     * Runs action after each JFR flush, once the events of that flush have been counted.
+     */
+    void onFlush(Runnable action) {
+        stream.onFlush(action);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.incrementAndGet();
+        List<RecordedFrame> frames = event.getStackTrace() != null
+                ? event.getStackTrace().getFrames() : List.of();
+        String site = callSite(frames);
+        if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.add(site)) {
+            log.warn("Virtual thread pinned its carrier for {} ms at {}{}",
+                    event.getDuration().toMillis(), site, format(frames));
+        }
+    }
+
+    /**
+     * First frame outside the JDK — the library or service code holding the monitor.
+     */
+    private static String callSite(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return frameName(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frameName(frames.get(0));
+    }
+
+    private static String format(List<RecordedFrame> frames) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(frames.size(), MAX_LOGGED_FRAMES); i++) {
+            sb.append("\n\tat ").append(frameName(frames.get(i)));
+        }
+        return sb.toString();
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
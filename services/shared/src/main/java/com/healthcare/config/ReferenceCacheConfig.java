@@ -0,0 +1,130 @@
+package com.healthcare.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.healthcare.constants.DatabaseConstants;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level and query cache for organizations and providers, which change with
+ * imports and registrations only but are looked up on nearly every provider-scoped request.
+ *
+ * Regions live in an in-process Caffeine cache (JCache): entities and query results are bounded
+ * to max-entries per region and expire after expire-after-write-seconds. Writes through this
+ * service's Hibernate keep the regions current on their own; writes elsewhere reach them through
+ * {@link ReferenceDataCache#changed()} and the {@link ReferenceCacheInvalidationListener}.
+ * Only the entities and DAO methods marked for it are cached — nothing else changes.
+ *
+ * A failed call on a DAO with cached queries evicts the query results, see
+ * {@link ReferenceQueryFailureInterceptor}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "healthcare.reference-cache", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReferenceCacheProperties.class)
+public class ReferenceCacheConfig {
+
+    @Bean
+    public CacheManager referenceCacheManager(ReferenceCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        Duration ttl = Duration.ofSeconds(properties.getExpireAfterWriteSeconds());
+        createRegion(cacheManager, DatabaseConstants.CACHE_REGION_ORGANIZATIONS, properties.getMaxEntries(), ttl);
+        createRegion(cacheManager, DatabaseConstants.CACHE_REGION_PROVIDERS, properties.getMaxEntries(), ttl);
+        createRegion(cacheManager, DatabaseConstants.CACHE_REGION_REFERENCE_QUERIES, properties.getMaxEntries(), ttl);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                properties.getMaxEntries(), ttl);
+        // one entry per table; Hibernate needs these to outlive every cached query result
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, null, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer referenceCacheHibernateProperties(CacheManager referenceCacheManager) {
+        return hibernate -> {
+            hibernate.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernate.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernate.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernate.put(ConfigSettings.CACHE_MANAGER, referenceCacheManager);
+            hibernate.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public ReferenceDataCache referenceDataCache(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        return new ReferenceDataCache(entityManagerFactory, jdbcTemplate);
+    }
+
+    @Bean
+    public static BeanPostProcessor referenceQueryFailurePostProcessor(ObjectProvider<ReferenceDataCache> caches) {
+        SingletonSupplier<ReferenceDataCache> cache = SingletonSupplier.of(caches::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> {
+                                Class<?> dao = repository.getRepositoryInterface();
+                                if (hasReferenceQueries(dao)) {
+                                    proxyFactory.addAdvice(0, new ReferenceQueryFailureInterceptor(
+                                            cache, dao.getSimpleName()));
+                                }
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "healthcare.reference-cache", name = "listen", havingValue = "true",
+                           matchIfMissing = true)
+    public ReferenceCacheInvalidationListener referenceCacheInvalidationListener(ReferenceDataCache cache,
+                                                                                 DataSourceProperties dataSource) {
+        ReferenceCacheInvalidationListener listener = new ReferenceCacheInvalidationListener(cache,
+                dataSource.determineUrl(), dataSource.determineUsername(), dataSource.determinePassword());
+        listener.start();
+        return listener;
+    }
+
+    static boolean hasReferenceQueries(Class<?> dao) {
+        return Arrays.stream(dao.getMethods())
+                .map(method -> method.getAnnotation(QueryHints.class))
+                .filter(Objects::nonNull)
+                .flatMap(hints -> Arrays.stream(hints.value()))
+                .anyMatch(hint -> HibernateHints.HINT_CACHE_REGION.equals(hint.name())
+                        && DatabaseConstants.CACHE_REGION_REFERENCE_QUERIES.equals(hint.value()));
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, Long maxEntries, Duration ttl) {
+        if (cacheManager.getCache(name) != null) return;
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxEntries != null) configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        if (ttl != null) configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,26 @@
+package com.healthcare.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With healthcare.reference-cache.enabled off, turns Hibernate's second-level cache off too.
+ * Hibernate otherwise picks up the JCache region factory on the classpath by itself and caches
+ * the reference entities in default regions: unbounded, and invalidated by nothing.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "healthcare.reference-cache", name = "enabled", havingValue = "false",
+                       matchIfMissing = true)
+public class ReferenceCacheDisabledConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer noSecondLevelCache() {
+        return hibernate -> {
+            hibernate.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            hibernate.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.healthcare.config;
+
+import com.healthcare.constants.DatabaseConstants;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Evicts this service's cached organizations and providers whenever any service announces a
+ * change with {@link ReferenceDataCache#changed()}.
+ *
+ * Holds one connection of its own outside the pools, LISTENing on
+ * {@link DatabaseConstants#CHANNEL_REFERENCE_DATA_CHANGED}. Notifications sent while it is
+ * disconnected are lost, so every (re)connect evicts as well; the regions' expire-after-write
+ * bounds staleness if the database cannot be reached at all.
+ */
+public class ReferenceCacheInvalidationListener implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceCacheInvalidationListener.class);
+
+    private static final int  POLL_TIMEOUT_MS = 5_000;
+    private static final long RETRY_DELAY_MS  = 5_000;
+
+    private final ReferenceDataCache cache;
+    private final String             url;
+    private final String             username;
+    private final String             password;
+
+    private volatile boolean running;
+    private Thread           thread;
+
+    public ReferenceCacheInvalidationListener(ReferenceDataCache cache, String url, String username, String password) {
+        this.cache    = cache;
+        this.url      = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "reference-cache-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (thread != null) thread.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + DatabaseConstants.CHANNEL_REFERENCE_DATA_CHANGED);
+                cache.evictLocal();
+                log.info("Listening for organization/provider changes on {}",
+                        DatabaseConstants.CHANNEL_REFERENCE_DATA_CHANGED);
+
+                PGConnection listener = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = listener.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        cache.evictLocal();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) return;
+                log.warn("Reference cache listener lost its connection, retrying in {} ms: {}",
+                        RETRY_DELAY_MS, e.toString());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
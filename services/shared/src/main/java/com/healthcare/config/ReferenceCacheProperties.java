@@ -0,0 +1,26 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Second-level cache for organizations and providers (healthcare.reference-cache.*), see
+ * {@link ReferenceCacheConfig}.
+ */
+@ConfigurationProperties(prefix = "healthcare.reference-cache")
+public class ReferenceCacheProperties {
+
+    private boolean enabled;
+    private long    maxEntries              = 10_000;   // per region: organizations, providers, query results
+    private long    expireAfterWriteSeconds = 600;      // backstop for a missed change notification
+    private boolean listen                  = true;     // LISTEN for changes made by other services
+
+    public boolean isEnabled()                  { return enabled; }
+    public long    getMaxEntries()              { return maxEntries; }
+    public long    getExpireAfterWriteSeconds() { return expireAfterWriteSeconds; }
+    public boolean isListen()                   { return listen; }
+
+    public void setEnabled(boolean enabled)              { this.enabled = enabled; }
+    public void setMaxEntries(long maxEntries)           { this.maxEntries = maxEntries; }
+    public void setExpireAfterWriteSeconds(long seconds) { this.expireAfterWriteSeconds = seconds; }
+    public void setListen(boolean listen)                { this.listen = listen; }
+}
@@ -0,0 +1,71 @@
+package com.healthcare.config;
+
+import com.healthcare.constants.DatabaseConstants;
+import com.healthcare.entity.Organization;
+import com.healthcare.entity.Provider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Explicit invalidation of the cached organizations and providers.
+ *
+ * Every service caches them in-process, so a write in one service is invisible to the caches of
+ * the others. Whoever changes organizations or providers calls {@link #changed()} inside the
+ * writing transaction: this service's regions are evicted after commit, and a NOTIFY on
+ * {@link DatabaseConstants#CHANNEL_REFERENCE_DATA_CHANGED} — delivered by Postgres only on
+ * commit — makes every other service evict theirs (see ReferenceCacheInvalidationListener).
+ */
+public class ReferenceDataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate         jdbcTemplate;
+
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate         = jdbcTemplate;
+    }
+
+    /**
+     * Organizations or providers were written in the current transaction.
+     */
+    public void changed() {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, '')", DatabaseConstants.CHANNEL_REFERENCE_DATA_CHANGED);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal();
+                }
+            });
+        } else {
+            evictLocal();
+        }
+    }
+
+    /**
+     * Drops this service's cached organizations, providers and their query results.
+     */
+    public void evictLocal() {
+        entityManagerFactory.getCache().evict(Organization.class);
+        entityManagerFactory.getCache().evict(Provider.class);
+        evictQueries();
+        log.debug("Evicted cached organizations and providers");
+    }
+
+    /**
+     * Drops this service's cached organization and provider query results only. Hibernate caches
+     * a query's result even when the query failed, e.g. an empty result for a lookup that timed
+     * out waiting for a connection; see ReferenceQueryFailureInterceptor.
+     */
+    public void evictQueries() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                .evictQueryRegion(DatabaseConstants.CACHE_REGION_REFERENCE_QUERIES);
+    }
+}
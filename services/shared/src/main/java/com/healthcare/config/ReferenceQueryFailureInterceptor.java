@@ -0,0 +1,41 @@
+package com.healthcare.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Supplier;
+
+/**
+ * Evicts the cached reference query results when a call on a DAO with cached queries fails.
+ *
+ * Hibernate puts a cacheable query's result into the query cache even when executing it threw:
+ * a findByAuthId that timed out waiting for a connection leaves an empty result behind, and every
+ * later lookup for that provider answers "not found" until the next change or expiry. Dropping
+ * the region on failure makes the next lookup go back to Postgres.
+ */
+class ReferenceQueryFailureInterceptor implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceQueryFailureInterceptor.class);
+
+    private final Supplier<ReferenceDataCache> cache;
+    private final String                       repository;
+
+    ReferenceQueryFailureInterceptor(Supplier<ReferenceDataCache> cache, String repository) {
+        this.cache      = cache;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        try {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            cache.get().evictQueries();
+            log.debug("Evicted cached reference queries after {}.{} failed",
+                    repository, invocation.getMethod().getName());
+            throw t;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.healthcare.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether read-only transactions may use the read replica.
+ *
+ * Every lag-check-interval-ms the replica is asked how far its replay trails the primary. Above
+ * max-lag-ms, or when the check or a borrow fails, reads go to the primary until the next check
+ * comes back in bounds. The replica starts out unavailable, so nothing reads from it before the
+ * first check has passed.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Replay lag in ms; 0 when everything received has been replayed (an idle primary must not
+     * read as lag) or when the target is not a standby at all.
+     */
+    static final String LAG_QUERY = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END""";
+
+    private final DataSource replica;
+    private final long       maxLagMs;
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    private volatile boolean available;
+    private volatile long    lagMs = -1;
+
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagMs) {
+        this.replica  = replica;
+        this.maxLagMs = maxLagMs;
+    }
+
+    public void start(Duration interval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Last measured replay lag in ms, -1 before the first successful check.
+     */
+    public long lagMs() {
+        return lagMs;
+    }
+
+    /**
+     * Read-only transactions sent to the primary because the replica was lagging or down.
+     */
+    public long fallbacks() {
+        return fallbacks.get();
+    }
+
+    void recordFallback() {
+        fallbacks.incrementAndGet();
+    }
+
+    void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            lagMs = rs.getLong(1);
+            if (lagMs <= maxLagMs) {
+                markAvailable();
+            } else if (available) {
+                available = false;
+                log.warn("Read replica is {} ms behind (limit {} ms); read-only transactions go to the primary",
+                        lagMs, maxLagMs);
+            }
+        } catch (SQLException | RuntimeException e) {
+            markUnavailable(e);
+        }
+    }
+
+    void markUnavailable(Exception cause) {
+        if (available) {
+            available = false;
+            log.warn("Read replica unavailable, read-only transactions go to the primary: {}", cause.toString());
+        }
+    }
+
+    private void markAvailable() {
+        if (!available) {
+            available = true;
+            log.info("Read replica in use for read-only transactions ({} ms behind)", lagMs);
+        }
+    }
+}
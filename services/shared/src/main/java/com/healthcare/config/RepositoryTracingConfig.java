@@ -0,0 +1,44 @@
+package com.healthcare.config;
+
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * A span around every DAO call (healthcare.tracing.repository-spans), see
+ * {@link RepositoryTracingInterceptor}. Spring Data builds each DAO proxy in its factory bean;
+ * the interceptor is added there as the outermost advice, so the span also covers a commit made
+ * by the DAO's own transaction.
+ *
+ * The Tracer is looked up on first use: post-processors are created before the tracing
+ * auto-configuration, and without tracing on the classpath or enabled nothing is wrapped.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = {"io.micrometer.tracing.Tracer",
+                            "org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport"})
+@ConditionalOnProperty(prefix = "healthcare.tracing", name = "repository-spans", havingValue = "true",
+                       matchIfMissing = true)
+public class RepositoryTracingConfig {
+
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor(ObjectProvider<Tracer> tracers) {
+        SingletonSupplier<Tracer> tracer = SingletonSupplier.of(tracers::getIfAvailable);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(0, new RepositoryTracingInterceptor(
+                                    tracer, repository.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
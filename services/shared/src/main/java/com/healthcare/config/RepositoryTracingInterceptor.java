@@ -0,0 +1,52 @@
+package com.healthcare.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.function.Supplier;
+
+/**
+ * Wraps each call on one DAO in a span named after the DAO and method, e.g. "ProviderDao.findByAuthId",
+ * so a trace shows how much of a request went to Postgres and through which query.
+ *
+ * Spans are only started under an existing span: a DAO call made by a scheduler or a worker with
+ * no trace of its own is not worth a one-span trace.
+ */
+class RepositoryTracingInterceptor implements MethodInterceptor {
+
+    private final Supplier<Tracer> tracer;
+    private final String           repository;
+
+    RepositoryTracingInterceptor(Supplier<Tracer> tracer, String repository) {
+        this.tracer     = tracer;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Tracer current = tracer.get();
+        if (current == null || current.currentSpan() == null
+                || invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        String method = invocation.getMethod().getName();
+        Span span = current.nextSpan()
+                .name(repository + "." + method)
+                .tag("db.system", "postgresql")
+                .tag("code.namespace", repository)
+                .tag("code.function", method)
+                .remoteServiceName("postgresql")
+                .start();
+        try (Tracer.SpanInScope ignored = current.withSpan(span)) {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            span.error(t);
+            throw t;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.healthcare.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Publishes a percentile histogram, client-side percentiles and SLO buckets for the hot-path
+ * timers, so every service reports the same boundaries without per-meter settings.
+ *
+ * Settings made on the meter itself win, e.g. the bounds on healthcare.sql.statements.
+ */
+public class SloMeterFilter implements MeterFilter {
+
+    private final List<String> timerPrefixes;
+    private final double[]     percentiles;
+    private final double[]     sloNanos;
+
+    public SloMeterFilter(MetricsProperties properties) {
+        this.timerPrefixes = List.copyOf(properties.getTimerPrefixes());
+        this.percentiles   = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        this.sloNanos      = properties.getSlo().stream().mapToDouble(Duration::toNanos).toArray();
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (id.getType() != Meter.Type.TIMER || !matches(id.getName())) return config;
+        return config.merge(DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .percentiles(percentiles)
+                .serviceLevelObjectives(sloNanos)
+                .build());
+    }
+
+    boolean matches(String name) {
+        for (String prefix : timerPrefixes) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
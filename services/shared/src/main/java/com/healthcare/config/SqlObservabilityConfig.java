@@ -0,0 +1,51 @@
+package com.healthcare.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * SQL observability for the servlet services: statement timings (healthcare.sql.statements),
+ * slow statements (healthcare.sql.slow, sampled to the log), and statements per request
+ * (healthcare.sql.statements.per.request, by route). Per-repository-method timings come from
+ * Spring Boot's spring.data.repository.invocations.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(name = "org.hibernate.SessionFactory")
+@ConditionalOnProperty(prefix = "healthcare.sql", name = "metrics-enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SqlObservabilityProperties.class)
+public class SqlObservabilityConfig {
+
+    @Bean
+    public SqlStatementObserver sqlStatementObserver(MeterRegistry meterRegistry, SqlObservabilityProperties properties) {
+        SqlStatementObserver observer = new SqlStatementObserver(meterRegistry, properties);
+        SqlStatementObserver.install(observer);
+        return observer;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlObservabilityHibernateProperties(SqlStatementObserver observer) {
+        return hibernate -> {
+            hibernate.put(AvailableSettings.STATEMENT_INSPECTOR, observer);
+            hibernate.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlSessionEventListener.class.getName());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlRequestFilter> sqlRequestFilter(MeterRegistry meterRegistry,
+                                                                     SqlObservabilityProperties properties) {
+        FilterRegistrationBean<SqlRequestFilter> registration =
+                new FilterRegistrationBean<>(new SqlRequestFilter(meterRegistry, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
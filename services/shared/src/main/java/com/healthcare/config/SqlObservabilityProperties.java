@@ -0,0 +1,26 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * SQL statement metrics and slow-statement logging (healthcare.sql.*), see
+ * {@link SqlObservabilityConfig}.
+ */
+@ConfigurationProperties(prefix = "healthcare.sql")
+public class SqlObservabilityProperties {
+
+    private boolean metricsEnabled              = true;
+    private long    slowThresholdMs             = 200;
+    private double  slowLogSampleRate           = 0.1;   // share of slow statements logged; all are counted
+    private int     statementsPerRequestWarning = 50;    // requests above this are logged as a likely N+1
+
+    public boolean isMetricsEnabled()               { return metricsEnabled; }
+    public long    getSlowThresholdMs()             { return slowThresholdMs; }
+    public double  getSlowLogSampleRate()           { return slowLogSampleRate; }
+    public int     getStatementsPerRequestWarning() { return statementsPerRequestWarning; }
+
+    public void setMetricsEnabled(boolean metricsEnabled)      { this.metricsEnabled = metricsEnabled; }
+    public void setSlowThresholdMs(long slowThresholdMs)       { this.slowThresholdMs = slowThresholdMs; }
+    public void setSlowLogSampleRate(double slowLogSampleRate) { this.slowLogSampleRate = slowLogSampleRate; }
+    public void setStatementsPerRequestWarning(int statements) { this.statementsPerRequestWarning = statements; }
+}
@@ -0,0 +1,64 @@
+package com.healthcare.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records how many statements each request prepared, by route — the N+1 detector. A request
+ * above healthcare.sql.statements-per-request-warning is also logged, sampled like slow SQL.
+ * Counts the request thread only; work handed to executors is timed but not attributed.
+ */
+public class SqlRequestFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlRequestFilter.class);
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry registry;
+    private final int           warningThreshold;
+    private final double        logSampleRate;
+
+    public SqlRequestFilter(MeterRegistry registry, SqlObservabilityProperties properties) {
+        this.registry         = registry;
+        this.warningThreshold = properties.getStatementsPerRequestWarning();
+        this.logSampleRate    = properties.getSlowLogSampleRate();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementObserver.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementObserver.endRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? pattern.toString() : UNKNOWN_ROUTE;
+
+            DistributionSummary.builder("healthcare.sql.statements.per.request")
+                    .description("JDBC statements prepared while serving one request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1_000.0)
+                    .register(registry)
+                    .record(statements);
+
+            if (statements > warningThreshold && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log.warn("{} {} ran {} SQL statements (warning above {}), likely an N+1 query",
+                        request.getMethod(), route, statements, warningThreshold);
+            }
+        }
+    }
+}
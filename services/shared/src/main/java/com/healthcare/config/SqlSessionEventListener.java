@@ -0,0 +1,37 @@
+package com.healthcare.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times statement and batch execution for {@link SqlStatementObserver}. Hibernate creates one
+ * per Session (hibernate.session.events.auto), so the start time needs no synchronization.
+ */
+public class SqlSessionEventListener implements SessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executed();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executed();
+    }
+
+    private void executed() {
+        SqlStatementObserver observer = SqlStatementObserver.installed();
+        if (observer != null) observer.executed(System.nanoTime() - executeStart);
+    }
+}
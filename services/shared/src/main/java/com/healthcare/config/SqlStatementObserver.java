@@ -0,0 +1,132 @@
+package com.healthcare.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC statement Hibernate executes, counts statements per request, and logs a
+ * sample of the slow ones — in place of spring.jpa.show-sql, which wrote every statement to
+ * stdout on the request thread.
+ *
+ * Hibernate hands each statement's SQL to {@link #inspect} before preparing it, and
+ * {@link SqlSessionEventListener} reports how long its execution took. Both run on the thread
+ * that owns the Session, so the SQL and the per-request count are kept in ThreadLocals. The
+ * listener is instantiated by Hibernate, so it reaches this observer through {@link #installed()}.
+ */
+public class SqlStatementObserver implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementObserver.class);
+
+    private static final int MAX_LOGGED_SQL_CHARS = 2_000;
+
+    private static volatile SqlStatementObserver installed;
+
+    private static final ThreadLocal<String> CURRENT_SQL        = new ThreadLocal<>();
+    private static final ThreadLocal<int[]>  REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    private final Map<String, Timer> timers;
+    private final Counter            slowStatements;
+    private final long               slowThresholdNanos;
+    private final double             slowLogSampleRate;
+
+    public SqlStatementObserver(MeterRegistry registry, SqlObservabilityProperties properties) {
+        this.timers = Map.of(
+                "select", timer(registry, "select"),
+                "insert", timer(registry, "insert"),
+                "update", timer(registry, "update"),
+                "delete", timer(registry, "delete"),
+                "other",  timer(registry, "other"));
+        this.slowStatements = Counter.builder("healthcare.sql.slow")
+                .description("Statements slower than healthcare.sql.slow-threshold-ms")
+                .register(registry);
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowThresholdMs());
+        this.slowLogSampleRate  = properties.getSlowLogSampleRate();
+    }
+
+    public static void install(SqlStatementObserver observer) {
+        installed = observer;
+    }
+
+    /**
+     * The observer of this application, or null when SQL metrics are disabled.
+     */
+    static SqlStatementObserver installed() {
+        return installed;
+    }
+
+    /**
+     * Starts counting the statements of the current thread's request.
+     */
+    public static void beginRequest() {
+        REQUEST_STATEMENTS.set(new int[1]);
+    }
+
+    /**
+     * Stops counting and returns the statements prepared since {@link #beginRequest()}.
+     */
+    public static int endRequest() {
+        int[] count = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        CURRENT_SQL.set(sql);
+        int[] count = REQUEST_STATEMENTS.get();
+        if (count != null) count[0]++;
+        return sql;
+    }
+
+    /**
+     * A statement — or a JDBC batch — of the current thread took {@code nanos} to execute.
+     */
+    void executed(long nanos) {
+        String sql = CURRENT_SQL.get();
+        timers.get(kind(sql)).record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos >= slowThresholdNanos) {
+            slowStatements.increment();
+            if (ThreadLocalRandom.current().nextDouble() < slowLogSampleRate) {
+                log.warn("Slow SQL ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), abbreviate(sql));
+            }
+        }
+    }
+
+    static String kind(String sql) {
+        if (sql == null) return "other";
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) end++;
+        String verb = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (verb) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete" -> verb;
+            default -> "other";
+        };
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) return "<unknown>";
+        return sql.length() <= MAX_LOGGED_SQL_CHARS ? sql : sql.substring(0, MAX_LOGGED_SQL_CHARS) + "...";
+    }
+
+    private static Timer timer(MeterRegistry registry, String kind) {
+        return Timer.builder("healthcare.sql.statements")
+                .description("Execution time of JDBC statements issued through Hibernate")
+                .tag("kind", kind)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+}
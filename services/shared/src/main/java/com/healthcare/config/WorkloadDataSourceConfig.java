@@ -0,0 +1,134 @@
+package com.healthcare.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-workload connection pools behind one DataSource, so a long import or a transaction held
+ * across a Gemini call cannot take every connection from short API requests.
+ *
+ * The default pool is configured exactly like Boot's own (spring.datasource.*); every pool in
+ * healthcare.datasource.pools copies it and overrides size, idle, wait timeout and leak
+ * detection. All pools report Hikari's Micrometer metrics tagged pool=&lt;application&gt;-&lt;workload&gt; —
+ * hikaricp.connections.acquire is the time spent waiting for a connection.
+ *
+ * Connections are fetched lazily, at a transaction's first statement, so the pool follows
+ * {@link DataSourceWorkload} as set inside the transactional method as well — and the
+ * transaction's read-only flag, which is how read-only transactions reach the replica pool
+ * (healthcare.datasource.replica.*) when one is configured.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "healthcare.datasource", name = "routing-enabled", havingValue = "true")
+@EnableConfigurationProperties(WorkloadPoolProperties.class)
+public class WorkloadDataSourceConfig {
+
+    static final String REPLICA = "replica";
+
+    @Bean
+    public WorkloadPools workloadPools(DataSourceProperties properties,
+                                       WorkloadPoolProperties workloads,
+                                       Environment environment,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        String application = environment.getProperty("spring.application.name", "application");
+
+        HikariDataSource defaultPool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(defaultPool));
+        if (defaultPool.getPoolName() == null) {
+            defaultPool.setPoolName(application + "-" + DataSourceWorkload.DEFAULT);
+        }
+
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        pools.put(DataSourceWorkload.DEFAULT, defaultPool);
+        workloads.getPools().forEach((name, pool) ->
+                pools.put(name, workloadPool(defaultPool, application + "-" + name, pool)));
+
+        HikariDataSource replica = null;
+        ReplicaLagMonitor replicaLag = null;
+        WorkloadPoolProperties.Replica replicaProperties = workloads.getReplica();
+        if (replicaProperties.isEnabled()) {
+            replica = workloadPool(defaultPool, application + "-" + REPLICA, replicaProperties);
+            replica.setJdbcUrl(replicaProperties.getUrl());
+            if (StringUtils.hasText(replicaProperties.getUsername())) replica.setUsername(replicaProperties.getUsername());
+            if (StringUtils.hasText(replicaProperties.getPassword())) replica.setPassword(replicaProperties.getPassword());
+            replica.setReadOnly(true);
+            replicaLag = new ReplicaLagMonitor(replica, replicaProperties.getMaxLagMs());
+        }
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            pools.values().forEach(pool -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            if (replica != null) {
+                replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                bindReplicaMetrics(registry, replicaLag, replica.getPoolName());
+            }
+        }
+        if (replicaLag != null) {
+            replicaLag.start(Duration.ofMillis(replicaProperties.getLagCheckIntervalMs()));
+        }
+        return new WorkloadPools(pools, replica, replicaLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(WorkloadPools workloadPools) {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        routing.setTargetDataSources(new LinkedHashMap<>(workloadPools.pools()));
+        routing.setDefaultTargetDataSource(workloadPools.pools().get(DataSourceWorkload.DEFAULT));
+        if (workloadPools.replica() != null) {
+            routing.setReplica(workloadPools.replica(), workloadPools.replicaLag());
+        }
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static void bindReplicaMetrics(MeterRegistry registry, ReplicaLagMonitor replicaLag, String pool) {
+        Gauge.builder("healthcare.datasource.replica.lag", replicaLag, ReplicaLagMonitor::lagMs)
+                .baseUnit("milliseconds")
+                .description("Replay lag of the read replica at the last check, -1 before the first")
+                .tag("pool", pool)
+                .register(registry);
+        Gauge.builder("healthcare.datasource.replica.available", replicaLag, lag -> lag.isAvailable() ? 1 : 0)
+                .description("1 while read-only transactions may use the replica")
+                .tag("pool", pool)
+                .register(registry);
+        FunctionCounter.builder("healthcare.datasource.replica.fallbacks", replicaLag, ReplicaLagMonitor::fallbacks)
+                .description("Read-only transactions sent to the primary because the replica was lagging or down")
+                .tag("pool", pool)
+                .register(registry);
+    }
+
+    private static HikariDataSource workloadPool(HikariDataSource base, String poolName,
+                                                 WorkloadPoolProperties.Pool pool) {
+        HikariConfig config = new HikariConfig();
+        base.copyStateTo(config);
+        config.setPoolName(poolName);
+        config.setMaximumPoolSize(pool.getMaximumPoolSize());
+        config.setMinimumIdle(pool.getMinimumIdle());
+        config.setConnectionTimeout(pool.getConnectionTimeoutMs());
+        config.setLeakDetectionThreshold(pool.getLeakDetectionThresholdMs());
+        HikariDataSource dataSource = new HikariDataSource();
+        config.copyStateTo(dataSource);
+        return dataSource;
+    }
+}
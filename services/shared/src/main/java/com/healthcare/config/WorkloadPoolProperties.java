@@ -0,0 +1,78 @@
+package com.healthcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Extra connection pools by workload name (healthcare.datasource.pools.*). Each pool copies the
+ * connection settings of spring.datasource / spring.datasource.hikari, which also size the
+ * default pool, and overrides only what is listed here.
+ *
+ * healthcare.datasource.replica.url adds a read replica for read-only transactions, see
+ * {@link ReplicaLagMonitor}.
+ */
+@ConfigurationProperties(prefix = "healthcare.datasource")
+public class WorkloadPoolProperties {
+
+    private boolean           routingEnabled;
+    private Map<String, Pool> pools   = new LinkedHashMap<>();
+    private Replica           replica = new Replica();
+
+    public boolean           isRoutingEnabled() { return routingEnabled; }
+    public Map<String, Pool> getPools()         { return pools; }
+    public Replica           getReplica()       { return replica; }
+
+    public void setRoutingEnabled(boolean routingEnabled) { this.routingEnabled = routingEnabled; }
+    public void setPools(Map<String, Pool> pools)         { this.pools = pools; }
+    public void setReplica(Replica replica)               { this.replica = replica; }
+
+    public static class Pool {
+
+        private int  maximumPoolSize          = 2;
+        private int  minimumIdle              = 0;
+        private long connectionTimeoutMs      = 30_000;
+        private long leakDetectionThresholdMs = 0;        // 0 = off
+
+        public int  getMaximumPoolSize()          { return maximumPoolSize; }
+        public int  getMinimumIdle()              { return minimumIdle; }
+        public long getConnectionTimeoutMs()      { return connectionTimeoutMs; }
+        public long getLeakDetectionThresholdMs() { return leakDetectionThresholdMs; }
+
+        public void setMaximumPoolSize(int maximumPoolSize)    { this.maximumPoolSize = maximumPoolSize; }
+        public void setMinimumIdle(int minimumIdle)            { this.minimumIdle = minimumIdle; }
+        public void setConnectionTimeoutMs(long timeoutMs)     { this.connectionTimeoutMs = timeoutMs; }
+        public void setLeakDetectionThresholdMs(long thresholdMs) { this.leakDetectionThresholdMs = thresholdMs; }
+    }
+
+    /**
+     * Read replica pool. Off while url is blank; username and password default to the primary's.
+     * A borrow that times out falls back to the primary, so the wait is short by default.
+     */
+    public static class Replica extends Pool {
+
+        private String url;
+        private String username;
+        private String password;
+        private long   maxLagMs           = 2_000;
+        private long   lagCheckIntervalMs = 1_000;
+
+        public Replica() {
+            setConnectionTimeoutMs(1_000);
+        }
+
+        public boolean isEnabled()             { return url != null && !url.isBlank(); }
+        public String  getUrl()                { return url; }
+        public String  getUsername()           { return username; }
+        public String  getPassword()           { return password; }
+        public long    getMaxLagMs()           { return maxLagMs; }
+        public long    getLagCheckIntervalMs() { return lagCheckIntervalMs; }
+
+        public void setUrl(String url)                     { this.url = url; }
+        public void setUsername(String username)           { this.username = username; }
+        public void setPassword(String password)           { this.password = password; }
+        public void setMaxLagMs(long maxLagMs)             { this.maxLagMs = maxLagMs; }
+        public void setLagCheckIntervalMs(long intervalMs) { this.lagCheckIntervalMs = intervalMs; }
+    }
+}
@@ -0,0 +1,64 @@
+package com.healthcare.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The Hikari pools behind the routing DataSource, by workload name, and the optional read
+ * replica pool with its lag monitor. A bean of its own so the pools are closed on shutdown.
+ */
+public class WorkloadPools implements AutoCloseable {
+
+    private final Map<String, HikariDataSource> pools;
+    private final HikariDataSource              replica;
+    private final ReplicaLagMonitor             replicaLag;
+
+    public WorkloadPools(Map<String, HikariDataSource> pools) {
+        this(pools, null, null);
+    }
+
+    public WorkloadPools(Map<String, HikariDataSource> pools, HikariDataSource replica, ReplicaLagMonitor replicaLag) {
+        this.pools      = Collections.unmodifiableMap(new LinkedHashMap<>(pools));
+        this.replica    = replica;
+        this.replicaLag = replicaLag;
+    }
+
+    public Map<String, HikariDataSource> pools() {
+        return pools;
+    }
+
+    /**
+     * How many connections the workload's pool can hand out right now without a wait: idle ones
+     * plus room to open new ones, or 0 while other callers are already queued. A name without a
+     * pool of its own reports the default pool, as WorkloadRoutingDataSource routes it there.
+     */
+    public int headroom(String workload) {
+        HikariDataSource pool = pools.getOrDefault(workload, pools.get(DataSourceWorkload.DEFAULT));
+        HikariPoolMXBean state = pool.getHikariPoolMXBean();
+        if (state == null) return pool.getMaximumPoolSize();   // not started yet, opens on first borrow
+        if (state.getThreadsAwaitingConnection() > 0) return 0;
+        return state.getIdleConnections() + pool.getMaximumPoolSize() - state.getTotalConnections();
+    }
+
+    /**
+     * The replica pool, or null without healthcare.datasource.replica.url.
+     */
+    public HikariDataSource replica() {
+        return replica;
+    }
+
+    public ReplicaLagMonitor replicaLag() {
+        return replicaLag;
+    }
+
+    @Override
+    public void close() {
+        if (replicaLag != null) replicaLag.close();
+        if (replica != null) replica.close();
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,54 @@
+package com.healthcare.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out connections from the pool named by {@link DataSourceWorkload#current()}, falling
+ * back to the default pool for names without a pool of their own.
+ *
+ * With a replica set, read-only transactions of the default workload borrow from the replica
+ * pool while {@link ReplicaLagMonitor} reports it in bounds, and from the primary otherwise —
+ * including when the replica pool itself fails to hand out a connection. Other workloads keep
+ * their own pools: they are sized for their job and should not compete with API reads.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private DataSource        replica;
+    private ReplicaLagMonitor replicaLag;
+
+    public void setReplica(DataSource replica, ReplicaLagMonitor replicaLag) {
+        this.replica    = replica;
+        this.replicaLag = replicaLag;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readsFromReplica()) {
+            if (replicaLag.isAvailable()) {
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    replicaLag.markUnavailable(e);
+                }
+            }
+            replicaLag.recordFallback();
+        }
+        return super.getConnection();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourceWorkload.current();
+    }
+
+    private boolean readsFromReplica() {
+        return replica != null
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && DataSourceWorkload.DEFAULT.equals(DataSourceWorkload.current());
+    }
+}
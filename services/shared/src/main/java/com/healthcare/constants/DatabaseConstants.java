@@ -212,6 +212,8 @@ public final class DatabaseConstants {
     public static final String COLUMN_DEFINITION_TIMESTAMPTZ = "TIMESTAMPTZ";
     public static final String COLUMN_DEFINITION_TEXT        = "TEXT";
     public static final String COLUMN_DEFINITION_INET        = "INET";
+    public static final String COLUMN_DEFINITION_BYTEA       = "BYTEA";
+    public static final String COLUMN_DEFINITION_UUID_ARRAY  = "UUID[]";
 
     public static final String COLUMN_DEFINITION_GENDER_ENUM             = "gender_enum";
     public static final String COLUMN_DEFINITION_STATUS_ENUM             = "status_enum";
@@ -340,14 +342,57 @@ public final class DatabaseConstants {
     public static final String COL_RISK_FLAGS        = "risk_flags";
     public static final String COL_MODEL_VERSION     = "model_version";
     public static final String COL_INPUT_RECORD_IDS  = "input_record_ids";
+    public static final String COL_SNAPSHOT_DIGEST   = "snapshot_digest";
 
     public static final String COL_LAST_ENCOUNTER_ID = "last_encounter_id";
 
     public static final String INDEX_AI_RESULTS_PATIENT_HISTORY = "idx_ai_results_patient_history";
     public static final String INDEX_AI_RESULTS_ENCOUNTER       = "idx_ai_results_encounter";
 
+    // pg_advisory_xact_lock(namespace, hashtext(patient_id)) — serializes analysis per patient across replicas
+    public static final int ADVISORY_LOCK_AI_ANALYSIS = 0x41490001;
+
     public static final int LEN_TRIGGER_TYPE  = 50;
     public static final int LEN_MODEL_VERSION = 100;
+    public static final int LEN_SNAPSHOT_DIGEST = 32;   // SHA-256
+
+    // ==================== AI ANALYSIS TRIGGERS (outbox) ====================
+
+    public static final String TABLE_AI_ANALYSIS_TRIGGERS = "ai_analysis_triggers";
+
+    public static final String COL_TRIGGER_CODE    = "trigger_code";
+    public static final String COL_MARKED_AT       = "marked_at";
+    public static final String COL_LOCK_EXPIRES_AT = "lock_expires_at";
+    public static final String COL_ATTEMPTS        = "attempts";
+    public static final String COL_NEXT_ATTEMPT_AT = "next_attempt_at";
+    public static final String COL_LAST_ERROR      = "last_error";
+
+    public static final String INDEX_AI_TRIGGERS_STATUS_MARKED_AT = "idx_ai_triggers_status_marked_at";
+
+    public static final int LEN_TRIGGER_STATUS = 20;
+
+    // ==================== AI SCREENING RUNS (batch sweeps) ====================
+
+    public static final String TABLE_AI_SCREENING_RUNS = "ai_screening_runs";
+
+    public static final String COL_CURSOR_PATIENT_ID = "cursor_patient_id";
+    public static final String COL_PATIENTS_SCANNED  = "patients_scanned";
+    public static final String COL_PATIENTS_CHANGED  = "patients_changed";
+    public static final String COL_PATIENTS_ANALYZED = "patients_analyzed";
+    public static final String COL_PATIENTS_FAILED   = "patients_failed";
+    public static final String COL_RETRY_PATIENT_IDS = "retry_patient_ids";
+    public static final String COL_MODEL_REQUESTS    = "model_requests";
+    public static final String COL_PROMPT_TOKENS     = "prompt_tokens";
+    public static final String COL_STARTED_AT        = "started_at";
+    public static final String COL_HEARTBEAT_AT      = "heartbeat_at";
+    public static final String COL_OWNER_ID          = "owner_id";
+    public static final String COL_FINISHED_AT       = "finished_at";
+
+    // partial unique index (status) WHERE status = 'RUNNING' — at most one sweep at a time
+    public static final String INDEX_AI_SCREENING_RUNS_ONE_RUNNING = "idx_ai_screening_runs_one_running";
+    public static final String INDEX_AI_SCREENING_RUNS_STARTED_AT  = "idx_ai_screening_runs_started_at";
+
+    public static final int LEN_SCREENING_STATUS = 20;
 
     // ==================== DECIMAL PRECISION AND SCALE (LEN_) ====================
 
@@ -357,4 +402,13 @@ public final class DatabaseConstants {
     public static final int LEN_COST_PRECISION       = 10;
     public static final int LEN_MONEY_SCALE          = 2;
 
+    // ==================== SECOND-LEVEL CACHE REGIONS (see ReferenceCacheConfig) ====================
+
+    public static final String CACHE_REGION_ORGANIZATIONS     = "reference.organizations";
+    public static final String CACHE_REGION_PROVIDERS         = "reference.providers";
+    public static final String CACHE_REGION_REFERENCE_QUERIES = "reference.queries";
+
+    // NOTIFY channel for organization/provider changes, listened to by every service caching them
+    public static final String CHANNEL_REFERENCE_DATA_CHANGED = "reference_data_changed";
+
 }
\ No newline at end of file
@@ -1,9 +1,16 @@
 package com.healthcare.dao;
 
+import com.healthcare.constants.DatabaseConstants;
 import com.healthcare.entity.AiAnalysisResult;
+import com.healthcare.enums.AiTriggerType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +23,108 @@ public interface AiAnalysisResultDao extends JpaRepository<AiAnalysisResult, UUI
      */
     Optional<AiAnalysisResult> findTopByPatientIdOrderByGeneratedAtDesc(UUID patientId);
 
+    /**
+     * Snapshot digest of the most recent analysis for a patient — the "has anything changed?" check.
+     * Selects only the digest column; index-only scan on idx_ai_results_patient_history,
+     * which INCLUDEs snapshot_digest.
+     * Empty if the patient has no analysis yet; the digest itself is null for legacy rows.
+     */
+    @Query("SELECT r.snapshotDigest FROM AiAnalysisResult r "
+            + "WHERE r.patientId = :patientId ORDER BY r.generatedAt DESC LIMIT 1")
+    List<byte[]> findLatestSnapshotDigest(@Param("patientId") UUID patientId);
+
+    /**
+     * Batch form of findLatestSnapshotDigest — one row per patient that has any result.
+     * DISTINCT ON walks idx_ai_results_patient_history once per patient.
+     */
+    @Query(value = "SELECT DISTINCT ON (patient_id) patient_id AS patientId, snapshot_digest AS snapshotDigest "
+            + "FROM ai_analysis_results WHERE patient_id = ANY(:patientIds) "
+            + "ORDER BY patient_id, generated_at DESC", nativeQuery = true)
+    List<LatestDigest> findLatestSnapshotDigests(@Param("patientIds") UUID[] patientIds);
+
+    interface LatestDigest {
+        UUID getPatientId();
+        byte[] getSnapshotDigest();
+    }
+
+    /**
+     * Blocks until this transaction holds the per-patient analysis advisory lock.
+     * Released automatically on commit/rollback — must be called inside a transaction.
+     * Serializes the lease claim and the result save per patient; never hold it across a Gemini call.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock("
+            + DatabaseConstants.ADVISORY_LOCK_AI_ANALYSIS + ", hashtext(CAST(:patientId AS text)))",
+            nativeQuery = true)
+    Integer acquireAnalysisLock(@Param("patientId") UUID patientId);
+
+    /**
+     * Claims the patient's analysis lease (ai_analysis_leases) for holder, unless another
+     * holder's lease is still live. Returns 1 when claimed, 0 when the patient is being analyzed
+     * elsewhere. An expired lease, left by a replica that died mid-call, is taken over.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO ai_analysis_leases (patient_id, holder, expires_at)
+            VALUES (:patientId, :holder, NOW() + make_interval(secs => :leaseSeconds))
+            ON CONFLICT (patient_id) DO UPDATE SET
+                holder     = EXCLUDED.holder,
+                expires_at = EXCLUDED.expires_at,
+                created_at = NOW()
+            WHERE ai_analysis_leases.expires_at < NOW()
+            """, nativeQuery = true)
+    int claimAnalysisLease(@Param("patientId") UUID patientId,
+                           @Param("holder") UUID holder,
+                           @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * Ends holder's lease. No-op once the lease expired and another holder took it over.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ai_analysis_leases WHERE patient_id = :patientId AND holder = :holder",
+            nativeQuery = true)
+    int releaseAnalysisLease(@Param("patientId") UUID patientId, @Param("holder") UUID holder);
+
+    /**
+     * Ids of a patient's analyses, newest first — PageRequest.of(0, 1) for the latest.
+     * Walks idx_ai_results_patient_history without reading the text columns, so callers can
+     * serve a response they already hold and load the full row only otherwise.
+     */
+    @Query("SELECT r.id FROM AiAnalysisResult r "
+            + "WHERE r.patientId = :patientId ORDER BY r.generatedAt DESC")
+    List<UUID> findResultIds(@Param("patientId") UUID patientId, Pageable pageable);
+
+    String HISTORY_SELECT = "SELECT r.id AS id, r.generatedAt AS generatedAt, r.triggerType AS triggerType, "
+            + "r.modelVersion AS modelVersion, function('jsonb_array_length', r.riskFlags) AS flagCount "
+            + "FROM AiAnalysisResult r WHERE r.patientId = :patientId ";
+    String HISTORY_ORDER  = "ORDER BY r.generatedAt DESC, r.id DESC";
+
+    /**
+     * First page of a patient's history as light rows — no summary or input_record_ids text.
+     * Newest first, walking idx_ai_results_patient_history backwards.
+     */
+    @Query(HISTORY_SELECT + HISTORY_ORDER)
+    List<HistoryEntry> findHistory(@Param("patientId") UUID patientId, Pageable pageable);
+
+    /**
+     * Next page after the (generatedAt, id) of the last row already returned — keyset, so
+     * deep pages cost the same as the first and rows inserted meanwhile never shift a page.
+     */
+    @Query(HISTORY_SELECT
+            + "AND (r.generatedAt < :generatedAt OR (r.generatedAt = :generatedAt AND r.id < :id)) "
+            + HISTORY_ORDER)
+    List<HistoryEntry> findHistoryBefore(@Param("patientId") UUID patientId,
+                                         @Param("generatedAt") OffsetDateTime generatedAt,
+                                         @Param("id") UUID id,
+                                         Pageable pageable);
+
+    interface HistoryEntry {
+        UUID getId();
+        OffsetDateTime getGeneratedAt();
+        AiTriggerType getTriggerType();
+        String getModelVersion();
+        int getFlagCount();
+    }
+
     /**
      * Full history for a patient — used by the governance/audit API.
      */
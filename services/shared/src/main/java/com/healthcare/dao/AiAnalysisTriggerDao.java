@@ -0,0 +1,109 @@
+package com.healthcare.dao;
+
+import com.healthcare.entity.AiAnalysisTrigger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DAO for AiAnalysisTrigger — the AI re-analysis outbox (ai_analysis_triggers).
+ * provider-service only calls markPatient; ai-service owns the claim / complete / retry cycle.
+ * Every method must run inside the caller's transaction.
+ */
+@Repository
+public interface AiAnalysisTriggerDao extends JpaRepository<AiAnalysisTrigger, UUID> {
+
+    /**
+     * Records that a patient's clinical data changed. One row per patient: a later edit
+     * re-marks the row (restarting the debounce window) instead of adding a second one.
+     * triggered_by is kept only while every edit in the burst came from the same provider.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO ai_analysis_triggers
+                (patient_id, trigger_type, trigger_code, triggered_by, encounter_id, status, marked_at)
+            VALUES
+                (:patientId, :triggerType, :triggerCode, :triggeredBy, :encounterId, 'PENDING', NOW())
+            ON CONFLICT (patient_id) DO UPDATE SET
+                trigger_type    = EXCLUDED.trigger_type,
+                trigger_code    = EXCLUDED.trigger_code,
+                triggered_by    = CASE WHEN ai_analysis_triggers.triggered_by = EXCLUDED.triggered_by
+                                       THEN EXCLUDED.triggered_by END,
+                encounter_id    = EXCLUDED.encounter_id,
+                status          = 'PENDING',
+                marked_at       = NOW(),
+                attempts        = 0,
+                next_attempt_at = NULL,
+                updated_at      = NOW()
+            """, nativeQuery = true)
+    int markPatient(@Param("patientId") UUID patientId,
+                    @Param("triggerType") String triggerType,
+                    @Param("triggerCode") String triggerCode,
+                    @Param("triggeredBy") UUID triggeredBy,
+                    @Param("encounterId") UUID encounterId);
+
+    /**
+     * Claims up to batchSize triggers that are quiet for debounceSeconds (or whose previous
+     * claim expired) and leases them for leaseSeconds. SKIP LOCKED lets replicas poll concurrently.
+     * Not @Modifying: that runs the statement through executeUpdate, which returns only a row
+     * count, whereas the claimed rows come back from RETURNING as a result list.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE ai_analysis_triggers
+               SET status = 'PROCESSING',
+                   lock_expires_at = NOW() + make_interval(secs => :leaseSeconds),
+                   updated_at = NOW()
+             WHERE patient_id IN (
+                   SELECT patient_id FROM ai_analysis_triggers
+                    WHERE (status = 'PENDING'
+                           AND marked_at <= NOW() - make_interval(secs => :debounceSeconds)
+                           AND (next_attempt_at IS NULL OR next_attempt_at <= NOW()))
+                       OR (status = 'PROCESSING' AND lock_expires_at < NOW())
+                    ORDER BY marked_at
+                    LIMIT :batchSize
+                    FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    List<AiAnalysisTrigger> claimDue(@Param("debounceSeconds") int debounceSeconds,
+                                     @Param("leaseSeconds") int leaseSeconds,
+                                     @Param("batchSize") int batchSize);
+
+    /**
+     * Deletes a processed trigger — unless a newer edit re-marked it while it was processing,
+     * in which case the row stays PENDING and is analyzed again after its own debounce window.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ai_analysis_triggers "
+            + "WHERE patient_id = :patientId AND marked_at = :markedAt", nativeQuery = true)
+    int deleteIfUnchanged(@Param("patientId") UUID patientId,
+                          @Param("markedAt") OffsetDateTime markedAt);
+
+    /**
+     * Returns a failed trigger to PENDING with backoff, or parks it as FAILED once attempts
+     * reach maxAttempts. No-op if a newer edit re-marked the row meanwhile.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE ai_analysis_triggers
+               SET attempts        = attempts + 1,
+                   status          = CASE WHEN attempts + 1 >= :maxAttempts THEN 'FAILED' ELSE 'PENDING' END,
+                   next_attempt_at = NOW() + make_interval(secs => :backoffSeconds),
+                   lock_expires_at = NULL,
+                   last_error      = :error,
+                   updated_at      = NOW()
+             WHERE patient_id = :patientId AND marked_at = :markedAt
+            """, nativeQuery = true)
+    int reschedule(@Param("patientId") UUID patientId,
+                   @Param("markedAt") OffsetDateTime markedAt,
+                   @Param("backoffSeconds") int backoffSeconds,
+                   @Param("maxAttempts") int maxAttempts,
+                   @Param("error") String error);
+}
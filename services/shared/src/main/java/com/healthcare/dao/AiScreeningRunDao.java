@@ -0,0 +1,45 @@
+package com.healthcare.dao;
+
+import com.healthcare.entity.AiScreeningRun;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * DAO for AiScreeningRun — batch AI screening sweep progress (ai_screening_runs).
+ * Owned by ai-service.
+ */
+@Repository
+public interface AiScreeningRunDao extends JpaRepository<AiScreeningRun, UUID> {
+
+    /**
+     * Latest sweep — the one a new start request resumes if it did not complete.
+     * Row-locked (FOR UPDATE) so two replicas cannot both take over a stale run.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AiScreeningRun> findTopByOrderByStartedAtDesc();
+
+    /**
+     * The run, row-locked (FOR UPDATE) — a sweep's page commit and a takeover of the same run
+     * serialize, so the commit sees the owner the takeover wrote.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM AiScreeningRun r WHERE r.id = :id")
+    Optional<AiScreeningRun> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Moves the heartbeat if the sweep still owns the run. 0 means the run was taken over
+     * or has finished.
+     */
+    @Modifying
+    @Query(value = "UPDATE ai_screening_runs SET heartbeat_at = NOW() "
+            + "WHERE id = :id AND owner_id = :owner AND status = 'RUNNING'", nativeQuery = true)
+    int heartbeat(@Param("id") UUID id, @Param("owner") UUID owner);
+}
@@ -3,8 +3,12 @@ package com.healthcare.dao;
 import com.healthcare.entity.Allergy;
 import com.healthcare.entity.AllergyId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,4 +21,40 @@ import java.util.UUID;
 public interface AllergyDao extends JpaRepository<Allergy, AllergyId> {
 
     List<Allergy> findByIdPatientId(UUID patientId);
+
+    List<Allergy> findByIdPatientIdIn(Collection<UUID> patientIds);
+
+    /**
+     * A patient's allergies as chart rows — not managed, no patient/encounter associations.
+     */
+    @Query("SELECT a.id.code AS code, a.system AS system, a.description AS description, "
+            + "a.allergyType AS allergyType, a.category AS category, "
+            + "a.startDate AS startDate, a.stopDate AS stopDate, "
+            + "a.reaction1 AS reaction1, a.description1 AS description1, a.severity1 AS severity1, "
+            + "a.reaction2 AS reaction2, a.description2 AS description2, a.severity2 AS severity2, "
+            + "a.notes AS notes "
+            + "FROM Allergy a WHERE a.id.patientId = :patientId")
+    List<AllergySummary> findSummariesByPatientId(@Param("patientId") UUID patientId);
+
+    interface AllergySummary {
+        String getCode();
+        String getSystem();
+        String getDescription();
+        String getAllergyType();
+        String getCategory();
+        LocalDate getStartDate();
+        LocalDate getStopDate();
+        String getReaction1();
+        String getDescription1();
+        String getSeverity1();
+        String getReaction2();
+        String getDescription2();
+        String getSeverity2();
+        String getNotes();
+
+        /** Same rule as Allergy.isActive(). */
+        default boolean isActive() {
+            return getStopDate() == null;
+        }
+    }
 }
\ No newline at end of file
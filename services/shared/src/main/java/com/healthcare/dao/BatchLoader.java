@@ -0,0 +1,97 @@
+package com.healthcare.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Loads rows of one type by key in batches, remembering every key it has looked up.
+ *
+ * Keys are queued with {@link #defer} or passed to {@link #loadMany}, and every queued key is
+ * fetched in one query the first time any of them is needed — call sites that each want one
+ * row no longer cost one query each. Misses are remembered too, so a key is never queried
+ * twice. Instances come from {@link BatchLoaders}, one per type per transaction; they are not
+ * thread-safe.
+ */
+public final class BatchLoader<K, V> {
+
+    private final Function<List<K>, ? extends Collection<V>> query;
+    private final Function<V, K> keyOf;
+    private final int            maxBatchSize;
+
+    /** Looked-up keys; a null value is a key that does not exist. */
+    private final Map<K, V> loaded = new HashMap<>();
+    private final Set<K>    queued = new LinkedHashSet<>();
+
+    public BatchLoader(Function<List<K>, ? extends Collection<V>> query, Function<V, K> keyOf, int maxBatchSize) {
+        this.query        = query;
+        this.keyOf        = keyOf;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues the key and returns its value on demand — fetched together with every other key
+     * queued by then.
+     */
+    public Supplier<Optional<V>> defer(K key) {
+        queue(key);
+        return () -> load(key);
+    }
+
+    public Optional<V> load(K key) {
+        if (key == null) return Optional.empty();
+        queue(key);
+        dispatch();
+        return Optional.ofNullable(loaded.get(key));
+    }
+
+    /**
+     * Values of the keys that exist, in the order given; missing keys are left out.
+     */
+    public Map<K, V> loadMany(Collection<? extends K> keys) {
+        keys.forEach(this::queue);
+        dispatch();
+        Map<K, V> values = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = key == null ? null : loaded.get(key);
+            if (value != null) values.put(key, value);
+        }
+        return values;
+    }
+
+    /**
+     * Records a row the caller already holds, so it is not queried again.
+     */
+    public void prime(V value) {
+        K key = keyOf.apply(value);
+        loaded.put(key, value);
+        queued.remove(key);
+    }
+
+    /**
+     * Fetches every queued key: one query per maxBatchSize keys.
+     */
+    public void dispatch() {
+        if (queued.isEmpty()) return;
+        List<K> keys = new ArrayList<>(queued);
+        queued.clear();
+        for (int from = 0; from < keys.size(); from += maxBatchSize) {
+            List<K> chunk = keys.subList(from, Math.min(keys.size(), from + maxBatchSize));
+            Collection<V> rows = query.apply(chunk);
+            chunk.forEach(key -> loaded.put(key, null));
+            rows.forEach(row -> loaded.put(keyOf.apply(row), row));
+        }
+    }
+
+    private void queue(K key) {
+        if (key != null && !loaded.containsKey(key)) queued.add(key);
+    }
+}
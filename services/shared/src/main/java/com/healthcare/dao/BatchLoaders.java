@@ -0,0 +1,100 @@
+package com.healthcare.dao;
+
+import com.healthcare.dao.PatientDao.PatientSummary;
+import com.healthcare.entity.Organization;
+import com.healthcare.entity.Provider;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Batched, memoized lookups by id on the shared DAOs — the fix for loops that call findById,
+ * or touch a lazy association, once per row.
+ *
+ * Each lookup type is one {@code WHERE id = ANY(:ids)} query however many ids it is given: a
+ * single array bind, so the statement text and plan are the same for 1 id or 500. Providers and
+ * organizations go through Hibernate's multi-id load instead, which serves ids from the
+ * persistence context and the second-level cache (ReferenceCacheConfig) and queries only the
+ * misses — on a warm cache, no SQL at all. Loaders live
+ * as long as the current transaction — the unit a service method reads in, and the life of the
+ * entities they return — so every caller in that transaction shares the same batches and the
+ * same results. Outside a transaction each call gets fresh loaders.
+ */
+public class BatchLoaders {
+
+    /** Ids per statement; larger batches are split. */
+    public static final int MAX_BATCH_SIZE = 1_000;
+
+    private final PatientDao    patientDao;
+    private final EntityManager entityManager;
+
+    /**
+     * @param entityManager a shared (transaction-bound) EntityManager
+     */
+    public BatchLoaders(PatientDao patientDao, EntityManager entityManager) {
+        this.patientDao    = patientDao;
+        this.entityManager = entityManager;
+    }
+
+    public BatchLoader<UUID, PatientSummary> patientSummaries() {
+        return loader("patientSummaries",
+                ids -> patientDao.findSummariesByIds(ids.toArray(UUID[]::new)), PatientSummary::getId);
+    }
+
+    public BatchLoader<UUID, Provider> providers() {
+        return loader("providers", ids -> multiLoad(Provider.class, ids), Provider::getId);
+    }
+
+    public BatchLoader<UUID, Organization> organizations() {
+        return loader("organizations", ids -> multiLoad(Organization.class, ids), Organization::getId);
+    }
+
+    /** Ids that do not exist come back as nulls from multiLoad and are dropped. */
+    private <T> List<T> multiLoad(Class<T> type, List<UUID> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(type)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> BatchLoader<UUID, V> loader(String type,
+                                            Function<List<UUID>, List<V>> query,
+                                            Function<V, UUID> keyOf) {
+        return (BatchLoader<UUID, V>) scope().computeIfAbsent(type,
+                key -> new BatchLoader<UUID, V>(query, keyOf, MAX_BATCH_SIZE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, BatchLoader<UUID, ?>> scope() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashMap<>();
+        }
+        Map<String, BatchLoader<UUID, ?>> scope =
+                (Map<String, BatchLoader<UUID, ?>>) TransactionSynchronizationManager.getResource(this);
+        if (scope == null) {
+            scope = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, scope);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BatchLoaders.this);
+                }
+            });
+        }
+        return scope;
+    }
+}
@@ -3,8 +3,12 @@ package com.healthcare.dao;
 import com.healthcare.entity.Condition;
 import com.healthcare.entity.ConditionId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,5 +22,28 @@ public interface ConditionDao extends JpaRepository<Condition, ConditionId> {
 
     List<Condition> findByIdPatientId(UUID patientId);
 
+    List<Condition> findByIdPatientIdIn(Collection<UUID> patientIds);
+
     List<Condition> findByIdCode(String code);
+
+    /**
+     * A patient's conditions as chart rows — not managed, no patient/encounter associations.
+     */
+    @Query("SELECT c.id.code AS code, c.system AS system, c.description AS description, "
+            + "c.startDate AS startDate, c.stopDate AS stopDate "
+            + "FROM Condition c WHERE c.id.patientId = :patientId")
+    List<ConditionSummary> findSummariesByPatientId(@Param("patientId") UUID patientId);
+
+    interface ConditionSummary {
+        String getCode();
+        String getSystem();
+        String getDescription();
+        LocalDate getStartDate();
+        LocalDate getStopDate();
+
+        /** Same rule as Condition.isOngoing(). */
+        default boolean isOngoing() {
+            return getStopDate() == null;
+        }
+    }
 }
\ No newline at end of file
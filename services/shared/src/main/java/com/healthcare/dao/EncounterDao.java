@@ -1,10 +1,18 @@
 package com.healthcare.dao;
 
 import com.healthcare.entity.Encounter;
+import com.healthcare.enums.EncounterStatus;
+import com.healthcare.enums.EncounterType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +25,8 @@ public interface EncounterDao extends JpaRepository<Encounter, UUID> {
 
     List<Encounter> findByPatientId(UUID patientId);
 
+    List<Encounter> findByPatientIdIn(Collection<UUID> patientIds);
+
     List<Encounter> findByProviderId(UUID providerId);
 
     List<Encounter> findByProviderIdAndStartTimeBetween(
@@ -32,4 +42,47 @@ public interface EncounterDao extends JpaRepository<Encounter, UUID> {
      * Used for provider access authorization.
      */
     boolean existsByPatientIdAndProviderId(UUID patientId, UUID providerId);
+
+    /**
+     * One page of a patient's encounters as list rows, sorted by the pageable.
+     * Paged in the database on idx_encounters_patient_time; no payer or audit columns, not managed.
+     */
+    @Query(value = "SELECT e.id AS id, e.providerId AS providerId, e.organizationId AS organizationId, "
+            + "e.startTime AS startTime, e.stopTime AS stopTime, e.encounterClass AS encounterClass, "
+            + "e.status AS status, e.encounterType AS encounterType, e.code AS code, "
+            + "e.description AS description, e.baseCost AS baseCost, e.totalCost AS totalCost, "
+            + "e.reasonCode AS reasonCode, e.reasonDesc AS reasonDesc "
+            + "FROM Encounter e WHERE e.patientId = :patientId",
+           countQuery = "SELECT count(e) FROM Encounter e WHERE e.patientId = :patientId")
+    Page<EncounterSummary> findSummariesByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    /**
+     * A provider's patients with the start of each one's latest encounter — one row per patient,
+     * aggregated on idx_encounters_provider_patient instead of loading every encounter.
+     */
+    @Query("SELECT e.patientId AS patientId, MAX(e.startTime) AS startTime "
+            + "FROM Encounter e WHERE e.providerId = :providerId GROUP BY e.patientId")
+    List<LatestEncounter> findLatestEncounterPerPatient(@Param("providerId") UUID providerId);
+
+    interface EncounterSummary {
+        UUID getId();
+        UUID getProviderId();
+        UUID getOrganizationId();
+        OffsetDateTime getStartTime();
+        OffsetDateTime getStopTime();
+        String getEncounterClass();
+        EncounterStatus getStatus();
+        EncounterType getEncounterType();
+        String getCode();
+        String getDescription();
+        BigDecimal getBaseCost();
+        BigDecimal getTotalCost();
+        String getReasonCode();
+        String getReasonDesc();
+    }
+
+    interface LatestEncounter {
+        UUID getPatientId();
+        OffsetDateTime getStartTime();
+    }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.healthcare.dao;
 
+import com.healthcare.constants.DatabaseConstants;
 import com.healthcare.entity.Organization;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,10 +14,17 @@ import java.util.UUID;
 /**
  * DAO for Organization entity.
  * Maps to organizations table — owned by provider-service.
+ *
+ * Organizations change with imports only, so lookups go through the second-level cache when
+ * healthcare.reference-cache.enabled (see ReferenceCacheConfig).
  */
 @Repository
 public interface OrganizationDao extends JpaRepository<Organization, UUID> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE,    value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = DatabaseConstants.CACHE_REGION_REFERENCE_QUERIES)
+    })
     Optional<Organization> findByName(String name);
 
     boolean existsByName(String name);
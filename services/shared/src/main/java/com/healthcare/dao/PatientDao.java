@@ -1,7 +1,11 @@
 package com.healthcare.dao;
 
 import com.healthcare.entity.Patient;
+import com.healthcare.enums.Gender;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -22,15 +26,47 @@ public interface PatientDao extends JpaRepository<Patient, UUID> {
      */
     Optional<Patient> findByAuthId(UUID authId);
 
+    /**
+     * Patient id for an auth_id, without loading the patient row.
+     * For endpoints that only need the id to read the patient's encounters, conditions or allergies.
+     */
+    @Query("SELECT p.id FROM Patient p WHERE p.authId = :authId")
+    Optional<UUID> findIdByAuthId(@Param("authId") UUID authId);
+
     /**
      * Check if auth_id is already linked.
      */
     boolean existsByAuthId(UUID authId);
 
+    /**
+     * The list-view columns of the given patients — six of the ~40, not managed entities.
+     * One statement for any number of ids (a single array bind); see BatchLoaders.patientSummaries().
+     */
+    @Query(value = "SELECT id AS id, first_name AS firstName, last_name AS lastName, "
+            + "birthdate AS birthdate, gender AS gender, phone AS phone "
+            + "FROM patients WHERE id = ANY(:ids)", nativeQuery = true)
+    List<PatientSummary> findSummariesByIds(@Param("ids") UUID[] ids);
+
+    interface PatientSummary {
+        UUID getId();
+        String getFirstName();
+        String getLastName();
+        LocalDate getBirthdate();
+        Gender getGender();
+        String getPhone();
+    }
+
     /**
      * Find patients by name + birthdate for registration matching.
      * Uses idx_patients_name index on (last_name, first_name, birthdate).
      * Returns a list — caller must enforce exactly one match.
      */
     List<Patient> findByFirstNameAndLastNameAndBirthdate(String firstName, String lastName, LocalDate birthdate);
+
+    /**
+     * Keyset page of living patients' ids, in id order, strictly after the given id.
+     * Used by the AI screening sweep — pass the last id of the previous page as the cursor.
+     */
+    @Query("SELECT p.id FROM Patient p WHERE p.deathdate IS NULL AND p.id > :after ORDER BY p.id")
+    List<UUID> findActivePatientIdsAfter(@Param("after") UUID after, Pageable page);
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.healthcare.dao;
 
+import com.healthcare.constants.DatabaseConstants;
 import com.healthcare.entity.Provider;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,6 +15,9 @@ import java.util.UUID;
 /**
  * DAO for Provider entity.
  * Maps to providers table — owned by provider-service.
+ *
+ * Providers change with imports and registrations only, so the per-request lookups go through
+ * the second-level cache when healthcare.reference-cache.enabled (see ReferenceCacheConfig).
  */
 @Repository
 public interface ProviderDao extends JpaRepository<Provider, UUID> {
@@ -19,11 +26,19 @@ public interface ProviderDao extends JpaRepository<Provider, UUID> {
      * Find provider by auth_id.
      * Used after login to fetch provider profile.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE,    value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = DatabaseConstants.CACHE_REGION_REFERENCE_QUERIES)
+    })
     Optional<Provider> findByAuthId(UUID authId);
 
     /**
      * Find all providers in an organization.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE,    value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = DatabaseConstants.CACHE_REGION_REFERENCE_QUERIES)
+    })
     List<Provider> findByOrganizationId(UUID organizationId);
 
     /**
@@ -2,7 +2,11 @@ package com.healthcare.dao;
 
 import com.healthcare.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -21,4 +25,15 @@ public interface UserDao extends JpaRepository<User, UUID> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Replaces a password hash only if it is still the one the caller verified against, so a
+     * rehash on login never overwrites a password changed in the meantime. Returns rows updated.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") UUID id,
+                           @Param("oldHash") String oldHash,
+                           @Param("newHash") String newHash);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.healthcare.entity;
 
 import com.healthcare.constants.DatabaseConstants;
+import com.healthcare.dto.RiskFlag;
 import com.healthcare.enums.AiTriggerType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -8,11 +9,16 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -22,8 +28,10 @@ import java.util.UUID;
                    columnList = DatabaseConstants.COL_PATIENT_ID + "," + DatabaseConstants.COL_GENERATED_AT),
             @Index(name = DatabaseConstants.INDEX_AI_RESULTS_ENCOUNTER,
                    columnList = DatabaseConstants.COL_LAST_ENCOUNTER_ID + "," + DatabaseConstants.COL_GENERATED_AT)
+            // ai_analysis_results.sql adds INCLUDE (snapshot_digest) to the history index —
+            // @Index cannot express INCLUDE columns
         })
-public class AiAnalysisResult {
+public class AiAnalysisResult implements Persistable<UUID> {
 
     @Id
     @Column(name = DatabaseConstants.COL_ID, updatable = false, nullable = false,
@@ -41,10 +49,11 @@ public class AiAnalysisResult {
             columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TEXT)
     private String summary;
 
+    // mapped straight to records by Hibernate's JSON format mapper — no per-read parse in the service
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = DatabaseConstants.COL_RISK_FLAGS, nullable = false, updatable = false,
             columnDefinition = DatabaseConstants.COLUMN_DEFINITION_JSONB)
-    private String riskFlags;
+    private List<RiskFlag> riskFlags;
 
     @Enumerated(EnumType.STRING)
     @Column(name = DatabaseConstants.COL_TRIGGER_TYPE, nullable = false, updatable = false,
@@ -63,6 +72,16 @@ public class AiAnalysisResult {
             columnDefinition = DatabaseConstants.COLUMN_DEFINITION_JSONB)
     private String inputRecordIds;
 
+    /**
+     * SHA-256 of the canonical clinical snapshot (conditions + allergies) this result was built from.
+     * Computed once at write time so change detection is a byte comparison, not a JSON re-parse.
+     * Null for rows written before the column existed.
+     */
+    @Column(name = DatabaseConstants.COL_SNAPSHOT_DIGEST, updatable = false,
+            length = DatabaseConstants.LEN_SNAPSHOT_DIGEST,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_BYTEA)
+    private byte[] snapshotDigest;
+
     @Column(name = DatabaseConstants.COL_LAST_ENCOUNTER_ID, updatable = false)
     private UUID lastEncounterId;
 
@@ -73,20 +92,34 @@ public class AiAnalysisResult {
             columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TIMESTAMPTZ)
     private OffsetDateTime createdAt;
 
+    // id is assigned in the constructor, so without this save() would merge (SELECT, then INSERT)
+    // instead of persist — and batch inserts from the screening sweep would not batch
+    @Transient
+    private boolean isNew = true;
+
     protected AiAnalysisResult() {}
 
-    public AiAnalysisResult(UUID patientId, String summary, String riskFlags,
+    public AiAnalysisResult(UUID patientId, String summary, List<RiskFlag> riskFlags,
                              AiTriggerType triggerType, UUID triggeredBy,
                              String modelVersion, String inputRecordIds, UUID lastEncounterId) {
+        this(patientId, summary, riskFlags, triggerType, triggeredBy,
+                modelVersion, inputRecordIds, null, lastEncounterId);
+    }
+
+    public AiAnalysisResult(UUID patientId, String summary, List<RiskFlag> riskFlags,
+                             AiTriggerType triggerType, UUID triggeredBy,
+                             String modelVersion, String inputRecordIds, byte[] snapshotDigest,
+                             UUID lastEncounterId) {
         this.id              = UUID.randomUUID();
         this.patientId       = patientId;
         this.generatedAt     = OffsetDateTime.now();
         this.summary         = summary;
-        this.riskFlags       = riskFlags;
+        this.riskFlags       = List.copyOf(riskFlags);
         this.triggerType     = triggerType;
         this.triggeredBy     = triggeredBy;
         this.modelVersion    = modelVersion;
         this.inputRecordIds  = inputRecordIds;
+        this.snapshotDigest  = snapshotDigest;
         this.lastEncounterId = lastEncounterId;
         this.archived        = false;
     }
@@ -95,14 +128,22 @@ public class AiAnalysisResult {
     public UUID getPatientId()             { return patientId; }
     public OffsetDateTime getGeneratedAt() { return generatedAt; }
     public String getSummary()             { return summary; }
-    public String getRiskFlags()           { return riskFlags; }
+    public List<RiskFlag> getRiskFlags()   { return riskFlags; }
     public AiTriggerType getTriggerType()  { return triggerType; }
     public UUID getTriggeredBy()           { return triggeredBy; }
     public String getModelVersion()        { return modelVersion; }
     public String getInputRecordIds()      { return inputRecordIds; }
+    public byte[] getSnapshotDigest()      { return snapshotDigest; }
     public UUID getLastEncounterId()       { return lastEncounterId; }
     public boolean isArchived()            { return archived; }
     public OffsetDateTime getCreatedAt()   { return createdAt; }
 
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+
     public void archive() { this.archived = true; }
 }
@@ -0,0 +1,99 @@
+package com.healthcare.entity;
+
+import com.healthcare.constants.DatabaseConstants;
+import com.healthcare.enums.AiTriggerStatus;
+import com.healthcare.enums.AiTriggerType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Pending AI re-analysis for one patient — transactional outbox row.
+ *
+ * Written by provider-service (upsert per patient, so a burst of edits collapses into one row)
+ * and consumed by ai-service. All state transitions go through native queries on
+ * AiAnalysisTriggerDao; this mapping is read-only for JPA.
+ */
+@Entity
+@Table(name = DatabaseConstants.TABLE_AI_ANALYSIS_TRIGGERS,
+        indexes = {
+            @Index(name = DatabaseConstants.INDEX_AI_TRIGGERS_STATUS_MARKED_AT,
+                   columnList = DatabaseConstants.COL_STATUS + "," + DatabaseConstants.COL_MARKED_AT)
+        })
+public class AiAnalysisTrigger {
+
+    @Id
+    @Column(name = DatabaseConstants.COL_PATIENT_ID, updatable = false, nullable = false)
+    private UUID patientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = DatabaseConstants.COL_TRIGGER_TYPE, nullable = false,
+            length = DatabaseConstants.LEN_TRIGGER_TYPE)
+    private AiTriggerType triggerType;
+
+    @Column(name = DatabaseConstants.COL_TRIGGER_CODE, length = DatabaseConstants.LEN_CODE)
+    private String triggerCode;
+
+    @Column(name = DatabaseConstants.COL_TRIGGERED_BY)
+    private UUID triggeredBy;
+
+    @Column(name = DatabaseConstants.COL_ENCOUNTER_ID)
+    private UUID encounterId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = DatabaseConstants.COL_STATUS, nullable = false,
+            length = DatabaseConstants.LEN_TRIGGER_STATUS)
+    private AiTriggerStatus status;
+
+    @Column(name = DatabaseConstants.COL_MARKED_AT, nullable = false,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TIMESTAMPTZ)
+    private OffsetDateTime markedAt;
+
+    @Column(name = DatabaseConstants.COL_LOCK_EXPIRES_AT,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TIMESTAMPTZ)
+    private OffsetDateTime lockExpiresAt;
+
+    @Column(name = DatabaseConstants.COL_ATTEMPTS, nullable = false)
+    private int attempts;
+
+    @Column(name = DatabaseConstants.COL_NEXT_ATTEMPT_AT,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TIMESTAMPTZ)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = DatabaseConstants.COL_LAST_ERROR,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TEXT)
+    private String lastError;
+
+    protected AiAnalysisTrigger() {}
+
+    public AiAnalysisTrigger(UUID patientId, AiTriggerType triggerType, String triggerCode,
+                             UUID triggeredBy, UUID encounterId) {
+        this.patientId   = patientId;
+        this.triggerType = triggerType;
+        this.triggerCode = triggerCode;
+        this.triggeredBy = triggeredBy;
+        this.encounterId = encounterId;
+        this.status      = AiTriggerStatus.PENDING;
+        this.markedAt    = OffsetDateTime.now();
+        this.attempts    = 0;
+    }
+
+    public UUID getPatientId()               { return patientId; }
+    public AiTriggerType getTriggerType()    { return triggerType; }
+    public String getTriggerCode()           { return triggerCode; }
+    public UUID getTriggeredBy()             { return triggeredBy; }
+    public UUID getEncounterId()             { return encounterId; }
+    public AiTriggerStatus getStatus()       { return status; }
+    public OffsetDateTime getMarkedAt()      { return markedAt; }
+    public OffsetDateTime getLockExpiresAt() { return lockExpiresAt; }
+    public int getAttempts()                 { return attempts; }
+    public OffsetDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public String getLastError()             { return lastError; }
+}
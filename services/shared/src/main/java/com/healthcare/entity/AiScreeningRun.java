@@ -0,0 +1,185 @@
+package com.healthcare.entity;
+
+import com.healthcare.constants.DatabaseConstants;
+import com.healthcare.enums.ScreeningRunStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Progress of one batch AI screening sweep. Owned by ai-service.
+ *
+ * recordPage advances the cursor and counters together; callers save it in the same
+ * transaction as the page's results so a resumed run continues exactly after the last
+ * committed page. Patients the page failed to analyze go on the retry list rather than being
+ * passed silently; recordRetryPage takes them off once a retry analyzed them.
+ *
+ * ownerId identifies the sweep working the run. start and resume each issue a new one, so a
+ * sweep that was taken over can tell from the row that it no longer owns it.
+ */
+@Entity
+@Table(name = DatabaseConstants.TABLE_AI_SCREENING_RUNS,
+        indexes = {
+            @Index(name = DatabaseConstants.INDEX_AI_SCREENING_RUNS_STARTED_AT,
+                   columnList = DatabaseConstants.COL_STARTED_AT)
+            // idx_ai_screening_runs_one_running (partial unique) is created in ai_screening_runs.sql
+        })
+public class AiScreeningRun {
+
+    @Id
+    @Column(name = DatabaseConstants.COL_ID, updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = DatabaseConstants.COL_STATUS, nullable = false,
+            length = DatabaseConstants.LEN_SCREENING_STATUS)
+    private ScreeningRunStatus status;
+
+    @Column(name = DatabaseConstants.COL_CURSOR_PATIENT_ID)
+    private UUID cursorPatientId;
+
+    @Column(name = DatabaseConstants.COL_PATIENTS_SCANNED, nullable = false)
+    private int patientsScanned;
+
+    @Column(name = DatabaseConstants.COL_PATIENTS_CHANGED, nullable = false)
+    private int patientsChanged;
+
+    @Column(name = DatabaseConstants.COL_PATIENTS_ANALYZED, nullable = false)
+    private int patientsAnalyzed;
+
+    @Column(name = DatabaseConstants.COL_PATIENTS_FAILED, nullable = false)
+    private int patientsFailed;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = DatabaseConstants.COL_RETRY_PATIENT_IDS, nullable = false,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_UUID_ARRAY)
+    private UUID[] retryPatientIds = new UUID[0];
+
+    @Column(name = DatabaseConstants.COL_MODEL_REQUESTS, nullable = false)
+    private int modelRequests;
+
+    @Column(name = DatabaseConstants.COL_PROMPT_TOKENS, nullable = false)
+    private long promptTokens;
+
+    @Column(name = DatabaseConstants.COL_STARTED_AT, nullable = false, updatable = false,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TIMESTAMPTZ)
+    private OffsetDateTime startedAt;
+
+    @Column(name = DatabaseConstants.COL_HEARTBEAT_AT, nullable = false,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TIMESTAMPTZ)
+    private OffsetDateTime heartbeatAt;
+
+    @Column(name = DatabaseConstants.COL_OWNER_ID)
+    private UUID ownerId;
+
+    @Column(name = DatabaseConstants.COL_FINISHED_AT,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TIMESTAMPTZ)
+    private OffsetDateTime finishedAt;
+
+    @Column(name = DatabaseConstants.COL_LAST_ERROR,
+            columnDefinition = DatabaseConstants.COLUMN_DEFINITION_TEXT)
+    private String lastError;
+
+    protected AiScreeningRun() {}
+
+    public static AiScreeningRun start() {
+        AiScreeningRun run = new AiScreeningRun();
+        run.id          = UUID.randomUUID();
+        run.status      = ScreeningRunStatus.RUNNING;
+        run.startedAt   = OffsetDateTime.now();
+        run.heartbeatAt = run.startedAt;
+        run.ownerId     = UUID.randomUUID();
+        return run;
+    }
+
+    /**
+     * Takes over a FAILED run or a RUNNING run whose owner stopped heartbeating.
+     */
+    public void resume() {
+        this.status      = ScreeningRunStatus.RUNNING;
+        this.heartbeatAt = OffsetDateTime.now();
+        this.ownerId     = UUID.randomUUID();
+        this.finishedAt  = null;
+        this.lastError   = null;
+    }
+
+    public void recordPage(UUID cursorPatientId, int scanned, int changed, int analyzed, List<UUID> failed,
+                           int requests, long tokens) {
+        Set<UUID> retry = new LinkedHashSet<>(List.of(retryPatientIds));
+        retry.addAll(failed);
+        this.cursorPatientId   = cursorPatientId;
+        this.patientsScanned  += scanned;
+        this.patientsChanged  += changed;
+        this.patientsAnalyzed += analyzed;
+        this.modelRequests    += requests;
+        this.promptTokens     += tokens;
+        setRetryPatientIds(retry);
+    }
+
+    /**
+     * Records a retry of patients from the retry list. Those not failed again leave it: analyzed,
+     * analyzed meanwhile by another path, or no longer active.
+     */
+    public void recordRetryPage(List<UUID> retried, int analyzed, List<UUID> failed, int requests, long tokens) {
+        Set<UUID> retry = new LinkedHashSet<>(List.of(retryPatientIds));
+        retried.forEach(retry::remove);
+        retry.addAll(failed);
+        this.patientsAnalyzed += analyzed;
+        this.modelRequests    += requests;
+        this.promptTokens     += tokens;
+        setRetryPatientIds(retry);
+    }
+
+    private void setRetryPatientIds(Set<UUID> retry) {
+        this.retryPatientIds = retry.toArray(UUID[]::new);
+        this.patientsFailed  = retryPatientIds.length;
+        this.heartbeatAt     = OffsetDateTime.now();
+    }
+
+    public void complete() {
+        this.status     = ScreeningRunStatus.COMPLETED;
+        this.finishedAt = OffsetDateTime.now();
+    }
+
+    public void fail(String error) {
+        this.status     = ScreeningRunStatus.FAILED;
+        this.finishedAt = OffsetDateTime.now();
+        this.lastError  = error;
+    }
+
+    public boolean isOwnedBy(UUID owner) {
+        return status == ScreeningRunStatus.RUNNING && owner.equals(ownerId);
+    }
+
+    public boolean isHeartbeatOlderThan(OffsetDateTime threshold) {
+        return heartbeatAt.isBefore(threshold);
+    }
+
+    public UUID getId()                    { return id; }
+    public ScreeningRunStatus getStatus()  { return status; }
+    public UUID getCursorPatientId()       { return cursorPatientId; }
+    public int getPatientsScanned()        { return patientsScanned; }
+    public int getPatientsChanged()        { return patientsChanged; }
+    public int getPatientsAnalyzed()       { return patientsAnalyzed; }
+    public int getPatientsFailed()         { return patientsFailed; }
+    public List<UUID> getRetryPatientIds() { return List.of(retryPatientIds); }
+    public int getModelRequests()          { return modelRequests; }
+    public long getPromptTokens()          { return promptTokens; }
+    public OffsetDateTime getStartedAt()   { return startedAt; }
+    public OffsetDateTime getHeartbeatAt() { return heartbeatAt; }
+    public UUID getOwnerId()               { return ownerId; }
+    public OffsetDateTime getFinishedAt()  { return finishedAt; }
+    public String getLastError()           { return lastError; }
+}
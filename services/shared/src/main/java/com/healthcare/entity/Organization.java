@@ -4,12 +4,15 @@ import com.healthcare.constants.AppConstants;
 import com.healthcare.constants.DatabaseConstants;
 import com.healthcare.exception.ValidationException;
 import com.healthcare.utils.ValidationUtils;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -24,6 +27,8 @@ import java.util.UUID;
            @Index(name = DatabaseConstants.INDEX_ORGANIZATIONS_NAME,
                   columnList = DatabaseConstants.COL_NAME)
        })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DatabaseConstants.CACHE_REGION_ORGANIZATIONS)
 public class Organization extends BaseEntity {
     private static final String FIELD_NAME = "Name";
     private static final String FIELD_ORGANIZATION_NAME = "Organization Name";
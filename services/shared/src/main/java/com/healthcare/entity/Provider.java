@@ -7,6 +7,7 @@ import com.healthcare.constants.ValidationPatterns;
 import com.healthcare.enums.Gender;
 import com.healthcare.exception.ValidationException;
 import com.healthcare.utils.ValidationUtils;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -20,6 +21,8 @@ import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
@@ -43,6 +46,8 @@ import java.util.UUID;
            @Index(name = DatabaseConstants.INDEX_PROVIDERS_NAME,
                   columnList = DatabaseConstants.COL_NAME + "," + DatabaseConstants.COL_ORGANIZATION_ID)
        })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DatabaseConstants.CACHE_REGION_PROVIDERS)
 public class Provider extends BaseEntity {
 
     private static final String FIELD_PROVIDER_NAME  = "Provider name";
@@ -0,0 +1,11 @@
+package com.healthcare.enums;
+
+/**
+ * Lifecycle of a pending AI re-analysis trigger (ai_analysis_triggers outbox row).
+ * Completed triggers are deleted, so there is no DONE state.
+ */
+public enum AiTriggerStatus {
+    PENDING,
+    PROCESSING,
+    FAILED
+}
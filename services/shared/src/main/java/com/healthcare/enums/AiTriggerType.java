@@ -4,5 +4,6 @@ public enum AiTriggerType {
     CONDITION_ADDED,
     ALLERGY_ADDED,
     MEDICATION_UPDATED,
-    MANUAL
+    MANUAL,
+    SCHEDULED_SCREENING
 }
@@ -0,0 +1,11 @@
+package com.healthcare.enums;
+
+/**
+ * Lifecycle of a batch AI screening sweep (ai_screening_runs row).
+ * RUNNING and FAILED runs are resumed from their cursor; COMPLETED runs are final.
+ */
+public enum ScreeningRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
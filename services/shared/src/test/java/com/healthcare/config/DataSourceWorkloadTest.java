@@ -0,0 +1,50 @@
+package com.healthcare.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DataSourceWorkload
+ */
+class DataSourceWorkloadTest {
+
+    @Test
+    void testCurrentIsDefaultOutsideAnyWorkload() {
+        assertEquals(DataSourceWorkload.DEFAULT, DataSourceWorkload.current());
+    }
+
+    @Test
+    void testNestedCallsRestoreTheOuterWorkload() {
+        String inner = DataSourceWorkload.call("import", () -> {
+            assertEquals("import", DataSourceWorkload.current());
+            return DataSourceWorkload.call("ai-job", DataSourceWorkload::current);
+        });
+
+        assertEquals("ai-job", inner);
+        assertEquals(DataSourceWorkload.DEFAULT, DataSourceWorkload.current());
+    }
+
+    @Test
+    void testWorkloadIsRestoredWhenBodyThrows() {
+        assertThrows(IllegalStateException.class, () -> DataSourceWorkload.run("import", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(DataSourceWorkload.DEFAULT, DataSourceWorkload.current());
+    }
+
+    @Test
+    void testDecoratorRunsTaskUnderWorkload() throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        Runnable task = DataSourceWorkload.decorator("ai-job").decorate(() -> seen.set(DataSourceWorkload.current()));
+
+        Thread worker = new Thread(task);
+        worker.start();
+        worker.join();
+
+        assertEquals("ai-job", seen.get());
+    }
+}
@@ -0,0 +1,88 @@
+package com.healthcare.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PinnedThreadMonitor
+ *
+ * shared compiles for Java 17, so virtual threads are started reflectively; the tests run only
+ * on the services' Java 21. From JDK 24 (JEP 491) a virtual thread no longer pins inside
+ * synchronized, so the range stops at 23.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21, max = JRE.JAVA_23)
+class PinnedThreadMonitorTest {
+
+    @Test
+    void testCountsVirtualThreadBlockingInsideSynchronized() throws Exception {
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(10);
+        monitor.start();
+        try {
+            Object lock = new Object();
+            Thread pinned = startVirtual(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            pinned.join();
+
+            awaitFlush(monitor);
+            assertTrue(monitor.pinnedCount() > 0);
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    void testIgnoresVirtualThreadBlockingOnLock() throws Exception {
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(10);
+        monitor.start();
+        try {
+            ReentrantLock lock = new ReentrantLock();
+            Thread unmounted = startVirtual(() -> {
+                lock.lock();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    lock.unlock();
+                }
+            });
+            unmounted.join();
+
+            awaitFlush(monitor);
+            assertEquals(0, monitor.pinnedCount());
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    /**
+     * The event is committed before join() returns, so it is in the buffer by now; the second
+     * flush after this point is the first one guaranteed to have started after it.
+     */
+    private static void awaitFlush(PinnedThreadMonitor monitor) throws InterruptedException {
+        CountDownLatch flushes = new CountDownLatch(2);
+        monitor.onFlush(flushes::countDown);
+        assertTrue(flushes.await(30, TimeUnit.SECONDS), "JFR stream never flushed");
+    }
+
+    /** Thread.ofVirtual().start(task) */
+    private static Thread startVirtual(Runnable task) throws ReflectiveOperationException {
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        return (Thread) Class.forName("java.lang.Thread$Builder")
+                .getMethod("start", Runnable.class).invoke(builder, task);
+    }
+}
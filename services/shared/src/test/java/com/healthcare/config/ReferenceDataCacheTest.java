@@ -0,0 +1,68 @@
+package com.healthcare.config;
+
+import com.healthcare.constants.DatabaseConstants;
+import com.healthcare.entity.Organization;
+import com.healthcare.entity.Provider;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReferenceDataCache
+ */
+class ReferenceDataCacheTest {
+
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final SessionFactory       sessionFactory       = mock(SessionFactory.class);
+    private final Cache                entityCache          = mock(Cache.class);
+    private final org.hibernate.Cache  hibernateCache       = mock(org.hibernate.Cache.class);
+    private final JdbcTemplate         jdbcTemplate         = mock(JdbcTemplate.class);
+
+    private final ReferenceDataCache cache = new ReferenceDataCache(entityManagerFactory, jdbcTemplate);
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(hibernateCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testChangedNotifiesOtherServicesAndEvictsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.changed();
+
+        verify(jdbcTemplate).queryForList("SELECT pg_notify(?, '')", DatabaseConstants.CHANNEL_REFERENCE_DATA_CHANGED);
+        verifyNoInteractions(entityCache, hibernateCache);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(entityCache).evict(Organization.class);
+        verify(entityCache).evict(Provider.class);
+        verify(hibernateCache).evictQueryRegion(DatabaseConstants.CACHE_REGION_REFERENCE_QUERIES);
+    }
+
+    @Test
+    void testChangedOutsideTransactionEvictsImmediately() {
+        cache.changed();
+
+        verify(entityCache).evict(Provider.class);
+        verify(hibernateCache).evictQueryRegion(DatabaseConstants.CACHE_REGION_REFERENCE_QUERIES);
+    }
+}
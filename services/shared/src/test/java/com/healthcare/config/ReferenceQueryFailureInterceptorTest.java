@@ -0,0 +1,60 @@
+package com.healthcare.config;
+
+import com.healthcare.dao.OrganizationDao;
+import com.healthcare.dao.PatientDao;
+import com.healthcare.dao.ProviderDao;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReferenceQueryFailureInterceptor
+ */
+class ReferenceQueryFailureInterceptorTest {
+
+    private final ReferenceDataCache cache      = mock(ReferenceDataCache.class);
+    private final MethodInvocation   invocation = mock(MethodInvocation.class);
+
+    private final ReferenceQueryFailureInterceptor interceptor =
+            new ReferenceQueryFailureInterceptor(() -> cache, "ProviderDao");
+
+    @BeforeEach
+    void setUp() throws Throwable {
+        when(invocation.getMethod()).thenReturn(ProviderDao.class.getMethod("findByAuthId", UUID.class));
+    }
+
+    @Test
+    void testLeavesCacheAloneOnSuccess() throws Throwable {
+        when(invocation.proceed()).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), interceptor.invoke(invocation));
+
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    void testEvictsQueriesAndRethrowsOnFailure() throws Throwable {
+        DataAccessResourceFailureException failure =
+                new DataAccessResourceFailureException("Connection is not available, request timed out after 3000ms.");
+        when(invocation.proceed()).thenThrow(failure);
+
+        assertSame(failure, assertThrows(DataAccessResourceFailureException.class, () -> interceptor.invoke(invocation)));
+
+        verify(cache).evictQueries();
+        verify(cache, never()).evictLocal();
+    }
+
+    @Test
+    void testOnlyDaosWithReferenceQueriesAreWrapped() {
+        assertTrue(ReferenceCacheConfig.hasReferenceQueries(ProviderDao.class));
+        assertTrue(ReferenceCacheConfig.hasReferenceQueries(OrganizationDao.class));
+        assertFalse(ReferenceCacheConfig.hasReferenceQueries(PatientDao.class));
+    }
+}
@@ -0,0 +1,66 @@
+package com.healthcare.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReplicaLagMonitor
+ */
+class ReplicaLagMonitorTest {
+
+    private final DataSource replica    = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final Statement  statement  = mock(Statement.class);
+    private final ResultSet  lag        = mock(ResultSet.class);
+
+    private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, 1_000);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenReturn(lag);
+    }
+
+    @Test
+    void testUnavailableUntilFirstCheck() {
+        assertFalse(monitor.isAvailable());
+        assertEquals(-1, monitor.lagMs());
+    }
+
+    @Test
+    void testAvailableOnlyWhileLagWithinLimit() throws Exception {
+        when(lag.getLong(1)).thenReturn(200L, 4_000L, 900L);
+
+        monitor.check();
+        assertTrue(monitor.isAvailable());
+
+        monitor.check();
+        assertFalse(monitor.isAvailable());
+        assertEquals(4_000, monitor.lagMs());
+
+        monitor.check();
+        assertTrue(monitor.isAvailable());
+        verify(connection, times(3)).close();
+    }
+
+    @Test
+    void testUnavailableWhenCheckFails() throws Exception {
+        when(lag.getLong(1)).thenReturn(0L);
+        monitor.check();
+
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        monitor.check();
+
+        assertFalse(monitor.isAvailable());
+    }
+}
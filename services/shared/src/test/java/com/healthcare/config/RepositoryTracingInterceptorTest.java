@@ -0,0 +1,63 @@
+package com.healthcare.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RepositoryTracingInterceptor
+ */
+class RepositoryTracingInterceptorTest {
+
+    private final Tracer           tracer     = mock(Tracer.class);
+    private final Span             parent     = mock(Span.class);
+    private final Span             span       = mock(Span.class, RETURNS_SELF);
+    private final MethodInvocation invocation = mock(MethodInvocation.class);
+
+    private final RepositoryTracingInterceptor interceptor = new RepositoryTracingInterceptor(() -> tracer, "ProviderDao");
+
+    @BeforeEach
+    void setUp() throws Throwable {
+        when(invocation.getMethod()).thenReturn(List.class.getMethod("size"));
+        when(invocation.proceed()).thenReturn(3);
+        when(tracer.nextSpan()).thenReturn(span);
+        when(tracer.withSpan(span)).thenReturn(mock(Tracer.SpanInScope.class));
+    }
+
+    @Test
+    void testWrapsCallInSpanNamedAfterDaoAndMethod() throws Throwable {
+        when(tracer.currentSpan()).thenReturn(parent);
+
+        assertEquals(3, interceptor.invoke(invocation));
+
+        verify(span).name("ProviderDao.size");
+        verify(span).start();
+        verify(span).end();
+    }
+
+    @Test
+    void testRecordsErrorAndRethrows() throws Throwable {
+        when(tracer.currentSpan()).thenReturn(parent);
+        IllegalStateException failure = new IllegalStateException("connection refused");
+        when(invocation.proceed()).thenThrow(failure);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> interceptor.invoke(invocation)));
+
+        verify(span).error(failure);
+        verify(span).end();
+    }
+
+    @Test
+    void testStartsNoSpanOutsideATrace() throws Throwable {
+        assertEquals(3, interceptor.invoke(invocation));
+
+        verify(tracer, never()).nextSpan();
+    }
+}
@@ -0,0 +1,51 @@
+package com.healthcare.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SloMeterFilter
+ */
+class SloMeterFilterTest {
+
+    private static final DistributionStatisticConfig UNSET = DistributionStatisticConfig.builder().build();
+
+    private final SloMeterFilter filter = new SloMeterFilter(new MetricsProperties());
+
+    @Test
+    void testHotPathTimerGetsHistogramPercentilesAndSlo() {
+        DistributionStatisticConfig config = filter.configure(timer("healthcare.jwt.verify"), UNSET);
+
+        assertTrue(config.isPercentileHistogram());
+        assertArrayEquals(new double[]{0.5, 0.95, 0.99}, config.getPercentiles());
+        assertEquals(Duration.ofMillis(50).toNanos(), config.getServiceLevelObjectiveBoundaries()[0]);
+    }
+
+    @Test
+    void testOtherMetersAreLeftAlone() {
+        assertSame(UNSET, filter.configure(timer("jvm.gc.pause"), UNSET));
+
+        Meter.Id counter = new Meter.Id("healthcare.import.rows", Tags.empty(), null, null, Meter.Type.COUNTER);
+        assertSame(UNSET, filter.configure(counter, UNSET));
+    }
+
+    @Test
+    void testSettingsOnTheMeterWin() {
+        DistributionStatisticConfig own = DistributionStatisticConfig.builder().percentilesHistogram(false).build();
+
+        DistributionStatisticConfig config = filter.configure(timer("gemini.call.latency"), own);
+
+        assertFalse(config.isPercentileHistogram());
+        assertArrayEquals(new double[]{0.5, 0.95, 0.99}, config.getPercentiles());
+    }
+
+    private static Meter.Id timer(String name) {
+        return new Meter.Id(name, Tags.empty(), null, null, Meter.Type.TIMER);
+    }
+}
@@ -0,0 +1,63 @@
+package com.healthcare.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SqlStatementObserver
+ */
+class SqlStatementObserverTest {
+
+    private final SimpleMeterRegistry  registry = new SimpleMeterRegistry();
+    private final SqlStatementObserver observer = new SqlStatementObserver(registry, properties(100));
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementObserver.endRequest();
+    }
+
+    @Test
+    void testCountsStatementsOfCurrentRequestOnly() {
+        observer.inspect("select p1_0.id from patients p1_0");
+
+        SqlStatementObserver.beginRequest();
+        observer.inspect("select p1_0.id from patients p1_0 where p1_0.id=?");
+        observer.inspect("select p1_0.id from patients p1_0 where p1_0.id=?");
+
+        assertEquals(2, SqlStatementObserver.endRequest());
+        assertEquals(0, SqlStatementObserver.endRequest());
+    }
+
+    @Test
+    void testTimesStatementByKindAndCountsSlowOnes() {
+        observer.inspect("insert into audit_logs (action) values (?)");
+        observer.executed(TimeUnit.MILLISECONDS.toNanos(5));
+        observer.inspect("select e1_0.id from encounters e1_0");
+        observer.executed(TimeUnit.MILLISECONDS.toNanos(150));
+
+        assertEquals(1, registry.get("healthcare.sql.statements").tag("kind", "insert").timer().count());
+        assertEquals(1, registry.get("healthcare.sql.statements").tag("kind", "select").timer().count());
+        assertEquals(1.0, registry.get("healthcare.sql.slow").counter().count());
+    }
+
+    @Test
+    void testKind() {
+        assertEquals("select", SqlStatementObserver.kind("  SELECT 1"));
+        assertEquals("select", SqlStatementObserver.kind("with recent as (select 1) select * from recent"));
+        assertEquals("update", SqlStatementObserver.kind("update providers set auth_id=? where id=?"));
+        assertEquals("other", SqlStatementObserver.kind("LISTEN reference_data_changed"));
+        assertEquals("other", SqlStatementObserver.kind(null));
+    }
+
+    private static SqlObservabilityProperties properties(long slowThresholdMs) {
+        SqlObservabilityProperties properties = new SqlObservabilityProperties();
+        properties.setSlowThresholdMs(slowThresholdMs);
+        properties.setSlowLogSampleRate(0.0);
+        return properties;
+    }
+}
@@ -0,0 +1,137 @@
+package com.healthcare.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WorkloadRoutingDataSource
+ */
+class WorkloadRoutingDataSourceTest {
+
+    private final DataSource defaultPool       = mock(DataSource.class);
+    private final DataSource importPool        = mock(DataSource.class);
+    private final Connection defaultConnection = mock(Connection.class);
+    private final Connection importConnection  = mock(Connection.class);
+    private final DataSource replicaPool       = mock(DataSource.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private WorkloadRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(defaultPool.getConnection()).thenReturn(defaultConnection);
+        when(importPool.getConnection()).thenReturn(importConnection);
+
+        routing = new WorkloadRoutingDataSource();
+        routing.setTargetDataSources(Map.of(DataSourceWorkload.DEFAULT, defaultPool, "import", importPool));
+        routing.setDefaultTargetDataSource(defaultPool);
+        routing.afterPropertiesSet();
+    }
+
+    @Test
+    void testRoutesToPoolOfCurrentWorkload() throws Exception {
+        assertSame(defaultConnection, routing.getConnection());
+        assertSame(importConnection, DataSourceWorkload.call("import", () -> connection(routing)));
+    }
+
+    @Test
+    void testFallsBackToDefaultPoolForUnknownWorkload() throws Exception {
+        assertSame(defaultConnection, DataSourceWorkload.call("reporting", () -> connection(routing)));
+    }
+
+    @Test
+    void testLazyProxyPicksPoolAtFirstStatement() throws Exception {
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+        clearInvocations(defaultPool);
+
+        // a transaction begins (connection handle taken) before the workload is set
+        Connection handle = lazy.getConnection();
+        DataSourceWorkload.run("import", () -> {
+            try {
+                handle.prepareStatement("SELECT 1");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        verify(importConnection).prepareStatement("SELECT 1");
+        verify(defaultPool, never()).getConnection();
+    }
+
+    @Test
+    void testReadOnlyTransactionOfDefaultWorkloadUsesReplica() throws Exception {
+        ReplicaLagMonitor replicaLag = withReplica(0);
+
+        assertSame(replicaConnection, readOnly(() -> connection(routing)));
+        assertSame(importConnection, readOnly(() -> DataSourceWorkload.call("import", () -> connection(routing))));
+        assertSame(defaultConnection, routing.getConnection());
+        assertEquals(0, replicaLag.fallbacks());
+    }
+
+    @Test
+    void testReadOnlyTransactionFallsBackToPrimaryWhileReplicaLags() throws Exception {
+        ReplicaLagMonitor replicaLag = withReplica(5_000);
+
+        assertSame(defaultConnection, readOnly(() -> connection(routing)));
+        verify(replicaPool, never()).getConnection();
+        assertEquals(1, replicaLag.fallbacks());
+    }
+
+    @Test
+    void testReadOnlyTransactionFallsBackToPrimaryWhenReplicaBorrowFails() throws Exception {
+        ReplicaLagMonitor replicaLag = withReplica(0);
+        when(replicaPool.getConnection()).thenThrow(new SQLException("Connection is not available"));
+
+        assertSame(defaultConnection, readOnly(() -> connection(routing)));
+        assertFalse(replicaLag.isAvailable());
+        assertEquals(1, replicaLag.fallbacks());
+    }
+
+    /**
+     * A replica whose last lag check, against a 1 s limit, measured {@code lagMs}.
+     */
+    private ReplicaLagMonitor withReplica(long lagMs) throws Exception {
+        Statement statement = mock(Statement.class);
+        ResultSet lag       = mock(ResultSet.class);
+        when(replicaPool.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenReturn(lag);
+        when(lag.getLong(1)).thenReturn(lagMs);
+
+        ReplicaLagMonitor replicaLag = new ReplicaLagMonitor(replicaPool, 1_000);
+        replicaLag.check();
+        clearInvocations(replicaPool);
+        routing.setReplica(replicaPool, replicaLag);
+        return replicaLag;
+    }
+
+    private static <T> T readOnly(Supplier<T> body) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return body.get();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private static Connection connection(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
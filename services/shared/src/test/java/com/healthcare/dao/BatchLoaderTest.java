@@ -0,0 +1,89 @@
+package com.healthcare.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link BatchLoader} — the query is a recording lambda, no DB required.
+ */
+class BatchLoaderTest {
+
+    private final List<List<Integer>> queries = new ArrayList<>();
+
+    /** Values are the key as a string; keys above 100 do not exist. */
+    private BatchLoader<Integer, String> loader(int maxBatchSize) {
+        return new BatchLoader<>(keys -> {
+            queries.add(List.copyOf(keys));
+            return keys.stream().filter(k -> k <= 100).map(String::valueOf).toList();
+        }, Integer::valueOf, maxBatchSize);
+    }
+
+    @Test
+    void loadMany_fetchesAllKeysInOneQuery_inTheOrderGiven() {
+        BatchLoader<Integer, String> loader = loader(100);
+
+        Map<Integer, String> values = loader.loadMany(List.of(3, 1, 2));
+
+        assertThat(values).containsExactly(Map.entry(3, "3"), Map.entry(1, "1"), Map.entry(2, "2"));
+        assertThat(queries).containsExactly(List.of(3, 1, 2));
+    }
+
+    @Test
+    void deferredKeys_areFetchedTogether_onFirstGet() {
+        BatchLoader<Integer, String> loader = loader(100);
+
+        Supplier<Optional<String>> first  = loader.defer(1);
+        Supplier<Optional<String>> second = loader.defer(2);
+        assertThat(queries).isEmpty();
+
+        assertThat(first.get()).contains("1");
+        assertThat(second.get()).contains("2");
+        assertThat(queries).containsExactly(List.of(1, 2));
+    }
+
+    @Test
+    void loadedKeys_areNotQueriedAgain_includingMisses() {
+        BatchLoader<Integer, String> loader = loader(100);
+        loader.loadMany(List.of(1, 200));
+
+        assertThat(loader.load(1)).contains("1");
+        assertThat(loader.load(200)).isEmpty();
+        loader.loadMany(List.of(1, 2, 200));
+
+        assertThat(queries).containsExactly(List.of(1, 200), List.of(2));
+    }
+
+    @Test
+    void loadMany_leavesOutMissingAndNullKeys() {
+        BatchLoader<Integer, String> loader = loader(100);
+        List<Integer> keys = new ArrayList<>(List.of(1, 200));
+        keys.add(null);
+
+        assertThat(loader.loadMany(keys)).containsOnlyKeys(1);
+        assertThat(queries).containsExactly(List.of(1, 200));
+    }
+
+    @Test
+    void primedValues_areNotQueried() {
+        BatchLoader<Integer, String> loader = loader(100);
+        loader.prime("7");
+
+        assertThat(loader.load(7)).contains("7");
+        assertThat(queries).isEmpty();
+    }
+
+    @Test
+    void largeBatches_areSplitByMaxBatchSize() {
+        BatchLoader<Integer, String> loader = loader(2);
+
+        assertThat(loader.loadMany(List.of(1, 2, 3, 4, 5))).hasSize(5);
+        assertThat(queries).containsExactly(List.of(1, 2), List.of(3, 4), List.of(5));
+    }
+}
@@ -0,0 +1,103 @@
+package com.healthcare.dao;
+
+import com.healthcare.entity.Provider;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link BatchLoaders} — mocked DAO and Hibernate session, transaction
+ * synchronization without a DB.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchLoadersTest {
+
+    @Mock private PatientDao    patientDao;
+    @Mock private EntityManager entityManager;
+    @Mock private Session       session;
+    @Mock private MultiIdentifierLoadAccess<Provider> providerLoad;
+
+    private final UUID providerId = UUID.randomUUID();
+
+    private BatchLoaders loaders;
+    private Provider     provider;
+
+    @BeforeEach
+    void setUp() {
+        loaders  = new BatchLoaders(patientDao, entityManager);
+        provider = mock(Provider.class);
+        when(provider.getId()).thenReturn(providerId);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.byMultipleIds(Provider.class)).thenReturn(providerLoad);
+        when(providerLoad.with(CacheMode.NORMAL)).thenReturn(providerLoad);
+        when(providerLoad.enableSessionCheck(true)).thenReturn(providerLoad);
+        when(providerLoad.multiLoad(anyList())).thenReturn(List.of(provider));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(loaders);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loaders_areSharedWithinATransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThat(loaders.providers().load(providerId)).isPresent();
+        assertThat(loaders.providers().load(providerId)).isPresent();
+
+        verify(providerLoad, times(1)).multiLoad(List.of(providerId));
+    }
+
+    @Test
+    void loaders_areDroppedWhenTheTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        loaders.providers().load(providerId);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(TransactionSynchronizationManager.getResource(loaders)).isNull();
+        loaders.providers().load(providerId);
+        verify(providerLoad, times(2)).multiLoad(List.of(providerId));
+    }
+
+    @Test
+    void multiLoad_missesAreDropped() {
+        UUID missing = UUID.randomUUID();
+        when(providerLoad.multiLoad(anyList())).thenReturn(Arrays.asList(provider, null));
+
+        assertThat(loaders.providers().loadMany(List.of(providerId, missing))).containsOnlyKeys(providerId);
+    }
+
+    @Test
+    void loaders_areNotShared_outsideATransaction() {
+        loaders.providers().load(providerId);
+        loaders.providers().load(providerId);
+
+        verify(providerLoad, times(2)).multiLoad(List.of(providerId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.healthcare.entity;
+
+import com.healthcare.enums.AiTriggerStatus;
+import com.healthcare.enums.AiTriggerType;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AiAnalysisTrigger} — per-patient AI re-analysis outbox row.
+ */
+class AiAnalysisTriggerEntityTest {
+
+    @Test
+    void constructor_setsFields_andStartsPending() {
+        UUID patientId   = UUID.randomUUID();
+        UUID providerId  = UUID.randomUUID();
+        UUID encounterId = UUID.randomUUID();
+
+        AiAnalysisTrigger trigger = new AiAnalysisTrigger(
+                patientId, AiTriggerType.CONDITION_ADDED, "E11", providerId, encounterId);
+
+        assertThat(trigger.getPatientId()).isEqualTo(patientId);
+        assertThat(trigger.getTriggerType()).isEqualTo(AiTriggerType.CONDITION_ADDED);
+        assertThat(trigger.getTriggerCode()).isEqualTo("E11");
+        assertThat(trigger.getTriggeredBy()).isEqualTo(providerId);
+        assertThat(trigger.getEncounterId()).isEqualTo(encounterId);
+        assertThat(trigger.getStatus()).isEqualTo(AiTriggerStatus.PENDING);
+        assertThat(trigger.getMarkedAt()).isNotNull();
+        assertThat(trigger.getAttempts()).isZero();
+        assertThat(trigger.getLockExpiresAt()).isNull();
+        assertThat(trigger.getNextAttemptAt()).isNull();
+        assertThat(trigger.getLastError()).isNull();
+    }
+}
@@ -0,0 +1,107 @@
+package com.healthcare.entity;
+
+import com.healthcare.enums.ScreeningRunStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AiScreeningRun} — restartable batch AI screening sweep.
+ */
+class AiScreeningRunEntityTest {
+
+    @Test
+    void start_createsRunningRun_withoutCursor() {
+        AiScreeningRun run = AiScreeningRun.start();
+
+        assertThat(run.getId()).isNotNull();
+        assertThat(run.getStatus()).isEqualTo(ScreeningRunStatus.RUNNING);
+        assertThat(run.getCursorPatientId()).isNull();
+        assertThat(run.getStartedAt()).isNotNull();
+        assertThat(run.getHeartbeatAt()).isEqualTo(run.getStartedAt());
+        assertThat(run.getFinishedAt()).isNull();
+    }
+
+    @Test
+    void recordPage_advancesCursor_andAccumulatesCounters() {
+        AiScreeningRun run = AiScreeningRun.start();
+        UUID first  = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID failed = UUID.randomUUID();
+
+        run.recordPage(first, 200, 12, 10, List.of(failed, UUID.randomUUID()), 3, 4500);
+        run.recordPage(second, 150, 5, 5, List.of(), 1, 1500);
+
+        assertThat(run.getCursorPatientId()).isEqualTo(second);
+        assertThat(run.getPatientsScanned()).isEqualTo(350);
+        assertThat(run.getPatientsChanged()).isEqualTo(17);
+        assertThat(run.getPatientsAnalyzed()).isEqualTo(15);
+        assertThat(run.getPatientsFailed()).isEqualTo(2);
+        assertThat(run.getRetryPatientIds()).hasSize(2).contains(failed);
+        assertThat(run.getModelRequests()).isEqualTo(4);
+        assertThat(run.getPromptTokens()).isEqualTo(6000);
+    }
+
+    @Test
+    void recordRetryPage_removesRetriedPatients_andKeepsThoseThatFailedAgain() {
+        AiScreeningRun run = AiScreeningRun.start();
+        UUID fixed  = UUID.randomUUID();
+        UUID broken = UUID.randomUUID();
+        run.recordPage(UUID.randomUUID(), 200, 12, 10, List.of(fixed, broken), 3, 4500);
+
+        run.recordRetryPage(List.of(fixed, broken), 1, List.of(broken), 1, 800);
+
+        assertThat(run.getRetryPatientIds()).containsExactly(broken);
+        assertThat(run.getPatientsFailed()).isEqualTo(1);
+        assertThat(run.getPatientsAnalyzed()).isEqualTo(11);
+        assertThat(run.getModelRequests()).isEqualTo(4);
+        assertThat(run.getPromptTokens()).isEqualTo(5300);
+    }
+
+    @Test
+    void resume_keepsCursor_andClearsFailure() {
+        AiScreeningRun run = AiScreeningRun.start();
+        UUID cursor = UUID.randomUUID();
+        run.recordPage(cursor, 200, 0, 0, List.of(), 0, 0);
+        run.fail("Gemini down");
+
+        run.resume();
+
+        assertThat(run.getStatus()).isEqualTo(ScreeningRunStatus.RUNNING);
+        assertThat(run.getCursorPatientId()).isEqualTo(cursor);
+        assertThat(run.getLastError()).isNull();
+        assertThat(run.getFinishedAt()).isNull();
+    }
+
+    @Test
+    void resume_issuesNewOwner_soThePreviousSweepNoLongerOwnsTheRun() {
+        AiScreeningRun run = AiScreeningRun.start();
+        UUID previous = run.getOwnerId();
+
+        run.resume();
+
+        assertThat(run.isOwnedBy(previous)).isFalse();
+        assertThat(run.isOwnedBy(run.getOwnerId())).isTrue();
+    }
+
+    @Test
+    void isOwnedBy_isFalse_onceRunFinished() {
+        AiScreeningRun run = AiScreeningRun.start();
+
+        run.complete();
+
+        assertThat(run.isOwnedBy(run.getOwnerId())).isFalse();
+    }
+
+    @Test
+    void isHeartbeatOlderThan_comparesLastProgress() {
+        AiScreeningRun run = AiScreeningRun.start();
+
+        assertThat(run.isHeartbeatOlderThan(OffsetDateTime.now().minusMinutes(10))).isFalse();
+        assertThat(run.isHeartbeatOlderThan(OffsetDateTime.now().plusMinutes(1))).isTrue();
+    }
+}
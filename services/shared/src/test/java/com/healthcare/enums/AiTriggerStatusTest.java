@@ -0,0 +1,26 @@
+package com.healthcare.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AiTriggerStatus enum
+ */
+class AiTriggerStatusTest {
+
+    @Test
+    void testAiTriggerStatusValues() {
+        assertThat(AiTriggerStatus.values()).hasSize(3);
+        assertThat(AiTriggerStatus.PENDING).isNotNull();
+        assertThat(AiTriggerStatus.PROCESSING).isNotNull();
+        assertThat(AiTriggerStatus.FAILED).isNotNull();
+    }
+
+    @Test
+    void testAiTriggerStatusValueOf() {
+        assertThat(AiTriggerStatus.valueOf("PENDING")).isEqualTo(AiTriggerStatus.PENDING);
+        assertThat(AiTriggerStatus.valueOf("PROCESSING")).isEqualTo(AiTriggerStatus.PROCESSING);
+        assertThat(AiTriggerStatus.valueOf("FAILED")).isEqualTo(AiTriggerStatus.FAILED);
+    }
+}
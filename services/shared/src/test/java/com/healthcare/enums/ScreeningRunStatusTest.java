@@ -0,0 +1,26 @@
+package com.healthcare.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ScreeningRunStatus enum
+ */
+class ScreeningRunStatusTest {
+
+    @Test
+    void testScreeningRunStatusValues() {
+        assertThat(ScreeningRunStatus.values()).hasSize(3);
+        assertThat(ScreeningRunStatus.RUNNING).isNotNull();
+        assertThat(ScreeningRunStatus.COMPLETED).isNotNull();
+        assertThat(ScreeningRunStatus.FAILED).isNotNull();
+    }
+
+    @Test
+    void testScreeningRunStatusValueOf() {
+        assertThat(ScreeningRunStatus.valueOf("RUNNING")).isEqualTo(ScreeningRunStatus.RUNNING);
+        assertThat(ScreeningRunStatus.valueOf("COMPLETED")).isEqualTo(ScreeningRunStatus.COMPLETED);
+        assertThat(ScreeningRunStatus.valueOf("FAILED")).isEqualTo(ScreeningRunStatus.FAILED);
+    }
+}